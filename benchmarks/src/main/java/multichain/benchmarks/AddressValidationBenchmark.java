@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import multichain.command.MultichainException;
+import multichain.command.raw.AddressCodec;
+import multichain.command.raw.AddressValidator;
+
+/**
+ * Throughput of the local validation of addresses, one at a time and as a
+ * batch validated on all the cores.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AddressValidationBenchmark {
+
+	private static final int BATCH_SIZE = 100000;
+
+	private AddressValidator validator;
+	private List<String> addresses;
+	private String address;
+
+	@Setup
+	public void setup() {
+		validator = new AddressValidator(AddressCodec.BITCOIN);
+		Random random = new Random(42);
+		addresses = new ArrayList<String>(BATCH_SIZE);
+		byte[] hash = new byte[20];
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			random.nextBytes(hash);
+			addresses.add(AddressCodec.BITCOIN.encodePubKeyHash(hash));
+		}
+		address = addresses.get(0);
+	}
+
+	@Benchmark
+	public boolean isValid() throws MultichainException {
+		return validator.isValid(address);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public boolean[] isValidBatch() throws MultichainException {
+		return validator.isValid(addresses);
+	}
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.benchmarks;
+
+import java.util.Arrays;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Runs the JMH command line with the GC profiler enabled by default, to report
+ * the allocation rate of every benchmark along with its throughput.
+ *
+ * @version 1.0
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws Exception {
+		if (Arrays.asList(args).contains("-prof")) {
+			Main.main(args);
+		} else {
+			String[] withProfiler = Arrays.copyOf(args, args.length + 2);
+			withProfiler[args.length] = "-prof";
+			withProfiler[args.length + 1] = "gc";
+			Main.main(withProfiler);
+		}
+	}
+
+}
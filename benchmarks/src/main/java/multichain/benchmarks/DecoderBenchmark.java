@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import multichain.command.MultichainException;
+import multichain.command.raw.AddressCodec;
+import multichain.command.raw.Hex;
+import multichain.command.raw.RawTransactionBuilder;
+import multichain.command.raw.RawTransactionDecoder;
+import multichain.object.AddressBalanceAsset;
+import multichain.object.BalanceAssetBase;
+import multichain.object.TransactionRAW;
+import multichain.object.formatters.RAWTransactionFormatter;
+import multichain.object.queryobjects.TxIdVout;
+
+/**
+ * Decoding of a raw transaction with one asset transfer per output : Json of
+ * decoderawtransaction parsed by {@link RAWTransactionFormatter} against the
+ * local binary decoder. The round trip to the node, which the local decoder
+ * also saves, is not part of the measure.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecoderBenchmark {
+
+	@Param({ "1", "100", "10000" })
+	private int size;
+
+	private String json;
+	private String hex;
+	private RawTransactionDecoder decoder;
+
+	@Setup
+	public void setup() throws MultichainException {
+		JsonFixtures fixtures = new JsonFixtures(42);
+		json = fixtures.transactionRAW(size);
+
+		String issueTxid = fixtures.txid();
+		RawTransactionBuilder builder = new RawTransactionBuilder(AddressCodec.BITCOIN)
+				.defineAsset("asset0", issueTxid, 100)
+				.addInput(new TxIdVout(fixtures.txid(), 0));
+		for (int i = 0; i < size; i++) {
+			AddressBalanceAsset output = new AddressBalanceAsset();
+			output.setAddress(AddressCodec.BITCOIN.encodePubKeyHash(Hex.decode(fixtures.txid().substring(0, 40))));
+			BalanceAssetBase amount = new BalanceAssetBase();
+			amount.setName("asset0");
+			amount.setQty(1 + i);
+			output.addAsset(amount);
+			builder.addOutput(output);
+		}
+		hex = builder.build().toHex();
+		decoder = new RawTransactionDecoder(AddressCodec.BITCOIN);
+	}
+
+	@Benchmark
+	public TransactionRAW formatJson() {
+		return RAWTransactionFormatter.formatTransactionRAW(json);
+	}
+
+	@Benchmark
+	public TransactionRAW decodeBinary() throws MultichainException {
+		return decoder.decode(hex);
+	}
+
+}
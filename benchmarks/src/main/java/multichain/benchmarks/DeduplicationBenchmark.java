@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import multichain.object.StreamItem;
+import multichain.object.TransactionWallet;
+import multichain.object.formatters.FormatterCodec;
+import multichain.object.formatters.StreamFormatter;
+import multichain.object.formatters.StringInterner;
+import multichain.object.formatters.WalletTransactionFormatter;
+
+/**
+ * Cost of the deduplicating mode of {@link FormatterCodec} on the formatters,
+ * with and without it : throughput and allocation rate of the parsing.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeduplicationBenchmark {
+
+	@Param({ "100", "10000" })
+	private int size;
+
+	@Param({ "false", "true" })
+	private boolean deduplicate;
+
+	private String streamItems;
+	private String walletTransactions;
+
+	@Setup
+	public void setup() {
+		JsonFixtures fixtures = new JsonFixtures(42);
+		streamItems = fixtures.streamItemList(size);
+		walletTransactions = fixtures.walletTransactionList(size);
+		if (deduplicate) {
+			FormatterCodec.enableDeduplication(new StringInterner());
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		FormatterCodec.disableDeduplication();
+	}
+
+	@Benchmark
+	public List<StreamItem> streamItemList() {
+		return StreamFormatter.formatStreamItemList(streamItems);
+	}
+
+	@Benchmark
+	public List<TransactionWallet> walletTransactionList() {
+		return WalletTransactionFormatter.formatListTransactionWallet(walletTransactions);
+	}
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import multichain.object.Address;
+import multichain.object.BalanceAsset;
+import multichain.object.Block;
+import multichain.object.MultiBalance;
+import multichain.object.Permission;
+import multichain.object.Stream;
+import multichain.object.StreamItem;
+import multichain.object.Transaction;
+import multichain.object.TransactionRAW;
+import multichain.object.TransactionWallet;
+import multichain.object.TxOut;
+import multichain.object.formatters.AddressFormatter;
+import multichain.object.formatters.BalanceFormatter;
+import multichain.object.formatters.BlockFormatter;
+import multichain.object.formatters.GrantFormatter;
+import multichain.object.formatters.RAWTransactionFormatter;
+import multichain.object.formatters.StreamFormatter;
+import multichain.object.formatters.TransactionFormatter;
+import multichain.object.formatters.TxOutFormatter;
+import multichain.object.formatters.WalletTransactionFormatter;
+
+/**
+ * Throughput of the formatters (Json to Java objects), from a single item to
+ * 100 000 items : list entries for the list formatters, transactions of the
+ * block for {@link BlockFormatter}, outputs of the transaction for
+ * {@link RAWTransactionFormatter}, details of the transaction for
+ * {@link TransactionFormatter}, assets of the output for
+ * {@link TxOutFormatter}.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatterBenchmark {
+
+	@Param({ "1", "100", "10000", "100000" })
+	private int size;
+
+	private String streamItems;
+	private String streams;
+	private String block;
+	private String walletTransactions;
+	private String balanceAssets;
+	private String multiBalances;
+	private String transactionRAW;
+	private String transaction;
+	private String txOut;
+	private String permissions;
+	private String addresses;
+
+	@Setup
+	public void setup() {
+		JsonFixtures fixtures = new JsonFixtures(42);
+		streamItems = fixtures.streamItemList(size);
+		streams = fixtures.streamList(size);
+		block = fixtures.block(size);
+		walletTransactions = fixtures.walletTransactionList(size);
+		balanceAssets = fixtures.balanceAssetList(size);
+		multiBalances = fixtures.multiBalances(size);
+		transactionRAW = fixtures.transactionRAW(size);
+		transaction = fixtures.transaction(size);
+		txOut = fixtures.txOut(size);
+		permissions = fixtures.permissionList(size);
+		addresses = fixtures.addressList(size);
+	}
+
+	@Benchmark
+	public List<StreamItem> streamItemList() {
+		return StreamFormatter.formatStreamItemList(streamItems);
+	}
+
+	@Benchmark
+	public List<Stream> streamList() {
+		return StreamFormatter.formatStreamList(streams);
+	}
+
+	@Benchmark
+	public Block block() {
+		return BlockFormatter.formatBlock(block);
+	}
+
+	@Benchmark
+	public List<TransactionWallet> walletTransactionList() {
+		return WalletTransactionFormatter.formatListTransactionWallet(walletTransactions);
+	}
+
+	@Benchmark
+	public List<BalanceAsset> balanceAssetList() {
+		return BalanceFormatter.formatBalanceAssets(balanceAssets);
+	}
+
+	@Benchmark
+	public List<MultiBalance> multiBalances() {
+		return BalanceFormatter.formatMultiBalances(multiBalances);
+	}
+
+	@Benchmark
+	public TransactionRAW transactionRAW() {
+		return RAWTransactionFormatter.formatTransactionRAW(transactionRAW);
+	}
+
+	@Benchmark
+	public Transaction transaction() {
+		return TransactionFormatter.formatTransaction(transaction);
+	}
+
+	@Benchmark
+	public TxOut txOut() {
+		return TxOutFormatter.formatTxOut(txOut);
+	}
+
+	@Benchmark
+	public List<Permission> permissionList() {
+		return GrantFormatter.formatPermissionList(permissions);
+	}
+
+	@Benchmark
+	public List<Address> addressList() {
+		return AddressFormatter.formatAddressesList(addresses);
+	}
+
+}
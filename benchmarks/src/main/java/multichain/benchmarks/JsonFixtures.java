@@ -0,0 +1,349 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Generates the Json returned by MultiChain for the benchmarked commands, with
+ * a given number of items. The generation is seeded, so every run of a
+ * benchmark parses exactly the same input.
+ *
+ * @version 1.0
+ */
+public class JsonFixtures {
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	private static final char[] BASE58 = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz".toCharArray();
+
+	private final Random random;
+	private final String[] addresses;
+	private final String[] assets;
+
+	public JsonFixtures(long seed) {
+		random = new Random(seed);
+		addresses = new String[64];
+		for (int i = 0; i < addresses.length; i++) {
+			addresses[i] = address();
+		}
+		assets = new String[8];
+		for (int i = 0; i < assets.length; i++) {
+			assets[i] = "asset" + i;
+		}
+	}
+
+	/**
+	 * @param size number of items
+	 * @return the output of liststreamitems / liststreamkeyitems
+	 */
+	public String streamItemList(int size) {
+		StringBuilder json = new StringBuilder(size * 320 + 2).append('[');
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"publishers\":[\"").append(anyAddress()).append("\"],")
+					.append("\"key\":\"key-").append(random.nextInt(1000)).append("\",")
+					.append("\"data\":\"").append(hex(64)).append("\",")
+					.append("\"confirmations\":").append(random.nextInt(1000)).append(',')
+					.append("\"blockhash\":\"").append(hex(32)).append("\",")
+					.append("\"blockindex\":").append(random.nextInt(100)).append(',')
+					.append("\"blocktime\":").append(1500000000 + i).append(',')
+					.append("\"txid\":\"").append(hex(32)).append("\",")
+					.append("\"vout\":0,\"valid\":true,")
+					.append("\"time\":").append(1500000000 + i).append(',')
+					.append("\"timereceived\":").append(1500000000 + i).append('}');
+		}
+		return json.append(']').toString();
+	}
+
+	/**
+	 * @param size number of streams
+	 * @return the output of liststreams
+	 */
+	public String streamList(int size) {
+		StringBuilder json = new StringBuilder(size * 200 + 2).append('[');
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"name\":\"stream").append(i).append("\",")
+					.append("\"createtxid\":\"").append(hex(32)).append("\",")
+					.append("\"streamref\":\"").append(random.nextInt(1000)).append('-').append(random.nextInt(1000))
+					.append('-').append(random.nextInt(65536)).append("\",")
+					.append("\"open\":false,\"details\":{},\"subscribed\":true,\"synchronized\":true,")
+					.append("\"items\":").append(random.nextInt(100000)).append(',')
+					.append("\"confirmed\":").append(random.nextInt(100000)).append(',')
+					.append("\"keys\":").append(random.nextInt(1000)).append(',')
+					.append("\"publishers\":").append(random.nextInt(100)).append('}');
+		}
+		return json.append(']').toString();
+	}
+
+	/**
+	 * @param size number of transactions in the block
+	 * @return the output of getblock with verbose set to true
+	 */
+	public String block(int size) {
+		StringBuilder json = new StringBuilder(size * 70 + 600)
+				.append("{\"hash\":\"").append(hex(32)).append("\",")
+				.append("\"miner\":\"").append(anyAddress()).append("\",")
+				.append("\"confirmations\":1,")
+				.append("\"size\":").append(size * 250).append(',')
+				.append("\"height\":").append(random.nextInt(1000000)).append(',')
+				.append("\"version\":4,")
+				.append("\"merkleroot\":\"").append(hex(32)).append("\",")
+				.append("\"tx\":[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append('"').append(hex(32)).append('"');
+		}
+		return json.append("],")
+				.append("\"time\":1500000000,")
+				.append("\"nonce\":").append(random.nextInt(Integer.MAX_VALUE)).append(',')
+				.append("\"bits\":\"2000ffff\",\"difficulty\":0.00000006,")
+				.append("\"chainwork\":\"").append(hex(32)).append("\",")
+				.append("\"previousblockhash\":\"").append(hex(32)).append("\"}")
+				.toString();
+	}
+
+	/**
+	 * @param size number of transactions
+	 * @return the output of listwallettransactions / listaddresstransactions
+	 */
+	public String walletTransactionList(int size) {
+		StringBuilder json = new StringBuilder(size * 600 + 2).append('[');
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"balance\":{\"amount\":0,\"assets\":[");
+			balanceAsset(json, false);
+			json.append("]},\"myaddresses\":[\"").append(anyAddress()).append("\"],")
+					.append("\"addresses\":[\"").append(anyAddress()).append("\"],")
+					.append("\"permissions\":[],\"items\":[],\"data\":[],")
+					.append("\"confirmations\":").append(random.nextInt(1000)).append(',')
+					.append("\"blockhash\":\"").append(hex(32)).append("\",")
+					.append("\"blockindex\":").append(random.nextInt(100)).append(',')
+					.append("\"blocktime\":").append(1500000000 + i).append(',')
+					.append("\"txid\":\"").append(hex(32)).append("\",")
+					.append("\"valid\":true,")
+					.append("\"time\":").append(1500000000 + i).append(',')
+					.append("\"timereceived\":").append(1500000000 + i).append('}');
+		}
+		return json.append(']').toString();
+	}
+
+	/**
+	 * @param size number of assets
+	 * @return the output of gettotalbalances / listassets
+	 */
+	public String balanceAssetList(int size) {
+		StringBuilder json = new StringBuilder(size * 300 + 2).append('[');
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			balanceAsset(json, true);
+		}
+		return json.append(']').toString();
+	}
+
+	/**
+	 * @param size number of addresses, the "total" entry excluded
+	 * @return the output of getmultibalances
+	 */
+	public String multiBalances(int size) {
+		StringBuilder json = new StringBuilder(size * 300 + 64).append('{');
+		for (int i = 0; i < size; i++) {
+			json.append('"').append(address()).append("\":[");
+			balanceAsset(json, false);
+			json.append("],");
+		}
+		json.append("\"total\":[");
+		balanceAsset(json, false);
+		return json.append("]}").toString();
+	}
+
+	/**
+	 * @param size number of outputs of the transaction
+	 * @return the output of decoderawtransaction / getrawtransaction with
+	 *         verbose set to 1
+	 */
+	public String transactionRAW(int size) {
+		StringBuilder json = new StringBuilder(size * 500 + 600)
+				.append("{\"txid\":\"").append(hex(32)).append("\",")
+				.append("\"version\":1,\"locktime\":0,")
+				.append("\"vin\":[{\"txid\":\"").append(hex(32)).append("\",\"vout\":0,")
+				.append("\"scriptSig\":{\"asm\":\"").append(hex(71)).append(' ').append(hex(33)).append("\",")
+				.append("\"hex\":\"").append(hex(106)).append("\"},")
+				.append("\"sequence\":4294967295}],")
+				.append("\"vout\":[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			String pubKeyHash = hex(20);
+			json.append("{\"value\":0,\"n\":").append(i).append(',')
+					.append("\"scriptPubKey\":{\"asm\":\"OP_DUP OP_HASH160 ").append(pubKeyHash)
+					.append(" OP_EQUALVERIFY OP_CHECKSIG 73706b71").append(hex(24)).append(" OP_DROP\",")
+					.append("\"hex\":\"76a914").append(pubKeyHash).append("88ac1c73706b71").append(hex(24)).append("75\",")
+					.append("\"reqSigs\":1,\"type\":\"pubkeyhash\",")
+					.append("\"addresses\":[\"").append(anyAddress()).append("\"]},")
+					.append("\"assets\":[");
+			balanceAsset(json, false);
+			json.append("],\"permissions\":[],\"items\":[]}");
+		}
+		return json.append("],\"data\":[]}").toString();
+	}
+
+	/**
+	 * @param size number of details of the transaction
+	 * @return the output of gettransaction
+	 */
+	public String transaction(int size) {
+		StringBuilder json = new StringBuilder(size * 130 + 500)
+				.append("{\"amount\":0,\"fee\":0,")
+				.append("\"confirmations\":").append(random.nextInt(1000)).append(',')
+				.append("\"blockhash\":\"").append(hex(32)).append("\",")
+				.append("\"blockindex\":").append(random.nextInt(100)).append(',')
+				.append("\"blocktime\":1500000000,")
+				.append("\"txid\":\"").append(hex(32)).append("\",")
+				.append("\"walletconflicts\":[],\"time\":1500000000,\"timereceived\":1500000000,")
+				.append("\"details\":[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"account\":\"\",")
+					.append("\"address\":\"").append(anyAddress()).append("\",")
+					.append("\"category\":\"").append(i % 2 == 0 ? "send" : "receive").append("\",")
+					.append("\"amount\":0,\"vout\":").append(i).append(",\"fee\":0}");
+		}
+		return json.append("],\"hex\":\"").append(hex(250)).append("\"}").toString();
+	}
+
+	/**
+	 * @param size number of assets of the output
+	 * @return the output of gettxout
+	 */
+	public String txOut(int size) {
+		String pubKeyHash = hex(20);
+		StringBuilder json = new StringBuilder(size * 250 + 500)
+				.append("{\"bestblock\":\"").append(hex(32)).append("\",")
+				.append("\"confirmations\":").append(random.nextInt(1000)).append(',')
+				.append("\"value\":0,")
+				.append("\"scriptPubKey\":{\"asm\":\"OP_DUP OP_HASH160 ").append(pubKeyHash)
+				.append(" OP_EQUALVERIFY OP_CHECKSIG 73706b71").append(hex(24)).append(" OP_DROP\",")
+				.append("\"hex\":\"76a914").append(pubKeyHash).append("88ac1c73706b71").append(hex(24)).append("75\",")
+				.append("\"reqSigs\":1,\"type\":\"pubkeyhash\",")
+				.append("\"addresses\":[\"").append(anyAddress()).append("\"]},")
+				.append("\"version\":1,\"coinbase\":false,")
+				.append("\"assets\":[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			balanceAsset(json, false);
+		}
+		return json.append("],\"permissions\":[]}").toString();
+	}
+
+	/**
+	 * @param size number of permissions
+	 * @return the output of listpermissions
+	 */
+	public String permissionList(int size) {
+		StringBuilder json = new StringBuilder(size * 150 + 2).append('[');
+		String[] types = { "connect", "send", "receive", "issue", "create", "mine", "activate", "admin" };
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"address\":\"").append(anyAddress()).append("\",")
+					.append("\"for\":null,")
+					.append("\"type\":\"").append(types[random.nextInt(types.length)]).append("\",")
+					.append("\"startblock\":0,\"endblock\":4294967295}");
+		}
+		return json.append(']').toString();
+	}
+
+	/**
+	 * @param size number of addresses
+	 * @return the output of getaddresses with verbose set to true
+	 */
+	public String addressList(int size) {
+		StringBuilder json = new StringBuilder(size * 200 + 2).append('[');
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"address\":\"").append(address()).append("\",")
+					.append("\"ismine\":true,\"iswatchonly\":false,\"isscript\":false,")
+					.append("\"pubkey\":\"").append(hex(33)).append("\",")
+					.append("\"iscompressed\":true,\"account\":\"\",\"synchronized\":true}");
+		}
+		return json.append(']').toString();
+	}
+
+	/**
+	 * @param size number of addresses
+	 * @return distinct addresses, as given to the commands taking a list of addresses
+	 */
+	public String[] addresses(int size) {
+		String[] values = new String[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = address();
+		}
+		return values;
+	}
+
+	/**
+	 * @return a random transaction id
+	 */
+	public String txid() {
+		return hex(32);
+	}
+
+	private void balanceAsset(StringBuilder json, boolean detailed) {
+		int asset = random.nextInt(assets.length);
+		json.append("{\"name\":\"").append(assets[asset]).append("\",")
+				.append("\"issuetxid\":\"").append(hex(32)).append("\",")
+				.append("\"assetref\":\"").append(100 + asset).append("-266-").append(28000 + asset).append("\",");
+		if (detailed) {
+			json.append("\"multiple\":100,\"units\":0.01,\"open\":true,\"details\":{},");
+		}
+		long raw = random.nextInt(10000000);
+		json.append("\"qty\":").append(raw / 100).append('.').append(raw % 100 / 10).append(raw % 10).append(',')
+				.append("\"raw\":").append(raw).append(",\"type\":\"transfer\"}");
+	}
+
+	private String anyAddress() {
+		return addresses[random.nextInt(addresses.length)];
+	}
+
+	private String address() {
+		char[] address = new char[38];
+		address[0] = '1';
+		for (int i = 1; i < address.length; i++) {
+			address[i] = BASE58[random.nextInt(BASE58.length)];
+		}
+		return new String(address);
+	}
+
+	private String hex(int bytes) {
+		char[] hex = new char[bytes * 2];
+		for (int i = 0; i < hex.length; i++) {
+			hex[i] = HEX[random.nextInt(16)];
+		}
+		return new String(hex);
+	}
+
+}
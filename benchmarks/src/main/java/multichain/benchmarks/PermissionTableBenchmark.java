@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import multichain.command.GrantCommand;
+import multichain.command.cache.PermissionTable;
+import multichain.object.Permission;
+import multichain.object.PermissionEntity;
+
+/**
+ * Permission checks over up to 1 000 000 addresses : {@link PermissionTable}
+ * against the permissions of listpermissions kept as Permission objects by
+ * address. The checks cycle over 1024 addresses, one in ten unknown. The bulk
+ * load of the table is measured apart, in milliseconds per load.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionTableBenchmark {
+
+	private static final String[] TYPES = { "connect", "send", "receive", "issue", "create", "mine", "activate", "admin" };
+	private static final int PROBES = 1024;
+
+	@Param({ "1000", "1000000" })
+	private int size;
+
+	private List<Permission> permissions;
+	private PermissionTable table;
+	private Map<String, List<Permission>> byAddress;
+	private String[] probes;
+	private int next;
+
+	@Setup
+	public void setup() {
+		JsonFixtures fixtures = new JsonFixtures(42);
+		Random random = new Random(42);
+		String[] addresses = fixtures.addresses(size);
+
+		permissions = new ArrayList<Permission>(size * 3);
+		for (String address : addresses) {
+			permissions.add(permission(address, "connect", null));
+			permissions.add(permission(address, TYPES[1 + random.nextInt(TYPES.length - 1)], null));
+			if (random.nextInt(10) == 0) {
+				permissions.add(permission(address, "write", "stream" + random.nextInt(10)));
+			}
+		}
+
+		table = new PermissionTable(size);
+		table.addAll(permissions);
+		byAddress = new HashMap<String, List<Permission>>();
+		for (Permission permission : permissions) {
+			List<Permission> list = byAddress.get(permission.getAddress());
+			if (list == null) {
+				list = new ArrayList<Permission>(2);
+				byAddress.put(permission.getAddress(), list);
+			}
+			list.add(permission);
+		}
+
+		probes = new String[PROBES];
+		String[] unknown = fixtures.addresses(PROBES / 10);
+		for (int i = 0; i < PROBES; i++) {
+			probes[i] = i < unknown.length ? unknown[i] : addresses[random.nextInt(size)];
+		}
+	}
+
+	@Benchmark
+	public boolean hasTable() {
+		return table.has(probes[next++ & (PROBES - 1)], GrantCommand.CONNECT | GrantCommand.SEND);
+	}
+
+	@Benchmark
+	public boolean hasPermissionObjects() {
+		List<Permission> list = byAddress.get(probes[next++ & (PROBES - 1)]);
+		if (list == null) {
+			return false;
+		}
+		boolean connect = false;
+		boolean send = false;
+		for (Permission permission : list) {
+			if (permission.getEntity() == null) {
+				connect |= "connect".equals(permission.getType());
+				send |= "send".equals(permission.getType());
+			}
+		}
+		return connect && send;
+	}
+
+	@Benchmark
+	public boolean canWriteTable() {
+		return table.canWrite(probes[next++ & (PROBES - 1)], "stream0");
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public PermissionTable load() {
+		PermissionTable loaded = new PermissionTable(size);
+		loaded.addAll(permissions);
+		return loaded;
+	}
+
+	private static Permission permission(String address, String type, String stream) {
+		Permission permission = new Permission();
+		permission.setAddress(address);
+		permission.setType(type);
+		permission.setEndblock(4294967295L);
+		if (stream != null) {
+			PermissionEntity entity = new PermissionEntity();
+			entity.setType("stream");
+			entity.setName(stream);
+			permission.setEntity(entity);
+		}
+		return permission;
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.builders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import multichain.benchmarks.JsonFixtures;
+import multichain.object.Quantity;
+import multichain.object.queryobjects.AssetParams;
+
+/**
+ * Throughput of the request encoding (Java objects to the parameters given to
+ * multichain-cli), for 1 to 100 000 values.
+ *
+ * Lives in the package of the builders to reach their protected encoding
+ * methods.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestEncodingBenchmark {
+
+	@Param({ "1", "100", "10000", "100000" })
+	private int size;
+
+	private String[] addresses;
+	private List<Object> assetParams;
+	private float[] amounts;
+	private Quantity[] quantities;
+
+	@Setup
+	public void setup() {
+		addresses = new JsonFixtures(42).addresses(size);
+		assetParams = new ArrayList<Object>(size);
+		for (int i = 0; i < size; i++) {
+			AssetParams params = new AssetParams();
+			params.setName("asset" + i);
+			params.setOpen(true);
+			assetParams.add(params);
+		}
+		amounts = new float[size];
+		quantities = new Quantity[size];
+		for (int i = 0; i < size; i++) {
+			amounts[i] = 1234567.89f + i;
+			quantities[i] = Quantity.ofRaw(123456789L + i * 100L, 100);
+		}
+	}
+
+	@Benchmark
+	public String formatJsonStringArray() {
+		return QueryBuilderCommon.formatJson(addresses);
+	}
+
+	@Benchmark
+	public String formatJsonObjectList() {
+		return QueryBuilderCommon.formatJson(assetParams);
+	}
+
+	@Benchmark
+	public String formatJsonScalar() {
+		return QueryBuilderCommon.formatJson(addresses[0]);
+	}
+
+	@Benchmark
+	public int formatJsonFloatAmounts() {
+		int length = 0;
+		for (float amount : amounts) {
+			length += QueryBuilderCommon.formatJson(amount).length();
+		}
+		return length;
+	}
+
+	@Benchmark
+	public int formatJsonQuantities() {
+		int length = 0;
+		for (Quantity quantity : quantities) {
+			length += QueryBuilderCommon.formatJson(quantity).length();
+		}
+		return length;
+	}
+
+	@Benchmark
+	public String formatStringArrayOS() {
+		return QueryBuilderCommon.formatStringArrayOS(addresses);
+	}
+
+}
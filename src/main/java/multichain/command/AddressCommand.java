@@ -8,13 +8,23 @@
 package multichain.command;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 import multichain.command.builders.QueryBuilderAddress;
+import multichain.command.tools.ChunkedExecutor;
+import multichain.command.tools.MultichainTestParameter;
 import multichain.object.Address;
 import multichain.object.BalanceAsset;
 import multichain.object.KeyPair;
 import multichain.object.MultiBalance;
+import multichain.object.Quantity;
 import multichain.object.formatters.AddressFormatter;
 import multichain.object.formatters.BalanceFormatter;
 
@@ -24,6 +34,18 @@ import multichain.object.formatters.BalanceFormatter;
  */
 public class AddressCommand extends QueryBuilderAddress {
 
+	/**
+	 * Default number of addresses per getmultibalances of a chunked call
+	 */
+	public static final int DEFAULT_MULTIBALANCES_CHUNK_SIZE = 500;
+
+	/**
+	 * Default number of getmultibalances of a chunked call run at a time
+	 */
+	public static final int DEFAULT_MULTIBALANCES_PARALLELISM = 4;
+
+	private static final String MULTIBALANCES_TOTAL = "total";
+
 	/**
 	 * addmultisigaddress nrequired ["key",...] ( "account" )
 	 *
@@ -118,7 +140,7 @@ public class AddressCommand extends QueryBuilderAddress {
 		List<String> addresses = new ArrayList<String>();
 
 		String stringAddresses = executeGetAddresses(false);
-		addresses = AddressFormatter.formatAddressesStringList(stringAddresses);
+		addresses = parse(CommandEnum.GETADDRESSES, AddressFormatter::formatAddressesStringList, stringAddresses);
 
 		return addresses;
 	}
@@ -166,7 +188,7 @@ public class AddressCommand extends QueryBuilderAddress {
 		List<Address> addresses = new ArrayList<Address>();
 
 		String stringAddresses = executeGetAddresses(true);
-		addresses = AddressFormatter.formatAddressesList(stringAddresses);
+		addresses = parse(CommandEnum.GETADDRESSES, AddressFormatter::formatAddressesList, stringAddresses);
 
 		return addresses;
 	}
@@ -194,11 +216,118 @@ public class AddressCommand extends QueryBuilderAddress {
 		List<MultiBalance>  listMultiBalance = new ArrayList<MultiBalance>();
 
 		String stringMultiBalance = executeGetMultiBalances(addresses);
-		listMultiBalance = BalanceFormatter.formatMultiBalances(stringMultiBalance);
+		listMultiBalance = parse(CommandEnum.GETMULTIBALANCES, BalanceFormatter::formatMultiBalances, stringMultiBalance);
 
 		return listMultiBalance;
 	}
 
+	/**
+	 * {@link #getMultiBalances(List, int, int, Consumer)} with
+	 * {@link #DEFAULT_MULTIBALANCES_CHUNK_SIZE} addresses per call and
+	 * {@link #DEFAULT_MULTIBALANCES_PARALLELISM} calls at a time
+	 *
+	 * @param addresses the addresses
+	 * @return the balances of every address, then their total
+	 * @throws MultichainException
+	 */
+	public static List<MultiBalance> getMultiBalances(List<String> addresses) throws MultichainException {
+		return getMultiBalances(addresses, DEFAULT_MULTIBALANCES_CHUNK_SIZE, DEFAULT_MULTIBALANCES_PARALLELISM, null);
+	}
+
+	/**
+	 * Returns the balances of many addresses with one getmultibalances per
+	 * chunk of addresses, several chunks at a time, instead of one call for
+	 * all of them.
+	 *
+	 * The balances of the addresses are merged in the order of the addresses,
+	 * followed by the total of all the chunks, labelled "total" as the one of
+	 * getmultibalances.
+	 *
+	 * @param addresses the addresses, duplicates ignored
+	 * @param chunkSize maximum number of addresses per call
+	 * @param parallelism maximum number of calls at a time
+	 * @param onChunk called with the balances of each chunk as returned by
+	 *            the node, total of the chunk included, as soon as the chunk
+	 *            is read : one chunk at a time, in any order. May be null
+	 * @return the balances of every address, then their total
+	 * @throws MultichainException if a chunk fails
+	 */
+	public static List<MultiBalance> getMultiBalances(List<String> addresses, int chunkSize, int parallelism,
+			Consumer<List<MultiBalance>> onChunk) throws MultichainException {
+		MultichainTestParameter.isNotNull("addresses", addresses);
+		List<String> distinct = new ArrayList<String>(new LinkedHashSet<String>(addresses));
+		MultichainTestParameter.arrayNotContainNullOrEmptyValues("addresses", distinct.toArray());
+
+		Object lock = new Object();
+		List<CompletableFuture<List<MultiBalance>>> chunks = ChunkedExecutor.submit(distinct, chunkSize, parallelism, chunk -> {
+			String stringMultiBalance = executeGetMultiBalances(new String[] { String.join(",", chunk) });
+			List<MultiBalance> balances = parse(CommandEnum.GETMULTIBALANCES, BalanceFormatter::formatMultiBalances, stringMultiBalance);
+			if (onChunk != null) {
+				synchronized (lock) {
+					onChunk.accept(balances);
+				}
+			}
+			return balances;
+		});
+
+		Map<String, MultiBalance> byAddress = new HashMap<String, MultiBalance>();
+		Map<String, BalanceAsset> totals = new LinkedHashMap<String, BalanceAsset>();
+		for (CompletableFuture<List<MultiBalance>> chunk : chunks) {
+			List<MultiBalance> balances;
+			try {
+				balances = chunk.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MultichainException("addresses", "interrupted");
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof MultichainException) {
+					throw (MultichainException) e.getCause();
+				}
+				throw new MultichainException("addresses", String.valueOf(e.getCause()));
+			}
+			for (MultiBalance balance : balances) {
+				if (MULTIBALANCES_TOTAL.equals(balance.getLabel())) {
+					addTotals(totals, balance.getAssets());
+				} else {
+					byAddress.put(balance.getLabel(), balance);
+				}
+			}
+		}
+
+		List<MultiBalance> merged = new ArrayList<MultiBalance>(byAddress.size() + 1);
+		for (String address : distinct) {
+			MultiBalance balance = byAddress.get(address);
+			if (balance != null) {
+				merged.add(balance);
+			}
+		}
+		MultiBalance total = new MultiBalance();
+		total.setLabel(MULTIBALANCES_TOTAL);
+		total.setAssets(new ArrayList<BalanceAsset>(totals.values()));
+		merged.add(total);
+		return merged;
+	}
+
+	private static void addTotals(Map<String, BalanceAsset> totals, List<BalanceAsset> assets) {
+		if (assets == null) {
+			return;
+		}
+		for (BalanceAsset asset : assets) {
+			BalanceAsset total = totals.get(asset.getName());
+			if (total == null) {
+				total = new BalanceAsset();
+				total.setName(asset.getName());
+				total.setAssetref(asset.getAssetref());
+				total.setIssuetxid(asset.getIssuetxid());
+				totals.put(asset.getName(), total);
+			}
+			long qty = Quantity.addExact(Quantity.toRaw(total.getQty(), Quantity.FINEST_MULTIPLE), Quantity.FINEST_MULTIPLE,
+					Quantity.toRaw(asset.getQty(), Quantity.FINEST_MULTIPLE), Quantity.FINEST_MULTIPLE);
+			total.setQty(Quantity.toDouble(qty, Quantity.FINEST_MULTIPLE));
+			total.setRaw(Math.addExact(total.getRaw(), asset.getRaw()));
+		}
+	}
+
 	/**
 	 * {@link #getMultiBalances(String[]) with only 1 address}
 	 *
@@ -242,7 +371,7 @@ public class AddressCommand extends QueryBuilderAddress {
 		List<BalanceAsset> balance = new ArrayList<BalanceAsset>();
 
 		String stringBalances = executeGetAddressBalances(address);
-		balance = BalanceFormatter.formatBalanceAssets(stringBalances);
+		balance = parse(CommandEnum.GETADDRESSBALANCES, BalanceFormatter::formatBalanceAssets, stringBalances);
 
 		return balance;
 	}
@@ -331,7 +460,7 @@ public class AddressCommand extends QueryBuilderAddress {
 		Address address = new Address();
 
 		String stringAddressInfo = executeValidateAddress(stringAddress);
-		address = AddressFormatter.formatAddress(stringAddressInfo);
+		address = parse(CommandEnum.VALIDATEADDRESS, AddressFormatter::formatAddress, stringAddressInfo);
 
 		return address;
 	}
@@ -343,7 +472,19 @@ public class AddressCommand extends QueryBuilderAddress {
 	 */
 	public static KeyPair createKeyPairs() throws MultichainException {
 		String keyPair = executeCreateKeyPairs();
-		return AddressFormatter.formatKeyPair(keyPair);
+		return parse(CommandEnum.CREATEKEYPAIRS, AddressFormatter::formatKeyPair, keyPair);
+	}
+
+	/**
+	 * Generate count blockchain addresses and their public and private keys in
+	 * a single call. Used for external key management.
+	 * @param count number of key pairs
+	 * @return the key pairs
+	 * @throws MultichainException
+	 */
+	public static List<KeyPair> createKeyPairs(int count) throws MultichainException {
+		String keyPairs = executeCreateKeyPairs(count);
+		return parse(CommandEnum.CREATEKEYPAIRS, AddressFormatter::formatKeyPairs, keyPairs);
 	}
 
 }
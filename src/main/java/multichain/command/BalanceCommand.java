@@ -37,11 +37,11 @@ public class BalanceCommand extends QueryBuilderBalance {
 	 * @return a list of all the asset balances in this node’s wallet
 	 * @throws MultichainException
 	 */
-	protected static List<BalanceAsset> getTotalBalances() throws MultichainException {
+	public static List<BalanceAsset> getTotalBalances() throws MultichainException {
 		List<BalanceAsset> listBalanceAsset = new ArrayList<BalanceAsset>();
 
 		String stringBalanceAsset = executeGetTotalBalances();
-		listBalanceAsset = BalanceFormatter.formatBalanceAssets(stringBalanceAsset);
+		listBalanceAsset = parse(CommandEnum.GETTOTALBALANCES, BalanceFormatter::formatBalanceAssets, stringBalanceAsset);
 
 		return listBalanceAsset;
 	}
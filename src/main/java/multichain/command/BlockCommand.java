@@ -25,11 +25,13 @@ public class BlockCommand extends QueryBuilderBlock {
 	 * Result
 	 * "hex"      (string) the block hash hex encoded
 	 *
+	 * Concurrent identical calls share a single call to the node.
+	 *
 	 * @return the hash of the best block
 	 * @throws MultichainException
 	 */
 	public static String getBestBlockHash() throws MultichainException {
-		return executeGetBestBlockHash();
+		return coalesce(CommandEnum.GETBESTBLOCKHASH, () -> executeGetBestBlockHash());
 	}
 
 
@@ -68,15 +70,15 @@ public class BlockCommand extends QueryBuilderBlock {
 	 * "data"             (string) A string that is serialized, hex-encoded data for block 'hash'.
 	 *
 	 *
+	 * Concurrent identical calls share a single call to the node and the same Block.
+	 *
 	 * @param hashOrHeight
 	 * @param verbose
 	 * @return Block : information about the block with hash (retrievable from getblockhash) or at the given height in the active chain
 	 * @throws MultichainException
 	 */
 	public static Block getBlock(String blockHash, boolean verbose) throws MultichainException {
-		String stringBlock = executeGetBlock(blockHash, verbose);
-
-		return BlockFormatter.formatBlock(stringBlock);
+		return coalesce(CommandEnum.GETBLOCK, BlockFormatter::formatBlock, () -> executeGetBlock(blockHash, verbose), blockHash, verbose);
 	}
 
 	/**
@@ -86,9 +88,7 @@ public class BlockCommand extends QueryBuilderBlock {
 	 * @throws MultichainException
 	 */
 	public static Block getBlock(String blockHash) throws MultichainException {
-		String stringBlock = executeGetBlock(blockHash, true);
-
-		return BlockFormatter.formatBlock(stringBlock);
+		return getBlock(blockHash, true);
 	}
 
 	/**
@@ -124,13 +124,13 @@ public class BlockCommand extends QueryBuilderBlock {
 	 * Result:
 	 * n    (numeric) The current block count
 	 *
+	 * Concurrent identical calls share a single call to the node.
+	 *
 	 * @return The Actual count of blocks in the BlockChain.
 	 * @throws MultichainException
 	 */
 	public static long getBlockCount() throws MultichainException {
-		String stringBlockCount = executeGetBlockCount();
-
-		return BlockFormatter.formatBlockCount(stringBlockCount);
+		return coalesce(CommandEnum.GETBLOCKCOUNT, BlockFormatter::formatBlockCount, () -> executeGetBlockCount());
 	}
 
 	/**
@@ -144,11 +144,13 @@ public class BlockCommand extends QueryBuilderBlock {
 	 * Result:
 	 * "hash"         (string) The block hash
 	 *
+	 * Concurrent identical calls share a single call to the node.
+	 *
 	 * @return the hash of the best block
 	 * @throws MultichainException
 	 */
 	public static String getBlockHash(long index) throws MultichainException {
-		return executeGetBlockHash(index);
+		return coalesce(CommandEnum.GETBLOCKHASH, () -> executeGetBlockHash(index), index);
 	}
 
 }
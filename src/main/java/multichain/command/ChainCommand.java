@@ -7,7 +7,13 @@
  */
 package multichain.command;
 
+import java.util.Map;
+
 import multichain.command.builders.QueryBuilderChain;
+import multichain.command.metrics.MetricsRegistry;
+import multichain.command.tools.RetryPolicy;
+import multichain.command.transport.MultichainTransport;
+import multichain.object.formatters.ChainFormatter;
 
 /**
  * @author Ub - H. MARTEAU
@@ -23,4 +29,52 @@ public class ChainCommand extends QueryBuilderChain {
 		QueryBuilderChain.initializeChain(nameChain);
 	}
 
+	/**
+	 * Set the retry policy applied to the commands failing with a transient
+	 * error (node warming up, work queue full, ...). By default commands are
+	 * never retried.
+	 * @param policy the retry policy, {@link RetryPolicy#NONE} to never retry
+	 */
+	public static void setRetryPolicy(RetryPolicy policy) {
+		QueryBuilderChain.initializeRetryPolicy(policy);
+	}
+
+	/**
+	 * Set the registry receiving the latency (queue wait, transport, parse)
+	 * and throughput measures of every command, for instance a
+	 * {@link multichain.command.metrics.CommandMetricsRegistry} published with
+	 * {@link multichain.command.metrics.MetricsJmxBridge}. By default no
+	 * metrics are recorded.
+	 * @param registry the registry, {@link MetricsRegistry#NOOP} to disable the metrics
+	 */
+	public static void setMetricsRegistry(MetricsRegistry registry) {
+		QueryBuilderChain.initializeMetricsRegistry(registry);
+	}
+
+	/**
+	 * Set the transport carrying the commands to the node. By default the
+	 * commands are executed with multichain-cli; a
+	 * {@link multichain.command.simulator.MultichainSimulator} runs them in
+	 * memory, without any node.
+	 * @param transport the transport, null to get back to multichain-cli
+	 */
+	public static void setTransport(MultichainTransport transport) {
+		QueryBuilderChain.initializeTransport(transport);
+	}
+
+	/**
+	 * getblockchainparams
+	 *
+	 * Returns the parameters of the chain, by name : address versions,
+	 * native currency multiple, permissions, ...
+	 *
+	 * @return the parameters of the chain
+	 * @throws MultichainException
+	 */
+	public static Map<String, Object> getBlockchainParams() throws MultichainException {
+		String stringParams = executeGetBlockchainParams();
+
+		return parse(CommandEnum.GETBLOCKCHAINPARAMS, ChainFormatter::formatBlockchainParams, stringParams);
+	}
+
 }
@@ -8,11 +8,19 @@
 package multichain.command;
 
 import multichain.command.builders.QueryBuilderGrant;
+import multichain.command.tools.ChunkedExecutor;
+import multichain.command.tools.MultichainTestParameter;
 import multichain.object.Address;
 import multichain.object.Permission;
 import multichain.object.formatters.GrantFormatter;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Ub - H. MARTEAU
@@ -32,6 +40,16 @@ public class GrantCommand extends QueryBuilderGrant {
 	public static int WALLET = QueryBuilderGrant.WALLET;
 	public static int WALLET_ISSUE = QueryBuilderGrant.WALLET_ISSUE;
 
+	/**
+	 * Default number of addresses per transaction of a bulk grant or revoke
+	 */
+	public static final int DEFAULT_BULK_CHUNK_SIZE = 500;
+
+	/**
+	 * Default number of transactions of a bulk grant or revoke sent at a time
+	 */
+	public static final int DEFAULT_BULK_PARALLELISM = 4;
+
 	/**
 	 * Give grant permissions to an address
 	 *
@@ -112,6 +130,38 @@ public class GrantCommand extends QueryBuilderGrant {
 		return executeGrant(address, assetPermission);
 	}
 
+	/**
+	 * {@link #grantBulk(Collection, int, int, int)} with
+	 * {@link #DEFAULT_BULK_CHUNK_SIZE} addresses per transaction and
+	 * {@link #DEFAULT_BULK_PARALLELISM} transactions at a time
+	 * @param addresses addresses to which the permissions are granted
+	 * @param permissions int to grant (possible values in this class, concatenation with | )
+	 * @return the transaction id granting the permissions, by address
+	 * @throws MultichainException
+	 */
+	public static Map<String, CompletableFuture<String>> grantBulk(Collection<String> addresses, int permissions) throws MultichainException {
+		return grantBulk(addresses, permissions, DEFAULT_BULK_CHUNK_SIZE, DEFAULT_BULK_PARALLELISM);
+	}
+
+	/**
+	 * Grants permissions to many addresses, with one grant transaction per
+	 * chunk of addresses, several chunks being sent at a time.
+	 *
+	 * The future of each address completes with the id of the transaction of
+	 * its chunk, or with the error of the node for the whole chunk.
+	 *
+	 * @param addresses addresses to which the permissions are granted
+	 * @param permissions int to grant (possible values in this class, concatenation with | )
+	 * @param chunkSize maximum number of addresses per transaction
+	 * @param parallelism maximum number of transactions sent at a time
+	 * @return the transaction id granting the permissions, by address, in the order of the addresses
+	 * @throws MultichainException
+	 */
+	public static Map<String, CompletableFuture<String>> grantBulk(Collection<String> addresses, int permissions, int chunkSize,
+			int parallelism) throws MultichainException {
+		return bulk(addresses, chunkSize, parallelism, chunk -> executeGrant(String.join(",", chunk), permissions));
+	}
+
 	/**
 	 * Grants permissions to addresses From an address
 	 *
@@ -218,7 +268,7 @@ public class GrantCommand extends QueryBuilderGrant {
 	public static Permission listPermissions(byte permissions, Address address, boolean verbose) throws MultichainException {
 		String stringPermission = executeListPermissions(permissions, address.getAddress(), verbose);
 
-		return GrantFormatter.formatPermission(stringPermission);
+		return parse(CommandEnum.LISTPERMISSIONS, GrantFormatter::formatPermission, stringPermission);
 	}
 
 	/**
@@ -232,7 +282,7 @@ public class GrantCommand extends QueryBuilderGrant {
 	public static Permission listPermissions(int permissions, Address address, boolean verbose) throws MultichainException {
 		String stringPermission = executeListPermissions(permissions, address.getAddress(), verbose);
 
-		return GrantFormatter.formatPermission(stringPermission);
+		return parse(CommandEnum.LISTPERMISSIONS, GrantFormatter::formatPermission, stringPermission);
 	}
 
 	/**
@@ -274,7 +324,7 @@ public class GrantCommand extends QueryBuilderGrant {
 	public static Permission listPermissions(byte permissions, Address address) throws MultichainException {
 		String stringPermission = executeListPermissions(permissions, address.getAddress(), false);
 
-		return GrantFormatter.formatPermission(stringPermission);
+		return parse(CommandEnum.LISTPERMISSIONS, GrantFormatter::formatPermission, stringPermission);
 	}
 
 	/**
@@ -287,7 +337,7 @@ public class GrantCommand extends QueryBuilderGrant {
 	public static Permission listPermissions(int permissions, Address address) throws MultichainException {
 		String stringPermission = executeListPermissions(permissions, address.getAddress(), false);
 
-		return GrantFormatter.formatPermission(stringPermission);
+		return parse(CommandEnum.LISTPERMISSIONS, GrantFormatter::formatPermission, stringPermission);
 	}
 
 	/**
@@ -325,7 +375,7 @@ public class GrantCommand extends QueryBuilderGrant {
 	public static Permission listPermissions(byte permissions) throws MultichainException {
 		String stringPermission = executeListPermissions(permissions, null, false);
 
-		return GrantFormatter.formatPermission(stringPermission);
+		return parse(CommandEnum.LISTPERMISSIONS, GrantFormatter::formatPermission, stringPermission);
 	}
 
 	/**
@@ -337,7 +387,7 @@ public class GrantCommand extends QueryBuilderGrant {
 	public static Permission listPermissions(int permissions) throws MultichainException {
 		String stringPermission = executeListPermissions(permissions, null, false);
 
-		return GrantFormatter.formatPermission(stringPermission);
+		return parse(CommandEnum.LISTPERMISSIONS, GrantFormatter::formatPermission, stringPermission);
 	}
 
 	/**
@@ -348,7 +398,7 @@ public class GrantCommand extends QueryBuilderGrant {
 	public static Permission listPermissions() throws MultichainException {
 		String stringPermission = executeListPermissions(0, null, false);
 
-		return GrantFormatter.formatPermission(stringPermission);
+		return parse(CommandEnum.LISTPERMISSIONS, GrantFormatter::formatPermission, stringPermission);
 	}
 
 	/**
@@ -360,7 +410,7 @@ public class GrantCommand extends QueryBuilderGrant {
 	 */
 	public static List<Permission> listPermissionForStreamAndAddress(String streamPermission, String address) throws MultichainException {
 		String permissions = executeListPermissions(streamPermission, address, true);
-		return GrantFormatter.formatPermissionList(permissions);
+		return parse(CommandEnum.LISTPERMISSIONS, GrantFormatter::formatPermissionList, permissions);
 	}
 
 	/**
@@ -372,7 +422,21 @@ public class GrantCommand extends QueryBuilderGrant {
 	public static List<Permission> listPermissionsList(byte permissions) throws MultichainException {
 		String stringPermission = executeListPermissions(permissions, null, false);
 
-		return GrantFormatter.formatPermissionList(stringPermission);
+		return parse(CommandEnum.LISTPERMISSIONS, GrantFormatter::formatPermissionList, stringPermission);
+	}
+
+	/**
+	 * Lists all the permissions of the addresses, global and per stream or
+	 * asset.
+	 *
+	 * @param addresses the addresses, null or empty for all addresses
+	 * @return the permissions of the addresses
+	 * @throws MultichainException
+	 */
+	public static List<Permission> listPermissionsList(List<String> addresses) throws MultichainException {
+		String stringPermission = executeListPermissions(addresses);
+
+		return parse(CommandEnum.LISTPERMISSIONS, GrantFormatter::formatPermissionList, stringPermission);
 	}
 
 
@@ -442,6 +506,49 @@ public class GrantCommand extends QueryBuilderGrant {
 		return executeRevoke(address, permissions);
 	}
 
+	/**
+	 * {@link #revokeBulk(Collection, int, int, int)} with
+	 * {@link #DEFAULT_BULK_CHUNK_SIZE} addresses per transaction and
+	 * {@link #DEFAULT_BULK_PARALLELISM} transactions at a time
+	 * @param addresses addresses from which the permissions are revoked
+	 * @param permissions int to revoke (possible values in this class, concatenation with | )
+	 * @return the transaction id revoking the permissions, by address
+	 * @throws MultichainException
+	 */
+	public static Map<String, CompletableFuture<String>> revokeBulk(Collection<String> addresses, int permissions) throws MultichainException {
+		return revokeBulk(addresses, permissions, DEFAULT_BULK_CHUNK_SIZE, DEFAULT_BULK_PARALLELISM);
+	}
+
+	/**
+	 * Revokes permissions from many addresses, as
+	 * {@link #grantBulk(Collection, int, int, int)}.
+	 *
+	 * @param addresses addresses from which the permissions are revoked
+	 * @param permissions int to revoke (possible values in this class, concatenation with | )
+	 * @param chunkSize maximum number of addresses per transaction
+	 * @param parallelism maximum number of transactions sent at a time
+	 * @return the transaction id revoking the permissions, by address, in the order of the addresses
+	 * @throws MultichainException
+	 */
+	public static Map<String, CompletableFuture<String>> revokeBulk(Collection<String> addresses, int permissions, int chunkSize,
+			int parallelism) throws MultichainException {
+		return bulk(addresses, chunkSize, parallelism, chunk -> executeRevoke(String.join(",", chunk), permissions));
+	}
+
+	private static Map<String, CompletableFuture<String>> bulk(Collection<String> addresses, int chunkSize, int parallelism,
+			ChunkedExecutor.ChunkCall<String, String> call) throws MultichainException {
+		MultichainTestParameter.isNotNull("addresses", addresses);
+		List<String> distinct = new ArrayList<String>(new LinkedHashSet<String>(addresses));
+		MultichainTestParameter.arrayNotContainNullOrEmptyValues("addresses", distinct.toArray());
+
+		List<CompletableFuture<String>> txids = ChunkedExecutor.submit(distinct, chunkSize, parallelism, call);
+		Map<String, CompletableFuture<String>> results = new LinkedHashMap<String, CompletableFuture<String>>();
+		for (int i = 0; i < distinct.size(); i++) {
+			results.put(distinct.get(i), txids.get(i / chunkSize));
+		}
+		return results;
+	}
+
 	/**
 	 * Revoke permissions to addresses From an address
 	 *
@@ -7,11 +7,11 @@
  */
 package multichain.command;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import multichain.command.builders.QueryBuilderIssue;
 import multichain.object.BalanceAsset;
+import multichain.object.Quantity;
 import multichain.object.formatters.BalanceFormatter;
 import multichain.object.queryobjects.AssetParams;
 
@@ -36,17 +36,15 @@ public class IssueCommand extends QueryBuilderIssue {
 	 * 4. includeLocked    (bool, optional, default=false) Also take locked outputs into account
 	 * Results are an array of Objects with totals and details for each asset.
 	 *
+	 * Concurrent identical calls share a single call to the node and the same
+	 * returned list, which must not be modified.
+	 *
 	 * @return
 	 * @throws MultichainException
 	 *
 	 */
 	public static List<BalanceAsset> getAssetBalances() throws MultichainException {
-		List<BalanceAsset> listBalanceAsset = new ArrayList<BalanceAsset>();
-
-		String stringBalanceAsset = executeGetAssetBalances();
-		listBalanceAsset = BalanceFormatter.formatBalanceAssets(stringBalanceAsset);
-
-		return listBalanceAsset;
+		return coalesce(CommandEnum.GETASSETBALANCES, BalanceFormatter::formatBalanceAssets, () -> executeGetAssetBalances());
 	}
 
 
@@ -298,6 +296,21 @@ public class IssueCommand extends QueryBuilderIssue {
 	}
 
 
+	/**
+	 * listassets
+	 *
+	 * Returns the list of all the assets issued on the blockchain
+	 *
+	 * Concurrent calls share a single call to the node and the same returned
+	 * list, which must not be modified.
+	 *
+	 * @return information about all the assets issued on the blockchain
+	 * @throws MultichainException
+	 */
+	public static List<BalanceAsset> listAssets() throws MultichainException {
+		return coalesce(CommandEnum.LISTASSETS, BalanceFormatter::formatBalanceAssets, () -> executeListAssets());
+	}
+
 	/**
 	 *
 	 * listassets ("asset-identifier" verbose)
@@ -306,6 +319,9 @@ public class IssueCommand extends QueryBuilderIssue {
 	 *
 	 * Returns list of defined assets
 	 *
+	 * Concurrent identical calls share a single call to the node and the same
+	 * returned list, which must not be modified.
+	 *
 	 * @param asset
 	 * @param verbose
 	 * @return information about assets issued on the blockchain. Provide an
@@ -313,12 +329,8 @@ public class IssueCommand extends QueryBuilderIssue {
 	 * @throws MultichainException
 	 */
 	public static List<BalanceAsset> listAssets(String asset, boolean verbose) throws MultichainException {
-			List<BalanceAsset> listBalanceAsset = new ArrayList<BalanceAsset>();
-
-			String stringBalanceAsset = executeListAssets(asset, verbose);
-			listBalanceAsset = BalanceFormatter.formatBalanceAssets(stringBalanceAsset);
-
-			return listBalanceAsset;
+		return coalesce(CommandEnum.LISTASSETS, BalanceFormatter::formatBalanceAssets, () -> executeListAssets(asset, verbose), asset,
+				verbose);
 	}
 
 
@@ -355,6 +367,22 @@ public class IssueCommand extends QueryBuilderIssue {
 		return executeSendAssetFrom(fromAddress, toAddress, assetName, quantity);
 	}
 
+	/**
+	 * Sends an exact quantity of an asset from an address, the quantity being
+	 * given to the node as the decimal value of its raw units, without float
+	 * rounding.
+	 *
+	 * @param fromAddress
+	 * @param toAddress
+	 * @param assetName
+	 * @param quantity
+	 * @return the txid
+	 * @throws MultichainException
+	 */
+	public static String sendAssetFrom(String fromAddress, String toAddress, String assetName, Quantity quantity) throws MultichainException {
+		return executeSendAssetFrom(fromAddress, toAddress, assetName, quantity);
+	}
+
 	public static String sendFrom(String fromAddresss, String toAddress, String quantity) throws MultichainException {
 		return executeSendFrom(fromAddresss, toAddress, quantity);
 	}
@@ -390,5 +418,20 @@ public class IssueCommand extends QueryBuilderIssue {
 		return executeSendAssetToAddress(address, assetName, quantity);
 	}
 
+	/**
+	 * Sends an exact quantity of an asset to an address, the quantity being
+	 * given to the node as the decimal value of its raw units, without float
+	 * rounding.
+	 *
+	 * @param address
+	 * @param assetName
+	 * @param quantity
+	 * @return the txid
+	 * @throws MultichainException
+	 */
+	public static String sendAssetToAddress(String address, String assetName, Quantity quantity) throws MultichainException {
+		return executeSendAssetToAddress(address, assetName, quantity);
+	}
+
 
 }
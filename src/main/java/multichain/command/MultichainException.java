@@ -14,17 +14,59 @@ import java.util.logging.Logger;
  * @version 1.0
  */
 public class MultichainException extends Exception {
-	private final Logger log = Logger.getAnonymousLogger();
+	private static final Logger log = Logger.getLogger(MultichainException.class.getName());
 	/**
 	 * Serial
 	 */
 	private static final long serialVersionUID = 2412952380749244614L;
 
+	private final String object;
+	private final String reason;
+
 	/**
 	 * @param object the object that caused this exception
 	 * @param reason the reason for this exception
 	 */
 	public MultichainException(String object, String reason){
+		this.object = object;
+		this.reason = reason;
 		log.info(object +" : "+reason);
 	}
+
+	/**
+	 * Lightweight exception : nothing is logged, and neither the stack trace
+	 * nor the suppressed exceptions are recorded, which makes it cheap to
+	 * create on high-throughput failure paths.
+	 *
+	 * @param object the object that caused this exception
+	 * @param reason the reason for this exception
+	 * @param lightweight true to create a lightweight exception, false for a standard one
+	 */
+	protected MultichainException(String object, String reason, boolean lightweight){
+		super(null, null, !lightweight, !lightweight);
+		this.object = object;
+		this.reason = reason;
+		if (!lightweight) {
+			log.info(object +" : "+reason);
+		}
+	}
+
+	@Override
+	public String getMessage() {
+		return object + " : " + reason;
+	}
+
+	/**
+	 * @return the object that caused this exception (parameter name, command...)
+	 */
+	public String getObject() {
+		return object;
+	}
+
+	/**
+	 * @return the reason for this exception
+	 */
+	public String getReason() {
+		return reason;
+	}
 }
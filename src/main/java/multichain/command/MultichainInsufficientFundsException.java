@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command;
+
+/**
+ * The wallet or the address does not hold enough funds or assets for the command.
+ *
+ * @version 1.0
+ */
+public class MultichainInsufficientFundsException extends MultichainRPCException {
+
+	/**
+	 * Serial
+	 */
+	private static final long serialVersionUID = 5120934386475613028L;
+
+	/**
+	 * @param command the command which failed
+	 * @param code the RPC error code
+	 * @param rpcMessage the RPC error message
+	 */
+	public MultichainInsufficientFundsException(String command, int code, String rpcMessage) {
+		super(command, code, rpcMessage);
+	}
+
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command;
+
+/**
+ * A parameter of the command (address, key, type, value...) was refused by the node.
+ *
+ * @version 1.0
+ */
+public class MultichainInvalidParameterException extends MultichainRPCException {
+
+	/**
+	 * Serial
+	 */
+	private static final long serialVersionUID = -6237702925408867411L;
+
+	/**
+	 * @param command the command which failed
+	 * @param code the RPC error code
+	 * @param rpcMessage the RPC error message
+	 */
+	public MultichainInvalidParameterException(String command, int code, String rpcMessage) {
+		super(command, code, rpcMessage);
+	}
+
+}
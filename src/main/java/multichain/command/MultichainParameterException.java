@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command;
+
+/**
+ * A parameter failed the client side validation (see
+ * {@link multichain.command.tools.MultichainTestParameter}) : the command was
+ * not sent to the node.
+ *
+ * @version 1.0
+ */
+public class MultichainParameterException extends MultichainException {
+
+	/**
+	 * Serial
+	 */
+	private static final long serialVersionUID = -4006361815542512713L;
+
+	/**
+	 * @param name name of the invalid parameter
+	 * @param reason why the parameter is invalid
+	 * @param lightweight true to skip the log and the stack trace
+	 */
+	public MultichainParameterException(String name, String reason, boolean lightweight) {
+		super(name, reason, lightweight);
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command;
+
+/**
+ * Error returned by the node for a command : carries the RPC error code and
+ * message as returned by multichain-cli.
+ *
+ * Subclasses type the errors callers usually have to distinguish, see
+ * {@link multichain.command.tools.MultichainErrorParser}.
+ *
+ * @version 1.0
+ */
+public class MultichainRPCException extends MultichainException {
+
+	/**
+	 * Serial
+	 */
+	private static final long serialVersionUID = -1541736950870339711L;
+
+	/**
+	 * Code used when the node output does not contain any error code
+	 */
+	public static final int NO_CODE = 0;
+
+	public static final int RPC_MISC_ERROR = -1;
+	public static final int RPC_TYPE_ERROR = -3;
+	public static final int RPC_WALLET_ERROR = -4;
+	public static final int RPC_INVALID_ADDRESS_OR_KEY = -5;
+	public static final int RPC_WALLET_INSUFFICIENT_FUNDS = -6;
+	public static final int RPC_INVALID_PARAMETER = -8;
+	public static final int RPC_CLIENT_NOT_CONNECTED = -9;
+	public static final int RPC_CLIENT_IN_INITIAL_DOWNLOAD = -10;
+	public static final int RPC_VERIFY_ERROR = -25;
+	public static final int RPC_VERIFY_REJECTED = -26;
+	public static final int RPC_VERIFY_ALREADY_IN_CHAIN = -27;
+	public static final int RPC_IN_WARMUP = -28;
+
+	private final String command;
+	private final int code;
+	private final String rpcMessage;
+
+	/**
+	 * @param command the command which failed
+	 * @param code the RPC error code, {@link #NO_CODE} if unknown
+	 * @param rpcMessage the RPC error message
+	 */
+	public MultichainRPCException(String command, int code, String rpcMessage) {
+		super(command, "error code " + code + " : " + rpcMessage);
+		this.command = command;
+		this.code = code;
+		this.rpcMessage = rpcMessage;
+	}
+
+	/**
+	 * @return true if the same call may succeed later without any change
+	 */
+	public boolean isTransient() {
+		return false;
+	}
+
+	/**
+	 * @return the command which failed
+	 */
+	public String getCommand() {
+		return command;
+	}
+
+	/**
+	 * @return the RPC error code, {@link #NO_CODE} if unknown
+	 */
+	public int getCode() {
+		return code;
+	}
+
+	/**
+	 * @return the RPC error message
+	 */
+	public String getRpcMessage() {
+		return rpcMessage;
+	}
+
+}
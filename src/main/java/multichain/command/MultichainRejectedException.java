@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command;
+
+/**
+ * The transaction was refused by the node when verifying it, or is already in the chain.
+ *
+ * @version 1.0
+ */
+public class MultichainRejectedException extends MultichainRPCException {
+
+	/**
+	 * Serial
+	 */
+	private static final long serialVersionUID = 2807345901164380732L;
+
+	/**
+	 * @param command the command which failed
+	 * @param code the RPC error code
+	 * @param rpcMessage the RPC error message
+	 */
+	public MultichainRejectedException(String command, int code, String rpcMessage) {
+		super(command, code, rpcMessage);
+	}
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command;
+
+/**
+ * The node is temporarily unable to serve the command (warming up, work queue
+ * full, not connected...).
+ *
+ * The same call may succeed later, see {@link multichain.command.tools.RetryPolicy}.
+ *
+ * @version 1.0
+ */
+public class MultichainTransientException extends MultichainRPCException {
+
+	/**
+	 * Serial
+	 */
+	private static final long serialVersionUID = -3862059472315566510L;
+
+	/**
+	 * @param command the command which failed
+	 * @param code the RPC error code
+	 * @param rpcMessage the RPC error message
+	 */
+	public MultichainTransientException(String command, int code, String rpcMessage) {
+		super(command, code, rpcMessage);
+	}
+
+	@Override
+	public boolean isTransient() {
+		return true;
+	}
+
+}
@@ -240,7 +240,7 @@ public class RAWTransactionCommand extends QueryBuilderRAWTransaction {
 		TransactionRAW transactionRAW = new TransactionRAW();
 
 		String stringTransactionRAW = executeDecodeRawTransaction(hex);
-		transactionRAW = RAWTransactionFormatter.formatTransactionRAW(stringTransactionRAW);
+		transactionRAW = parse(CommandEnum.DECODERAWTRANSACTION, RAWTransactionFormatter::formatTransactionRAW, stringTransactionRAW);
 
 		return transactionRAW;
 	}
@@ -330,7 +330,7 @@ public class RAWTransactionCommand extends QueryBuilderRAWTransaction {
 	public static TransactionRAW getRawTransaction(String txid, int verbose) throws MultichainException {
 		String stringTransactionRAW = executeGetRawTransaction(txid,verbose);
 
-		return RAWTransactionFormatter.formatTransactionRAW(stringTransactionRAW);
+		return parse(CommandEnum.GETRAWTRANSACTION, RAWTransactionFormatter::formatTransactionRAW, stringTransactionRAW);
 
 	}
 
@@ -344,7 +344,7 @@ public class RAWTransactionCommand extends QueryBuilderRAWTransaction {
 	public static TransactionRAW getRAWTransactionWithDetail(String txid) throws MultichainException {
 		String stringTransactionRAW = executeGetRawTransaction(txid,1);
 
-		return RAWTransactionFormatter.formatTransactionRAW(stringTransactionRAW);
+		return parse(CommandEnum.GETRAWTRANSACTION, RAWTransactionFormatter::formatTransactionRAW, stringTransactionRAW);
 	}
 
 	/**
@@ -357,7 +357,7 @@ public class RAWTransactionCommand extends QueryBuilderRAWTransaction {
 	public static TransactionRAW getRAWTransactionWithoutDetail(String txid) throws MultichainException {
 		String stringTransactionRAW = executeGetRawTransaction(txid,1);
 
-		return RAWTransactionFormatter.formatTransactionRAW(stringTransactionRAW);
+		return parse(CommandEnum.GETRAWTRANSACTION, RAWTransactionFormatter::formatTransactionRAW, stringTransactionRAW);
 	}
 
 	/**
@@ -443,6 +443,6 @@ public class RAWTransactionCommand extends QueryBuilderRAWTransaction {
 	 */
 	public static SignRawTransactionOut signRawTransactionWithPrivKey(String hexString, String privKey) throws MultichainException {
 		String hexOut = executeSignRawTransactionWithPrivKey(hexString, privKey);
-		return RAWTransactionFormatter.formatSignTransactionOut(hexOut);
+		return parse(CommandEnum.SIGNRAWTRANSACTION, RAWTransactionFormatter::formatSignTransactionOut, hexOut);
 	}
 }
@@ -82,7 +82,7 @@ public class StreamCommand extends QueryBuilderStream {
      * @throws MultichainException
      */
     public static List<Stream> listStreams(String... params) throws MultichainException {
-        return StreamFormatter.formatStreamList(executeListStreams(params));
+        return parse(CommandEnum.LISTSTREAMS, StreamFormatter::formatStreamList, executeListStreams(params));
     }
 
     /**
@@ -178,7 +178,7 @@ public class StreamCommand extends QueryBuilderStream {
      * @throws MultichainException
      */
     public static StreamItem getStreamItem(String streamName, String txId, String... verbose) throws MultichainException {
-        return StreamFormatter.formatStreamItem(executeGetStreamItem(streamName, txId, verbose));
+        return parse(CommandEnum.GETSTREAMITEM, StreamFormatter::formatStreamItem, executeGetStreamItem(streamName, txId, verbose));
     }
 
     /**
@@ -210,7 +210,7 @@ public class StreamCommand extends QueryBuilderStream {
      */
     public static List<StreamItem> listStreamKeyItems(String streamName, String key, String... formatParams)
             throws MultichainException {
-        return StreamFormatter.formatStreamItemList(executeListStreamKeyItems(streamName, key, formatParams));
+        return parse(CommandEnum.LISTSTREAMKEYITEMS, StreamFormatter::formatStreamItemList, executeListStreamKeyItems(streamName, key, formatParams));
     }
 
     /**
@@ -243,7 +243,7 @@ public class StreamCommand extends QueryBuilderStream {
      */
     public static List<StreamKeyPublisherInfo> listStreamKeys(String streamName, String... allParams)
             throws MultichainException {
-        return StreamFormatter.formatStreamKeyPublisherInfoList(executeListStreamKeys(streamName, allParams));
+        return parse(CommandEnum.LISTSTREAMKEYS, StreamFormatter::formatStreamKeyPublisherInfoList, executeListStreamKeys(streamName, allParams));
     }
 
     /**
@@ -272,7 +272,7 @@ public class StreamCommand extends QueryBuilderStream {
      * @throws MultichainException
      */
     public static List<StreamItem> listStreamItems(String streamName, String... formatParams) throws MultichainException {
-        return StreamFormatter.formatStreamItemList(executeListStreamItems(streamName, formatParams));
+        return parse(CommandEnum.LISTSTREAMITEMS, StreamFormatter::formatStreamItemList, executeListStreamItems(streamName, formatParams));
     }
 
     /**
@@ -304,7 +304,7 @@ public class StreamCommand extends QueryBuilderStream {
      */
     public static List<StreamItem> listStreamPublisherItems(String streamName, String address, String... formatParams)
             throws MultichainException {
-        return StreamFormatter.formatStreamItemList(executeListStreamPublisherItems(streamName, address, formatParams));
+        return parse(CommandEnum.LISTSTREAMPUBLISHERITEMS, StreamFormatter::formatStreamItemList, executeListStreamPublisherItems(streamName, address, formatParams));
     }
 
     /**
@@ -336,6 +336,6 @@ public class StreamCommand extends QueryBuilderStream {
      */
     public static List<StreamKeyPublisherInfo> listStreamPublishers(String streamName, String... allParams)
             throws MultichainException {
-        return StreamFormatter.formatStreamKeyPublisherInfoList(executeListStreamPublishers(streamName, allParams));
+        return parse(CommandEnum.LISTSTREAMPUBLISHERS, StreamFormatter::formatStreamKeyPublisherInfoList, executeListStreamPublishers(streamName, allParams));
     }
 }
@@ -15,9 +15,12 @@ import multichain.object.Transaction;
 import multichain.object.TransactionWallet;
 import multichain.object.TransactionWalletDetailed;
 import multichain.object.TxOut;
+import multichain.object.Unspent;
 import multichain.object.formatters.TransactionFormatter;
 import multichain.object.formatters.TxOutFormatter;
+import multichain.object.formatters.UnspentFormatter;
 import multichain.object.formatters.WalletTransactionFormatter;
+import multichain.object.queryobjects.TxIdVout;
 
 /**
  * @author Ub - H. MARTEAU
@@ -76,7 +79,7 @@ public class WalletTransactionCommand extends QueryBuilderWalletTransaction{
 	public static TransactionWallet getAddressTransaction(String address, String txid, boolean verbose) throws MultichainException {
 		String stringGetAddressTransactions = executeGetAddressTransaction(address, txid, verbose);
 
-		return WalletTransactionFormatter.formatTransactionWallet(stringGetAddressTransactions);
+		return parse(CommandEnum.GETADDRESSTRANSACTION, WalletTransactionFormatter::formatTransactionWallet, stringGetAddressTransactions);
 
 	}
 
@@ -134,7 +137,7 @@ public class WalletTransactionCommand extends QueryBuilderWalletTransaction{
 	public static Transaction getTransaction(String txid, boolean includeWatchonly) throws MultichainException {
 		String stringTransaction = executeGetTransaction(txid, includeWatchonly);
 
-		return TransactionFormatter.formatTransaction(stringTransaction);
+		return parse(CommandEnum.GETTRANSACTION, TransactionFormatter::formatTransaction, stringTransaction);
 	}
 
 	/**
@@ -188,7 +191,7 @@ public class WalletTransactionCommand extends QueryBuilderWalletTransaction{
 	public static TxOut getTxOut(String txid,int vout, boolean includemempool) throws MultichainException {
 		String stringTxOut = executeGetTxOut(txid, vout, includemempool);
 
-		return TxOutFormatter.formatTxOut(stringTxOut);
+		return parse(CommandEnum.GETTXOUT, TxOutFormatter::formatTxOut, stringTxOut);
 	}
 
 	/**
@@ -256,7 +259,7 @@ public class WalletTransactionCommand extends QueryBuilderWalletTransaction{
 	public static TransactionWalletDetailed getWalletTransaction(String txid, boolean includeWatchOnly, boolean verbose) throws MultichainException {
 		String stringTransactionWalletDetailed = executeGetWalletTransaction(txid, includeWatchOnly, verbose);
 
-		return WalletTransactionFormatter.formatTransactionWalletDetailed(stringTransactionWalletDetailed);
+		return parse(CommandEnum.GETWALLETTRANSACTION, WalletTransactionFormatter::formatTransactionWalletDetailed, stringTransactionWalletDetailed);
 	}
 
 	/**
@@ -337,7 +340,7 @@ public class WalletTransactionCommand extends QueryBuilderWalletTransaction{
 	public static List<TransactionWallet> listAddressTransactions(String address, long count, long skip, boolean verbose) throws MultichainException {
 		String stringListAddressTransactions = executeListAddressTransactions(address, count, skip, verbose);
 
-		return WalletTransactionFormatter.formatListTransactionWallet(stringListAddressTransactions);
+		return parse(CommandEnum.LISTADDRESSTRANSACTIONS, WalletTransactionFormatter::formatListTransactionWallet, stringListAddressTransactions);
 	}
 
 	/**
@@ -429,7 +432,7 @@ public class WalletTransactionCommand extends QueryBuilderWalletTransaction{
 	public static List<TransactionWallet> listWalletTransaction(long count, long skip, boolean includeWatchonly, boolean verbose) throws MultichainException {
 		String stringlistWalletTransaction = executeListWalletTransaction(count, skip, includeWatchonly, verbose);
 
-		return WalletTransactionFormatter.formatListTransactionWallet(stringlistWalletTransaction);
+		return parse(CommandEnum.LISTWALLETTRANSACTIONS, WalletTransactionFormatter::formatListTransactionWallet, stringlistWalletTransaction);
 	}
 
 	/**
@@ -720,6 +723,115 @@ public class WalletTransactionCommand extends QueryBuilderWalletTransaction{
 		return executeSendWithMetaDataFrom(fromAddress, toAddress, amount, hexMetaData);
 	}
 
+	/**
+	 *
+	 * listunspent ( minconf maxconf ["address",...] )
+	 *
+	 * Returns array of unspent transaction outputs with between minconf and
+	 * maxconf (inclusive) confirmations, optionally paid to the given addresses.
+	 *
+	 * @param minConf
+	 * @param maxConf
+	 * @param addresses
+	 * @return
+	 * @throws MultichainException
+	 */
+	public static List<Unspent> listUnspent(int minConf, int maxConf, String... addresses) throws MultichainException {
+		String stringUnspent = executeListUnspent(minConf, maxConf, addresses);
+
+		return parse(CommandEnum.LISTUNSPENT, UnspentFormatter::formatUnspentList, stringUnspent);
+	}
+
+	/**
+	 * {@link #listUnspent(int, int, String...)} with the default confirmations
+	 * (1 to 9999999)
+	 *
+	 * @param addresses
+	 * @return
+	 * @throws MultichainException
+	 */
+	public static List<Unspent> listUnspent(String... addresses) throws MultichainException {
+		return listUnspent(1, 9999999, addresses);
+	}
+
+	/**
+	 *
+	 * lockunspent unlock [{"txid":"txid","vout":n},...]
+	 *
+	 * Temporarily locks (unlock=false) or unlocks (unlock=true) outputs : a
+	 * locked output is not chosen by the coin selection of the node, nor
+	 * listed by listunspent. Locks are kept in memory by the node only.
+	 *
+	 * @param unlock
+	 * @param outputs
+	 * @return true if the command was successful
+	 * @throws MultichainException
+	 */
+	public static boolean lockUnspent(boolean unlock, List<TxIdVout> outputs) throws MultichainException {
+		String stringLockUnspent = executeLockUnspent(unlock, outputs);
+
+		return parse(CommandEnum.LOCKUNSPENT, output -> Boolean.valueOf(output.trim()), stringLockUnspent);
+	}
+
+	/**
+	 * {@link #lockUnspent(boolean, List)} unlocking all the locked outputs
+	 *
+	 * @return true if the command was successful
+	 * @throws MultichainException
+	 */
+	public static boolean unlockAllUnspent() throws MultichainException {
+		return lockUnspent(true, null);
+	}
 
+	/**
+	 *
+	 * listlockunspent
+	 *
+	 * Returns list of temporarily unspendable outputs.
+	 *
+	 * @return
+	 * @throws MultichainException
+	 */
+	public static List<TxIdVout> listLockUnspent() throws MultichainException {
+		String stringLockUnspent = executeListLockUnspent();
+
+		return parse(CommandEnum.LISTLOCKUNSPENT, UnspentFormatter::formatTxIdVoutList, stringLockUnspent);
+	}
+
+	/**
+	 *
+	 * preparelockunspent asset-quantities ( lock )
+	 *
+	 * Sends the quantities to an address of the wallet in a new output,
+	 * locked if required, to be spent by a raw transaction.
+	 *
+	 * @param assets
+	 * @param lock
+	 * @return the prepared output
+	 * @throws MultichainException
+	 */
+	public static TxIdVout prepareLockUnspent(List<BalanceAssetBase> assets, boolean lock) throws MultichainException {
+		String stringPrepared = executePrepareLockUnspent(assets, lock);
+
+		return parse(CommandEnum.PREPARELOCKUNSPENT, UnspentFormatter::formatTxIdVout, stringPrepared);
+	}
+
+	/**
+	 *
+	 * preparelockunspentfrom "from-address" asset-quantities ( lock )
+	 *
+	 * {@link #prepareLockUnspent(List, boolean)} from a given address
+	 *
+	 * @param fromAddress
+	 * @param assets
+	 * @param lock
+	 * @return the prepared output
+	 * @throws MultichainException
+	 */
+	public static TxIdVout prepareLockUnspentFrom(String fromAddress, List<BalanceAssetBase> assets, boolean lock) throws MultichainException {
+		String stringPrepared = executePrepareLockUnspentFrom(fromAddress, assets, lock);
+
+		return parse(CommandEnum.PREPARELOCKUNSPENTFROM, UnspentFormatter::formatTxIdVout, stringPrepared);
+	}
 
 }
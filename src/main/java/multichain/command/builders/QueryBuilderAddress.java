@@ -260,4 +260,19 @@ public class QueryBuilderAddress extends QueryBuilderCommon {
 		return execute(CommandEnum.CREATEKEYPAIRS);
 	}
 
+	/**
+	 * Generates count blockchain addresses, with their public and private keys
+	 * @param count number of key pairs
+	 * @return [{
+	 *     address:
+	 *     pubkey:
+	 *     privkey:
+	 * }, ...]
+	 * @throws MultichainException
+	 */
+	protected static String executeCreateKeyPairs(int count) throws MultichainException {
+		MultichainTestParameter.valueIsPositive("count", count);
+		return execute(CommandEnum.CREATEKEYPAIRS, formatJson(count));
+	}
+
 }
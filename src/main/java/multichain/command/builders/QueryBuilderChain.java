@@ -7,6 +7,11 @@
  */
 package multichain.command.builders;
 
+import multichain.command.MultichainException;
+import multichain.command.metrics.MetricsRegistry;
+import multichain.command.tools.RetryPolicy;
+import multichain.command.transport.MultichainTransport;
+
 /**
  * @author Ub - H. MARTEAU
  * @version 1.0
@@ -21,4 +26,51 @@ public class QueryBuilderChain extends QueryBuilderCommon {
 		setCHAIN(nameChain);
 	}
 
+	/**
+	 * Set the retry policy applied to the commands failing with a transient error
+	 * @param policy the retry policy, {@link RetryPolicy#NONE} to never retry
+	 */
+	protected static void initializeRetryPolicy(RetryPolicy policy) {
+		setRetryPolicy(policy);
+	}
+
+	/**
+	 * Set the registry receiving the metrics of every command
+	 * @param registry the registry, {@link MetricsRegistry#NOOP} to disable the metrics
+	 */
+	protected static void initializeMetricsRegistry(MetricsRegistry registry) {
+		setMetricsRegistry(registry);
+	}
+
+	/**
+	 * Set the transport carrying the commands to the node
+	 * @param transport the transport, null to get back to multichain-cli
+	 */
+	protected static void initializeTransport(MultichainTransport transport) {
+		setTransport(transport);
+	}
+
+	/**
+	 *
+	 * getblockchainparams ( displaynames )
+	 *
+	 * Returns a list of values of this blockchain's parameters
+	 *
+	 * Result:
+	 * {
+	 *   "chain-protocol" : "multichain",
+	 *   "address-pubkeyhash-version" : "00af...",
+	 *   "address-scripthash-version" : "05...",
+	 *   "private-key-version" : "80...",
+	 *   "address-checksum-value" : "0000...",
+	 *   ,...
+	 * }
+	 *
+	 * @return
+	 * @throws MultichainException
+	 */
+	protected static String executeGetBlockchainParams() throws MultichainException {
+		return execute(CommandEnum.GETBLOCKCHAINPARAMS);
+	}
+
 }
@@ -7,17 +7,26 @@
  */
 package multichain.command.builders;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.List;
-import java.util.StringJoiner;
+import java.util.function.Function;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
 
 import multichain.command.MultichainException;
+import multichain.command.MultichainRPCException;
+import multichain.command.MultichainTransientException;
+import multichain.command.metrics.MetricsRegistry;
+import multichain.command.tools.MultichainErrorParser;
+import multichain.command.tools.RetryPolicy;
+import multichain.command.tools.SingleFlight;
+import multichain.command.transport.CliTransport;
+import multichain.command.transport.MultichainTransport;
+import multichain.command.transport.TransportResponse;
+import multichain.object.Quantity;
 import multichain.object.Stream;
 
 /**
@@ -28,6 +37,19 @@ abstract class QueryBuilderCommon {
 
 	private static String CHAIN = "";
 	private static boolean header = false;
+	private static final SingleFlight READS_IN_FLIGHT = new SingleFlight();
+	private static volatile RetryPolicy retryPolicy = RetryPolicy.NONE;
+	private static volatile MetricsRegistry metrics = MetricsRegistry.NOOP;
+	private static volatile MultichainTransport transport = new CliTransport();
+
+	/**
+	 * Encoder of the parameters, shared as Gson is thread-safe. Quantities are
+	 * written as their exact decimal value, in the parameters holding amounts
+	 * by address for instance.
+	 */
+	private static final Gson GSON = new GsonBuilder()
+			.registerTypeAdapter(Quantity.class, (JsonSerializer<Quantity>) (value, type, context) -> new JsonPrimitive(value))
+			.create();
 
 	protected enum CommandEnum {
 		ADDMULTISIGADDRESS,
@@ -83,7 +105,7 @@ abstract class QueryBuilderCommon {
 		ISSUEMOREFROM,
 		LISTADDRESSTRANSACTIONS,
 		LISTASSETS,
-		LISTLOCKUNPSENT,
+		LISTLOCKUNSPENT,
 		LISTPERMISSIONS,
 		LISTSTREAMITEMS,
 		LISTSTREAMKEYITEMS,
@@ -141,111 +163,186 @@ abstract class QueryBuilderCommon {
 	 *         MultichainQueryBuidlder.executeProcess(MultichainCommand.SENDTOADDRESS,"1EyXuq2JVrj4E3CpM9iNGNSqBpZ2iTPdwGKgvf
 	 *         {\"rdcoin\":0.01}"
 	 * @throws MultichainException
+	 *             a {@link multichain.command.MultichainRPCException} if the
+	 *             node returned an error, or a
+	 *             {@link multichain.command.MultichainTransientException} if
+	 *             the transport failed, once the retry policy (see
+	 *             {@link #setRetryPolicy(RetryPolicy)}) is exhausted
 	 */
 	protected static String execute(CommandEnum command, String... parameters) throws MultichainException {
 
 		if (!CHAIN.equals("")) {
-			Runtime rt = Runtime.getRuntime();
-			Process pr;
-
-			try {
-				if (parameters.length > 0) {
-					String params = "";
-					for (String parameter : parameters) {
-						params = params.concat(parameter + " ");
+			MetricsRegistry registry = metrics;
+			RetryPolicy policy = retryPolicy;
+			registry.recordCall(command.name());
+			for (int attempt = 1;; attempt++) {
+				try {
+					return executeOnce(registry, command, parameters);
+				} catch (MultichainRPCException e) {
+					if (!policy.shouldRetry(e, attempt)) {
+						registry.recordError(command.name());
+						throw e;
+					}
+					long start = System.nanoTime();
+					try {
+						waitBeforeRetry(command, policy.delayMillis(attempt));
+					} finally {
+						registry.recordQueueWait(command.name(), System.nanoTime() - start);
 					}
-					pr = rt.exec("multichain-cli " + CHAIN + " " + command.toString().toLowerCase() + " " + params);
-				} else {
-					pr = rt.exec("multichain-cli " + CHAIN + " " + command.toString().toLowerCase());
 				}
-				//Get the output from both error stream and output stream
-				StreamGobbler errorGobbler = new StreamGobbler(pr.getErrorStream());
-				StreamGobbler outputGobbler = new StreamGobbler(pr.getInputStream());
+			}
+		} else {
+			return "ERROR, CHAIN NAME ARE EMPTY !";
+		}
+	}
 
-				errorGobbler.start();
-				outputGobbler.start();
+	private static String executeOnce(MetricsRegistry registry, CommandEnum command, String... parameters) throws MultichainException {
+		long start = System.nanoTime();
+		long bytesOut = command.name().length();
+		for (String parameter : parameters) {
+			bytesOut += parameter.length() + 1;
+		}
+		try {
+			TransportResponse response = transport.execute(CHAIN, command.toString().toLowerCase(), parameters);
 
-				pr.waitFor();
+			String output = response.getOutput();
+			String error = response.getError();
+			registry.recordTransport(command.name(), System.nanoTime() - start, bytesOut, output.length() + error.length());
+			if (response.getExitCode() == 0 && output.length() > 0)
+				return output;
 
-				errorGobbler.join();
-				outputGobbler.join();
+			if (response.getExitCode() == 0 && error.isEmpty())
+				return "";
 
-				pr.getOutputStream().close();
-				if(outputGobbler.output.length() > 0)
-					return outputGobbler.output.toString();
+			throw MultichainErrorParser.parse(command.toString().toLowerCase(), error);
+		} catch (IOException e) {
+			MultichainTransientException exception = new MultichainTransientException(command.toString().toLowerCase(),
+					MultichainRPCException.NO_CODE, "transport failure : " + e.getMessage());
+			exception.initCause(e);
+			throw exception;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MultichainException(command.toString().toLowerCase(), "interrupted while waiting for the node");
+		}
+	}
 
-				return errorGobbler.output.toString();
-			} catch (IOException | InterruptedException e) {
-				e.printStackTrace();
-				return "";
-			}
-		} else {
-			return "ERROR, CHAIN NAME ARE EMPTY !";
+	private static void waitBeforeRetry(CommandEnum command, long delayMillis) throws MultichainException {
+		try {
+			Thread.sleep(delayMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MultichainException(command.toString().toLowerCase(), "interrupted while waiting to retry");
 		}
 	}
 
+	/**
+	 * Coalesces concurrent identical read calls : callers asking for the same
+	 * command with the same arguments while a call is in flight share its
+	 * output instead of each calling the node.
+	 *
+	 * Only to be used for read commands.
+	 *
+	 * @param command the command called
+	 * @param call the execution to share
+	 * @param args the arguments identifying the call
+	 * @return the output of the call
+	 * @throws MultichainException
+	 */
+	protected static String coalesce(CommandEnum command, SingleFlight.Call<String> call, Object... args) throws MultichainException {
+		return coalesce(command, Function.identity(), call, args);
+	}
 
-	protected static String formatJson(String value) {
-		final GsonBuilder builder = new GsonBuilder();
-		final Gson gson = builder.create();
+	/**
+	 * Coalesces concurrent identical read calls as
+	 * {@link #coalesce(CommandEnum, SingleFlight.Call, Object...)}, each caller
+	 * formatting the shared output into its own objects.
+	 *
+	 * @param command the command called
+	 * @param formatter the formatter to apply, usually from multichain.object.formatters
+	 * @param call the execution to share
+	 * @param args the arguments identifying the call
+	 * @return the formatted output of the call
+	 * @throws MultichainException
+	 */
+	protected static <T> T coalesce(CommandEnum command, Function<String, T> formatter, SingleFlight.Call<String> call, Object... args)
+			throws MultichainException {
+		final boolean[] leader = { false };
+		long start = System.nanoTime();
+		T result = READS_IN_FLIGHT.execute(SingleFlight.key(command.name(), args), () -> {
+			leader[0] = true;
+			return call.call();
+		}, output -> parse(command, formatter, output));
+		if (!leader[0]) {
+			metrics.recordQueueWait(command.name(), System.nanoTime() - start);
+		}
+		return result;
+	}
+
+	/**
+	 * Formats the output of a command into Java objects, measuring the time
+	 * spent as the parse phase of the command.
+	 *
+	 * @param command the command which returned the output
+	 * @param formatter the formatter to apply, usually from multichain.object.formatters
+	 * @param output the output of the command
+	 * @return the formatted output
+	 */
+	protected static <T> T parse(CommandEnum command, Function<String, T> formatter, String output) {
+		MetricsRegistry registry = metrics;
+		long start = System.nanoTime();
+		try {
+			return formatter.apply(output);
+		} catch (RuntimeException e) {
+			registry.recordError(command.name());
+			throw e;
+		} finally {
+			registry.recordParse(command.name(), System.nanoTime() - start);
+		}
+	}
 
-		return gson.toJson(value);
+	protected static String formatJson(String value) {
+		return GSON.toJson(value);
 	}
 
 	protected static String formatJson(boolean value) {
-		final GsonBuilder builder = new GsonBuilder();
-		final Gson gson = builder.create();
-
-		return gson.toJson(value);
+		return String.valueOf(value);
 	}
 
 	protected static String formatJson(int value) {
-		final GsonBuilder builder = new GsonBuilder();
-		final Gson gson = builder.create();
-
-		return gson.toJson(value);
+		return String.valueOf(value);
 	}
 
 	protected static String formatJson(long value) {
-		final GsonBuilder builder = new GsonBuilder();
-		final Gson gson = builder.create();
-
-		return gson.toJson(value);
+		return String.valueOf(value);
 	}
 
 	protected static String formatJson(float value) {
-		final GsonBuilder builder = new GsonBuilder();
-		final Gson gson = builder.create();
-
-		return gson.toJson(value);
+		return GSON.toJson(value);
 	}
 
 	protected static String formatJson(double value) {
-		final GsonBuilder builder = new GsonBuilder();
-		final Gson gson = builder.create();
+		return GSON.toJson(value);
+	}
 
-		return gson.toJson(value);
+	/**
+	 * @param value the quantity
+	 * @return the exact decimal value of the quantity, written from its raw
+	 *         units
+	 */
+	protected static String formatJson(Quantity value) {
+		return value.toString();
 	}
 
 	protected static String formatJson(Object value) {
-		final GsonBuilder builder = new GsonBuilder();
-		final Gson gson = builder.create();
-
-		return gson.toJson(value);
+		return GSON.toJson(value);
 	}
 
 	protected static String formatJson(String[] values) {
-		final GsonBuilder builder = new GsonBuilder();
-		final Gson gson = builder.create();
-
-		return gson.toJson(values);
+		return GSON.toJson(values);
 	}
 
 	protected static String formatJson(List<Object> values) {
-		final GsonBuilder builder = new GsonBuilder();
-		final Gson gson = builder.create();
-
-		return gson.toJson(values);
+		return GSON.toJson(values);
 	}
 
 	/**
@@ -275,39 +372,41 @@ abstract class QueryBuilderCommon {
 	}
 
 	/**
-	 * @return the cHAIN
+	 * @param policy the retry policy applied to the commands failing with a
+	 *            transient error, {@link RetryPolicy#NONE} to never retry
 	 */
-	protected static String getCHAIN() {
-		return CHAIN;
+	protected static void setRetryPolicy(RetryPolicy policy) {
+		retryPolicy = policy == null ? RetryPolicy.NONE : policy;
 	}
 
 	/**
-	 * @param cHAIN the cHAIN to set
+	 * @param registry the registry receiving the metrics of every command,
+	 *            {@link MetricsRegistry#NOOP} to disable them
 	 */
-	protected static void setCHAIN(String cHAIN) {
-		CHAIN = cHAIN;
+	protected static void setMetricsRegistry(MetricsRegistry registry) {
+		metrics = registry == null ? MetricsRegistry.NOOP : registry;
 	}
 
 	/**
-	 * A stream gobbler class to run in different thread to read the output of the command line execution
+	 * @param chainTransport the transport carrying the commands to the node,
+	 *            {@link CliTransport} by default
 	 */
-	static class StreamGobbler extends Thread {
-		private InputStream is;
-		private StringJoiner output = new StringJoiner("\n");
+	protected static void setTransport(MultichainTransport chainTransport) {
+		transport = chainTransport == null ? new CliTransport() : chainTransport;
+	}
 
-		StreamGobbler(InputStream is) {
-			this.is = is;
-		}
+	/**
+	 * @return the cHAIN
+	 */
+	protected static String getCHAIN() {
+		return CHAIN;
+	}
 
-		public void run() {
-			try(BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
-				String line;
-				while ( (line = br.readLine()) != null)
-					output.add(line);
-			} catch (IOException ioe) {
-				ioe.printStackTrace();
-			}
-		}
+	/**
+	 * @param cHAIN the cHAIN to set
+	 */
+	protected static void setCHAIN(String cHAIN) {
+		CHAIN = cHAIN;
 	}
 
 }
@@ -7,6 +7,8 @@
  */
 package multichain.command.builders;
 
+import java.util.List;
+
 import multichain.command.MultichainException;
 import multichain.command.tools.MultichainTestParameter;
 
@@ -42,46 +44,46 @@ public class QueryBuilderGrant extends QueryBuilderCommon {
 	private static String formatPermissionsList(int permissions) {
 		String permissionsFormated = "";
 
-		if ((permissions ^ CONNECT) == 0) {
+		if ((permissions & CONNECT) != 0) {
 			permissionsFormated = permissionsFormated.concat(CONNECT_STR);
 		}
-		if ((permissions ^ SEND) == 0) {
+		if ((permissions & SEND) != 0) {
 			if (permissionsFormated.length() > 0) {
 				permissionsFormated = permissionsFormated.concat(",");
 			}
 			permissionsFormated = permissionsFormated.concat(SEND_STR);
 		}
-		if ((permissions ^ RECEIVE) == 0) {
+		if ((permissions & RECEIVE) != 0) {
 			if (permissionsFormated.length() > 0) {
 				permissionsFormated = permissionsFormated.concat(",");
 			}
 			permissionsFormated = permissionsFormated.concat(RECEIVE_STR);
 		}
-		if ((permissions ^ ISSUE) == 0) {
+		if ((permissions & ISSUE) != 0) {
 			if (permissionsFormated.length() > 0) {
 				permissionsFormated = permissionsFormated.concat(",");
 			}
 			permissionsFormated = permissionsFormated.concat(ISSUE_STR);
 		}
-		if ((permissions ^ MINE) == 0) {
+		if ((permissions & MINE) != 0) {
 			if (permissionsFormated.length() > 0) {
 				permissionsFormated = permissionsFormated.concat(",");
 			}
 			permissionsFormated = permissionsFormated.concat(MINE_STR);
 		}
-		if ((permissions ^ ACTIVATE) == 0) {
+		if ((permissions & ACTIVATE) != 0) {
 			if (permissionsFormated.length() > 0) {
 				permissionsFormated = permissionsFormated.concat(",");
 			}
 			permissionsFormated = permissionsFormated.concat(ACTIVATE_STR);
 		}
-		if ((permissions ^ ADMIN) == 0) {
+		if ((permissions & ADMIN) != 0) {
 			if (permissionsFormated.length() > 0) {
 				permissionsFormated = permissionsFormated.concat(",");
 			}
 			permissionsFormated = permissionsFormated.concat(ADMIN_STR);
 		}
-		if ((permissions ^ CREATE) == 0) {
+		if (permissions == CREATE) {
 			if (permissionsFormated.length() > 0) {
 				permissionsFormated = permissionsFormated.concat(",");
 			}
@@ -240,6 +242,20 @@ public class QueryBuilderGrant extends QueryBuilderCommon {
 		return listPermissions;
 	}
 
+	/**
+	 * Returns all the permissions of the addresses
+	 * @param addresses the addresses, null or empty for all addresses
+	 * @return String containing the output of listpermissions command
+	 * @throws MultichainException
+	 */
+	protected static String executeListPermissions(List<String> addresses) throws MultichainException {
+		if (addresses == null || addresses.isEmpty()) {
+			return execute(CommandEnum.LISTPERMISSIONS, formatJson("*"));
+		}
+		MultichainTestParameter.arrayNotContainNullOrEmptyValues("addresses", addresses.toArray());
+		return execute(CommandEnum.LISTPERMISSIONS, formatJson("*"), formatJson(String.join(",", addresses)));
+	}
+
 	/**
 	 * Returns list of permissions for specified addresses in the mentioned stream
 	 * @param streamPermission in the form of streamName.admin,write or streamName.*
@@ -11,6 +11,7 @@ import java.util.List;
 
 import multichain.command.MultichainException;
 import multichain.command.tools.MultichainTestParameter;
+import multichain.object.Quantity;
 import multichain.object.queryobjects.AssetParams;
 
 /**
@@ -344,6 +345,16 @@ public class QueryBuilderIssue extends QueryBuilderCommon {
 	 *
 	 * Returns list of defined assets
 	 *
+	 * @return information about all the assets issued on the blockchain
+	 * @throws MultichainException
+	 */
+	protected static String executeListAssets() throws MultichainException {
+		return execute(CommandEnum.LISTASSETS);
+	}
+
+	/**
+	 * listassets for one asset, see {@link #executeListAssets()}
+	 *
 	 * @param asset
 	 * @param verbose
 	 * @return information about assets issued on the blockchain. Provide an
@@ -396,6 +407,21 @@ public class QueryBuilderIssue extends QueryBuilderCommon {
 		return execute(CommandEnum.SENDASSETFROM, fromAddress, toAddress, assetName, formatJson(quantity));
 	}
 
+	/**
+	 * Sends an exact quantity of an asset from an address, see
+	 * {@link #executeSendAssetFrom(String, String, String, float)}.
+	 */
+	protected static String executeSendAssetFrom(String fromAddress, String toAddress, String assetName, Quantity quantity)
+			throws MultichainException {
+		MultichainTestParameter.isNotNullOrEmpty("fromAddress", fromAddress);
+		MultichainTestParameter.isNotNullOrEmpty("toAddress", toAddress);
+		MultichainTestParameter.valueIsPositive("quantity", quantity);
+		MultichainTestParameter.isNotNull("assetName", assetName);
+		if(assetName.isEmpty())
+			assetName = "\"\"";
+		return execute(CommandEnum.SENDASSETFROM, fromAddress, toAddress, assetName, formatJson(quantity));
+	}
+
 	/**
 	 * Send native currency to an address from the specified address
 	 * @param fromAddress send from
@@ -446,4 +472,16 @@ public class QueryBuilderIssue extends QueryBuilderCommon {
 		return execute(CommandEnum.SENDASSETTOADDRESS, formatJson(address), formatJson(assetName), formatJson(quantity));
 	}
 
+	/**
+	 * Sends an exact quantity of an asset to an address, see
+	 * {@link #executeSendAssetToAddress(String, String, float)}.
+	 */
+	protected static String executeSendAssetToAddress(String address, String assetName, Quantity quantity)
+			throws MultichainException {
+		MultichainTestParameter.isNotNullOrEmpty("address", address);
+		MultichainTestParameter.isNotNullOrEmpty("assetName", assetName);
+		MultichainTestParameter.valueIsPositive("quantity", quantity);
+		return execute(CommandEnum.SENDASSETTOADDRESS, formatJson(address), formatJson(assetName), formatJson(quantity));
+	}
+
 }
@@ -9,12 +9,14 @@ package multichain.command.builders;
 
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import multichain.command.MultichainException;
 import multichain.command.tools.MultichainTestParameter;
 import multichain.object.AddressBalanceAsset;
+import multichain.object.BalanceAssetBase;
 import multichain.object.queryobjects.TxIdVout;
 
 /**
@@ -184,7 +186,41 @@ public class QueryBuilderRAWTransaction extends QueryBuilderCommon {
 			addressAsset.isFilled();
 		}
 
-		return execute(CommandEnum.CREATERAWTRANSACTION, formatJson(inputs), formatJson(addessAssets));
+		return execute(CommandEnum.CREATERAWTRANSACTION, formatJson(inputs), formatJson(formatAddressAssets(addessAssets)));
+	}
+
+	/**
+	 * Builds the outputs of createrawtransaction, {"address":{"asset":qty,...},...}.
+	 * Quantities sent several times to the same address are merged, and an
+	 * address only receiving native currency gets the amount itself.
+	 *
+	 * @param addessAssets
+	 * @return
+	 */
+	private static Map<String, Object> formatAddressAssets(List<AddressBalanceAsset> addessAssets) {
+		Map<String, Map<String, Double>> quantities = new LinkedHashMap<String, Map<String, Double>>();
+		for (AddressBalanceAsset addressAsset : addessAssets) {
+			Map<String, Double> assets = quantities.get(addressAsset.getAddress());
+			if (assets == null) {
+				assets = new LinkedHashMap<String, Double>();
+				quantities.put(addressAsset.getAddress(), assets);
+			}
+			for (BalanceAssetBase asset : addressAsset.getAssets()) {
+				Double qty = assets.get(asset.getName());
+				assets.put(asset.getName(), qty == null ? asset.getQty() : qty + asset.getQty());
+			}
+		}
+
+		Map<String, Object> outputs = new LinkedHashMap<String, Object>();
+		for (Map.Entry<String, Map<String, Double>> entry : quantities.entrySet()) {
+			Map<String, Double> assets = entry.getValue();
+			if (assets.size() == 1 && assets.containsKey(AddressBalanceAsset.NATIVE_CURRENCY)) {
+				outputs.put(entry.getKey(), assets.get(AddressBalanceAsset.NATIVE_CURRENCY));
+			} else {
+				outputs.put(entry.getKey(), assets);
+			}
+		}
+		return outputs;
 	}
 
 	/**
@@ -7,11 +7,14 @@
  */
 package multichain.command.builders;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import multichain.command.MultichainException;
 import multichain.command.tools.MultichainTestParameter;
 import multichain.object.BalanceAssetBase;
+import multichain.object.queryobjects.TxIdVout;
 
 /**
  * @author Ub - H. MARTEAU
@@ -274,7 +277,7 @@ public class QueryBuilderWalletTransaction extends QueryBuilderCommon {
 	protected static String executeListAddressTransactions(String address, long count, long skip, boolean verbose) throws MultichainException {
 		MultichainTestParameter.isNotNullOrEmpty("address", address);
 		MultichainTestParameter.valueIsPositive("count", count);
-		MultichainTestParameter.valueIsPositive("skip", skip);
+		MultichainTestParameter.valueIsNotNegative("skip", skip);
 		return execute(CommandEnum.LISTADDRESSTRANSACTIONS, formatJson(address), formatJson(count), formatJson(skip), formatJson(verbose));
 	}
 
@@ -330,7 +333,7 @@ public class QueryBuilderWalletTransaction extends QueryBuilderCommon {
 	 */
 	protected static String executeListWalletTransaction(long count, long skip, boolean includeWatchonly, boolean verbose) throws MultichainException {
 		MultichainTestParameter.valueIsPositive("count", count);
-		MultichainTestParameter.valueIsPositive("skip", skip);
+		MultichainTestParameter.valueIsNotNegative("skip", skip);
 		return execute(CommandEnum.LISTWALLETTRANSACTIONS, formatJson(count), formatJson(skip), formatJson(includeWatchonly), formatJson(verbose));
 	}
 
@@ -669,4 +672,207 @@ public class QueryBuilderWalletTransaction extends QueryBuilderCommon {
 		return execute(CommandEnum.SENDWITHMETADATAFROM, formatJson(fromAddress), formatJson(toAddress),formatJson(amount), formatJson(hexMetaData));
 	}
 
+	/**
+	 *
+	 * listunspent ( minconf maxconf ["address",...] )
+	 *
+	 * Returns array of unspent transaction outputs
+	 * with between minconf and maxconf (inclusive) confirmations.
+	 * Optionally filter to only include txouts paid to specified addresses.
+	 *
+	 * Arguments:
+	 * 1. minconf          (numeric, optional, default=1) The minimum confirmations to filter
+	 * 2. maxconf          (numeric, optional, default=9999999) The maximum confirmations to filter
+	 * 3. "addresses"    (string) A json array of addresses to filter
+	 *     [
+	 *       "address"   (string) address
+	 *       ,...
+	 *     ]
+	 *
+	 * Result
+	 * [                   (array of json object)
+	 *   {
+	 *     "txid" : "txid",        (string) the transaction id
+	 *     "vout" : n,               (numeric) the vout value
+	 *     "address" : "address",  (string) the address
+	 *     "account" : "account",  (string) DEPRECATED. The associated account, or "" for the default account
+	 *     "scriptPubKey" : "key", (string) the script key
+	 *     "amount" : x.xxx,         (numeric) the transaction amount in native currency
+	 *     "confirmations" : n,      (numeric) The number of confirmations
+	 *     "assets" : [...]          (array) the asset quantities held by the output
+	 *   }
+	 *   ,...
+	 * ]
+	 *
+	 * @param minConf
+	 * @param maxConf
+	 * @param addresses
+	 * @return
+	 * @throws MultichainException
+	 */
+	protected static String executeListUnspent(int minConf, int maxConf, String... addresses) throws MultichainException {
+		MultichainTestParameter.valueIsNotNegative("minConf", minConf);
+		MultichainTestParameter.valueIsNotNegative("maxConf", maxConf);
+
+		if (addresses == null || addresses.length == 0) {
+			return execute(CommandEnum.LISTUNSPENT, formatJson(minConf), formatJson(maxConf));
+		}
+		MultichainTestParameter.arrayNotContainNullOrEmptyValues("addresses", addresses);
+		return execute(CommandEnum.LISTUNSPENT, formatJson(minConf), formatJson(maxConf), formatJson(addresses));
+	}
+
+	/**
+	 *
+	 * lockunspent unlock [{"txid":"txid","vout":n},...]
+	 *
+	 * Updates list of temporarily unspendable outputs.
+	 * Temporarily lock (unlock=false) or unlock (unlock=true) specified transaction outputs.
+	 * A locked transaction output will not be chosen by automatic coin selection, when spending assets.
+	 * Locks are stored in memory only. Nodes start with zero locked outputs, and the locked output list
+	 * is always cleared (by virtue of process exit) when a node stops or fails.
+	 *
+	 * Arguments:
+	 * 1. unlock            (boolean, required) Whether to unlock (true) or lock (false) the specified transactions
+	 * 2. "transactions"  (string, required) A json array of objects. Each object the txid (string) vout (numeric)
+	 *      [           (json array of json objects)
+	 *        {
+	 *          "txid":"id",    (string) The transaction id
+	 *          "vout": n         (numeric) The output number
+	 *        }
+	 *        ,...
+	 *      ]
+	 *
+	 * Result:
+	 * true|false    (boolean) Whether the command was successful or not
+	 *
+	 * @param unlock
+	 * @param outputs the outputs to lock or unlock, null or empty to unlock all the outputs
+	 * @return
+	 * @throws MultichainException
+	 */
+	protected static String executeLockUnspent(boolean unlock, List<TxIdVout> outputs) throws MultichainException {
+		if (outputs == null || outputs.isEmpty()) {
+			if (!unlock) {
+				throw new MultichainException("outputs", "outputs needed to be locked");
+			}
+			return execute(CommandEnum.LOCKUNSPENT, formatJson(unlock));
+		}
+		for (TxIdVout output : outputs) {
+			output.isFilled();
+		}
+
+		return execute(CommandEnum.LOCKUNSPENT, formatJson(unlock), formatJson(outputs));
+	}
+
+	/**
+	 *
+	 * listlockunspent
+	 *
+	 * Returns list of temporarily unspendable outputs.
+	 * See the lockunspent call to lock and unlock transactions for spending.
+	 *
+	 * Result:
+	 * [
+	 *   {
+	 *     "txid" : "transactionid",     (string) The transaction id locked
+	 *     "vout" : n                      (numeric) The vout value
+	 *   }
+	 *   ,...
+	 * ]
+	 *
+	 * @return
+	 * @throws MultichainException
+	 */
+	protected static String executeListLockUnspent() throws MultichainException {
+		return execute(CommandEnum.LISTLOCKUNSPENT);
+	}
+
+	/**
+	 *
+	 * preparelockunspent asset-quantities ( lock )
+	 *
+	 * Prepares exchange transaction output for createrawexchange, appendrawexchange
+	 *
+	 * Arguments:
+	 * 1. "asset-quantities"    (object, required) A json object of assets to send
+	 *     {
+	 *       "asset-identifier" : asset-quantity
+	 *       ,...
+	 *     }
+	 * 2. lock                  (boolean, optional, default=true) Lock prepared unspent output
+	 *
+	 * Result:
+	 * {
+	 *   "txid": "transactionid",   (string) Transaction ID of the output prepared to be used in createrawexchange
+	 *   "vout": n                    (numeric) Output ID of the output prepared to be used in createrawexchange
+	 * }
+	 *
+	 * @param assets
+	 * @param lock
+	 * @return
+	 * @throws MultichainException
+	 */
+	protected static String executePrepareLockUnspent(List<BalanceAssetBase> assets, boolean lock) throws MultichainException {
+		if (assets == null || assets.isEmpty()) {
+			throw new MultichainException("assets", "assets needed to be prepared");
+		}
+		for (BalanceAssetBase asset : assets) {
+			asset.isFilled();
+		}
+
+		return execute(CommandEnum.PREPARELOCKUNSPENT, formatJson(formatAssetQuantities(assets)), formatJson(lock));
+	}
+
+	/**
+	 *
+	 * preparelockunspentfrom "from-address" asset-quantities ( lock )
+	 *
+	 * Prepares exchange transaction output for createrawexchange, appendrawexchange using specific address
+	 *
+	 * Arguments:
+	 * 1. "from-address"        (string, required) Address to send from .
+	 * 2. "asset-quantities"    (object, required) A json object of assets to send
+	 *     {
+	 *       "asset-identifier" : asset-quantity
+	 *       ,...
+	 *     }
+	 * 3. lock                  (boolean, optional, default=true) Lock prepared unspent output
+	 *
+	 * Result:
+	 * {
+	 *   "txid": "transactionid",   (string) Transaction ID of the output prepared to be used in createrawexchange
+	 *   "vout": n                    (numeric) Output ID of the output prepared to be used in createrawexchange
+	 * }
+	 *
+	 * @param fromAddress
+	 * @param assets
+	 * @param lock
+	 * @return
+	 * @throws MultichainException
+	 */
+	protected static String executePrepareLockUnspentFrom(String fromAddress, List<BalanceAssetBase> assets, boolean lock) throws MultichainException {
+		MultichainTestParameter.isNotNullOrEmpty("fromAddress", fromAddress);
+		if (assets == null || assets.isEmpty()) {
+			throw new MultichainException("assets", "assets needed to be prepared");
+		}
+		for (BalanceAssetBase asset : assets) {
+			asset.isFilled();
+		}
+
+		return execute(CommandEnum.PREPARELOCKUNSPENTFROM, formatJson(fromAddress), formatJson(formatAssetQuantities(assets)), formatJson(lock));
+	}
+
+	/**
+	 * Builds the asset-quantities object, {"asset":qty,...}, quantities of the
+	 * same asset being added.
+	 */
+	private static Map<String, Double> formatAssetQuantities(List<BalanceAssetBase> assets) {
+		Map<String, Double> quantities = new LinkedHashMap<String, Double>();
+		for (BalanceAssetBase asset : assets) {
+			Double quantity = quantities.get(asset.getName());
+			quantities.put(asset.getName(), quantity == null ? asset.getQty() : quantity + asset.getQty());
+		}
+		return quantities;
+	}
+
 }
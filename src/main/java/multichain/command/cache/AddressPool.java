@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import multichain.command.AddressCommand;
+import multichain.command.MultichainException;
+import multichain.object.Address;
+
+/**
+ * Wallet addresses generated ahead of their use :
+ *
+ * <pre>
+ * AddressPool addresses = new AddressPool(100, 1000);
+ * Address address = addresses.take();
+ * </pre>
+ *
+ * getnewaddress creates one address per call, so the refills call it once per
+ * address, in the thread of the pool. See {@link RefillingPool} for the
+ * refills.
+ *
+ * @version 1.0
+ */
+public class AddressPool extends RefillingPool<Address> {
+
+	/**
+	 * @param lowWatermark number of addresses under which the pool is refilled
+	 * @param highWatermark number of addresses the pool is refilled to
+	 * @throws MultichainException if the watermarks are not ordered
+	 */
+	public AddressPool(int lowWatermark, int highWatermark) throws MultichainException {
+		super("address-pool", lowWatermark, highWatermark);
+	}
+
+	@Override
+	protected List<Address> generate(int count) throws MultichainException {
+		List<Address> addresses = new ArrayList<Address>(count);
+		for (int i = 0; i < count; i++) {
+			addresses.add(AddressCommand.getNewAddress());
+		}
+		return addresses;
+	}
+
+}
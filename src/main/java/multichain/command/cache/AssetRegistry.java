@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import multichain.command.IssueCommand;
+import multichain.command.MultichainException;
+import multichain.command.events.BlockTransactionFetcher;
+import multichain.command.events.BlockTransactionListener;
+import multichain.command.tools.MultichainTestParameter;
+import multichain.object.BalanceAsset;
+import multichain.object.Block;
+import multichain.object.Quantity;
+import multichain.object.TransactionRAW;
+import multichain.object.TransactionRAWVout;
+
+/**
+ * Keeps the definitions of the assets of the chain, as listed by listassets,
+ * so the send paths read the multiple of an asset and convert its quantities
+ * without calling the node :
+ *
+ * <pre>
+ * AssetRegistry assets = new AssetRegistry();
+ * blockTransactionFetcher.addListener(assets);
+ * long raw = assets.toRaw("asset1", 12.5);
+ * Quantity quantity = assets.quantity("asset1", "12.35");
+ * </pre>
+ *
+ * All the assets are loaded at the first query. An asset asked by a name, an
+ * assetref or an issue txid not loaded yet is read alone. Then the assets
+ * issued or issued more in the transactions of each block, given by a
+ * {@link BlockTransactionFetcher}, are read again : this gives the assetref of
+ * the new assets and the issued quantity of the others. A block whose
+ * transactions were not read, and errors of the node, make the registry load
+ * everything again at its next query.
+ *
+ * The assets returned are shared and must not be modified.
+ *
+ * @version 1.0
+ */
+public class AssetRegistry implements BlockTransactionListener {
+
+	private static final String ISSUE_FIRST = "issuefirst";
+	private static final String ISSUE_MORE = "issuemore";
+
+	private final ConcurrentMap<String, BalanceAsset> byName = new ConcurrentHashMap<String, BalanceAsset>();
+	private final ConcurrentMap<String, BalanceAsset> byRef = new ConcurrentHashMap<String, BalanceAsset>();
+	private final ConcurrentMap<String, BalanceAsset> byIssueTxid = new ConcurrentHashMap<String, BalanceAsset>();
+
+	private volatile boolean loaded;
+	private volatile long height = -1;
+
+	/**
+	 * Loads all the assets of the chain, replacing the registry.
+	 *
+	 * @throws MultichainException
+	 */
+	public synchronized void load() throws MultichainException {
+		List<BalanceAsset> assets = IssueCommand.listAssets();
+		byName.clear();
+		byRef.clear();
+		byIssueTxid.clear();
+		for (BalanceAsset asset : assets) {
+			put(asset);
+		}
+		loaded = true;
+	}
+
+	/**
+	 * Reads an asset again.
+	 *
+	 * @param identifier name, assetref or issue txid of the asset
+	 * @return the asset
+	 * @throws MultichainException if the asset does not exist
+	 */
+	public synchronized BalanceAsset refresh(String identifier) throws MultichainException {
+		MultichainTestParameter.isNotNullOrEmpty("identifier", identifier);
+		List<BalanceAsset> assets = IssueCommand.listAssets(identifier, false);
+		if (assets == null || assets.isEmpty()) {
+			throw new MultichainException("identifier", "asset " + identifier + " not found");
+		}
+		put(assets.get(0));
+		return assets.get(0);
+	}
+
+	/**
+	 * @param identifier name, assetref or issue txid of the asset
+	 * @return the asset, read from the node if not in the registry
+	 * @throws MultichainException if the asset does not exist
+	 */
+	public BalanceAsset getAsset(String identifier) throws MultichainException {
+		MultichainTestParameter.isNotNullOrEmpty("identifier", identifier);
+		ensureLoaded();
+		BalanceAsset asset = byName.get(identifier);
+		if (asset == null) {
+			asset = byRef.get(identifier);
+		}
+		if (asset == null) {
+			asset = byIssueTxid.get(identifier);
+		}
+		return asset == null ? refresh(identifier) : asset;
+	}
+
+	/**
+	 * @return all the assets of the registry
+	 * @throws MultichainException if the registry can not be loaded
+	 */
+	public List<BalanceAsset> getAssets() throws MultichainException {
+		ensureLoaded();
+		return new ArrayList<BalanceAsset>(byIssueTxid.values());
+	}
+
+	/**
+	 * @param identifier name, assetref or issue txid of the asset
+	 * @return the number of raw units per unit of the asset
+	 * @throws MultichainException if the asset does not exist
+	 */
+	public long getMultiple(String identifier) throws MultichainException {
+		return getAsset(identifier).getMultiple();
+	}
+
+	/**
+	 * @param identifier name, assetref or issue txid of the asset
+	 * @param quantity quantity of the asset
+	 * @return the quantity in raw units, rounded to the nearest one
+	 * @throws MultichainException if the asset does not exist
+	 */
+	public long toRaw(String identifier, double quantity) throws MultichainException {
+		return Math.round(quantity * getMultiple(identifier));
+	}
+
+	/**
+	 * @param identifier name, assetref or issue txid of the asset
+	 * @param raw quantity in raw units
+	 * @return the quantity of the asset
+	 * @throws MultichainException if the asset does not exist
+	 */
+	public double toQuantity(String identifier, long raw) throws MultichainException {
+		return (double) raw / getMultiple(identifier);
+	}
+
+	/**
+	 * @param identifier name, assetref or issue txid of the asset
+	 * @param decimal decimal quantity of the asset, for instance "12.35"
+	 * @return the exact quantity
+	 * @throws MultichainException if the asset does not exist, or the decimal
+	 *             is not a quantity of the asset
+	 */
+	public Quantity quantity(String identifier, String decimal) throws MultichainException {
+		MultichainTestParameter.isNotNullOrEmpty("decimal", decimal);
+		long multiple = getMultiple(identifier);
+		try {
+			return Quantity.parse(decimal, multiple);
+		} catch (ArithmeticException | NumberFormatException e) {
+			throw new MultichainException("decimal", e.getMessage());
+		}
+	}
+
+	/**
+	 * Reads again the assets issued, or issued more, in the transactions of
+	 * the block.
+	 */
+	@Override
+	public void onBlock(Block block, List<TransactionRAW> transactions) {
+		height = Math.max(height, block.getHeight());
+		if (!loaded) {
+			return;
+		}
+		if (transactions == null) {
+			loaded = false;
+			return;
+		}
+
+		Set<String> issued = new LinkedHashSet<String>();
+		try {
+			for (TransactionRAW transaction : transactions) {
+				for (TransactionRAWVout vout : transaction.getVout()) {
+					if (vout.getAssets() == null) {
+						continue;
+					}
+					for (BalanceAsset asset : vout.getAssets()) {
+						if (ISSUE_FIRST.equals(asset.getType()) || ISSUE_MORE.equals(asset.getType())) {
+							issued.add(asset.getIssuetxid() != null ? asset.getIssuetxid() : asset.getName());
+						}
+					}
+				}
+			}
+			for (String identifier : issued) {
+				refresh(identifier);
+			}
+		} catch (MultichainException | RuntimeException e) {
+			loaded = false;
+		}
+	}
+
+	/**
+	 * @return the height of the last block received, -1 if none
+	 */
+	public long getHeight() {
+		return height;
+	}
+
+	/**
+	 * @return the number of assets in the registry
+	 */
+	public int size() {
+		return byIssueTxid.size();
+	}
+
+	private void ensureLoaded() throws MultichainException {
+		if (!loaded) {
+			synchronized (this) {
+				if (!loaded) {
+					load();
+				}
+			}
+		}
+	}
+
+	private void put(BalanceAsset asset) {
+		// Unnamed assets are only reachable by assetref and issue txid
+		if (asset.getName() != null) {
+			BalanceAsset previous = byName.put(asset.getName(), asset);
+			if (previous != null && previous.getAssetref() != null) {
+				byRef.remove(previous.getAssetref(), previous);
+			}
+		}
+		if (asset.getAssetref() != null) {
+			byRef.put(asset.getAssetref(), asset);
+		}
+		if (asset.getIssuetxid() != null) {
+			byIssueTxid.put(asset.getIssuetxid(), asset);
+		}
+	}
+
+}
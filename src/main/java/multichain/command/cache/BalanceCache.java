@@ -0,0 +1,347 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.cache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import multichain.command.AddressCommand;
+import multichain.command.BalanceCommand;
+import multichain.command.MultichainException;
+import multichain.command.MultichainRPCException;
+import multichain.command.WalletTransactionCommand;
+import multichain.command.events.BlockTransactionFetcher;
+import multichain.command.events.BlockTransactionListener;
+import multichain.command.raw.AddressCodec;
+import multichain.command.raw.Hex;
+import multichain.command.transport.MultichainTransport;
+import multichain.object.BalanceAsset;
+import multichain.object.Block;
+import multichain.object.MultiBalance;
+import multichain.object.TransactionRAW;
+import multichain.object.TransactionRAWVin;
+import multichain.object.TransactionRAWVout;
+import multichain.object.TransactionWallet;
+
+/**
+ * Keeps the balances read from the wallet, so repeated reads do not make the
+ * node scan the wallet again :
+ *
+ * <pre>
+ * BalanceCache cache = new BalanceCache();
+ * blockTransactionFetcher.addListener(cache);
+ * ChainCommand.setTransport(cache.trackSends(new CliTransport()));
+ * List&lt;BalanceAsset&gt; balances = cache.getAddressBalances(address);
+ * </pre>
+ *
+ * The balances of an address are read again after a block including a
+ * transaction touching the address, given by a
+ * {@link BlockTransactionFetcher}, and after a transaction sent from the
+ * address through the transport returned by
+ * {@link #trackSends(MultichainTransport)}. The balances of the whole wallet
+ * are read again after any block with transactions, and after a send whose
+ * sending address is chosen by the node.
+ *
+ * The balances changed by other clients of the wallet before the next block
+ * are not seen : {@link #setMaxAgeMillis(long)} bounds the age of the
+ * balances served, and {@link #getAgeMillis(String)} gives the age of the
+ * balances of an address.
+ *
+ * The lists returned can not be modified, and the balances they hold are
+ * shared between the callers : they must not be modified either.
+ *
+ * @version 1.0
+ */
+public class BalanceCache implements BlockTransactionListener {
+
+	private static final String TOTAL_KEY = "total";
+	private static final String ADDRESS_KEY = "address:";
+	private static final String MULTI_KEY = "multi:";
+
+	private static final Set<String> SEND_FROM_COMMANDS = new HashSet<String>(Arrays.asList("sendfrom", "sendfromaddress",
+			"sendassetfrom", "sendwithmetadatafrom", "issuefrom", "issuemorefrom", "publishfrom", "grantfrom", "revokefrom",
+			"createfrom", "preparelockunspentfrom", "createrawsendfrom"));
+	private static final Set<String> SEND_COMMANDS = new HashSet<String>(Arrays.asList("sendtoaddress", "sendassettoaddress",
+			"sendwithmetadata", "issue", "issuemore", "publish", "grant", "revoke", "create", "preparelockunspent",
+			"sendrawtransaction", "combineunspent"));
+
+	private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+	private final AtomicLong generation = new AtomicLong();
+
+	private volatile long maxAgeMillis = Long.MAX_VALUE;
+	private volatile long height = -1;
+	private volatile AddressCodec codec;
+
+	/**
+	 * Balances read from the node
+	 */
+	private static final class Entry {
+		final Object value;
+		final Set<String> addresses;
+		final long time = System.currentTimeMillis();
+
+		Entry(Object value, Set<String> addresses) {
+			this.value = value;
+			this.addresses = addresses;
+		}
+	}
+
+	/**
+	 * Read of the node cached by the entries
+	 */
+	private interface Read<T> {
+		T read() throws MultichainException;
+	}
+
+	/**
+	 * @return the balances of the wallet, as
+	 *         {@link BalanceCommand#getTotalBalances()}
+	 * @throws MultichainException
+	 */
+	public List<BalanceAsset> getTotalBalances() throws MultichainException {
+		return get(TOTAL_KEY, null, () -> Collections.unmodifiableList(BalanceCommand.getTotalBalances()));
+	}
+
+	/**
+	 * @param address the address
+	 * @return the balances of the address, as
+	 *         {@link AddressCommand#getAddressBalances(String)}
+	 * @throws MultichainException
+	 */
+	public List<BalanceAsset> getAddressBalances(String address) throws MultichainException {
+		return get(ADDRESS_KEY + address, Collections.singleton(address),
+				() -> Collections.unmodifiableList(AddressCommand.getAddressBalances(address)));
+	}
+
+	/**
+	 * @param addresses the addresses
+	 * @return the balances of the addresses, as
+	 *         {@link AddressCommand#getMultiBalances(String[])}
+	 * @throws MultichainException
+	 */
+	public List<MultiBalance> getMultiBalances(String[] addresses) throws MultichainException {
+		final String[] values = addresses.clone();
+		return get(MULTI_KEY + String.join(",", values), new LinkedHashSet<String>(Arrays.asList(values)),
+				() -> unmodifiable(AddressCommand.getMultiBalances(values)));
+	}
+
+	/**
+	 * Reads the balances of the address again at its next read, and the
+	 * balances of the wallet including it.
+	 *
+	 * @param address the address
+	 */
+	public synchronized void invalidate(String address) {
+		generation.incrementAndGet();
+		entries.values().removeIf(entry -> entry.addresses == null || entry.addresses.contains(address));
+	}
+
+	/**
+	 * Reads all the balances again at their next read.
+	 */
+	public synchronized void invalidateAll() {
+		generation.incrementAndGet();
+		entries.clear();
+	}
+
+	/**
+	 * Invalidates the addresses touched by the transactions of the block : the
+	 * addresses paid by their outputs, and the addresses spending their
+	 * inputs, decoded from the input scripts. A transaction whose inputs can
+	 * not be decoded is looked up in the wallet with getwallettransaction, and
+	 * skipped if unknown to the wallet. Any other error, and a block whose
+	 * transactions were not read, invalidate all the balances.
+	 */
+	@Override
+	public void onBlock(Block block, List<TransactionRAW> transactions) {
+		height = Math.max(height, block.getHeight());
+		if (transactions == null) {
+			invalidateAll();
+			return;
+		}
+
+		Set<String> touched = new LinkedHashSet<String>();
+		for (TransactionRAW transaction : transactions) {
+			try {
+				if (!addAddresses(transaction, touched)) {
+					addWalletAddresses(transaction.getTxid(), touched);
+				}
+			} catch (MultichainException | RuntimeException e) {
+				invalidateAll();
+				return;
+			}
+		}
+		for (String address : touched) {
+			invalidate(address);
+		}
+	}
+
+	/**
+	 * Wraps a transport, so the transactions sent through it invalidate the
+	 * balances of their sending address.
+	 *
+	 * @param transport the transport to the node
+	 * @return the transport to give to
+	 *         {@link multichain.command.ChainCommand#setTransport(MultichainTransport)}
+	 */
+	public MultichainTransport trackSends(MultichainTransport transport) {
+		return (chain, command, parameters) -> {
+			try {
+				return transport.execute(chain, command, parameters);
+			} finally {
+				if (SEND_FROM_COMMANDS.contains(command) && parameters.length > 0) {
+					invalidate(unquote(parameters[0]));
+				} else if (SEND_COMMANDS.contains(command)) {
+					invalidateAll();
+				}
+			}
+		};
+	}
+
+	/**
+	 * @param address the address
+	 * @return the age in milliseconds of the balances of the address, -1 if
+	 *         they are not cached
+	 */
+	public long getAgeMillis(String address) {
+		Entry entry = entries.get(ADDRESS_KEY + address);
+		return entry == null ? -1 : System.currentTimeMillis() - entry.time;
+	}
+
+	/**
+	 * @return the age in milliseconds of the oldest balances cached, 0 if
+	 *         none
+	 */
+	public long getMaxCachedAgeMillis() {
+		long now = System.currentTimeMillis();
+		long age = 0;
+		for (Entry entry : entries.values()) {
+			age = Math.max(age, now - entry.time);
+		}
+		return age;
+	}
+
+	/**
+	 * @return the height of the last block received, -1 if none
+	 */
+	public long getHeight() {
+		return height;
+	}
+
+	/**
+	 * @return the number of balances cached
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return the maximum age of the balances served
+	 */
+	public long getMaxAgeMillis() {
+		return maxAgeMillis;
+	}
+
+	/**
+	 * @param maxAgeMillis maximum age of the balances served, older ones are
+	 *            read again. Unbounded by default.
+	 */
+	public void setMaxAgeMillis(long maxAgeMillis) {
+		this.maxAgeMillis = maxAgeMillis;
+	}
+
+	private static List<MultiBalance> unmodifiable(List<MultiBalance> balances) {
+		for (MultiBalance balance : balances) {
+			if (balance.getAssets() != null) {
+				balance.setAssets(Collections.unmodifiableList(balance.getAssets()));
+			}
+		}
+		return Collections.unmodifiableList(balances);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T get(String key, Set<String> addresses, Read<T> read) throws MultichainException {
+		Entry entry = entries.get(key);
+		if (entry != null && System.currentTimeMillis() - entry.time <= maxAgeMillis) {
+			return (T) entry.value;
+		}
+
+		long readGeneration = generation.get();
+		T value = read.read();
+		synchronized (this) {
+			if (generation.get() == readGeneration) {
+				entries.put(key, new Entry(value, addresses));
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * @return false if an input of the transaction can not be decoded
+	 */
+	private boolean addAddresses(TransactionRAW transaction, Set<String> addresses) throws MultichainException {
+		for (TransactionRAWVout vout : transaction.getVout()) {
+			if (vout.getScriptPubKey() != null && vout.getScriptPubKey().getAddresses() != null) {
+				addresses.addAll(vout.getScriptPubKey().getAddresses());
+			}
+		}
+		for (TransactionRAWVin vin : transaction.getVin()) {
+			if (vin.getCoinbase() != null) {
+				continue;
+			}
+			String script = vin.getScriptSig() == null ? null : vin.getScriptSig().getHex();
+			String address = script == null || script.isEmpty() ? null : codec().inputAddress(Hex.decode(script));
+			if (address == null) {
+				return false;
+			}
+			addresses.add(address);
+		}
+		return true;
+	}
+
+	private void addWalletAddresses(String txid, Set<String> addresses) throws MultichainException {
+		TransactionWallet transaction;
+		try {
+			transaction = WalletTransactionCommand.getWalletTransactionWithoutDetail(txid);
+		} catch (MultichainRPCException e) {
+			if (e.getCode() == MultichainRPCException.RPC_INVALID_ADDRESS_OR_KEY) {
+				// Not a transaction of the wallet
+				return;
+			}
+			throw e;
+		}
+		if (transaction.getMyaddresses() != null) {
+			addresses.addAll(transaction.getMyaddresses());
+		}
+	}
+
+	private AddressCodec codec() throws MultichainException {
+		AddressCodec current = codec;
+		if (current == null) {
+			current = AddressCodec.fromChain();
+			codec = current;
+		}
+		return current;
+	}
+
+	private static String unquote(String parameter) {
+		String value = parameter.trim();
+		if (value.length() >= 2 && (value.charAt(0) == '"' || value.charAt(0) == '\'') && value.charAt(value.length() - 1) == value.charAt(0)) {
+			return value.substring(1, value.length() - 1);
+		}
+		return value;
+	}
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.cache;
+
+import java.util.List;
+
+import multichain.command.AddressCommand;
+import multichain.command.MultichainException;
+import multichain.object.KeyPair;
+
+/**
+ * Key pairs generated ahead of their use, by batches of createkeypairs, for
+ * the addresses whose keys are managed outside of the wallet :
+ *
+ * <pre>
+ * KeyPairPool keyPairs = new KeyPairPool(100, 1000);
+ * keyPairs.fill();
+ * KeyPair keyPair = keyPairs.take();
+ * </pre>
+ *
+ * See {@link RefillingPool} for the refills.
+ *
+ * @version 1.0
+ */
+public class KeyPairPool extends RefillingPool<KeyPair> {
+
+	/**
+	 * @param lowWatermark number of key pairs under which the pool is refilled
+	 * @param highWatermark number of key pairs the pool is refilled to
+	 * @throws MultichainException if the watermarks are not ordered
+	 */
+	public KeyPairPool(int lowWatermark, int highWatermark) throws MultichainException {
+		super("keypair-pool", lowWatermark, highWatermark);
+	}
+
+	@Override
+	protected List<KeyPair> generate(int count) throws MultichainException {
+		return AddressCommand.createKeyPairs(count);
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import multichain.command.MultichainException;
+import multichain.object.Unspent;
+import multichain.object.queryobjects.TxIdVout;
+
+/**
+ * Outputs locked on the node by an {@link OutputLockManager} for one
+ * transaction, until the lease is closed or expires.
+ *
+ * <pre>
+ * try (OutputLease lease = manager.lease(from, amounts)) {
+ *     String hex = RAWTransactionCommand.createRawTransaction(lease.getTxIdVouts(), outputs);
+ *     ...
+ * }
+ * </pre>
+ *
+ * @version 1.0
+ */
+public class OutputLease implements AutoCloseable {
+
+	private final OutputLockManager manager;
+	private final List<TxIdVout> outputs;
+	private final List<Unspent> inputs;
+	private volatile long expiry;
+	private volatile boolean released;
+
+	OutputLease(OutputLockManager manager, List<TxIdVout> outputs, List<Unspent> inputs, long expiry) {
+		this.manager = manager;
+		this.outputs = Collections.unmodifiableList(new ArrayList<TxIdVout>(outputs));
+		this.inputs = Collections.unmodifiableList(inputs);
+		this.expiry = expiry;
+	}
+
+	/**
+	 * @return the leased outputs, as given to createrawtransaction
+	 */
+	public List<TxIdVout> getTxIdVouts() {
+		return outputs;
+	}
+
+	/**
+	 * @return the unspent outputs selected by
+	 *         {@link OutputLockManager#lease(String, java.util.Map)}, empty
+	 *         when the outputs were leased by id
+	 */
+	public List<Unspent> getInputs() {
+		return inputs;
+	}
+
+	/**
+	 * @return the time the lease expires at, in milliseconds since epoch
+	 */
+	public long getExpiry() {
+		return expiry;
+	}
+
+	/**
+	 * @return true if the lease expired, and may be released by the manager
+	 */
+	public boolean isExpired() {
+		return System.currentTimeMillis() >= expiry;
+	}
+
+	/**
+	 * @return true if the outputs were unlocked
+	 */
+	public boolean isReleased() {
+		return released;
+	}
+
+	/**
+	 * Extends the lease of a transaction taking longer than expected.
+	 *
+	 * @param leaseMillis duration of the lease from now on
+	 * @throws MultichainException if the lease was already released
+	 */
+	public void renew(long leaseMillis) throws MultichainException {
+		synchronized (manager) {
+			if (released) {
+				throw new MultichainException("lease", "lease of " + outputs.size() + " outputs already released");
+			}
+			expiry = System.currentTimeMillis() + leaseMillis;
+		}
+	}
+
+	/**
+	 * Unlocks the outputs on the node, whether they were spent or not.
+	 * Closing a released lease does nothing.
+	 *
+	 * @throws MultichainException
+	 */
+	@Override
+	public void close() throws MultichainException {
+		manager.release(this);
+	}
+
+	/**
+	 * @return true if the lease was still held, and is now released
+	 */
+	boolean markReleased() {
+		if (released) {
+			return false;
+		}
+		released = true;
+		return true;
+	}
+
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import multichain.command.MultichainException;
+import multichain.command.WalletTransactionCommand;
+import multichain.command.tools.MultichainTestParameter;
+import multichain.object.Unspent;
+import multichain.object.queryobjects.TxIdVout;
+
+/**
+ * Leases unspent outputs to concurrent raw transaction builders : the leased
+ * outputs are locked on the node with lockunspent, so neither the other
+ * builders, which select from listunspent, nor the coin selection of the node
+ * spend them, and are unlocked when the lease is closed or expires.
+ *
+ * <pre>
+ * OutputLockManager manager = new OutputLockManager(30000);
+ * manager.start(1000);
+ * try (OutputLease lease = manager.lease(from, Collections.singletonMap("asset1", 10.0))) {
+ *     String hex = RAWTransactionCommand.createRawTransaction(lease.getTxIdVouts(), outputs);
+ *     ...
+ * }
+ * </pre>
+ *
+ * Expired leases are released by {@link #releaseExpired()}, called at every
+ * new lease and periodically once the manager is started. The node keeps its
+ * locks in memory only : they are lost when it restarts, and left until then
+ * by a process stopping with leases held.
+ *
+ * @version 1.0
+ */
+public class OutputLockManager {
+
+	/**
+	 * Default duration of a lease
+	 */
+	public static final long DEFAULT_LEASE_MILLIS = 60000;
+
+	private static final int ALL_CONFIRMATIONS = 9999999;
+
+	private final Map<String, OutputLease> leases = new HashMap<String, OutputLease>();
+	private final long leaseMillis;
+
+	private ScheduledExecutorService executor;
+
+	/**
+	 * Manager with leases of {@link #DEFAULT_LEASE_MILLIS}
+	 */
+	public OutputLockManager() {
+		this(DEFAULT_LEASE_MILLIS);
+	}
+
+	/**
+	 * @param leaseMillis default duration of a lease
+	 */
+	public OutputLockManager(long leaseMillis) {
+		this.leaseMillis = leaseMillis;
+	}
+
+	/**
+	 * Leases outputs of the address covering the amounts, the largest outputs
+	 * first, for the default duration.
+	 *
+	 * @param address the address spending the outputs
+	 * @param amounts the quantities to cover, by asset name
+	 * @return the lease of the selected outputs
+	 * @throws MultichainException
+	 */
+	public OutputLease lease(String address, Map<String, Double> amounts) throws MultichainException {
+		return lease(address, amounts, leaseMillis);
+	}
+
+	/**
+	 * Leases outputs of the address covering the amounts, the largest outputs
+	 * first.
+	 *
+	 * @param address the address spending the outputs
+	 * @param amounts the quantities to cover, by asset name
+	 * @param leaseMillis duration of the lease
+	 * @return the lease of the selected outputs
+	 * @throws MultichainException
+	 */
+	public OutputLease lease(String address, Map<String, Double> amounts, long leaseMillis) throws MultichainException {
+		MultichainTestParameter.isNotNullOrEmpty("address", address);
+		if (amounts == null || amounts.isEmpty()) {
+			throw new MultichainException("amounts", "amounts needed to lease outputs");
+		}
+		releaseExpired();
+		List<Unspent> unspentList = WalletTransactionCommand.listUnspent(0, ALL_CONFIRMATIONS, address);
+
+		OutputLease lease;
+		synchronized (this) {
+			List<Unspent> available = new ArrayList<Unspent>();
+			for (Unspent unspent : unspentList) {
+				if (unspent.isSpendable() && !leases.containsKey(unspent.getOutpoint())) {
+					available.add(unspent);
+				}
+			}
+			List<Unspent> inputs = UnspentSelection.pick("lockunspent", address, available, amounts, new HashMap<String, Long>());
+
+			List<TxIdVout> outputs = new ArrayList<TxIdVout>(inputs.size());
+			for (Unspent input : inputs) {
+				outputs.add(new TxIdVout(input.getTxid(), input.getVout()));
+			}
+			lease = new OutputLease(this, outputs, inputs, System.currentTimeMillis() + leaseMillis);
+			reserve(lease);
+		}
+		lockOnNode(lease);
+		return lease;
+	}
+
+	/**
+	 * Leases the given outputs for the default duration.
+	 *
+	 * @param outputs the outputs to lease
+	 * @return the lease of the outputs
+	 * @throws MultichainException if one of the outputs is already leased
+	 */
+	public OutputLease lease(List<TxIdVout> outputs) throws MultichainException {
+		return lease(outputs, leaseMillis);
+	}
+
+	/**
+	 * Leases the given outputs, all of them or none.
+	 *
+	 * @param outputs the outputs to lease
+	 * @param leaseMillis duration of the lease
+	 * @return the lease of the outputs
+	 * @throws MultichainException if one of the outputs is already leased
+	 */
+	public OutputLease lease(List<TxIdVout> outputs, long leaseMillis) throws MultichainException {
+		if (outputs == null || outputs.isEmpty()) {
+			throw new MultichainException("outputs", "outputs needed to be leased");
+		}
+		for (TxIdVout output : outputs) {
+			output.isFilled();
+		}
+		releaseExpired();
+
+		OutputLease lease = new OutputLease(this, outputs, new ArrayList<Unspent>(), System.currentTimeMillis() + leaseMillis);
+		synchronized (this) {
+			for (TxIdVout output : outputs) {
+				if (leases.containsKey(outpoint(output))) {
+					throw new MultichainException("outputs", "output " + outpoint(output) + " already leased");
+				}
+			}
+			reserve(lease);
+		}
+		lockOnNode(lease);
+		return lease;
+	}
+
+	/**
+	 * Runs a task with outputs of the address covering the amounts, and
+	 * releases them whatever the outcome of the task.
+	 *
+	 * @param address the address spending the outputs
+	 * @param amounts the quantities to cover, by asset name
+	 * @param task the task building and sending the transaction
+	 * @return the result of the task
+	 * @throws MultichainException
+	 */
+	public <T> T withLease(String address, Map<String, Double> amounts, LeaseTask<T> task) throws MultichainException {
+		try (OutputLease lease = lease(address, amounts)) {
+			return task.run(lease);
+		}
+	}
+
+	/**
+	 * Task run on leased outputs
+	 */
+	public interface LeaseTask<T> {
+		/**
+		 * @param lease the lease of the outputs
+		 * @return the result of the task
+		 * @throws MultichainException
+		 */
+		T run(OutputLease lease) throws MultichainException;
+	}
+
+	/**
+	 * Releases the expired leases. Errors of the node are ignored, the outputs
+	 * being then available in the process but still locked on the node.
+	 *
+	 * @return the number of leases released
+	 */
+	public int releaseExpired() {
+		List<OutputLease> expired = new ArrayList<OutputLease>();
+		synchronized (this) {
+			for (OutputLease lease : leases.values()) {
+				if (lease.isExpired() && !expired.contains(lease)) {
+					expired.add(lease);
+				}
+			}
+		}
+
+		int released = 0;
+		for (OutputLease lease : expired) {
+			try {
+				if (release(lease)) {
+					released++;
+				}
+			} catch (MultichainException | RuntimeException e) {
+				released++;
+			}
+		}
+		return released;
+	}
+
+	/**
+	 * Releases the expired leases in a daemon thread.
+	 *
+	 * @param periodMillis delay between two checks
+	 */
+	public synchronized void start(long periodMillis) {
+		if (executor != null) {
+			return;
+		}
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "output-lock-manager");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(this::releaseExpired, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops releasing the expired leases in the background.
+	 */
+	public synchronized void stop() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	/**
+	 * @return the number of outputs currently leased
+	 */
+	public synchronized int getLeasedCount() {
+		return leases.size();
+	}
+
+	/**
+	 * Unlocks the outputs of the lease on the node.
+	 *
+	 * @return false if the lease was already released
+	 */
+	boolean release(OutputLease lease) throws MultichainException {
+		synchronized (this) {
+			if (!lease.markReleased()) {
+				return false;
+			}
+			for (TxIdVout output : lease.getTxIdVouts()) {
+				leases.remove(outpoint(output), lease);
+			}
+		}
+		WalletTransactionCommand.lockUnspent(true, lease.getTxIdVouts());
+		return true;
+	}
+
+	private void reserve(OutputLease lease) {
+		for (TxIdVout output : lease.getTxIdVouts()) {
+			leases.put(outpoint(output), lease);
+		}
+	}
+
+	private void lockOnNode(OutputLease lease) throws MultichainException {
+		try {
+			WalletTransactionCommand.lockUnspent(false, lease.getTxIdVouts());
+		} catch (MultichainException | RuntimeException e) {
+			synchronized (this) {
+				lease.markReleased();
+				for (TxIdVout output : lease.getTxIdVouts()) {
+					leases.remove(outpoint(output), lease);
+				}
+			}
+			throw e;
+		}
+	}
+
+	private static String outpoint(TxIdVout output) {
+		return output.getTxId() + ":" + output.getvOut();
+	}
+
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import multichain.command.MultichainException;
+import multichain.command.WalletTransactionCommand;
+import multichain.command.raw.AddressValidator;
+import multichain.command.tools.MultichainTestParameter;
+import multichain.object.AddressBalanceAsset;
+import multichain.object.BalanceAssetBase;
+import multichain.object.Quantity;
+
+/**
+ * Groups the payments from an address into multi recipient transactions,
+ * instead of one transaction per call of
+ * {@link WalletTransactionCommand#sendToAddress(String, List)} :
+ *
+ * <pre>
+ * PaymentBatcher batcher = new PaymentBatcher(cache, from);
+ * batcher.setMaxPayments(500);
+ * batcher.setMaxDelayMillis(2000);
+ * CompletableFuture&lt;String&gt; txid = batcher.pay(to, assets);
+ * ...
+ * batcher.close();
+ * </pre>
+ *
+ * The pending payments are sent in one transaction, through
+ * {@link UnspentCache#send(String, List)}, as soon as their number reaches
+ * {@link #setMaxPayments(int)}, the total of one asset reaches
+ * {@link #setMaxValue(String, double)}, or the first of them waited
+ * {@link #setMaxDelayMillis(long)}. The future of every payment of the batch
+ * then completes with the id of the transaction, or with the error of the
+ * node for the whole batch. The receiving addresses are validated by
+ * {@link #pay(String, List)}, so an invalid one fails its own payment only.
+ *
+ * Batches are sent one at a time, in a daemon thread of the batcher.
+ *
+ * @version 1.0
+ */
+public class PaymentBatcher {
+
+	/**
+	 * Default number of payments per transaction
+	 */
+	public static final int DEFAULT_MAX_PAYMENTS = 100;
+
+	/**
+	 * Default delay before the pending payments are sent
+	 */
+	public static final long DEFAULT_MAX_DELAY_MILLIS = 1000;
+
+	private final UnspentCache cache;
+	private final String from;
+	private final ScheduledExecutorService executor;
+	private final AddressValidator validator = new AddressValidator();
+	private final Map<String, Long> maxValues = new HashMap<String, Long>();
+
+	private int maxPayments = DEFAULT_MAX_PAYMENTS;
+	private long maxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+	private List<Payment> pending = new ArrayList<Payment>();
+	private Map<String, Long> pendingTotals = new HashMap<String, Long>();
+	private long batch;
+	private boolean closed;
+
+	/**
+	 * Payment waiting for its transaction
+	 */
+	private static final class Payment {
+		final AddressBalanceAsset output;
+		final CompletableFuture<String> txid = new CompletableFuture<String>();
+
+		Payment(AddressBalanceAsset output) {
+			this.output = output;
+		}
+	}
+
+	/**
+	 * @param cache the cache selecting the inputs of the transactions
+	 * @param from the address sending the payments
+	 */
+	public PaymentBatcher(UnspentCache cache, String from) {
+		this.cache = cache;
+		this.from = from;
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "payment-batcher");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Adds a payment to the pending batch.
+	 *
+	 * @param address the receiving address
+	 * @param assets the quantities to send, the native currency named
+	 *            {@link AddressBalanceAsset#NATIVE_CURRENCY}
+	 * @return the future id of the transaction including the payment
+	 * @throws MultichainException if the address is not valid on the chain
+	 */
+	public CompletableFuture<String> pay(String address, List<BalanceAssetBase> assets) throws MultichainException {
+		MultichainTestParameter.isNotNullOrEmpty("address", address);
+		MultichainTestParameter.isNotNull("assets", assets);
+		if (assets.isEmpty()) {
+			throw new MultichainException("assets", "assets needed to pay " + address);
+		}
+		if (!validator.isValid(address)) {
+			throw new MultichainException("address", "invalid address " + address);
+		}
+		AddressBalanceAsset output = new AddressBalanceAsset();
+		output.setAddress(address);
+		for (BalanceAssetBase asset : assets) {
+			MultichainTestParameter.valueIsPositive("qty", asset.getQty());
+			output.addAsset(UnspentSelection.quantity(asset.getName(), asset.getQty()));
+		}
+		Payment payment = new Payment(output);
+
+		synchronized (this) {
+			if (closed) {
+				throw new MultichainException("batcher", "payment batcher closed");
+			}
+			pending.add(payment);
+			boolean valueReached = false;
+			for (BalanceAssetBase asset : output.getAssets()) {
+				long total = Quantity.addExact(pendingTotals.getOrDefault(asset.getName(), 0L), UnspentCache.MULTIPLE,
+						Quantity.toRaw(asset.getQty(), UnspentCache.MULTIPLE), UnspentCache.MULTIPLE);
+				pendingTotals.put(asset.getName(), total);
+				Long maxValue = maxValues.get(asset.getName());
+				valueReached |= maxValue != null && total >= maxValue;
+			}
+
+			if (pending.size() >= maxPayments || valueReached) {
+				flushPending();
+			} else if (pending.size() == 1) {
+				final long scheduled = batch;
+				executor.schedule(() -> flush(scheduled), maxDelayMillis, TimeUnit.MILLISECONDS);
+			}
+		}
+		return payment.txid;
+	}
+
+	/**
+	 * Sends the pending payments without waiting for a threshold.
+	 */
+	public synchronized void flush() {
+		flushPending();
+	}
+
+	/**
+	 * Sends the pending payments, then stops the batcher once they are sent.
+	 */
+	public synchronized void close() {
+		if (!closed) {
+			closed = true;
+			flushPending();
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * @return the number of payments waiting for their transaction to be sent
+	 */
+	public synchronized int getPendingCount() {
+		return pending.size();
+	}
+
+	/**
+	 * @param maxPayments number of pending payments sending the batch
+	 */
+	public synchronized void setMaxPayments(int maxPayments) {
+		this.maxPayments = Math.max(1, maxPayments);
+	}
+
+	/**
+	 * @param asset name of the asset, {@link AddressBalanceAsset#NATIVE_CURRENCY}
+	 *            for the native currency
+	 * @param maxValue total quantity of the asset in the pending payments
+	 *            sending the batch
+	 */
+	public synchronized void setMaxValue(String asset, double maxValue) {
+		maxValues.put(asset, Quantity.toRaw(maxValue, UnspentCache.MULTIPLE));
+	}
+
+	/**
+	 * @param maxDelayMillis delay after which a pending payment is sent,
+	 *            whatever the size of its batch
+	 */
+	public synchronized void setMaxDelayMillis(long maxDelayMillis) {
+		this.maxDelayMillis = Math.max(0, maxDelayMillis);
+	}
+
+	private synchronized void flush(long scheduled) {
+		if (batch == scheduled) {
+			flushPending();
+		}
+	}
+
+	private void flushPending() {
+		if (pending.isEmpty()) {
+			return;
+		}
+		final List<Payment> payments = pending;
+		pending = new ArrayList<Payment>();
+		pendingTotals = new HashMap<String, Long>();
+		batch++;
+		executor.execute(() -> send(payments));
+	}
+
+	private void send(List<Payment> payments) {
+		List<AddressBalanceAsset> outputs = new ArrayList<AddressBalanceAsset>(payments.size());
+		for (Payment payment : payments) {
+			outputs.add(payment.output);
+		}
+
+		try {
+			String txid = cache.send(from, outputs);
+			for (Payment payment : payments) {
+				payment.txid.complete(txid);
+			}
+		} catch (MultichainException | RuntimeException e) {
+			for (Payment payment : payments) {
+				payment.txid.completeExceptionally(e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import multichain.command.BlockCommand;
+import multichain.command.GrantCommand;
+import multichain.command.MultichainException;
+import multichain.command.events.BlockTransactionFetcher;
+import multichain.command.events.BlockTransactionListener;
+import multichain.command.tools.MultichainTestParameter;
+import multichain.object.Block;
+import multichain.object.Permission;
+import multichain.object.TransactionRAW;
+import multichain.object.TransactionRAWVout;
+
+/**
+ * Keeps the global permissions of the addresses of the chain, with their
+ * block windows, so permission checks do not call listpermissions :
+ *
+ * <pre>
+ * PermissionIndex index = new PermissionIndex();
+ * blockTransactionFetcher.addListener(index);
+ * if (index.hasPermission(address, "send")) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * The index is loaded with all the permissions of the chain at its first
+ * query. Then the addresses receiving a grant or a revoke in the transactions
+ * of each block, given by a {@link BlockTransactionFetcher}, are read again. A
+ * block whose transactions were not read, and errors of the node, make the
+ * index load everything again at its next query.
+ *
+ * A permission is active from its startblock, inclusive, to its endblock,
+ * exclusive. Permissions per stream or asset are not indexed.
+ *
+ * @version 1.0
+ */
+public class PermissionIndex implements BlockTransactionListener {
+
+	private static final String[] FLAG_NAMES = { "connect", "send", "receive", "issue", "mine", "activate", "admin", "create" };
+	private static final int CREATE_BIT = 7;
+
+	/**
+	 * Block windows by permission type, by address. Null until loaded.
+	 */
+	private volatile Map<String, Map<String, long[]>> windows;
+	private volatile long height = -1;
+
+	/**
+	 * Loads all the global permissions of the chain, replacing the index.
+	 *
+	 * @throws MultichainException
+	 */
+	public synchronized void load() throws MultichainException {
+		long count = BlockCommand.getBlockCount();
+		Map<String, Map<String, long[]>> loaded = new ConcurrentHashMap<String, Map<String, long[]>>();
+		for (Map.Entry<String, Map<String, long[]>> entry : group(GrantCommand.listPermissionsList((List<String>) null)).entrySet()) {
+			loaded.put(entry.getKey(), Collections.unmodifiableMap(entry.getValue()));
+		}
+		windows = loaded;
+		height = Math.max(height, count);
+	}
+
+	/**
+	 * Reads the permissions of the addresses again, to see a grant or a
+	 * revoke before the block including it.
+	 *
+	 * @param addresses the addresses
+	 * @throws MultichainException
+	 */
+	public synchronized void refresh(Collection<String> addresses) throws MultichainException {
+		if (addresses == null || addresses.isEmpty()) {
+			return;
+		}
+		Map<String, Map<String, long[]>> current = windows();
+		Set<String> requested = new LinkedHashSet<String>(addresses);
+		Map<String, Map<String, long[]>> read = group(GrantCommand.listPermissionsList(new ArrayList<String>(requested)));
+		for (String address : requested) {
+			Map<String, long[]> granted = read.get(address);
+			if (granted == null) {
+				current.remove(address);
+			} else {
+				current.put(address, Collections.unmodifiableMap(granted));
+			}
+		}
+	}
+
+	/**
+	 * @param address the address
+	 * @param type the permission : connect, send, receive, issue, create,
+	 *            mine, activate or admin
+	 * @param height height of the block
+	 * @return true if the address has the permission at this height
+	 * @throws MultichainException if the index can not be loaded
+	 */
+	public boolean hasPermission(String address, String type, long height) throws MultichainException {
+		MultichainTestParameter.isNotNullOrEmpty("address", address);
+		MultichainTestParameter.isNotNullOrEmpty("type", type);
+		Map<String, long[]> granted = windows().get(address);
+		long[] window = granted == null ? null : granted.get(type);
+		return window != null && window[0] <= height && height < window[1];
+	}
+
+	/**
+	 * @param address the address
+	 * @param type the permission
+	 * @return true if the address has the permission in the next block
+	 * @throws MultichainException if the index can not be loaded
+	 */
+	public boolean hasPermission(String address, String type) throws MultichainException {
+		windows();
+		return hasPermission(address, type, height + 1);
+	}
+
+	/**
+	 * @param address the address
+	 * @param permissions the permissions, as the flags of
+	 *            {@link GrantCommand}, for instance GrantCommand.SEND |
+	 *            GrantCommand.RECEIVE, or {@link GrantCommand#CREATE} alone
+	 *            for the create permission
+	 * @param height height of the block
+	 * @return true if the address has all the permissions at this height
+	 * @throws MultichainException if the index can not be loaded
+	 */
+	public boolean hasPermissions(String address, int permissions, long height) throws MultichainException {
+		if (permissions == GrantCommand.CREATE) {
+			return hasPermission(address, FLAG_NAMES[CREATE_BIT], height);
+		}
+		MultichainTestParameter.valueIsPositive("permissions", permissions);
+		for (int bit = 0; bit < CREATE_BIT; bit++) {
+			if ((permissions & (1 << bit)) != 0 && !hasPermission(address, FLAG_NAMES[bit], height)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reads again the addresses receiving a permission in the transactions of
+	 * the block.
+	 */
+	@Override
+	public void onBlock(Block block, List<TransactionRAW> transactions) {
+		height = Math.max(height, block.getHeight());
+		if (windows == null) {
+			return;
+		}
+		if (transactions == null) {
+			windows = null;
+			return;
+		}
+
+		Set<String> addresses = new LinkedHashSet<String>();
+		try {
+			for (TransactionRAW transaction : transactions) {
+				for (TransactionRAWVout vout : transaction.getVout()) {
+					if (vout.getPermissions() != null && !vout.getPermissions().isEmpty() && vout.getScriptPubKey() != null
+							&& vout.getScriptPubKey().getAddresses() != null) {
+						addresses.addAll(vout.getScriptPubKey().getAddresses());
+					}
+				}
+			}
+			refresh(addresses);
+		} catch (MultichainException | RuntimeException e) {
+			windows = null;
+		}
+	}
+
+	/**
+	 * @return the height of the last block received or loaded, -1 if none
+	 */
+	public long getHeight() {
+		return height;
+	}
+
+	/**
+	 * @return the number of addresses having a permission in the index
+	 */
+	public int size() {
+		Map<String, Map<String, long[]>> current = windows;
+		return current == null ? 0 : current.size();
+	}
+
+	private Map<String, Map<String, long[]>> windows() throws MultichainException {
+		Map<String, Map<String, long[]>> current = windows;
+		if (current == null) {
+			synchronized (this) {
+				if (windows == null) {
+					load();
+				}
+				current = windows;
+			}
+		}
+		return current;
+	}
+
+	private static Map<String, Map<String, long[]>> group(List<Permission> permissions) {
+		Map<String, Map<String, long[]>> grouped = new HashMap<String, Map<String, long[]>>();
+		for (Permission permission : permissions) {
+			if (permission.getEntity() != null || permission.getAddress() == null || permission.getType() == null) {
+				continue;
+			}
+			Map<String, long[]> granted = grouped.get(permission.getAddress());
+			if (granted == null) {
+				granted = new HashMap<String, long[]>();
+				grouped.put(permission.getAddress(), granted);
+			}
+			granted.put(permission.getType(), new long[] { permission.getStartblock(), permission.getEndblock() });
+		}
+		return grouped;
+	}
+
+}
@@ -0,0 +1,409 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.cache;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import multichain.command.GrantCommand;
+import multichain.command.MultichainException;
+import multichain.object.Permission;
+
+/**
+ * Compact table of the permissions of the addresses of a chain, for chains
+ * with millions of addresses : each address is interned to an int id, and
+ * each permission is a bitset indexed by these ids, so a check is a hash
+ * lookup and a bit test, without allocation.
+ *
+ * <pre>
+ * PermissionTable table = new PermissionTable(1000000);
+ * table.load();
+ * if (table.has(address, GrantCommand.SEND | GrantCommand.RECEIVE)) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * The permissions are the flags of {@link GrantCommand}, whose
+ * {@link GrantCommand#CREATE} is 0 and checks the create permission alone.
+ * The write permissions of the streams are kept in one bitset per stream.
+ * Other permissions per stream or asset are not kept, neither are the block
+ * windows of the permissions, see {@link PermissionIndex} for them.
+ *
+ * The table is not synchronized : it is loaded or updated by one thread, then
+ * published to the readers, for instance through a volatile field.
+ *
+ * @version 1.0
+ */
+public class PermissionTable {
+
+	private static final String[] TYPES = { "connect", "send", "receive", "issue", "mine", "activate", "admin", "create" };
+	private static final int CREATE_BIT = 7;
+	private static final String WRITE = "write";
+	private static final String STREAM = "stream";
+
+	/**
+	 * Addresses by id
+	 */
+	private String[] addresses;
+	/**
+	 * Open addressing table of the ids plus one by address hash, 0 for a free
+	 * slot
+	 */
+	private int[] slots;
+	private int count;
+
+	private final long[][] bits = new long[TYPES.length][];
+	private final Map<String, long[]> writers = new HashMap<String, long[]>();
+
+	/**
+	 * Table sized for 1024 addresses, growing as needed
+	 */
+	public PermissionTable() {
+		this(1024);
+	}
+
+	/**
+	 * @param expectedAddresses number of addresses the table holds without
+	 *            growing
+	 */
+	public PermissionTable(int expectedAddresses) {
+		int capacity = Math.max(16, expectedAddresses);
+		addresses = new String[capacity];
+		slots = new int[tableSize(capacity)];
+		for (int type = 0; type < bits.length; type++) {
+			bits[type] = new long[0];
+		}
+	}
+
+	/**
+	 * Replaces the content of the table with all the permissions of the chain,
+	 * given by listpermissions.
+	 *
+	 * @throws MultichainException
+	 */
+	public void load() throws MultichainException {
+		List<Permission> permissions = GrantCommand.listPermissionsList((List<String>) null);
+		clear();
+		addAll(permissions);
+	}
+
+	/**
+	 * Adds permissions as listed by
+	 * {@link GrantCommand#listPermissionsList(List)}, whatever their block
+	 * windows.
+	 *
+	 * @param permissions the permissions
+	 */
+	public void addAll(List<Permission> permissions) {
+		for (Permission permission : permissions) {
+			add(permission);
+		}
+	}
+
+	/**
+	 * Adds the permissions active at a height : from their startblock,
+	 * inclusive, to their endblock, exclusive.
+	 *
+	 * @param permissions the permissions
+	 * @param height height of the block
+	 */
+	public void addAll(List<Permission> permissions, long height) {
+		for (Permission permission : permissions) {
+			if (permission.getStartblock() <= height && height < permission.getEndblock()) {
+				add(permission);
+			}
+		}
+	}
+
+	/**
+	 * Adds a global permission, or the write permission of a stream. Other
+	 * permissions are ignored.
+	 *
+	 * @param permission the permission
+	 */
+	public void add(Permission permission) {
+		if (permission.getAddress() == null || permission.getType() == null) {
+			return;
+		}
+		if (permission.getEntity() == null) {
+			int type = typeOf(permission.getType());
+			if (type >= 0) {
+				bits[type] = set(bits[type], intern(permission.getAddress()));
+			}
+		} else if (STREAM.equals(permission.getEntity().getType()) && WRITE.equals(permission.getType())) {
+			grantWrite(permission.getAddress(), permission.getEntity().getName());
+		}
+	}
+
+	/**
+	 * @param address the address
+	 * @param permissions the flags of {@link GrantCommand} to grant
+	 */
+	public void grant(String address, int permissions) {
+		int id = intern(address);
+		if (permissions == GrantCommand.CREATE) {
+			bits[CREATE_BIT] = set(bits[CREATE_BIT], id);
+		}
+		for (int type = 0; type < CREATE_BIT; type++) {
+			if ((permissions & (1 << type)) != 0) {
+				bits[type] = set(bits[type], id);
+			}
+		}
+	}
+
+	/**
+	 * @param address the address
+	 * @param permissions the flags of {@link GrantCommand} to revoke
+	 */
+	public void revoke(String address, int permissions) {
+		int id = idOf(address);
+		if (id < 0) {
+			return;
+		}
+		if (permissions == GrantCommand.CREATE) {
+			clear(bits[CREATE_BIT], id);
+		}
+		for (int type = 0; type < CREATE_BIT; type++) {
+			if ((permissions & (1 << type)) != 0) {
+				clear(bits[type], id);
+			}
+		}
+	}
+
+	/**
+	 * @param address the address
+	 * @param stream name of the stream
+	 */
+	public void grantWrite(String address, String stream) {
+		int id = intern(address);
+		writers.put(stream, set(writers.get(stream), id));
+	}
+
+	/**
+	 * @param address the address
+	 * @param stream name of the stream
+	 */
+	public void revokeWrite(String address, String stream) {
+		int id = idOf(address);
+		long[] streamWriters = writers.get(stream);
+		if (id >= 0 && streamWriters != null) {
+			clear(streamWriters, id);
+		}
+	}
+
+	/**
+	 * @param address the address
+	 * @param permissions the flags of {@link GrantCommand}, for instance
+	 *            GrantCommand.SEND | GrantCommand.RECEIVE
+	 * @return true if the address has all the permissions
+	 */
+	public boolean has(String address, int permissions) {
+		return has(idOf(address), permissions);
+	}
+
+	/**
+	 * @param id id of the address, given by {@link #idOf(String)}
+	 * @param permissions the flags of {@link GrantCommand}
+	 * @return true if the address has all the permissions
+	 */
+	public boolean has(int id, int permissions) {
+		if (id < 0) {
+			return false;
+		}
+		if (permissions == GrantCommand.CREATE) {
+			return test(bits[CREATE_BIT], id);
+		}
+		for (int type = 0; type < CREATE_BIT; type++) {
+			if ((permissions & (1 << type)) != 0 && !test(bits[type], id)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param address the address
+	 * @param type the permission : connect, send, receive, issue, mine,
+	 *            activate, admin or create
+	 * @return true if the address has the permission
+	 */
+	public boolean has(String address, String type) {
+		int bit = typeOf(type);
+		return bit >= 0 && test(bits[bit], idOf(address));
+	}
+
+	/**
+	 * @param address the address
+	 * @param stream name of the stream
+	 * @return true if the address has the write permission of the stream
+	 */
+	public boolean canWrite(String address, String stream) {
+		return test(writers.get(stream), idOf(address));
+	}
+
+	/**
+	 * @param address the address
+	 * @return the global permissions of the address as flags of
+	 *         {@link GrantCommand}, create excepted
+	 */
+	public int getPermissions(String address) {
+		int id = idOf(address);
+		int permissions = 0;
+		for (int type = 0; type < CREATE_BIT; type++) {
+			if (test(bits[type], id)) {
+				permissions |= 1 << type;
+			}
+		}
+		return permissions;
+	}
+
+	/**
+	 * @param type the permission
+	 * @return the number of addresses having the permission
+	 */
+	public int count(String type) {
+		int bit = typeOf(type);
+		int holders = 0;
+		if (bit >= 0) {
+			for (long word : bits[bit]) {
+				holders += Long.bitCount(word);
+			}
+		}
+		return holders;
+	}
+
+	/**
+	 * @param address the address
+	 * @return the id of the address, added to the table if needed
+	 */
+	public int intern(String address) {
+		int id = idOf(address);
+		if (id >= 0) {
+			return id;
+		}
+		if (count == addresses.length) {
+			grow();
+		}
+		id = count++;
+		addresses[id] = address;
+		insert(id);
+		return id;
+	}
+
+	/**
+	 * @param address the address
+	 * @return the id of the address, -1 if not in the table
+	 */
+	public int idOf(String address) {
+		if (address == null) {
+			return -1;
+		}
+		int mask = slots.length - 1;
+		for (int slot = hash(address) & mask;; slot = (slot + 1) & mask) {
+			int entry = slots[slot];
+			if (entry == 0) {
+				return -1;
+			}
+			if (addresses[entry - 1].equals(address)) {
+				return entry - 1;
+			}
+		}
+	}
+
+	/**
+	 * @param id id of the address
+	 * @return the address
+	 */
+	public String addressOf(int id) {
+		return addresses[id];
+	}
+
+	/**
+	 * @return the number of addresses in the table
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Removes all the addresses and permissions.
+	 */
+	public void clear() {
+		Arrays.fill(addresses, 0, count, null);
+		Arrays.fill(slots, 0);
+		count = 0;
+		for (int type = 0; type < bits.length; type++) {
+			bits[type] = new long[0];
+		}
+		writers.clear();
+	}
+
+	private void insert(int id) {
+		int mask = slots.length - 1;
+		int slot = hash(addresses[id]) & mask;
+		while (slots[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		slots[slot] = id + 1;
+	}
+
+	private void grow() {
+		addresses = Arrays.copyOf(addresses, addresses.length * 2);
+		slots = new int[tableSize(addresses.length)];
+		for (int id = 0; id < count; id++) {
+			insert(id);
+		}
+	}
+
+	private static int typeOf(String type) {
+		for (int bit = 0; bit < TYPES.length; bit++) {
+			if (TYPES[bit].equals(type)) {
+				return bit;
+			}
+		}
+		return -1;
+	}
+
+	private static int tableSize(int capacity) {
+		// At most half full
+		return Integer.highestOneBit(capacity * 2 - 1) << 1;
+	}
+
+	private static int hash(String address) {
+		int hash = address.hashCode();
+		return hash ^ (hash >>> 16);
+	}
+
+	private static long[] set(long[] bitset, int id) {
+		long[] words = bitset == null ? new long[0] : bitset;
+		int word = id >>> 6;
+		if (word >= words.length) {
+			words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+		}
+		words[word] |= 1L << id;
+		return words;
+	}
+
+	private static void clear(long[] bitset, int id) {
+		int word = id >>> 6;
+		if (word < bitset.length) {
+			bitset[word] &= ~(1L << id);
+		}
+	}
+
+	private static boolean test(long[] bitset, int id) {
+		if (bitset == null || id < 0) {
+			return false;
+		}
+		int word = id >>> 6;
+		return word < bitset.length && (bitset[word] & (1L << id)) != 0;
+	}
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.cache;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import multichain.command.MultichainException;
+import multichain.command.tools.MultichainTestParameter;
+
+/**
+ * Pool of items generated by the node ahead of their use, refilled in the
+ * background.
+ *
+ * {@link #take()} returns an item from memory. Once the pool holds no more
+ * than its low watermark, a daemon thread of the pool generates items, by
+ * batches, until it holds its high watermark. An empty pool generates the
+ * item taken in the calling thread, counted in {@link #getMisses()}. The last
+ * error of a refill is kept in {@link #getLastError()}; the next
+ * {@link #take()} under the low watermark tries again.
+ *
+ * @param <T> type of the items
+ * @version 1.0
+ */
+public abstract class RefillingPool<T> {
+
+	/**
+	 * Default maximum number of items generated by a call to the node
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 100;
+
+	private final ConcurrentLinkedQueue<T> items = new ConcurrentLinkedQueue<T>();
+	private final AtomicInteger size = new AtomicInteger();
+	private final AtomicBoolean refilling = new AtomicBoolean();
+	private final LongAdder misses = new LongAdder();
+	private final ExecutorService executor;
+	private final int lowWatermark;
+	private final int highWatermark;
+
+	private volatile int batchSize = DEFAULT_BATCH_SIZE;
+	private volatile Exception lastError;
+	private volatile boolean closed;
+
+	/**
+	 * @param name name of the refill thread
+	 * @param lowWatermark number of items under which the pool is refilled
+	 * @param highWatermark number of items the pool is refilled to
+	 * @throws MultichainException if the watermarks are not ordered
+	 */
+	protected RefillingPool(String name, int lowWatermark, int highWatermark) throws MultichainException {
+		MultichainTestParameter.valueIsNotNegative("lowWatermark", lowWatermark);
+		MultichainTestParameter.valueIsPositive("highWatermark", highWatermark);
+		if (highWatermark <= lowWatermark) {
+			throw new MultichainException("highWatermark", "high watermark " + highWatermark + " not above the low watermark " + lowWatermark);
+		}
+		this.lowWatermark = lowWatermark;
+		this.highWatermark = highWatermark;
+		executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Generates new items with the node.
+	 *
+	 * @param count number of items, at most the batch size
+	 * @return the items
+	 * @throws MultichainException
+	 */
+	protected abstract List<T> generate(int count) throws MultichainException;
+
+	/**
+	 * @return an item of the pool, generated in the calling thread if the pool
+	 *         is empty
+	 * @throws MultichainException if the pool is empty and the node fails
+	 */
+	public T take() throws MultichainException {
+		if (closed) {
+			throw new MultichainException("pool", "pool closed");
+		}
+		T item = items.poll();
+		if (item != null) {
+			if (size.decrementAndGet() <= lowWatermark) {
+				refill();
+			}
+			return item;
+		}
+		misses.increment();
+		refill();
+		return generate(1).get(0);
+	}
+
+	/**
+	 * Fills the pool to its high watermark in the calling thread, before its
+	 * first use for instance.
+	 *
+	 * @throws MultichainException
+	 */
+	public void fill() throws MultichainException {
+		synchronized (refilling) {
+			while (size.get() < highWatermark) {
+				add(generate(Math.min(batchSize, highWatermark - size.get())));
+			}
+		}
+	}
+
+	/**
+	 * Starts the refill of the pool in its thread, if not running.
+	 */
+	public void refill() {
+		if (!closed && refilling.compareAndSet(false, true)) {
+			executor.execute(() -> {
+				try {
+					synchronized (refilling) {
+						while (!closed && size.get() < highWatermark) {
+							add(generate(Math.min(batchSize, highWatermark - size.get())));
+						}
+					}
+					lastError = null;
+				} catch (MultichainException | RuntimeException e) {
+					lastError = e;
+				} finally {
+					refilling.set(false);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Stops the refills. The items of the pool are dropped.
+	 */
+	public void close() {
+		closed = true;
+		executor.shutdown();
+		items.clear();
+		size.set(0);
+	}
+
+	/**
+	 * @return the number of items in the pool
+	 */
+	public int getSize() {
+		return size.get();
+	}
+
+	/**
+	 * @return the number of items taken while the pool was empty
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the error of the last refill, null if it succeeded
+	 */
+	public Exception getLastError() {
+		return lastError;
+	}
+
+	/**
+	 * @return the lowWatermark
+	 */
+	public int getLowWatermark() {
+		return lowWatermark;
+	}
+
+	/**
+	 * @return the highWatermark
+	 */
+	public int getHighWatermark() {
+		return highWatermark;
+	}
+
+	/**
+	 * @param batchSize maximum number of items generated by a call to the node
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = Math.max(1, batchSize);
+	}
+
+	private void add(List<T> generated) throws MultichainException {
+		if (generated == null || generated.isEmpty()) {
+			throw new MultichainException("pool", "no item generated by the node");
+		}
+		items.addAll(generated);
+		size.addAndGet(generated.size());
+	}
+
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import multichain.command.MultichainException;
+import multichain.command.MultichainRPCException;
+import multichain.command.MultichainRejectedException;
+import multichain.command.RAWTransactionCommand;
+import multichain.command.WalletTransactionCommand;
+import multichain.command.events.BlockListener;
+import multichain.command.events.BlockWatcher;
+import multichain.command.tools.MultichainTestParameter;
+import multichain.object.AddressBalanceAsset;
+import multichain.object.BalanceAsset;
+import multichain.object.BalanceAssetBase;
+import multichain.object.Block;
+import multichain.object.Quantity;
+import multichain.object.SignRawTransactionOut;
+import multichain.object.Unspent;
+import multichain.object.formatters.RAWTransactionFormatter;
+
+/**
+ * Client side copy of the unspent outputs of the addresses sending through
+ * it, so coin selection happens in the process instead of on the node :
+ * concurrent senders get non overlapping inputs and their transactions are
+ * built with createrawtransaction.
+ *
+ * <pre>
+ * UnspentCache cache = new UnspentCache();
+ * blockWatcher.addListener(cache);
+ * String txid = cache.send(from, to, Collections.singletonMap("asset1", 10.0));
+ * </pre>
+ *
+ * The outputs of an address are loaded with listunspent (unconfirmed ones
+ * included) at its first selection, then kept current with the transactions
+ * sent through the cache. A new block, given by a {@link BlockWatcher}, or a
+ * rejected transaction make the cache load the address again at its next
+ * selection; reserved inputs are never handed out twice meanwhile.
+ *
+ * Assets are identified by name, {@link AddressBalanceAsset#NATIVE_CURRENCY}
+ * standing for the native currency. Their quantities are added and compared
+ * in raw units of {@link #MULTIPLE}. No fee is added to the transactions.
+ *
+ * @version 1.0
+ */
+public class UnspentCache implements BlockListener {
+
+	/**
+	 * Raw units per unit of the quantities of the cache, whatever the asset
+	 */
+	static final long MULTIPLE = Quantity.FINEST_MULTIPLE;
+
+	private static final int ALL_CONFIRMATIONS = 9999999;
+
+	private final ConcurrentMap<String, Pool> pools = new ConcurrentHashMap<String, Pool>();
+
+	/**
+	 * Unspent outputs of an address
+	 */
+	private static final class Pool {
+		final Map<String, Unspent> available = new LinkedHashMap<String, Unspent>();
+		final Set<String> reserved = new HashSet<String>();
+		boolean stale = true;
+	}
+
+	/**
+	 * Reserves inputs of the address covering the amounts. The selection must
+	 * then be committed once its transaction is accepted by the node, or
+	 * released.
+	 *
+	 * @param address the address spending the inputs
+	 * @param amounts the quantities to cover, by asset name
+	 * @return the reserved inputs and the change
+	 * @throws MultichainException
+	 */
+	public UnspentSelection select(String address, Map<String, Double> amounts) throws MultichainException {
+		MultichainTestParameter.isNotNullOrEmpty("address", address);
+		if (amounts == null || amounts.isEmpty()) {
+			throw new MultichainException("amounts", "amounts needed to select inputs");
+		}
+
+		Pool pool = pools.computeIfAbsent(address, key -> new Pool());
+		synchronized (pool) {
+			if (pool.stale) {
+				load(address, pool);
+			}
+
+			Map<String, Long> totals = new LinkedHashMap<String, Long>();
+			List<Unspent> inputs = UnspentSelection.pick("createrawtransaction", address, pool.available.values(), amounts, totals);
+
+			Map<String, Long> change = new LinkedHashMap<String, Long>();
+			for (Map.Entry<String, Long> total : totals.entrySet()) {
+				Double amount = amounts.get(total.getKey());
+				long rest = amount == null ? total.getValue()
+						: Quantity.subtractExact(total.getValue(), MULTIPLE, Quantity.toRaw(amount, MULTIPLE), MULTIPLE);
+				if (rest > 0) {
+					change.put(total.getKey(), rest);
+				}
+			}
+
+			for (Unspent input : inputs) {
+				pool.available.remove(input.getOutpoint());
+				pool.reserved.add(input.getOutpoint());
+			}
+			return new UnspentSelection(address, inputs, change);
+		}
+	}
+
+	/**
+	 * Records the transaction spending the selection : its inputs are dropped
+	 * and its outputs paying to the addresses of the cache become available.
+	 * The outputs are numbered as {@link RAWTransactionCommand#createRawTransaction(List, List)}
+	 * creates them, one per address in order of first appearance.
+	 *
+	 * @param selection the inputs spent by the transaction
+	 * @param txid the id of the transaction accepted by the node
+	 * @param outputs the outputs of the transaction
+	 */
+	public void commit(UnspentSelection selection, String txid, List<AddressBalanceAsset> outputs) {
+		Pool pool = pools.get(selection.getAddress());
+		if (pool != null) {
+			synchronized (pool) {
+				pool.reserved.removeAll(UnspentSelection.outpoints(selection));
+			}
+		}
+
+		Map<String, Map<String, Long>> quantities = new LinkedHashMap<String, Map<String, Long>>();
+		for (AddressBalanceAsset output : outputs) {
+			Map<String, Long> assets = quantities.computeIfAbsent(output.getAddress(), key -> new LinkedHashMap<String, Long>());
+			for (BalanceAssetBase asset : output.getAssets()) {
+				UnspentSelection.add(assets, asset.getName(), Quantity.toRaw(asset.getQty(), MULTIPLE));
+			}
+		}
+
+		int vout = 0;
+		for (Map.Entry<String, Map<String, Long>> entry : quantities.entrySet()) {
+			Pool target = pools.get(entry.getKey());
+			if (target != null) {
+				Unspent unspent = unspent(txid, vout, entry.getKey(), entry.getValue());
+				synchronized (target) {
+					if (!target.stale) {
+						target.available.put(unspent.getOutpoint(), unspent);
+					}
+				}
+			}
+			vout++;
+		}
+	}
+
+	/**
+	 * Gives back the inputs of a selection whose transaction was not sent.
+	 *
+	 * @param selection the selection to release
+	 */
+	public void release(UnspentSelection selection) {
+		Pool pool = pools.get(selection.getAddress());
+		if (pool == null) {
+			return;
+		}
+		synchronized (pool) {
+			for (Unspent input : selection.getInputs()) {
+				if (pool.reserved.remove(input.getOutpoint()) && !pool.stale) {
+					pool.available.put(input.getOutpoint(), input);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sends the amounts from an address with inputs selected by the cache : the
+	 * transaction is created with createrawtransaction, change going back to
+	 * the sending address, signed by the wallet and sent. A transaction
+	 * rejected because the node spent an input meanwhile is retried once with
+	 * the outputs loaded again.
+	 *
+	 * @param from the sending address
+	 * @param to the receiving address
+	 * @param amounts the quantities to send, by asset name
+	 * @return the id of the transaction
+	 * @throws MultichainException
+	 */
+	public String send(String from, String to, Map<String, Double> amounts) throws MultichainException {
+		MultichainTestParameter.isNotNullOrEmpty("to", to);
+		return send(from, Collections.singletonList(output(to, amounts)));
+	}
+
+	/**
+	 * Sends the outputs from an address in a single transaction, as
+	 * {@link #send(String, String, Map)} does for one receiving address.
+	 *
+	 * @param from the sending address
+	 * @param outputs the receiving addresses and their quantities
+	 * @return the id of the transaction
+	 * @throws MultichainException
+	 */
+	public String send(String from, List<AddressBalanceAsset> outputs) throws MultichainException {
+		if (outputs == null || outputs.isEmpty()) {
+			throw new MultichainException("outputs", "outputs needed to send a transaction");
+		}
+		Map<String, Double> amounts = amounts(outputs);
+		for (int attempt = 1;; attempt++) {
+			UnspentSelection selection = select(from, amounts);
+			List<AddressBalanceAsset> transactionOutputs = new ArrayList<AddressBalanceAsset>(outputs);
+			AddressBalanceAsset change = selection.getChangeOutput();
+			if (change != null) {
+				transactionOutputs.add(change);
+			}
+
+			String txid;
+			try {
+				String hex = RAWTransactionCommand.createRawTransaction(selection.getTxIdVouts(), transactionOutputs);
+				SignRawTransactionOut signed = RAWTransactionFormatter.formatSignTransactionOut(RAWTransactionCommand.signRawTransaction(hex));
+				if (!signed.isComplete()) {
+					throw new MultichainException("signrawtransaction", "transaction not completely signed by the wallet");
+				}
+				txid = RAWTransactionCommand.sendRawTransaction(signed.getHex());
+			} catch (MultichainRejectedException e) {
+				release(selection);
+				invalidate(from);
+				if (attempt == 1 && e.getCode() != MultichainRPCException.RPC_VERIFY_ALREADY_IN_CHAIN) {
+					continue;
+				}
+				throw e;
+			} catch (MultichainException | RuntimeException e) {
+				release(selection);
+				throw e;
+			}
+			commit(selection, txid, transactionOutputs);
+			return txid;
+		}
+	}
+
+	/**
+	 * Makes the cache load the outputs of the address again at its next
+	 * selection.
+	 *
+	 * @param address the address
+	 */
+	public void invalidate(String address) {
+		Pool pool = pools.get(address);
+		if (pool != null) {
+			synchronized (pool) {
+				pool.stale = true;
+			}
+		}
+	}
+
+	/**
+	 * Loads all the addresses again at their next selection : the outputs
+	 * received from other wallets are only known from listunspent.
+	 */
+	@Override
+	public void onBlock(Block block) {
+		for (String address : pools.keySet()) {
+			invalidate(address);
+		}
+	}
+
+	/**
+	 * @param address the address
+	 * @return the number of outputs of the address which can be selected
+	 */
+	public int getAvailableCount(String address) {
+		Pool pool = pools.get(address);
+		if (pool == null) {
+			return 0;
+		}
+		synchronized (pool) {
+			return pool.available.size();
+		}
+	}
+
+	/**
+	 * @param address the address
+	 * @return the number of outputs of the address reserved by selections
+	 */
+	public int getReservedCount(String address) {
+		Pool pool = pools.get(address);
+		if (pool == null) {
+			return 0;
+		}
+		synchronized (pool) {
+			return pool.reserved.size();
+		}
+	}
+
+	private static void load(String address, Pool pool) throws MultichainException {
+		List<Unspent> unspentList = WalletTransactionCommand.listUnspent(0, ALL_CONFIRMATIONS, address);
+		pool.available.clear();
+		for (Unspent unspent : unspentList) {
+			if (unspent.isSpendable() && !pool.reserved.contains(unspent.getOutpoint())) {
+				pool.available.put(unspent.getOutpoint(), unspent);
+			}
+		}
+		pool.stale = false;
+	}
+
+	static AddressBalanceAsset output(String address, Map<String, Double> quantities) {
+		AddressBalanceAsset output = new AddressBalanceAsset();
+		output.setAddress(address);
+		for (Map.Entry<String, Double> quantity : quantities.entrySet()) {
+			output.addAsset(UnspentSelection.quantity(quantity.getKey(), quantity.getValue()));
+		}
+		return output;
+	}
+
+	private static Map<String, Double> amounts(List<AddressBalanceAsset> outputs) {
+		Map<String, Long> totals = new LinkedHashMap<String, Long>();
+		for (AddressBalanceAsset output : outputs) {
+			for (BalanceAssetBase asset : output.getAssets()) {
+				UnspentSelection.add(totals, asset.getName(), Quantity.toRaw(asset.getQty(), MULTIPLE));
+			}
+		}
+		Map<String, Double> amounts = new LinkedHashMap<String, Double>();
+		for (Map.Entry<String, Long> total : totals.entrySet()) {
+			amounts.put(total.getKey(), Quantity.toDouble(total.getValue(), MULTIPLE));
+		}
+		return amounts;
+	}
+
+	private static Unspent unspent(String txid, int vout, String address, Map<String, Long> quantities) {
+		Unspent unspent = new Unspent();
+		unspent.setTxid(txid);
+		unspent.setVout(vout);
+		unspent.setAddress(address);
+		unspent.setSpendable(true);
+		unspent.setCansend(true);
+		for (Map.Entry<String, Long> quantity : quantities.entrySet()) {
+			if (AddressBalanceAsset.NATIVE_CURRENCY.equals(quantity.getKey())) {
+				unspent.setAmount(Quantity.toDouble(quantity.getValue(), MULTIPLE));
+			} else {
+				BalanceAsset asset = new BalanceAsset();
+				asset.setName(quantity.getKey());
+				asset.setQty(Quantity.toDouble(quantity.getValue(), MULTIPLE));
+				unspent.getAssets().add(asset);
+			}
+		}
+		return unspent;
+	}
+
+}
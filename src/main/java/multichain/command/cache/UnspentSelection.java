@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import multichain.command.MultichainInsufficientFundsException;
+import multichain.command.MultichainRPCException;
+import multichain.object.AddressBalanceAsset;
+import multichain.object.BalanceAsset;
+import multichain.object.BalanceAssetBase;
+import multichain.object.Quantity;
+import multichain.object.Unspent;
+import multichain.object.queryobjects.TxIdVout;
+
+/**
+ * Inputs reserved by {@link UnspentCache#select(String, Map)} for one
+ * transaction. Until it is committed or released, no other selection gets
+ * these inputs.
+ *
+ * @version 1.0
+ */
+public class UnspentSelection {
+
+	private final String address;
+	private final List<Unspent> inputs;
+	private final Map<String, Long> change;
+
+	UnspentSelection(String address, List<Unspent> inputs, Map<String, Long> change) {
+		this.address = address;
+		this.inputs = Collections.unmodifiableList(inputs);
+		this.change = change;
+	}
+
+	/**
+	 * @return the address spending the inputs
+	 */
+	public String getAddress() {
+		return address;
+	}
+
+	/**
+	 * @return the inputs
+	 */
+	public List<Unspent> getInputs() {
+		return inputs;
+	}
+
+	/**
+	 * @return the inputs as given to createrawtransaction
+	 */
+	public List<TxIdVout> getTxIdVouts() {
+		List<TxIdVout> txIdVouts = new ArrayList<TxIdVout>(inputs.size());
+		for (Unspent input : inputs) {
+			txIdVouts.add(new TxIdVout(input.getTxid(), input.getVout()));
+		}
+		return txIdVouts;
+	}
+
+	/**
+	 * @return the quantities of the inputs exceeding the amounts, by asset
+	 *         name, {@link AddressBalanceAsset#NATIVE_CURRENCY} for the native
+	 *         currency
+	 */
+	public Map<String, Double> getChange() {
+		Map<String, Double> quantities = new LinkedHashMap<String, Double>();
+		for (Map.Entry<String, Long> entry : change.entrySet()) {
+			quantities.put(entry.getKey(), Quantity.toDouble(entry.getValue(), UnspentCache.MULTIPLE));
+		}
+		return quantities;
+	}
+
+	/**
+	 * @return the output paying the change back to the address, null if the
+	 *         inputs match the amounts exactly
+	 */
+	public AddressBalanceAsset getChangeOutput() {
+		if (change.isEmpty()) {
+			return null;
+		}
+		return UnspentCache.output(address, getChange());
+	}
+
+	/**
+	 * Picks outputs covering the amounts, for each asset the outputs holding
+	 * most of it first.
+	 *
+	 * @param command the command named by the exception
+	 * @param address the address spending the outputs
+	 * @param available the outputs which can be picked
+	 * @param amounts the quantities to cover, by asset name
+	 * @param totals receives the quantities held by the picked outputs, by
+	 *            asset name, in raw units of {@link UnspentCache#MULTIPLE}
+	 * @return the picked outputs
+	 * @throws MultichainInsufficientFundsException if the outputs do not
+	 *             cover an amount
+	 */
+	static List<Unspent> pick(String command, String address, Collection<Unspent> available, Map<String, Double> amounts,
+			Map<String, Long> totals) throws MultichainInsufficientFundsException {
+		List<Unspent> inputs = new ArrayList<Unspent>();
+		Set<String> picked = new HashSet<String>();
+		for (Map.Entry<String, Double> amount : amounts.entrySet()) {
+			String asset = amount.getKey();
+			long needed = Quantity.subtractExact(Quantity.toRaw(amount.getValue(), UnspentCache.MULTIPLE), UnspentCache.MULTIPLE,
+					total(totals, asset), UnspentCache.MULTIPLE);
+			if (needed <= 0) {
+				continue;
+			}
+
+			List<Unspent> candidates = new ArrayList<Unspent>();
+			for (Unspent candidate : available) {
+				if (!picked.contains(candidate.getOutpoint()) && rawQuantity(candidate, asset) > 0) {
+					candidates.add(candidate);
+				}
+			}
+			candidates.sort((a, b) -> Long.compare(rawQuantity(b, asset), rawQuantity(a, asset)));
+
+			for (Unspent candidate : candidates) {
+				if (needed <= 0) {
+					break;
+				}
+				inputs.add(candidate);
+				picked.add(candidate.getOutpoint());
+				addQuantities(totals, candidate);
+				needed = Quantity.subtractExact(needed, UnspentCache.MULTIPLE, rawQuantity(candidate, asset), UnspentCache.MULTIPLE);
+			}
+			if (needed > 0) {
+				throw new MultichainInsufficientFundsException(command, MultichainRPCException.RPC_WALLET_INSUFFICIENT_FUNDS,
+						"Insufficient outputs of " + asset + " for " + address + ", missing " + Quantity.toDecimal(needed, UnspentCache.MULTIPLE));
+			}
+		}
+		return inputs;
+	}
+
+	/**
+	 * @return the quantity of the asset held by the output, in raw units of
+	 *         {@link UnspentCache#MULTIPLE}
+	 */
+	static long rawQuantity(Unspent unspent, String asset) {
+		if (AddressBalanceAsset.NATIVE_CURRENCY.equals(asset)) {
+			return Quantity.toRaw(unspent.getAmount(), UnspentCache.MULTIPLE);
+		}
+		long quantity = 0;
+		for (BalanceAsset held : unspent.getAssets()) {
+			if (asset.equals(held.getName())) {
+				quantity = Quantity.addExact(quantity, UnspentCache.MULTIPLE, Quantity.toRaw(held.getQty(), UnspentCache.MULTIPLE),
+						UnspentCache.MULTIPLE);
+			}
+		}
+		return quantity;
+	}
+
+	static void add(Map<String, Long> totals, String asset, long raw) {
+		totals.put(asset, Quantity.addExact(total(totals, asset), UnspentCache.MULTIPLE, raw, UnspentCache.MULTIPLE));
+	}
+
+	private static void addQuantities(Map<String, Long> totals, Unspent unspent) {
+		if (unspent.getAmount() > 0) {
+			add(totals, AddressBalanceAsset.NATIVE_CURRENCY, Quantity.toRaw(unspent.getAmount(), UnspentCache.MULTIPLE));
+		}
+		for (BalanceAsset held : unspent.getAssets()) {
+			add(totals, held.getName(), Quantity.toRaw(held.getQty(), UnspentCache.MULTIPLE));
+		}
+	}
+
+	private static long total(Map<String, Long> totals, String asset) {
+		Long total = totals.get(asset);
+		return total == null ? 0 : total;
+	}
+
+	static List<String> outpoints(UnspentSelection selection) {
+		List<String> outpoints = new ArrayList<String>(selection.inputs.size());
+		for (Unspent input : selection.inputs) {
+			outpoints.add(input.getOutpoint());
+		}
+		return outpoints;
+	}
+
+	static BalanceAssetBase quantity(String name, double qty) {
+		BalanceAssetBase asset = new BalanceAssetBase();
+		asset.setName(name);
+		asset.setQty(qty);
+		return asset;
+	}
+
+}
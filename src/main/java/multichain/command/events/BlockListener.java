@@ -0,0 +1,27 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.events;
+
+import multichain.object.Block;
+
+/**
+ * Receives the blocks added to the chain, see {@link BlockWatcher}.
+ *
+ * @version 1.0
+ */
+public interface BlockListener {
+
+	/**
+	 * Called once per new block, in height order, on the thread polling the
+	 * node.
+	 *
+	 * @param block the new block, with its transaction ids
+	 */
+	void onBlock(Block block);
+
+}
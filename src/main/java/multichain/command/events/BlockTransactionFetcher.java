@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.events;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import multichain.command.MultichainException;
+import multichain.command.RAWTransactionCommand;
+import multichain.object.Block;
+import multichain.object.TransactionRAW;
+
+/**
+ * Reads the transactions of the blocks given by a {@link BlockWatcher} once,
+ * and delivers them to the registered {@link BlockTransactionListener}s :
+ *
+ * <pre>
+ * BlockTransactionFetcher transactions = new BlockTransactionFetcher();
+ * blockWatcher.addListener(transactions);
+ * transactions.addListener(assetRegistry);
+ * transactions.addListener(permissionIndex);
+ * </pre>
+ *
+ * The transactions are read with getrawtransaction, which needs the txindex
+ * of the node. Larger blocks than {@link #setMaxBlockLookups(int)} are not
+ * read, neither is the rest of a block after an error of the node : the
+ * listeners then get no transactions, and load again what they keep.
+ *
+ * @version 1.0
+ */
+public class BlockTransactionFetcher implements BlockListener {
+
+	/**
+	 * Default number of transactions of a block read from the node
+	 */
+	public static final int DEFAULT_MAX_BLOCK_LOOKUPS = 64;
+
+	private final List<BlockTransactionListener> listeners = new CopyOnWriteArrayList<BlockTransactionListener>();
+
+	private volatile int maxBlockLookups = DEFAULT_MAX_BLOCK_LOOKUPS;
+
+	/**
+	 * @param listener listener to notify of the new blocks
+	 */
+	public void addListener(BlockTransactionListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * @param listener listener not to notify any more
+	 */
+	public void removeListener(BlockTransactionListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Reads the transactions of the block, then delivers them to the
+	 * listeners.
+	 */
+	@Override
+	public void onBlock(Block block) {
+		if (listeners.isEmpty()) {
+			return;
+		}
+		List<TransactionRAW> transactions = fetch(block);
+		for (BlockTransactionListener listener : listeners) {
+			listener.onBlock(block, transactions);
+		}
+	}
+
+	/**
+	 * @param maxBlockLookups number of transactions of a block read from the
+	 *            node, the listeners get no transactions for larger blocks
+	 */
+	public void setMaxBlockLookups(int maxBlockLookups) {
+		this.maxBlockLookups = maxBlockLookups;
+	}
+
+	private List<TransactionRAW> fetch(Block block) {
+		List<String> txids = block.getTx();
+		if (txids == null || txids.size() > maxBlockLookups) {
+			return null;
+		}
+		List<TransactionRAW> transactions = new ArrayList<TransactionRAW>(txids.size());
+		try {
+			for (String txid : txids) {
+				transactions.add(RAWTransactionCommand.getRAWTransactionWithDetail(txid));
+			}
+		} catch (MultichainException | RuntimeException e) {
+			return null;
+		}
+		return Collections.unmodifiableList(transactions);
+	}
+
+}
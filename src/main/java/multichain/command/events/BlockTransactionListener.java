@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.events;
+
+import java.util.List;
+
+import multichain.object.Block;
+import multichain.object.TransactionRAW;
+
+/**
+ * Receives the blocks added to the chain with their transactions, see
+ * {@link BlockTransactionFetcher}.
+ *
+ * @version 1.0
+ */
+public interface BlockTransactionListener {
+
+	/**
+	 * Called once per new block, in height order, on the thread polling the
+	 * node.
+	 *
+	 * @param block the new block, with its transaction ids
+	 * @param transactions the transactions of the block, in its order, null if
+	 *            they were not read : the block was too large, or the node
+	 *            failed. The transactions are shared by all the listeners and
+	 *            must not be modified.
+	 */
+	void onBlock(Block block, List<TransactionRAW> transactions);
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.events;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import multichain.command.BlockCommand;
+import multichain.command.MultichainException;
+import multichain.object.Block;
+
+/**
+ * Polls the node for new blocks and delivers them to the registered
+ * {@link BlockListener}s. An unchanged best block costs a single call to the
+ * node per poll.
+ *
+ * The blocks existing when the watcher first polls are not delivered. After a
+ * reorganization, the blocks of the new branch are delivered from the fork
+ * point on, at most {@link #MAX_REORG_DEPTH} blocks deep.
+ *
+ * @version 1.0
+ */
+public class BlockWatcher {
+
+	/**
+	 * Number of recent block hashes kept to find the fork point of a
+	 * reorganization
+	 */
+	public static final int MAX_REORG_DEPTH = 64;
+
+	private final List<BlockListener> listeners = new CopyOnWriteArrayList<BlockListener>();
+	private final Map<Long, String> recentHashes = new HashMap<Long, String>();
+	private final long pollMillis;
+
+	private ScheduledExecutorService executor;
+	private long height = -1;
+	private String bestHash;
+
+	/**
+	 * @param pollMillis delay between two polls once started
+	 */
+	public BlockWatcher(long pollMillis) {
+		this.pollMillis = pollMillis;
+	}
+
+	/**
+	 * @param listener listener to notify of the new blocks
+	 */
+	public void addListener(BlockListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * @param listener listener not to notify any more
+	 */
+	public void removeListener(BlockListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Starts polling the node in a daemon thread. Errors of the node are
+	 * ignored until the next poll.
+	 */
+	public synchronized void start() {
+		if (executor != null) {
+			return;
+		}
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "block-watcher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(() -> {
+			try {
+				poll();
+			} catch (MultichainException | RuntimeException e) {
+				// The node may be restarting, the next poll will catch up
+			}
+		}, 0, pollMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops polling the node.
+	 */
+	public synchronized void stop() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	/**
+	 * Checks the node for new blocks and delivers them to the listeners.
+	 *
+	 * @return the number of blocks delivered
+	 * @throws MultichainException
+	 */
+	public synchronized int poll() throws MultichainException {
+		String hash = BlockCommand.getBestBlockHash();
+		if (hash.equals(bestHash)) {
+			return 0;
+		}
+
+		long count = BlockCommand.getBlockCount();
+		if (height < 0) {
+			remember(count, BlockCommand.getBlock(count).getHash());
+			return 0;
+		}
+
+		long from = Math.min(height, count);
+		while (from >= 0 && recentHashes.containsKey(from)
+				&& !recentHashes.get(from).equals(BlockCommand.getBlock(from).getHash())) {
+			from--;
+		}
+
+		int delivered = 0;
+		for (long next = from + 1; next <= count; next++) {
+			Block block = BlockCommand.getBlock(next);
+			remember(next, block.getHash());
+			for (BlockListener listener : listeners) {
+				listener.onBlock(block);
+			}
+			delivered++;
+		}
+		if (delivered == 0) {
+			remember(from, recentHashes.get(from));
+		}
+		return delivered;
+	}
+
+	private void remember(long blockHeight, String hash) {
+		recentHashes.put(blockHeight, hash);
+		recentHashes.remove(blockHeight - MAX_REORG_DEPTH);
+		height = blockHeight;
+		bestHash = hash;
+	}
+
+}
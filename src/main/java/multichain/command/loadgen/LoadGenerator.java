@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.loadgen;
+
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import multichain.command.AddressCommand;
+import multichain.command.ChainCommand;
+import multichain.command.MultichainException;
+import multichain.command.StreamCommand;
+import multichain.command.loadgen.LoadReport.Operation;
+import multichain.command.simulator.MultichainSimulator;
+import multichain.object.Stream;
+
+/**
+ * Open loop load generator for the stream workloads : operations are started
+ * at the target rate whatever the latency of the node, so a saturated node
+ * shows up as growing response times instead of a silently lower rate.
+ *
+ * Runs against the chain initialized with {@link ChainCommand}, a real node or
+ * a {@link MultichainSimulator}. From the command line :
+ * <pre>
+ * java multichain.command.loadgen.LoadGenerator --chain=mychain --from=1Abc... --rate=200 --duration=60
+ * java multichain.command.loadgen.LoadGenerator --simulator --simulator-latency-us=500:2000 --format=json
+ * </pre>
+ *
+ * @version 1.0
+ */
+public class LoadGenerator {
+
+	private static final int RECENT_ITEMS = 4096;
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	/**
+	 * Options of {@link #main(String[])} by property of the profile
+	 */
+	private static final Map<String, String> OPTIONS = new LinkedHashMap<String, String>();
+
+	static {
+		OPTIONS.put("targetRate", "rate");
+		OPTIONS.put("durationSeconds", "duration");
+		OPTIONS.put("warmupSeconds", "warmup");
+		OPTIONS.put("concurrency", "concurrency");
+		OPTIONS.put("payloadMinBytes", "payload-min");
+		OPTIONS.put("payloadMaxBytes", "payload-max");
+	}
+
+	private final LoadProfile profile;
+	private final AtomicReferenceArray<String> recentItems = new AtomicReferenceArray<String>(RECENT_ITEMS);
+	private final AtomicLong published = new AtomicLong();
+	private final String payload;
+
+	/**
+	 * @param profile the workload to run
+	 * @throws IllegalArgumentException if a property of the profile is
+	 *             invalid
+	 */
+	public LoadGenerator(LoadProfile profile) {
+		profile.check();
+		this.profile = profile;
+		Random random = new Random(profile.getSeed());
+		char[] hex = new char[2 * Math.max(profile.getPayloadMinBytes(), profile.getPayloadMaxBytes())];
+		for (int i = 0; i < hex.length; i++) {
+			hex[i] = HEX[random.nextInt(16)];
+		}
+		payload = new String(hex);
+	}
+
+	/**
+	 * Creates the stream of the profile if it does not exist yet, and
+	 * subscribes to it.
+	 *
+	 * @throws MultichainException
+	 */
+	public void prepare() throws MultichainException {
+		List<Stream> streams;
+		try {
+			streams = StreamCommand.listStreams(profile.getStreamName());
+		} catch (MultichainException e) {
+			streams = null;
+		}
+		if (streams == null || streams.isEmpty()) {
+			StreamCommand.createFromStream(profile.getFromAddress(), profile.getStreamName(), false);
+		}
+		StreamCommand.subscribeAssetsOrStreams(profile.getStreamName());
+	}
+
+	/**
+	 * Runs the warmup then the measured part of the workload.
+	 *
+	 * @return the report of the measured part
+	 * @throws InterruptedException
+	 */
+	public LoadReport run() throws InterruptedException {
+		LoadReport report = new LoadReport(profile.getTargetRate());
+		Random random = new Random(profile.getSeed());
+		ExecutorService executor = new ThreadPoolExecutor(profile.getConcurrency(), profile.getConcurrency(), 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<Runnable>(), runnable -> {
+					Thread thread = new Thread(runnable, "loadgen");
+					thread.setDaemon(true);
+					return thread;
+				});
+
+		long interval = (long) (1e9 / profile.getTargetRate());
+		long start = System.nanoTime();
+		long measureStart = start + TimeUnit.SECONDS.toNanos(profile.getWarmupSeconds());
+		long end = measureStart + TimeUnit.SECONDS.toNanos(profile.getDurationSeconds());
+		try {
+			for (long i = 0;; i++) {
+				final long intended = start + i * interval;
+				if (intended >= end) {
+					break;
+				}
+				long wait;
+				while ((wait = intended - System.nanoTime()) > 0) {
+					LockSupport.parkNanos(wait);
+				}
+				final LoadReport target = intended >= measureStart ? report : null;
+				final Operation operation = nextOperation(random);
+				final String key = "key-" + random.nextInt(Math.max(1, profile.getKeyCardinality()));
+				final int payloadSize = profile.nextPayloadSize(random);
+				final double itemChoice = random.nextDouble();
+				executor.execute(() -> execute(target, operation, intended, key, payloadSize, itemChoice));
+			}
+		} finally {
+			executor.shutdown();
+		}
+		executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		report.setElapsedNanos(Math.max(end, System.nanoTime()) - measureStart);
+		return report;
+	}
+
+	private Operation nextOperation(Random random) {
+		if (random.nextDouble() < profile.getWriteRatio()) {
+			return Operation.PUBLISH;
+		}
+		return random.nextDouble() < profile.getKeyReadRatio() ? Operation.READ_KEY : Operation.READ_ITEM;
+	}
+
+	private void execute(LoadReport report, Operation operation, long intended, String key, int payloadSize, double itemChoice) {
+		String itemTxid = null;
+		if (operation == Operation.READ_ITEM) {
+			long count = Math.min(published.get(), RECENT_ITEMS);
+			itemTxid = count == 0 ? null : recentItems.get((int) (itemChoice * count));
+			if (itemTxid == null) {
+				operation = Operation.READ_KEY;
+			}
+		}
+
+		long start = System.nanoTime();
+		try {
+			switch (operation) {
+			case PUBLISH:
+				String txid = StreamCommand.publishFromStream(profile.getFromAddress(), profile.getStreamName(), key,
+						payload.substring(0, 2 * payloadSize));
+				recentItems.set((int) (published.getAndIncrement() % RECENT_ITEMS), txid);
+				break;
+			case READ_KEY:
+				StreamCommand.listStreamKeyItems(profile.getStreamName(), key, "false", String.valueOf(profile.getReadCount()));
+				break;
+			default:
+				StreamCommand.getStreamItem(profile.getStreamName(), itemTxid);
+				break;
+			}
+		} catch (MultichainException | RuntimeException e) {
+			if (report != null) {
+				report.recordError(operation);
+			}
+			return;
+		}
+		long now = System.nanoTime();
+		if (report != null) {
+			report.record(operation, now - intended, now - start);
+		}
+	}
+
+	/**
+	 * Runs the load generator from the command line, options given as
+	 * --name=value :
+	 * <ul>
+	 * <li>--chain : name of the chain, or --simulator to run against a
+	 * {@link MultichainSimulator}, with --simulator-latency-us=min:max and
+	 * --simulator-error-rate</li>
+	 * <li>--stream, --from : stream and publishing address</li>
+	 * <li>--rate, --duration, --warmup, --concurrency</li>
+	 * <li>--write-ratio, --key-read-ratio, --keys, --read-count</li>
+	 * <li>--payload-min, --payload-max, --payload-distribution
+	 * (fixed|uniform|log_uniform)</li>
+	 * <li>--seed, --format (csv|json), --output (file, standard output by
+	 * default)</li>
+	 * </ul>
+	 *
+	 * @param args the options
+	 */
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<String, String>();
+		for (String arg : args) {
+			if (!arg.startsWith("--")) {
+				throw new IllegalArgumentException("Unexpected argument " + arg + ", options are given as --name=value");
+			}
+			int equals = arg.indexOf('=');
+			options.put(equals < 0 ? arg.substring(2) : arg.substring(2, equals), equals < 0 ? "true" : arg.substring(equals + 1));
+		}
+
+		LoadProfile profile = new LoadProfile();
+		if (options.containsKey("simulator")) {
+			MultichainSimulator simulator = new MultichainSimulator(Long.parseLong(option(options, "seed", "42")));
+			String[] latency = option(options, "simulator-latency-us", "0:0").split(":");
+			simulator.setLatencyMicros(Long.parseLong(latency[0]), Long.parseLong(latency[latency.length - 1]));
+			simulator.setErrorRate(Double.parseDouble(option(options, "simulator-error-rate", "0")));
+			ChainCommand.initializeChain("simulator");
+			ChainCommand.setTransport(simulator);
+			profile.setFromAddress(simulator.getDefaultAddress());
+		} else {
+			ChainCommand.initializeChain(option(options, "chain", null));
+			profile.setFromAddress(options.containsKey("from") ? options.get("from") : AddressCommand.getAddresses().get(0));
+		}
+		profile.setStreamName(option(options, "stream", profile.getStreamName()));
+		profile.setTargetRate(Double.parseDouble(option(options, "rate", String.valueOf(profile.getTargetRate()))));
+		profile.setDurationSeconds(Long.parseLong(option(options, "duration", String.valueOf(profile.getDurationSeconds()))));
+		profile.setWarmupSeconds(Long.parseLong(option(options, "warmup", String.valueOf(profile.getWarmupSeconds()))));
+		profile.setConcurrency(Integer.parseInt(option(options, "concurrency", String.valueOf(profile.getConcurrency()))));
+		profile.setWriteRatio(Double.parseDouble(option(options, "write-ratio", String.valueOf(profile.getWriteRatio()))));
+		profile.setKeyReadRatio(Double.parseDouble(option(options, "key-read-ratio", String.valueOf(profile.getKeyReadRatio()))));
+		profile.setKeyCardinality(Integer.parseInt(option(options, "keys", String.valueOf(profile.getKeyCardinality()))));
+		profile.setReadCount(Integer.parseInt(option(options, "read-count", String.valueOf(profile.getReadCount()))));
+		profile.setPayloadMinBytes(Integer.parseInt(option(options, "payload-min", String.valueOf(profile.getPayloadMinBytes()))));
+		profile.setPayloadMaxBytes(Integer.parseInt(option(options, "payload-max", String.valueOf(profile.getPayloadMinBytes()))));
+		profile.setPayloadDistribution(LoadProfile.PayloadDistribution.valueOf(option(options, "payload-distribution",
+				profile.getPayloadMaxBytes() > profile.getPayloadMinBytes() ? "uniform" : "fixed").toUpperCase()));
+		profile.setSeed(Long.parseLong(option(options, "seed", String.valueOf(profile.getSeed()))));
+
+		LoadGenerator generator;
+		try {
+			generator = new LoadGenerator(profile);
+		} catch (IllegalArgumentException e) {
+			String message = e.getMessage();
+			for (Map.Entry<String, String> option : OPTIONS.entrySet()) {
+				message = message.replace(option.getKey() + "=", "--" + option.getValue() + "=");
+			}
+			throw new IllegalArgumentException("Invalid option " + message, e);
+		}
+		generator.prepare();
+		LoadReport report = generator.run();
+
+		String result = "json".equals(option(options, "format", "csv")) ? report.toJson() : report.toCsv();
+		if (options.containsKey("output")) {
+			try (Writer writer = new OutputStreamWriter(new FileOutputStream(options.get("output")), StandardCharsets.UTF_8)) {
+				writer.write(result);
+			}
+		} else {
+			System.out.print(result);
+		}
+	}
+
+	private static String option(Map<String, String> options, String name, String defaultValue) {
+		String value = options.get(name);
+		if (value == null && defaultValue == null) {
+			throw new IllegalArgumentException("Missing option --" + name);
+		}
+		return value == null ? defaultValue : value;
+	}
+
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.loadgen;
+
+import java.util.Random;
+
+/**
+ * Workload run by the {@link LoadGenerator} : target rate, duration,
+ * concurrency and the mix of operations.
+ *
+ * Each operation is a write (publishfrom) with the probability writeRatio,
+ * otherwise a read : liststreamkeyitems with the probability keyReadRatio,
+ * getstreamitem on a previously published item otherwise.
+ *
+ * @version 1.0
+ */
+public class LoadProfile {
+
+	/**
+	 * Distribution of the size of the published payloads, between
+	 * payloadMinBytes and payloadMaxBytes.
+	 */
+	public enum PayloadDistribution {
+		/** always payloadMinBytes */
+		FIXED,
+		/** uniform between both bounds */
+		UNIFORM,
+		/** uniform on the logarithm of the size : small payloads are the most frequent */
+		LOG_UNIFORM
+	}
+
+	private String streamName = "loadgen";
+	private String fromAddress;
+	private double targetRate = 100;
+	private long durationSeconds = 60;
+	private long warmupSeconds = 10;
+	private int concurrency = 16;
+	private double writeRatio = 0.5;
+	private double keyReadRatio = 0.5;
+	private int keyCardinality = 1000;
+	private int readCount = 10;
+	private int payloadMinBytes = 100;
+	private int payloadMaxBytes = 100;
+	private PayloadDistribution payloadDistribution = PayloadDistribution.FIXED;
+	private long seed = 42;
+
+	/**
+	 * Checks the properties set one at a time by their setters, before a run.
+	 *
+	 * @throws IllegalArgumentException naming the first invalid property : a
+	 *             rate, duration or concurrency not positive, a negative
+	 *             warmup or payload size, or a maximum payload size below the
+	 *             minimum
+	 */
+	void check() {
+		if (!(targetRate > 0) || Double.isInfinite(targetRate)) {
+			throw new IllegalArgumentException("targetRate=" + targetRate + ", not a positive rate");
+		}
+		if (durationSeconds <= 0) {
+			throw new IllegalArgumentException("durationSeconds=" + durationSeconds + ", not positive");
+		}
+		if (warmupSeconds < 0) {
+			throw new IllegalArgumentException("warmupSeconds=" + warmupSeconds + ", negative");
+		}
+		if (concurrency <= 0) {
+			throw new IllegalArgumentException("concurrency=" + concurrency + ", not positive");
+		}
+		if (payloadMinBytes < 0) {
+			throw new IllegalArgumentException("payloadMinBytes=" + payloadMinBytes + ", negative");
+		}
+		if (payloadMaxBytes < payloadMinBytes) {
+			throw new IllegalArgumentException("payloadMaxBytes=" + payloadMaxBytes + ", lower than payloadMinBytes=" + payloadMinBytes);
+		}
+	}
+
+	/**
+	 * @param random the random source of the generator
+	 * @return the size of the next payload, in bytes
+	 */
+	int nextPayloadSize(Random random) {
+		switch (payloadDistribution) {
+		case UNIFORM:
+			return payloadMinBytes + random.nextInt(payloadMaxBytes - payloadMinBytes + 1);
+		case LOG_UNIFORM:
+			double logMin = Math.log(Math.max(1, payloadMinBytes));
+			double logMax = Math.log(Math.max(1, payloadMaxBytes));
+			return (int) Math.round(Math.exp(logMin + random.nextDouble() * (logMax - logMin)));
+		default:
+			return payloadMinBytes;
+		}
+	}
+
+	/**
+	 * @return the streamName
+	 */
+	public String getStreamName() {
+		return streamName;
+	}
+
+	/**
+	 * @param streamName the stream published into and read, created if missing
+	 */
+	public void setStreamName(String streamName) {
+		this.streamName = streamName;
+	}
+
+	/**
+	 * @return the fromAddress
+	 */
+	public String getFromAddress() {
+		return fromAddress;
+	}
+
+	/**
+	 * @param fromAddress the address publishing the items, which needs the
+	 *            write permission on the stream
+	 */
+	public void setFromAddress(String fromAddress) {
+		this.fromAddress = fromAddress;
+	}
+
+	/**
+	 * @return the targetRate
+	 */
+	public double getTargetRate() {
+		return targetRate;
+	}
+
+	/**
+	 * @param targetRate operations started per second, whatever the latency
+	 */
+	public void setTargetRate(double targetRate) {
+		this.targetRate = targetRate;
+	}
+
+	/**
+	 * @return the durationSeconds
+	 */
+	public long getDurationSeconds() {
+		return durationSeconds;
+	}
+
+	/**
+	 * @param durationSeconds duration of the measured run
+	 */
+	public void setDurationSeconds(long durationSeconds) {
+		this.durationSeconds = durationSeconds;
+	}
+
+	/**
+	 * @return the warmupSeconds
+	 */
+	public long getWarmupSeconds() {
+		return warmupSeconds;
+	}
+
+	/**
+	 * @param warmupSeconds duration of the run before the measures start
+	 */
+	public void setWarmupSeconds(long warmupSeconds) {
+		this.warmupSeconds = warmupSeconds;
+	}
+
+	/**
+	 * @return the concurrency
+	 */
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	/**
+	 * @param concurrency maximum number of operations in flight
+	 */
+	public void setConcurrency(int concurrency) {
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * @return the writeRatio
+	 */
+	public double getWriteRatio() {
+		return writeRatio;
+	}
+
+	/**
+	 * @param writeRatio part of the operations which are writes, between 0 and 1
+	 */
+	public void setWriteRatio(double writeRatio) {
+		this.writeRatio = writeRatio;
+	}
+
+	/**
+	 * @return the keyReadRatio
+	 */
+	public double getKeyReadRatio() {
+		return keyReadRatio;
+	}
+
+	/**
+	 * @param keyReadRatio part of the reads which are reads by key, between 0 and 1
+	 */
+	public void setKeyReadRatio(double keyReadRatio) {
+		this.keyReadRatio = keyReadRatio;
+	}
+
+	/**
+	 * @return the keyCardinality
+	 */
+	public int getKeyCardinality() {
+		return keyCardinality;
+	}
+
+	/**
+	 * @param keyCardinality number of distinct keys published and read
+	 */
+	public void setKeyCardinality(int keyCardinality) {
+		this.keyCardinality = keyCardinality;
+	}
+
+	/**
+	 * @return the readCount
+	 */
+	public int getReadCount() {
+		return readCount;
+	}
+
+	/**
+	 * @param readCount number of items returned by a read by key
+	 */
+	public void setReadCount(int readCount) {
+		this.readCount = readCount;
+	}
+
+	/**
+	 * @return the payloadMinBytes
+	 */
+	public int getPayloadMinBytes() {
+		return payloadMinBytes;
+	}
+
+	/**
+	 * @param payloadMinBytes minimum size of the published payloads
+	 */
+	public void setPayloadMinBytes(int payloadMinBytes) {
+		this.payloadMinBytes = payloadMinBytes;
+	}
+
+	/**
+	 * @return the payloadMaxBytes
+	 */
+	public int getPayloadMaxBytes() {
+		return payloadMaxBytes;
+	}
+
+	/**
+	 * @param payloadMaxBytes maximum size of the published payloads
+	 */
+	public void setPayloadMaxBytes(int payloadMaxBytes) {
+		this.payloadMaxBytes = payloadMaxBytes;
+	}
+
+	/**
+	 * @return the payloadDistribution
+	 */
+	public PayloadDistribution getPayloadDistribution() {
+		return payloadDistribution;
+	}
+
+	/**
+	 * @param payloadDistribution the distribution of the payload sizes
+	 */
+	public void setPayloadDistribution(PayloadDistribution payloadDistribution) {
+		this.payloadDistribution = payloadDistribution;
+	}
+
+	/**
+	 * @return the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @param seed seed of the operation mix, keys and payload sizes
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+}
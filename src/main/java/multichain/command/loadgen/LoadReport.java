@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.loadgen;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.gson.GsonBuilder;
+
+import multichain.command.metrics.LatencyHistogram;
+
+/**
+ * Result of a {@link LoadGenerator} run : achieved throughput and latency
+ * percentiles per operation.
+ *
+ * The response time is measured from the time the operation was scheduled to
+ * start, so the time spent waiting behind slow operations is included
+ * (coordinated omission correction); the service time is measured from the
+ * time the operation actually started. Only successful operations are in the
+ * latency figures.
+ *
+ * @version 1.0
+ */
+public class LoadReport {
+
+	/**
+	 * Operations of the workload.
+	 */
+	public enum Operation {
+		/** publishfrom */
+		PUBLISH,
+		/** liststreamkeyitems */
+		READ_KEY,
+		/** getstreamitem */
+		READ_ITEM
+	}
+
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+	private static class OperationStats {
+		final LatencyHistogram responseTime = new LatencyHistogram();
+		final LatencyHistogram serviceTime = new LatencyHistogram();
+		final LongAdder errors = new LongAdder();
+	}
+
+	private final Map<Operation, OperationStats> stats = new EnumMap<Operation, OperationStats>(Operation.class);
+	private final double targetRate;
+	private long elapsedNanos;
+
+	/**
+	 * @param targetRate the rate the operations were scheduled at
+	 */
+	public LoadReport(double targetRate) {
+		this.targetRate = targetRate;
+		for (Operation operation : Operation.values()) {
+			stats.put(operation, new OperationStats());
+		}
+	}
+
+	void record(Operation operation, long responseNanos, long serviceNanos) {
+		OperationStats operationStats = stats.get(operation);
+		operationStats.responseTime.record(responseNanos);
+		operationStats.serviceTime.record(serviceNanos);
+	}
+
+	void recordError(Operation operation) {
+		stats.get(operation).errors.increment();
+	}
+
+	void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return the rate the operations were scheduled at, per second
+	 */
+	public double getTargetRate() {
+		return targetRate;
+	}
+
+	/**
+	 * @return the duration of the measured run, in seconds
+	 */
+	public double getElapsedSeconds() {
+		return elapsedNanos / 1e9;
+	}
+
+	/**
+	 * @param operation the operation
+	 * @return the number of successful operations
+	 */
+	public long getCount(Operation operation) {
+		return stats.get(operation).responseTime.getCount();
+	}
+
+	/**
+	 * @param operation the operation
+	 * @return the number of failed operations
+	 */
+	public long getErrors(Operation operation) {
+		return stats.get(operation).errors.sum();
+	}
+
+	/**
+	 * @param operation the operation
+	 * @return the successful operations per second
+	 */
+	public double getThroughput(Operation operation) {
+		return elapsedNanos == 0 ? 0 : getCount(operation) / getElapsedSeconds();
+	}
+
+	/**
+	 * @return the successful operations per second, all operations included
+	 */
+	public double getThroughput() {
+		double throughput = 0;
+		for (Operation operation : Operation.values()) {
+			throughput += getThroughput(operation);
+		}
+		return throughput;
+	}
+
+	/**
+	 * @param operation the operation
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the response time at this percentile, in nanoseconds
+	 */
+	public long getResponseTime(Operation operation, double percentile) {
+		return stats.get(operation).responseTime.getValueAtPercentile(percentile);
+	}
+
+	/**
+	 * @param operation the operation
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the service time at this percentile, in nanoseconds
+	 */
+	public long getServiceTime(Operation operation, double percentile) {
+		return stats.get(operation).serviceTime.getValueAtPercentile(percentile);
+	}
+
+	/**
+	 * @return one line per operation, times in milliseconds
+	 */
+	public String toCsv() {
+		StringBuilder csv = new StringBuilder("operation,count,errors,throughput,target_rate");
+		for (double percentile : PERCENTILES) {
+			csv.append(",p").append(label(percentile)).append("_ms");
+		}
+		csv.append(",max_ms,mean_ms,service_p50_ms,service_p99_ms\n");
+		for (Operation operation : Operation.values()) {
+			OperationStats operationStats = stats.get(operation);
+			csv.append(operation.name().toLowerCase()).append(',').append(getCount(operation)).append(',').append(getErrors(operation))
+					.append(',').append(format(getThroughput(operation))).append(',').append(format(targetRate));
+			for (double percentile : PERCENTILES) {
+				csv.append(',').append(millis(getResponseTime(operation, percentile)));
+			}
+			csv.append(',').append(millis(operationStats.responseTime.getMax()))
+					.append(',').append(millis(operationStats.responseTime.getMean()))
+					.append(',').append(millis(getServiceTime(operation, 50)))
+					.append(',').append(millis(getServiceTime(operation, 99))).append('\n');
+		}
+		return csv.toString();
+	}
+
+	/**
+	 * @return the report as Json, times in milliseconds
+	 */
+	public String toJson() {
+		Map<String, Object> report = new LinkedHashMap<String, Object>();
+		report.put("targetRate", targetRate);
+		report.put("elapsedSeconds", getElapsedSeconds());
+		report.put("throughput", getThroughput());
+		Map<String, Object> operations = new LinkedHashMap<String, Object>();
+		for (Operation operation : Operation.values()) {
+			OperationStats operationStats = stats.get(operation);
+			Map<String, Object> json = new LinkedHashMap<String, Object>();
+			json.put("count", getCount(operation));
+			json.put("errors", getErrors(operation));
+			json.put("throughput", getThroughput(operation));
+			Map<String, Object> responseTime = new LinkedHashMap<String, Object>();
+			for (double percentile : PERCENTILES) {
+				responseTime.put("p" + label(percentile), getResponseTime(operation, percentile) / 1e6);
+			}
+			responseTime.put("max", operationStats.responseTime.getMax() / 1e6);
+			responseTime.put("mean", operationStats.responseTime.getMean() / 1e6);
+			json.put("responseTimeMs", responseTime);
+			Map<String, Object> serviceTime = new LinkedHashMap<String, Object>();
+			serviceTime.put("p50", getServiceTime(operation, 50) / 1e6);
+			serviceTime.put("p99", getServiceTime(operation, 99) / 1e6);
+			json.put("serviceTimeMs", serviceTime);
+			operations.put(operation.name().toLowerCase(), json);
+		}
+		report.put("operations", operations);
+		return new GsonBuilder().setPrettyPrinting().create().toJson(report);
+	}
+
+	private static String label(double percentile) {
+		return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile).replace(".", "");
+	}
+
+	private static String millis(double nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+	}
+
+	private static String format(double value) {
+		return String.format(Locale.ROOT, "%.1f", value);
+	}
+
+	@Override
+	public String toString() {
+		return toCsv();
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of one command : latency histograms (in nanoseconds) of the queue
+ * wait, transport and parse phases, and counters of calls, errors and bytes.
+ *
+ * @version 1.0
+ */
+public class CommandMetrics implements CommandMetricsMXBean {
+
+	private final String command;
+	private final LatencyHistogram queueWait = new LatencyHistogram();
+	private final LatencyHistogram transport = new LatencyHistogram();
+	private final LatencyHistogram parse = new LatencyHistogram();
+	private final LongAdder calls = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder bytesIn = new LongAdder();
+	private final LongAdder bytesOut = new LongAdder();
+
+	/**
+	 * @param command name of the command
+	 */
+	public CommandMetrics(String command) {
+		this.command = command;
+	}
+
+	void recordCall() {
+		calls.increment();
+	}
+
+	void recordError() {
+		errors.increment();
+	}
+
+	void recordQueueWait(long nanos) {
+		queueWait.record(nanos);
+	}
+
+	void recordTransport(long nanos, long out, long in) {
+		transport.record(nanos);
+		bytesOut.add(out);
+		bytesIn.add(in);
+	}
+
+	void recordParse(long nanos) {
+		parse.record(nanos);
+	}
+
+	/**
+	 * Clears all the measures
+	 */
+	public void reset() {
+		queueWait.reset();
+		transport.reset();
+		parse.reset();
+		calls.reset();
+		errors.reset();
+		bytesIn.reset();
+		bytesOut.reset();
+	}
+
+	/**
+	 * @return the queue wait histogram, in nanoseconds
+	 */
+	public LatencyHistogram getQueueWait() {
+		return queueWait;
+	}
+
+	/**
+	 * @return the transport histogram, in nanoseconds
+	 */
+	public LatencyHistogram getTransport() {
+		return transport;
+	}
+
+	/**
+	 * @return the parse histogram, in nanoseconds
+	 */
+	public LatencyHistogram getParse() {
+		return parse;
+	}
+
+	@Override
+	public String getCommand() {
+		return command;
+	}
+
+	@Override
+	public long getCalls() {
+		return calls.sum();
+	}
+
+	@Override
+	public long getErrors() {
+		return errors.sum();
+	}
+
+	@Override
+	public long getBytesIn() {
+		return bytesIn.sum();
+	}
+
+	@Override
+	public long getBytesOut() {
+		return bytesOut.sum();
+	}
+
+	@Override
+	public long getQueueWaitP50Micros() {
+		return micros(queueWait.getValueAtPercentile(50));
+	}
+
+	@Override
+	public long getQueueWaitP99Micros() {
+		return micros(queueWait.getValueAtPercentile(99));
+	}
+
+	@Override
+	public long getTransportP50Micros() {
+		return micros(transport.getValueAtPercentile(50));
+	}
+
+	@Override
+	public long getTransportP99Micros() {
+		return micros(transport.getValueAtPercentile(99));
+	}
+
+	@Override
+	public long getTransportMaxMicros() {
+		return micros(transport.getMax());
+	}
+
+	@Override
+	public long getParseP50Micros() {
+		return micros(parse.getValueAtPercentile(50));
+	}
+
+	@Override
+	public long getParseP99Micros() {
+		return micros(parse.getValueAtPercentile(99));
+	}
+
+	@Override
+	public long getParseMaxMicros() {
+		return micros(parse.getMax());
+	}
+
+	private static long micros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+
+	@Override
+	public String toString() {
+		return "CommandMetrics [command=" + command + ", calls=" + getCalls() + ", errors=" + getErrors() + ", bytesOut="
+				+ getBytesOut() + ", bytesIn=" + getBytesIn() + ", queueWaitP99Micros=" + getQueueWaitP99Micros()
+				+ ", transportP50Micros=" + getTransportP50Micros() + ", transportP99Micros=" + getTransportP99Micros()
+				+ ", parseP50Micros=" + getParseP50Micros() + ", parseP99Micros=" + getParseP99Micros() + "]";
+	}
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.metrics;
+
+/**
+ * JMX view of the metrics of one command, see {@link MetricsJmxBridge}.
+ *
+ * @version 1.0
+ */
+public interface CommandMetricsMXBean {
+
+	String getCommand();
+
+	long getCalls();
+
+	long getErrors();
+
+	long getBytesIn();
+
+	long getBytesOut();
+
+	long getQueueWaitP50Micros();
+
+	long getQueueWaitP99Micros();
+
+	long getTransportP50Micros();
+
+	long getTransportP99Micros();
+
+	long getTransportMaxMicros();
+
+	long getParseP50Micros();
+
+	long getParseP99Micros();
+
+	long getParseMaxMicros();
+
+}
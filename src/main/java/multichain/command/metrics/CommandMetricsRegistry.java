@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-memory {@link MetricsRegistry} keeping one {@link CommandMetrics} per
+ * command.
+ *
+ * @version 1.0
+ */
+public class CommandMetricsRegistry implements MetricsRegistry {
+
+	private final ConcurrentHashMap<String, CommandMetrics> metrics = new ConcurrentHashMap<String, CommandMetrics>();
+	private final List<Consumer<CommandMetrics>> listeners = new CopyOnWriteArrayList<Consumer<CommandMetrics>>();
+
+	@Override
+	public void recordCall(String command) {
+		get(command).recordCall();
+	}
+
+	@Override
+	public void recordError(String command) {
+		get(command).recordError();
+	}
+
+	@Override
+	public void recordQueueWait(String command, long nanos) {
+		get(command).recordQueueWait(nanos);
+	}
+
+	@Override
+	public void recordTransport(String command, long nanos, long bytesOut, long bytesIn) {
+		get(command).recordTransport(nanos, bytesOut, bytesIn);
+	}
+
+	@Override
+	public void recordParse(String command, long nanos) {
+		get(command).recordParse(nanos);
+	}
+
+	/**
+	 * @param command name of the command
+	 * @return the metrics of the command, created if needed
+	 */
+	public CommandMetrics get(String command) {
+		CommandMetrics commandMetrics = metrics.get(command);
+		if (commandMetrics == null) {
+			CommandMetrics created = new CommandMetrics(command);
+			commandMetrics = metrics.putIfAbsent(command, created);
+			if (commandMetrics == null) {
+				commandMetrics = created;
+				for (Consumer<CommandMetrics> listener : listeners) {
+					listener.accept(created);
+				}
+			}
+		}
+		return commandMetrics;
+	}
+
+	/**
+	 * @return the metrics of all the commands called so far
+	 */
+	public Collection<CommandMetrics> getAll() {
+		return new ArrayList<CommandMetrics>(metrics.values());
+	}
+
+	/**
+	 * Clears the measures of all the commands
+	 */
+	public void reset() {
+		for (CommandMetrics commandMetrics : metrics.values()) {
+			commandMetrics.reset();
+		}
+	}
+
+	/**
+	 * @param listener called with the metrics of each command the first time it is called
+	 */
+	public void addCreationListener(Consumer<CommandMetrics> listener) {
+		listeners.add(listener);
+	}
+
+}
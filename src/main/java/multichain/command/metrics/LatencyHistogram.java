@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets : values up to
+ * 127 are counted exactly, larger values are counted in 64 linear sub-buckets
+ * per power of two, so any recorded value is reported with less than 1.6%
+ * error, from nanoseconds to hours, in a fixed footprint of 3712 counters.
+ *
+ * @version 1.0
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 7;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+	private static final int COUNTERS = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT;
+
+	private final AtomicLongArray counts = new AtomicLongArray(COUNTERS);
+	private final LongAdder totalCount = new LongAdder();
+	private final LongAdder totalSum = new LongAdder();
+	private final AtomicLong maxValue = new AtomicLong();
+
+	/**
+	 * @param value the value to record, negative values are recorded as 0
+	 */
+	public void record(long value) {
+		long v = Math.max(0, value);
+		counts.incrementAndGet(indexOf(v));
+		totalCount.increment();
+		totalSum.add(v);
+		long max = maxValue.get();
+		while (v > max && !maxValue.compareAndSet(max, v)) {
+			max = maxValue.get();
+		}
+	}
+
+	/**
+	 * @return the number of recorded values
+	 */
+	public long getCount() {
+		return totalCount.sum();
+	}
+
+	/**
+	 * @return the greatest recorded value
+	 */
+	public long getMax() {
+		return maxValue.get();
+	}
+
+	/**
+	 * @return the mean of the recorded values
+	 */
+	public double getMean() {
+		long count = totalCount.sum();
+		return count == 0 ? 0 : (double) totalSum.sum() / count;
+	}
+
+	/**
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the value below which the given percentile of the recorded values fall
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long count = totalCount.sum();
+		if (count == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * count));
+		long seen = 0;
+		for (int i = 0; i < COUNTERS; i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				return Math.min(highestEquivalentValue(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Clears all the recorded values
+	 */
+	public void reset() {
+		for (int i = 0; i < COUNTERS; i++) {
+			counts.set(i, 0);
+		}
+		totalCount.reset();
+		totalSum.reset();
+		maxValue.set(0);
+	}
+
+	/**
+	 * Adds the values recorded in another histogram to this one.
+	 *
+	 * @param other the histogram to add
+	 */
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < COUNTERS; i++) {
+			long count = other.counts.get(i);
+			if (count > 0) {
+				counts.addAndGet(i, count);
+			}
+		}
+		totalCount.add(other.totalCount.sum());
+		totalSum.add(other.totalSum.sum());
+		long otherMax = other.getMax();
+		long max = maxValue.get();
+		while (otherMax > max && !maxValue.compareAndSet(max, otherMax)) {
+			max = maxValue.get();
+		}
+	}
+
+	static int indexOf(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - (SUB_BUCKET_BITS - 1);
+		int subBucket = (int) (value >>> shift);
+		return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT + (subBucket - SUB_BUCKET_HALF_COUNT);
+	}
+
+	static long highestEquivalentValue(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int offset = index - SUB_BUCKET_COUNT;
+		int exponent = SUB_BUCKET_BITS + offset / SUB_BUCKET_HALF_COUNT;
+		long subBucket = SUB_BUCKET_HALF_COUNT + offset % SUB_BUCKET_HALF_COUNT;
+		int shift = exponent - (SUB_BUCKET_BITS - 1);
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Publishes the metrics of a {@link CommandMetricsRegistry} to JMX : one
+ * MXBean per command, named <code>&lt;domain&gt;:type=CommandMetrics,command=&lt;command&gt;</code>,
+ * registered the first time the command is called.
+ *
+ * @version 1.0
+ */
+public class MetricsJmxBridge {
+
+	private static final Logger log = Logger.getLogger(MetricsJmxBridge.class.getName());
+
+	/**
+	 * Default JMX domain
+	 */
+	public static final String DEFAULT_DOMAIN = "multichain";
+
+	/**
+	 * Registers the metrics of the registry in the platform MBean server
+	 *
+	 * @param registry the registry to publish
+	 * @param domain the JMX domain
+	 */
+	public static void register(CommandMetricsRegistry registry, String domain) {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		registry.addCreationListener(commandMetrics -> register(server, domain, commandMetrics));
+		for (CommandMetrics commandMetrics : registry.getAll()) {
+			register(server, domain, commandMetrics);
+		}
+	}
+
+	/**
+	 * {@link #register(CommandMetricsRegistry, String)} in the default domain
+	 *
+	 * @param registry the registry to publish
+	 */
+	public static void register(CommandMetricsRegistry registry) {
+		register(registry, DEFAULT_DOMAIN);
+	}
+
+	private static void register(MBeanServer server, String domain, CommandMetrics commandMetrics) {
+		try {
+			ObjectName name = new ObjectName(domain + ":type=CommandMetrics,command=" + ObjectName.quote(commandMetrics.getCommand()));
+			if (!server.isRegistered(name)) {
+				server.registerMBean(commandMetrics, name);
+			}
+		} catch (JMException e) {
+			log.log(Level.WARNING, "Unable to register the metrics of " + commandMetrics.getCommand(), e);
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.metrics;
+
+/**
+ * Receives the measures taken around every command executed by the API, see
+ * {@link multichain.command.ChainCommand#setMetricsRegistry(MetricsRegistry)}.
+ *
+ * A call goes through three phases :
+ * <ul>
+ * <li>queue wait : time spent waiting before the node is called (waiting for
+ * an identical call already in flight, waiting before a retry)</li>
+ * <li>transport : time spent calling the node and reading its output</li>
+ * <li>parse : time spent formatting the output into Java objects</li>
+ * </ul>
+ *
+ * Implementations are called from every thread executing commands and must be
+ * thread-safe and cheap.
+ *
+ * @version 1.0
+ */
+public interface MetricsRegistry {
+
+	/**
+	 * Registry ignoring all the measures
+	 */
+	MetricsRegistry NOOP = new MetricsRegistry() {
+		@Override
+		public void recordCall(String command) {
+		}
+
+		@Override
+		public void recordError(String command) {
+		}
+
+		@Override
+		public void recordQueueWait(String command, long nanos) {
+		}
+
+		@Override
+		public void recordTransport(String command, long nanos, long bytesOut, long bytesIn) {
+		}
+
+		@Override
+		public void recordParse(String command, long nanos) {
+		}
+	};
+
+	/**
+	 * @param command name of the command
+	 */
+	void recordCall(String command);
+
+	/**
+	 * @param command name of the command which failed, when calling the node or parsing its output
+	 */
+	void recordError(String command);
+
+	/**
+	 * @param command name of the command
+	 * @param nanos time spent waiting
+	 */
+	void recordQueueWait(String command, long nanos);
+
+	/**
+	 * @param command name of the command
+	 * @param nanos time spent calling the node
+	 * @param bytesOut size of the command and its parameters
+	 * @param bytesIn size of the output of the node
+	 */
+	void recordTransport(String command, long nanos, long bytesOut, long bytesIn);
+
+	/**
+	 * @param command name of the command
+	 * @param nanos time spent formatting the output
+	 */
+	void recordParse(String command, long nanos);
+
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.raw;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import multichain.command.ChainCommand;
+import multichain.command.MultichainException;
+
+/**
+ * Addresses of a chain, encoded as MultiChain does : the version bytes of the
+ * chain are spread over the hash, and the checksum is xored with the
+ * address-checksum-value of the chain before the Base58 encoding. With a one
+ * byte version and a zero checksum value, addresses are the Bitcoin ones.
+ *
+ * @version 1.0
+ */
+public class AddressCodec {
+
+	/**
+	 * Parameters of the Bitcoin addresses, also the default of the
+	 * {@link multichain.command.simulator.MultichainSimulator}
+	 */
+	public static final AddressCodec BITCOIN = new AddressCodec("00", "05", "80", "00000000");
+
+	private static final int HASH_SIZE = 20;
+	private static final int CHECKSUM_SIZE = 4;
+
+	private static final byte OP_DUP = (byte) 0x76;
+	private static final byte OP_HASH160 = (byte) 0xa9;
+	private static final byte OP_EQUALVERIFY = (byte) 0x88;
+	private static final byte OP_CHECKSIG = (byte) 0xac;
+	private static final byte OP_EQUAL = (byte) 0x87;
+
+	private final byte[] pubKeyHashVersion;
+	private final byte[] scriptHashVersion;
+	private final byte[] privateKeyVersion;
+	private final byte[] checksumValue;
+
+	/**
+	 * @param pubKeyHashVersion address-pubkeyhash-version of the chain, in hexadecimal
+	 * @param scriptHashVersion address-scripthash-version of the chain, in hexadecimal
+	 * @param privateKeyVersion private-key-version of the chain, in hexadecimal
+	 * @param checksumValue address-checksum-value of the chain, in hexadecimal
+	 */
+	public AddressCodec(String pubKeyHashVersion, String scriptHashVersion, String privateKeyVersion, String checksumValue) {
+		this.pubKeyHashVersion = Hex.decode(pubKeyHashVersion);
+		this.scriptHashVersion = Hex.decode(scriptHashVersion);
+		this.privateKeyVersion = Hex.decode(privateKeyVersion);
+		this.checksumValue = Hex.decode(checksumValue);
+		if (this.checksumValue.length != CHECKSUM_SIZE) {
+			throw new IllegalArgumentException("address-checksum-value must be 4 bytes long");
+		}
+	}
+
+	/**
+	 * @return the codec of the chain initialized with {@link ChainCommand}
+	 * @throws MultichainException
+	 */
+	public static AddressCodec fromChain() throws MultichainException {
+		Map<String, Object> params = ChainCommand.getBlockchainParams();
+		return new AddressCodec(param(params, "address-pubkeyhash-version"), param(params, "address-scripthash-version"),
+				param(params, "private-key-version"), param(params, "address-checksum-value"));
+	}
+
+	private static String param(Map<String, Object> params, String name) throws MultichainException {
+		Object value = params.get(name);
+		if (value == null) {
+			throw new MultichainException(name, "missing from the blockchain parameters");
+		}
+		return value.toString();
+	}
+
+	/**
+	 * @param hash the RIPEMD-160 of the SHA-256 of the public key
+	 * @return the address
+	 */
+	public String encodePubKeyHash(byte[] hash) {
+		return encode(pubKeyHashVersion, hash);
+	}
+
+	/**
+	 * @param hash the RIPEMD-160 of the SHA-256 of the redeem script
+	 * @return the address
+	 */
+	public String encodeScriptHash(byte[] hash) {
+		return encode(scriptHashVersion, hash);
+	}
+
+	/**
+	 * @param address an address of the chain
+	 * @return true if the address is a valid public key hash or script hash
+	 *         address of the chain
+	 */
+	public boolean isValid(String address) {
+		if (address == null || address.isEmpty()) {
+			return false;
+		}
+		try {
+			byte[] extended = checked(address);
+			byte[] hash = payload(pubKeyHashVersion, extended);
+			if (hash == null) {
+				hash = payload(scriptHashVersion, extended);
+			}
+			return hash != null && hash.length == HASH_SIZE;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @param address a public key hash or script hash address of the chain
+	 * @return the script paying to the address, pay to public key hash or pay to
+	 *         script hash
+	 * @throws MultichainException if the address is not an address of the chain
+	 */
+	public byte[] outputScript(String address) throws MultichainException {
+		byte[] hash = decodeOrNull(pubKeyHashVersion, address);
+		if (hash != null && hash.length == HASH_SIZE) {
+			byte[] script = new byte[25];
+			script[0] = OP_DUP;
+			script[1] = OP_HASH160;
+			script[2] = HASH_SIZE;
+			System.arraycopy(hash, 0, script, 3, HASH_SIZE);
+			script[23] = OP_EQUALVERIFY;
+			script[24] = OP_CHECKSIG;
+			return script;
+		}
+		hash = decodeOrNull(scriptHashVersion, address);
+		if (hash != null && hash.length == HASH_SIZE) {
+			byte[] script = new byte[23];
+			script[0] = OP_HASH160;
+			script[1] = HASH_SIZE;
+			System.arraycopy(hash, 0, script, 2, HASH_SIZE);
+			script[22] = OP_EQUAL;
+			return script;
+		}
+		throw new MultichainException("address", address + " is not an address of the chain");
+	}
+
+	/**
+	 * @param address an address of the chain
+	 * @return true if the address is a valid script hash address of the chain
+	 */
+	public boolean isScriptHash(String address) {
+		byte[] hash = decodeOrNull(scriptHashVersion, address);
+		return hash != null && hash.length == HASH_SIZE;
+	}
+
+	/**
+	 * Decodes the address paid by an output script, the reverse of
+	 * {@link #outputScript(String)}.
+	 *
+	 * @param script the script of an output, scriptPubKey
+	 * @return the address, null if the script is neither pay to public key
+	 *         hash nor pay to script hash
+	 */
+	public String addressOf(byte[] script) {
+		if (script.length == 25 && script[0] == OP_DUP && script[1] == OP_HASH160 && script[2] == HASH_SIZE && script[23] == OP_EQUALVERIFY
+				&& script[24] == OP_CHECKSIG) {
+			return encodePubKeyHash(Arrays.copyOfRange(script, 3, 23));
+		}
+		if (script.length == 23 && script[0] == OP_HASH160 && script[1] == HASH_SIZE && script[22] == OP_EQUAL) {
+			return encodeScriptHash(Arrays.copyOfRange(script, 2, 22));
+		}
+		return null;
+	}
+
+	/**
+	 * Decodes the address spending an input from its script : the public key
+	 * of a pay to public key hash input, or the redeem script of a pay to
+	 * script hash input, is its last push.
+	 *
+	 * @param scriptSig the script of an input
+	 * @return the address, null if the script is neither a signature followed
+	 *         by a public key, nor OP_0 followed by signatures and a redeem
+	 *         script
+	 */
+	public String inputAddress(byte[] scriptSig) {
+		List<int[]> pushes = new ArrayList<int[]>();
+		try {
+			ByteReader script = new ByteReader(scriptSig, 0, scriptSig.length);
+			while (script.hasRemaining()) {
+				int[] push = script.readPush();
+				if (push == null) {
+					return null;
+				}
+				pushes.add(push);
+			}
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+		if (pushes.size() < 2) {
+			return null;
+		}
+
+		int[] last = pushes.get(pushes.size() - 1);
+		byte[] data = Arrays.copyOfRange(scriptSig, last[0], last[0] + last[1]);
+		if (pushes.size() == 2 && isPublicKey(data)) {
+			return encodePubKeyHash(hash160(data));
+		}
+		if (pushes.get(0)[1] == 0 && data.length > 0) {
+			return encodeScriptHash(hash160(data));
+		}
+		return null;
+	}
+
+	private static boolean isPublicKey(byte[] data) {
+		return (data.length == 33 && (data[0] == 0x02 || data[0] == 0x03)) || (data.length == 65 && data[0] == 0x04);
+	}
+
+	private byte[] decodeOrNull(byte[] version, String address) {
+		try {
+			return decode(version, address);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Encodes a payload with the version bytes spread over it : the first one
+	 * before the payload, then one every payload length / version length bytes.
+	 *
+	 * @param version the version bytes
+	 * @param payload the payload
+	 * @return the Base58 encoded string
+	 */
+	String encode(byte[] version, byte[] payload) {
+		byte[] extended = new byte[version.length + payload.length + CHECKSUM_SIZE];
+		int spacing = payload.length / version.length;
+		int position = 0;
+		int read = 0;
+		for (int i = 0; i < version.length; i++) {
+			extended[position++] = version[i];
+			int length = i == version.length - 1 ? payload.length - read : spacing;
+			System.arraycopy(payload, read, extended, position, length);
+			position += length;
+			read += length;
+		}
+
+		byte[] checksum = sha256d(extended, 0, position);
+		for (int i = 0; i < CHECKSUM_SIZE; i++) {
+			extended[position + i] = (byte) (checksum[i] ^ checksumValue[i]);
+		}
+		return Base58.encode(extended);
+	}
+
+	/**
+	 * @param version the expected version bytes
+	 * @param encoded the Base58 encoded string
+	 * @return the payload, null if the version bytes differ
+	 * @throws IllegalArgumentException if the string is not Base58 or its
+	 *             checksum is wrong
+	 */
+	byte[] decode(byte[] version, String encoded) {
+		return payload(version, checked(encoded));
+	}
+
+	/**
+	 * @param encoded the Base58 encoded string
+	 * @return the decoded bytes, checksum included
+	 * @throws IllegalArgumentException if the string is not Base58 or its
+	 *             checksum is wrong
+	 */
+	private byte[] checked(String encoded) {
+		byte[] extended = Base58.decode(encoded);
+		if (extended.length <= CHECKSUM_SIZE + 1) {
+			throw new IllegalArgumentException("Too short address");
+		}
+
+		byte[] checksum = sha256d(extended, 0, extended.length - CHECKSUM_SIZE);
+		for (int i = 0; i < CHECKSUM_SIZE; i++) {
+			if ((byte) (checksum[i] ^ checksumValue[i]) != extended[extended.length - CHECKSUM_SIZE + i]) {
+				throw new IllegalArgumentException("Invalid address checksum");
+			}
+		}
+		return extended;
+	}
+
+	/**
+	 * @param version the expected version bytes
+	 * @param extended the decoded bytes, checksum included
+	 * @return the payload without the version bytes, null if they differ
+	 */
+	private static byte[] payload(byte[] version, byte[] extended) {
+		int length = extended.length - version.length - CHECKSUM_SIZE;
+		if (length <= 0) {
+			return null;
+		}
+		byte[] payload = new byte[length];
+		int spacing = length / version.length;
+		int position = 0;
+		int written = 0;
+		for (int i = 0; i < version.length; i++) {
+			if (extended[position++] != version[i]) {
+				return null;
+			}
+			int chunk = i == version.length - 1 ? length - written : spacing;
+			System.arraycopy(extended, position, payload, written, chunk);
+			position += chunk;
+			written += chunk;
+		}
+		return payload;
+	}
+
+	/**
+	 * @return the SHA-256 of the SHA-256 of the bytes
+	 */
+	static byte[] sha256d(byte[] bytes, int offset, int length) {
+		MessageDigest digest = sha256();
+		digest.update(bytes, offset, length);
+		return digest.digest(digest.digest());
+	}
+
+	/**
+	 * @return the RIPEMD-160 of the SHA-256 of the bytes
+	 */
+	static byte[] hash160(byte[] bytes) {
+		return Ripemd160.digest(sha256().digest(bytes));
+	}
+
+	static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+}
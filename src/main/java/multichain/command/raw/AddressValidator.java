@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.raw;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import multichain.command.AddressCommand;
+import multichain.command.MultichainException;
+import multichain.object.Address;
+
+/**
+ * Validates addresses in the process, with the version bytes and checksum
+ * value of the chain, instead of calling validateaddress for each one :
+ *
+ * <pre>
+ * AddressValidator validator = new AddressValidator();
+ * if (!validator.isValid(address)) {
+ *     ...
+ * }
+ * boolean[] valid = validator.isValid(addresses);
+ * </pre>
+ *
+ * The parameters are read once with getblockchainparams, at the first
+ * validation. Only the questions on the wallet, {@link #isMine(String)} and
+ * {@link #validateWithWallet(String)}, call validateaddress, and only for
+ * valid addresses.
+ *
+ * @version 1.0
+ */
+public class AddressValidator {
+
+	/**
+	 * Number of addresses validated per task of a batch
+	 */
+	public static final int BATCH_SLICE = 1024;
+
+	private volatile AddressCodec codec;
+	private volatile ExecutorService executor = ForkJoinPool.commonPool();
+
+	/**
+	 * Validator of the chain initialized with
+	 * {@link multichain.command.ChainCommand}, its parameters read at the first
+	 * validation.
+	 */
+	public AddressValidator() {
+	}
+
+	/**
+	 * @param codec the addresses of the chain
+	 */
+	public AddressValidator(AddressCodec codec) {
+		this.codec = codec;
+	}
+
+	/**
+	 * @return the addresses of the chain, its parameters read at the first call
+	 * @throws MultichainException if the parameters can not be read
+	 */
+	public AddressCodec getCodec() throws MultichainException {
+		AddressCodec current = codec;
+		if (current == null) {
+			synchronized (this) {
+				current = codec;
+				if (current == null) {
+					current = AddressCodec.fromChain();
+					codec = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * @param executor the executor of the batches, the common fork join pool
+	 *            by default
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor == null ? ForkJoinPool.commonPool() : executor;
+	}
+
+	/**
+	 * @param address the address
+	 * @return true if the address is a public key hash or script hash address
+	 *         of the chain, with a valid checksum
+	 * @throws MultichainException if the parameters of the chain can not be
+	 *             read
+	 */
+	public boolean isValid(String address) throws MultichainException {
+		return getCodec().isValid(address);
+	}
+
+	/**
+	 * Validates the addresses in parallel, by slices of {@link #BATCH_SLICE}.
+	 *
+	 * @param addresses the addresses
+	 * @return true for every valid address, in the order of the addresses
+	 * @throws MultichainException if the parameters of the chain can not be
+	 *             read
+	 */
+	public boolean[] isValid(List<String> addresses) throws MultichainException {
+		AddressCodec current = getCodec();
+		String[] values = addresses.toArray(new String[addresses.size()]);
+		boolean[] valid = new boolean[values.length];
+		if (values.length <= BATCH_SLICE) {
+			validate(current, values, valid, 0, values.length);
+			return valid;
+		}
+
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(values.length / BATCH_SLICE + 1);
+		for (int from = 0; from < values.length; from += BATCH_SLICE) {
+			final int start = from;
+			final int end = Math.min(values.length, from + BATCH_SLICE);
+			tasks.add(() -> {
+				validate(current, values, valid, start, end);
+				return null;
+			});
+		}
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MultichainException("addresses", "interrupted");
+		} catch (ExecutionException e) {
+			throw new MultichainException("addresses", String.valueOf(e.getCause()));
+		}
+		return valid;
+	}
+
+	/**
+	 * @param addresses the addresses
+	 * @return the invalid addresses, in their order
+	 * @throws MultichainException if the parameters of the chain can not be
+	 *             read
+	 */
+	public List<String> invalid(List<String> addresses) throws MultichainException {
+		boolean[] valid = isValid(addresses);
+		List<String> invalid = new ArrayList<String>();
+		for (int i = 0; i < valid.length; i++) {
+			if (!valid[i]) {
+				invalid.add(addresses.get(i));
+			}
+		}
+		return invalid;
+	}
+
+	/**
+	 * @param address the address
+	 * @return the information known without the wallet : isvalid, address and
+	 *         isscript
+	 * @throws MultichainException if the parameters of the chain can not be
+	 *             read
+	 */
+	public Address validate(String address) throws MultichainException {
+		AddressCodec current = getCodec();
+		Address info = new Address(address);
+		info.setIsvalid(current.isValid(address));
+		info.setIsscript(info.isIsvalid() && current.isScriptHash(address));
+		return info;
+	}
+
+	/**
+	 * @param address the address
+	 * @return true if the address is valid and belongs to the wallet of the
+	 *         node, asked with validateaddress
+	 * @throws MultichainException
+	 */
+	public boolean isMine(String address) throws MultichainException {
+		return isValid(address) && AddressCommand.validateAddress(address).isIsmine();
+	}
+
+	/**
+	 * @param address the address
+	 * @return the information of validateaddress for a valid address, the
+	 *         local one of {@link #validate(String)} for an invalid one
+	 * @throws MultichainException
+	 */
+	public Address validateWithWallet(String address) throws MultichainException {
+		Address info = validate(address);
+		return info.isIsvalid() ? AddressCommand.validateAddress(address) : info;
+	}
+
+	private static void validate(AddressCodec codec, String[] addresses, boolean[] valid, int from, int to) {
+		for (int i = from; i < to; i++) {
+			valid[i] = codec.isValid(addresses[i]);
+		}
+	}
+
+}
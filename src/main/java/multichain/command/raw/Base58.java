@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.raw;
+
+import java.util.Arrays;
+
+/**
+ * Base58 encoding of the addresses and private keys, with the alphabet of
+ * Bitcoin.
+ *
+ * @version 1.0
+ */
+public final class Base58 {
+
+	private static final char[] ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz".toCharArray();
+	private static final int[] INDEXES = new int[128];
+
+	static {
+		Arrays.fill(INDEXES, -1);
+		for (int i = 0; i < ALPHABET.length; i++) {
+			INDEXES[ALPHABET[i]] = i;
+		}
+	}
+
+	private Base58() {
+	}
+
+	/**
+	 * @param input the string to check
+	 * @return true if the string is not empty and made of Base58 characters
+	 *         only
+	 */
+	public static boolean isBase58(String input) {
+		if (input == null || input.isEmpty()) {
+			return false;
+		}
+		for (int i = 0; i < input.length(); i++) {
+			char c = input.charAt(i);
+			if (c >= 128 || INDEXES[c] < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param input the bytes to encode
+	 * @return the Base58 string, a leading '1' per leading zero byte
+	 */
+	public static String encode(byte[] input) {
+		if (input.length == 0) {
+			return "";
+		}
+		int zeros = 0;
+		while (zeros < input.length && input[zeros] == 0) {
+			zeros++;
+		}
+
+		byte[] number = Arrays.copyOf(input, input.length);
+		char[] encoded = new char[input.length * 2];
+		int position = encoded.length;
+		for (int start = zeros; start < number.length;) {
+			encoded[--position] = ALPHABET[divide(number, start, 256, 58)];
+			if (number[start] == 0) {
+				start++;
+			}
+		}
+		while (position < encoded.length && encoded[position] == ALPHABET[0]) {
+			position++;
+		}
+		while (--zeros >= 0) {
+			encoded[--position] = ALPHABET[0];
+		}
+		return new String(encoded, position, encoded.length - position);
+	}
+
+	/**
+	 * @param input the Base58 string
+	 * @return the decoded bytes
+	 * @throws IllegalArgumentException if the string is not Base58
+	 */
+	public static byte[] decode(String input) {
+		if (input.isEmpty()) {
+			return new byte[0];
+		}
+		byte[] number = new byte[input.length()];
+		for (int i = 0; i < input.length(); i++) {
+			char c = input.charAt(i);
+			int digit = c < 128 ? INDEXES[c] : -1;
+			if (digit < 0) {
+				throw new IllegalArgumentException("Invalid Base58 character '" + c + "' at position " + i);
+			}
+			number[i] = (byte) digit;
+		}
+		int zeros = 0;
+		while (zeros < number.length && number[zeros] == 0) {
+			zeros++;
+		}
+
+		byte[] decoded = new byte[input.length()];
+		int position = decoded.length;
+		for (int start = zeros; start < number.length;) {
+			decoded[--position] = (byte) divide(number, start, 58, 256);
+			if (number[start] == 0) {
+				start++;
+			}
+		}
+		while (position < decoded.length && decoded[position] == 0) {
+			position++;
+		}
+		return Arrays.copyOfRange(decoded, position - zeros, decoded.length);
+	}
+
+	/**
+	 * Divides in place the number given by its digits in base, from start.
+	 *
+	 * @return the remainder
+	 */
+	private static int divide(byte[] number, int start, int base, int divisor) {
+		int remainder = 0;
+		for (int i = start; i < number.length; i++) {
+			int digit = number[i] & 0xFF;
+			int value = remainder * base + digit;
+			number[i] = (byte) (value / divisor);
+			remainder = value % divisor;
+		}
+		return remainder;
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.raw;
+
+/**
+ * Reads the little endian integers and the compact sizes of the transaction
+ * serialization, in place.
+ *
+ * @version 1.0
+ */
+final class ByteReader {
+
+	private static final int OP_PUSHDATA1 = 0x4c;
+	private static final int OP_PUSHDATA2 = 0x4d;
+	private static final int OP_PUSHDATA4 = 0x4e;
+
+	private final byte[] bytes;
+	private final int end;
+	private int position;
+
+	ByteReader(byte[] bytes, int offset, int length) {
+		this.bytes = bytes;
+		this.position = offset;
+		this.end = offset + length;
+	}
+
+	int position() {
+		return position;
+	}
+
+	boolean hasRemaining() {
+		return position < end;
+	}
+
+	int readByte() {
+		require(1);
+		return bytes[position++] & 0xFF;
+	}
+
+	int readInt32() {
+		require(4);
+		int value = 0;
+		for (int i = 0; i < 4; i++) {
+			value |= (bytes[position++] & 0xFF) << (8 * i);
+		}
+		return value;
+	}
+
+	long readInt64() {
+		require(8);
+		long value = 0;
+		for (int i = 0; i < 8; i++) {
+			value |= (long) (bytes[position++] & 0xFF) << (8 * i);
+		}
+		return value;
+	}
+
+	long readCompactSize() {
+		int first = readByte();
+		if (first < 0xfd) {
+			return first;
+		}
+		if (first == 0xfd) {
+			return readByte() | readByte() << 8;
+		}
+		if (first == 0xfe) {
+			return readInt32() & 0xffffffffL;
+		}
+		return readInt64();
+	}
+
+	/**
+	 * Skips the bytes, returning their offset.
+	 */
+	int skip(long length) {
+		if (length < 0 || length > end - position) {
+			throw new IllegalArgumentException("Truncated transaction at byte " + position);
+		}
+		int offset = position;
+		position += (int) length;
+		return offset;
+	}
+
+	/**
+	 * Reads an operation of a script.
+	 *
+	 * @return the offset and length of the pushed data, null if the operation
+	 *         is not a push
+	 */
+	int[] readPush() {
+		int opcode = readByte();
+		int length;
+		if (opcode > 0 && opcode < OP_PUSHDATA1) {
+			length = opcode;
+		} else if (opcode == OP_PUSHDATA1) {
+			length = readByte();
+		} else if (opcode == OP_PUSHDATA2) {
+			length = readByte() | readByte() << 8;
+		} else if (opcode == OP_PUSHDATA4) {
+			length = readInt32();
+		} else if (opcode == 0) {
+			length = 0;
+		} else {
+			return null;
+		}
+		return new int[] { skip(length), length };
+	}
+
+	byte[] readBytes(int length) {
+		int offset = skip(length);
+		byte[] read = new byte[length];
+		System.arraycopy(bytes, offset, read, 0, length);
+		return read;
+	}
+
+	private void require(int length) {
+		if (end - position < length) {
+			throw new IllegalArgumentException("Truncated transaction at byte " + position);
+		}
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.raw;
+
+import java.util.Arrays;
+
+/**
+ * Growable buffer writing the little endian integers and the compact sizes of
+ * the transaction serialization.
+ *
+ * @version 1.0
+ */
+final class ByteWriter {
+
+	private byte[] buffer;
+	private int size;
+
+	ByteWriter(int capacity) {
+		buffer = new byte[Math.max(16, capacity)];
+	}
+
+	ByteWriter writeByte(int value) {
+		ensure(1);
+		buffer[size++] = (byte) value;
+		return this;
+	}
+
+	ByteWriter writeInt32(int value) {
+		ensure(4);
+		for (int i = 0; i < 4; i++) {
+			buffer[size++] = (byte) (value >>> (8 * i));
+		}
+		return this;
+	}
+
+	ByteWriter writeInt64(long value) {
+		ensure(8);
+		for (int i = 0; i < 8; i++) {
+			buffer[size++] = (byte) (value >>> (8 * i));
+		}
+		return this;
+	}
+
+	ByteWriter writeCompactSize(long value) {
+		if (value < 0xfd) {
+			writeByte((int) value);
+		} else if (value <= 0xffff) {
+			writeByte(0xfd);
+			writeByte((int) value);
+			writeByte((int) (value >>> 8));
+		} else if (value <= 0xffffffffL) {
+			writeByte(0xfe);
+			writeInt32((int) value);
+		} else {
+			writeByte(0xff);
+			writeInt64(value);
+		}
+		return this;
+	}
+
+	ByteWriter writeBytes(byte[] bytes) {
+		return writeBytes(bytes, 0, bytes.length);
+	}
+
+	ByteWriter writeBytes(byte[] bytes, int offset, int length) {
+		ensure(length);
+		System.arraycopy(bytes, offset, buffer, size, length);
+		size += length;
+		return this;
+	}
+
+	/**
+	 * Writes the compact size of the bytes then the bytes.
+	 */
+	ByteWriter writeVarBytes(byte[] bytes) {
+		writeCompactSize(bytes.length);
+		return writeBytes(bytes);
+	}
+
+	/**
+	 * Writes the smallest script operation pushing the bytes on the stack.
+	 */
+	ByteWriter writePush(byte[] bytes) {
+		if (bytes.length < 0x4c) {
+			writeByte(bytes.length);
+		} else if (bytes.length <= 0xff) {
+			writeByte(0x4c);
+			writeByte(bytes.length);
+		} else if (bytes.length <= 0xffff) {
+			writeByte(0x4d);
+			writeByte(bytes.length);
+			writeByte(bytes.length >>> 8);
+		} else {
+			writeByte(0x4e);
+			writeInt32(bytes.length);
+		}
+		return writeBytes(bytes);
+	}
+
+	int size() {
+		return size;
+	}
+
+	byte[] toByteArray() {
+		return Arrays.copyOf(buffer, size);
+	}
+
+	private void ensure(int length) {
+		if (size + length > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+		}
+	}
+
+}
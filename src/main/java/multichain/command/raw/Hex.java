@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.raw;
+
+/**
+ * Hexadecimal strings, as the node gives transactions, scripts and hashes.
+ *
+ * @version 1.0
+ */
+public final class Hex {
+
+	private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+	private Hex() {
+	}
+
+	/**
+	 * @param bytes the bytes
+	 * @return the lower case hexadecimal string
+	 */
+	public static String encode(byte[] bytes) {
+		return encode(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * @param bytes the bytes
+	 * @param offset the first byte to encode
+	 * @param length the number of bytes to encode
+	 * @return the lower case hexadecimal string
+	 */
+	public static String encode(byte[] bytes, int offset, int length) {
+		char[] hex = new char[length * 2];
+		for (int i = 0; i < length; i++) {
+			int value = bytes[offset + i] & 0xFF;
+			hex[2 * i] = DIGITS[value >>> 4];
+			hex[2 * i + 1] = DIGITS[value & 0x0F];
+		}
+		return new String(hex);
+	}
+
+	/**
+	 * @param hex the hexadecimal string, upper or lower case
+	 * @return the bytes
+	 * @throws IllegalArgumentException if the string is not hexadecimal
+	 */
+	public static byte[] decode(String hex) {
+		if (hex.length() % 2 != 0) {
+			throw new IllegalArgumentException("Odd length hexadecimal string");
+		}
+		byte[] bytes = new byte[hex.length() / 2];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) (digit(hex, 2 * i) << 4 | digit(hex, 2 * i + 1));
+		}
+		return bytes;
+	}
+
+	/**
+	 * @param hex a hash as displayed by the node (txid, block hash)
+	 * @return the hash in the byte order of the serialization
+	 */
+	public static byte[] decodeReversed(String hex) {
+		byte[] bytes = decode(hex);
+		for (int i = 0, j = bytes.length - 1; i < j; i++, j--) {
+			byte swap = bytes[i];
+			bytes[i] = bytes[j];
+			bytes[j] = swap;
+		}
+		return bytes;
+	}
+
+	private static int digit(String hex, int index) {
+		int digit = Character.digit(hex.charAt(index), 16);
+		if (digit < 0) {
+			throw new IllegalArgumentException("Invalid hexadecimal character '" + hex.charAt(index) + "' at position " + index);
+		}
+		return digit;
+	}
+
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.raw;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Transaction in the serialization of MultiChain (the Bitcoin one, assets,
+ * permissions and stream items being carried by the output scripts).
+ *
+ * @version 1.0
+ */
+public class RawTransaction {
+
+	/**
+	 * Sequence of the inputs, final
+	 */
+	public static final int FINAL_SEQUENCE = 0xffffffff;
+
+	private final int version;
+	private final List<Input> inputs;
+	private final List<Output> outputs;
+	private final int lockTime;
+
+	/**
+	 * Input spending the output vout of the transaction txid
+	 */
+	public static class Input {
+		private final byte[] txid;
+		private final int vout;
+		private final byte[] script;
+		private final int sequence;
+
+		/**
+		 * @param txid the id of the spent transaction, in serialization order
+		 * @param vout the index of the spent output
+		 * @param script the signature script, empty until signed
+		 * @param sequence the sequence
+		 */
+		public Input(byte[] txid, int vout, byte[] script, int sequence) {
+			this.txid = txid;
+			this.vout = vout;
+			this.script = script;
+			this.sequence = sequence;
+		}
+
+		/**
+		 * @return the txid as displayed by the node
+		 */
+		public String getTxid() {
+			return Hex.encode(reverse(txid));
+		}
+
+		/**
+		 * @return the vout
+		 */
+		public int getVout() {
+			return vout;
+		}
+
+		/**
+		 * @return the script
+		 */
+		public byte[] getScript() {
+			return script;
+		}
+
+		/**
+		 * @return the sequence
+		 */
+		public int getSequence() {
+			return sequence;
+		}
+
+		/**
+		 * @param signature the signature script
+		 * @return the same input with the signature script
+		 */
+		public Input withScript(byte[] signature) {
+			return new Input(txid, vout, signature, sequence);
+		}
+	}
+
+	/**
+	 * Output of value native currency units locked by script
+	 */
+	public static class Output {
+		private final long value;
+		private final byte[] script;
+
+		/**
+		 * @param value the native currency, in raw units
+		 * @param script the locking script, with its asset, permission or
+		 *            data payloads
+		 */
+		public Output(long value, byte[] script) {
+			this.value = value;
+			this.script = script;
+		}
+
+		/**
+		 * @return the value
+		 */
+		public long getValue() {
+			return value;
+		}
+
+		/**
+		 * @return the script
+		 */
+		public byte[] getScript() {
+			return script;
+		}
+	}
+
+	/**
+	 * @param version the version, 1
+	 * @param inputs the inputs
+	 * @param outputs the outputs
+	 * @param lockTime the lock time, 0
+	 */
+	public RawTransaction(int version, List<Input> inputs, List<Output> outputs, int lockTime) {
+		this.version = version;
+		this.inputs = Collections.unmodifiableList(new ArrayList<Input>(inputs));
+		this.outputs = Collections.unmodifiableList(new ArrayList<Output>(outputs));
+		this.lockTime = lockTime;
+	}
+
+	/**
+	 * @return the version
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return the inputs
+	 */
+	public List<Input> getInputs() {
+		return inputs;
+	}
+
+	/**
+	 * @return the outputs
+	 */
+	public List<Output> getOutputs() {
+		return outputs;
+	}
+
+	/**
+	 * @return the lockTime
+	 */
+	public int getLockTime() {
+		return lockTime;
+	}
+
+	/**
+	 * @param index the index of the input to replace
+	 * @param input the new input
+	 * @return a copy of the transaction with the input replaced
+	 */
+	public RawTransaction withInput(int index, Input input) {
+		List<Input> replaced = new ArrayList<Input>(inputs);
+		replaced.set(index, input);
+		return new RawTransaction(version, replaced, outputs, lockTime);
+	}
+
+	/**
+	 * @return the serialization, as given to sendrawtransaction
+	 */
+	public byte[] serialize() {
+		ByteWriter writer = new ByteWriter(10 + inputs.size() * 150 + outputs.size() * 70);
+		write(writer);
+		return writer.toByteArray();
+	}
+
+	/**
+	 * @return the serialization in hexadecimal
+	 */
+	public String toHex() {
+		return Hex.encode(serialize());
+	}
+
+	/**
+	 * @return the id of the transaction, as displayed by the node
+	 */
+	public String getTxid() {
+		byte[] serialization = serialize();
+		return Hex.encode(reverse(AddressCodec.sha256d(serialization, 0, serialization.length)));
+	}
+
+	void write(ByteWriter writer) {
+		writer.writeInt32(version);
+		writer.writeCompactSize(inputs.size());
+		for (Input input : inputs) {
+			writer.writeBytes(input.txid).writeInt32(input.vout).writeVarBytes(input.script).writeInt32(input.sequence);
+		}
+		writer.writeCompactSize(outputs.size());
+		for (Output output : outputs) {
+			writer.writeInt64(output.value).writeVarBytes(output.script);
+		}
+		writer.writeInt32(lockTime);
+	}
+
+	static byte[] reverse(byte[] bytes) {
+		byte[] reversed = new byte[bytes.length];
+		for (int i = 0; i < bytes.length; i++) {
+			reversed[i] = bytes[bytes.length - 1 - i];
+		}
+		return reversed;
+	}
+
+}
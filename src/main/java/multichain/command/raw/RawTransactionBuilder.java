@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.raw;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import multichain.command.IssueCommand;
+import multichain.command.MultichainException;
+import multichain.object.AddressBalanceAsset;
+import multichain.object.BalanceAsset;
+import multichain.object.BalanceAssetBase;
+import multichain.object.queryobjects.TxIdVout;
+
+/**
+ * Builds raw transactions in the process, as createrawtransaction then
+ * appendrawdata would on the node : one output per address in order of first
+ * appearance, native currency as the value and assets as an "spkq" payload
+ * of the script, then one OP_RETURN output per metadata. Once signed, only
+ * sendrawtransaction needs the node.
+ *
+ * <pre>
+ * RawTransactionBuilder builder = new RawTransactionBuilder(AddressCodec.fromChain());
+ * builder.defineAssets(IssueCommand.listAssets("asset1", false)).addInputs(inputs).addOutputs(outputs).addMetaData("f00d");
+ * String hex = builder.build().toHex();
+ * </pre>
+ *
+ * @version 1.0
+ */
+public class RawTransactionBuilder {
+
+	/**
+	 * Native currency raw units per unit, the default of MultiChain
+	 */
+	public static final long DEFAULT_NATIVE_MULTIPLE = 100000000L;
+
+	private static final int VERSION = 1;
+	private static final int ASSET_IDENTIFIER_SIZE = 16;
+	private static final byte[] ASSET_QUANTITIES_PREFIX = { 's', 'p', 'k', 'q' };
+	private static final int OP_DROP = 0x75;
+	private static final int OP_RETURN = 0x6a;
+
+	private final AddressCodec codec;
+	private final Map<String, Asset> assets = new HashMap<String, Asset>();
+	private final List<TxIdVout> inputs = new ArrayList<TxIdVout>();
+	private final Map<String, Map<String, Double>> outputs = new LinkedHashMap<String, Map<String, Double>>();
+	private final List<byte[]> metaData = new ArrayList<byte[]>();
+	private long nativeMultiple = DEFAULT_NATIVE_MULTIPLE;
+
+	private static final class Asset {
+		final byte[] identifier;
+		final long multiple;
+
+		Asset(byte[] identifier, long multiple) {
+			this.identifier = identifier;
+			this.multiple = multiple;
+		}
+	}
+
+	/**
+	 * @param codec the addresses of the chain
+	 */
+	public RawTransactionBuilder(AddressCodec codec) {
+		this.codec = codec;
+	}
+
+	/**
+	 * @param name the name of the asset, as used in the outputs
+	 * @param issueTxid the id of the issue transaction of the asset
+	 * @param multiple the raw units per unit of the asset
+	 * @return this builder
+	 */
+	public RawTransactionBuilder defineAsset(String name, String issueTxid, long multiple) {
+		assets.put(name, new Asset(assetIdentifier(issueTxid), multiple));
+		return this;
+	}
+
+	/**
+	 * @param definitions the assets, as given by {@link IssueCommand#listAssets(String, boolean)}
+	 * @return this builder
+	 */
+	public RawTransactionBuilder defineAssets(List<BalanceAsset> definitions) {
+		for (BalanceAsset definition : definitions) {
+			defineAsset(definition.getName(), definition.getIssuetxid(), definition.getMultiple());
+		}
+		return this;
+	}
+
+	/**
+	 * @param multiple native-currency-multiple of the chain
+	 * @return this builder
+	 */
+	public RawTransactionBuilder setNativeCurrencyMultiple(long multiple) {
+		this.nativeMultiple = multiple;
+		return this;
+	}
+
+	/**
+	 * @param input the output to spend
+	 * @return this builder
+	 */
+	public RawTransactionBuilder addInput(TxIdVout input) {
+		inputs.add(input);
+		return this;
+	}
+
+	/**
+	 * @param spent the outputs to spend
+	 * @return this builder
+	 */
+	public RawTransactionBuilder addInputs(List<TxIdVout> spent) {
+		inputs.addAll(spent);
+		return this;
+	}
+
+	/**
+	 * @param output the quantities to send to an address,
+	 *            {@link AddressBalanceAsset#NATIVE_CURRENCY} for the native
+	 *            currency. Quantities sent several times to an address are
+	 *            merged.
+	 * @return this builder
+	 */
+	public RawTransactionBuilder addOutput(AddressBalanceAsset output) {
+		Map<String, Double> quantities = outputs.computeIfAbsent(output.getAddress(), key -> new LinkedHashMap<String, Double>());
+		for (BalanceAssetBase asset : output.getAssets()) {
+			Double qty = quantities.get(asset.getName());
+			quantities.put(asset.getName(), qty == null ? asset.getQty() : qty + asset.getQty());
+		}
+		return this;
+	}
+
+	/**
+	 * @param addressAssets the quantities to send
+	 * @return this builder
+	 */
+	public RawTransactionBuilder addOutputs(List<AddressBalanceAsset> addressAssets) {
+		for (AddressBalanceAsset output : addressAssets) {
+			addOutput(output);
+		}
+		return this;
+	}
+
+	/**
+	 * @param dataHex the metadata in hexadecimal, added as an OP_RETURN
+	 *            output after the other outputs
+	 * @return this builder
+	 */
+	public RawTransactionBuilder addMetaData(String dataHex) {
+		metaData.add(Hex.decode(dataHex));
+		return this;
+	}
+
+	/**
+	 * @return the unsigned transaction
+	 * @throws MultichainException if an input, address or asset is invalid
+	 */
+	public RawTransaction build() throws MultichainException {
+		if (inputs.isEmpty()) {
+			throw new MultichainException("inputs", "inputs needed to create a RAW Transaction");
+		}
+		if (outputs.isEmpty() && metaData.isEmpty()) {
+			throw new MultichainException("Address Assets", "Address Assets needed to create a RAW Transaction");
+		}
+
+		List<RawTransaction.Input> rawInputs = new ArrayList<RawTransaction.Input>(inputs.size());
+		for (TxIdVout input : inputs) {
+			input.isFilled();
+			rawInputs.add(new RawTransaction.Input(txid(input.getTxId()), input.getvOut(), new byte[0], RawTransaction.FINAL_SEQUENCE));
+		}
+
+		List<RawTransaction.Output> rawOutputs = new ArrayList<RawTransaction.Output>(outputs.size() + metaData.size());
+		for (Map.Entry<String, Map<String, Double>> output : outputs.entrySet()) {
+			rawOutputs.add(output(output.getKey(), output.getValue()));
+		}
+		for (byte[] data : metaData) {
+			rawOutputs.add(new RawTransaction.Output(0, new ByteWriter(data.length + 4).writeByte(OP_RETURN).writePush(data).toByteArray()));
+		}
+		return new RawTransaction(VERSION, rawInputs, rawOutputs, 0);
+	}
+
+	private RawTransaction.Output output(String address, Map<String, Double> quantities) throws MultichainException {
+		long value = 0;
+		ByteWriter payload = new ByteWriter(ASSET_QUANTITIES_PREFIX.length + quantities.size() * 24);
+		payload.writeBytes(ASSET_QUANTITIES_PREFIX);
+		for (Map.Entry<String, Double> quantity : quantities.entrySet()) {
+			if (quantity.getValue() <= 0) {
+				throw new MultichainException("qty", "quantity of " + quantity.getKey() + " must be positive");
+			}
+			if (AddressBalanceAsset.NATIVE_CURRENCY.equals(quantity.getKey())) {
+				value += Math.round(quantity.getValue() * nativeMultiple);
+				continue;
+			}
+			Asset asset = assets.get(quantity.getKey());
+			if (asset == null) {
+				throw new MultichainException("asset", quantity.getKey() + " is not defined, see defineAsset");
+			}
+			payload.writeBytes(asset.identifier).writeInt64(Math.round(quantity.getValue() * asset.multiple));
+		}
+
+		byte[] script = codec.outputScript(address);
+		if (payload.size() == ASSET_QUANTITIES_PREFIX.length) {
+			return new RawTransaction.Output(value, script);
+		}
+		ByteWriter withAssets = new ByteWriter(script.length + payload.size() + 4);
+		withAssets.writeBytes(script).writePush(payload.toByteArray()).writeByte(OP_DROP);
+		return new RawTransaction.Output(value, withAssets.toByteArray());
+	}
+
+	private static byte[] txid(String txid) throws MultichainException {
+		try {
+			byte[] bytes = Hex.decodeReversed(txid);
+			if (bytes.length == 32) {
+				return bytes;
+			}
+		} catch (IllegalArgumentException e) {
+			// reported below
+		}
+		throw new MultichainException("txId", txid + " is not a transaction id");
+	}
+
+	/**
+	 * @param issueTxid the id of the issue transaction, as displayed by the
+	 *            node
+	 * @return the identifier of the asset in the "spkq" payloads : the short
+	 *         txid of MultiChain, bytes 16 to 31 of the txid in serialized
+	 *         order, so the first 16 bytes of the displayed issue txid in
+	 *         reverse order
+	 */
+	static byte[] assetIdentifier(String issueTxid) {
+		byte[] txid = Hex.decodeReversed(issueTxid);
+		byte[] identifier = new byte[ASSET_IDENTIFIER_SIZE];
+		System.arraycopy(txid, txid.length - ASSET_IDENTIFIER_SIZE, identifier, 0, ASSET_IDENTIFIER_SIZE);
+		return identifier;
+	}
+
+}
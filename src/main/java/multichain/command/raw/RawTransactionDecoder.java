@@ -0,0 +1,370 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.raw;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import multichain.command.MultichainException;
+import multichain.object.BalanceAsset;
+import multichain.object.Permission;
+import multichain.object.ScriptPubKey;
+import multichain.object.ScriptSig;
+import multichain.object.TransactionRAW;
+import multichain.object.TransactionRAWVin;
+import multichain.object.TransactionRAWVout;
+
+/**
+ * Decodes raw transactions in the process into the objects of
+ * decoderawtransaction, without calling the node nor going through Json :
+ * scripts are read in place from the serialization and only the fields of
+ * the result are allocated.
+ *
+ * The "spkq" (asset quantities) and "spkp" (permissions) payloads of the
+ * output scripts are decoded into the assets and permissions of the outputs,
+ * OP_RETURN outputs into the data of the transaction. The node knows the
+ * name, reference and multiple of every asset; here they come from the
+ * assets given with {@link #defineAssets(List)}, an unknown asset only having
+ * its raw quantity and the first half of its issue txid.
+ *
+ * @version 1.0
+ */
+public class RawTransactionDecoder {
+
+	private static final int ASSET_IDENTIFIER_SIZE = 16;
+	private static final int OP_DROP = 0x75;
+	private static final int OP_RETURN = 0x6a;
+
+	private static final String[] PERMISSIONS = { "connect", "send", "receive", "write", "issue", "create", "", "", "mine", "", "", "",
+			"admin", "activate" };
+	private static final Map<Integer, String> OPCODES = new HashMap<Integer, String>();
+
+	static {
+		OPCODES.put(0x4f, "-1");
+		for (int i = 1; i <= 16; i++) {
+			OPCODES.put(0x50 + i, String.valueOf(i));
+		}
+		OPCODES.put(0x61, "OP_NOP");
+		OPCODES.put(0x69, "OP_VERIFY");
+		OPCODES.put(OP_RETURN, "OP_RETURN");
+		OPCODES.put(OP_DROP, "OP_DROP");
+		OPCODES.put(0x76, "OP_DUP");
+		OPCODES.put(0x87, "OP_EQUAL");
+		OPCODES.put(0x88, "OP_EQUALVERIFY");
+		OPCODES.put(0xa9, "OP_HASH160");
+		OPCODES.put(0xaa, "OP_HASH256");
+		OPCODES.put(0xab, "OP_CODESEPARATOR");
+		OPCODES.put(0xac, "OP_CHECKSIG");
+		OPCODES.put(0xad, "OP_CHECKSIGVERIFY");
+		OPCODES.put(0xae, "OP_CHECKMULTISIG");
+		OPCODES.put(0xaf, "OP_CHECKMULTISIGVERIFY");
+		OPCODES.put(0xb1, "OP_CHECKLOCKTIMEVERIFY");
+	}
+
+	private final AddressCodec codec;
+	private final Map<String, BalanceAsset> assets = new HashMap<String, BalanceAsset>();
+	private long nativeMultiple = RawTransactionBuilder.DEFAULT_NATIVE_MULTIPLE;
+
+	/**
+	 * @param codec the addresses of the chain
+	 */
+	public RawTransactionDecoder(AddressCodec codec) {
+		this.codec = codec;
+	}
+
+	/**
+	 * @param definitions the assets, as given by
+	 *            {@link multichain.command.IssueCommand#listAssets(String, boolean)}
+	 * @return this decoder
+	 */
+	public RawTransactionDecoder defineAssets(List<BalanceAsset> definitions) {
+		for (BalanceAsset definition : definitions) {
+			assets.put(Hex.encode(RawTransactionBuilder.assetIdentifier(definition.getIssuetxid())), definition);
+		}
+		return this;
+	}
+
+	/**
+	 * @param multiple native-currency-multiple of the chain
+	 * @return this decoder
+	 */
+	public RawTransactionDecoder setNativeCurrencyMultiple(long multiple) {
+		this.nativeMultiple = multiple;
+		return this;
+	}
+
+	/**
+	 * @param hex the transaction in hexadecimal
+	 * @return the transaction, as decoderawtransaction gives it
+	 * @throws MultichainException if the transaction can not be decoded
+	 */
+	public TransactionRAW decode(String hex) throws MultichainException {
+		byte[] bytes;
+		try {
+			bytes = Hex.decode(hex);
+		} catch (IllegalArgumentException e) {
+			throw new MultichainException("hex", e.getMessage());
+		}
+		return decode(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * @param bytes the buffer holding the transaction
+	 * @param offset the offset of the transaction in the buffer
+	 * @param length the length of the transaction
+	 * @return the transaction, as decoderawtransaction gives it
+	 * @throws MultichainException if the transaction can not be decoded
+	 */
+	public TransactionRAW decode(byte[] bytes, int offset, int length) throws MultichainException {
+		try {
+			ByteReader reader = new ByteReader(bytes, offset, length);
+			TransactionRAW transaction = new TransactionRAW();
+			transaction.setVersion(reader.readInt32());
+
+			long inputs = reader.readCompactSize();
+			for (long i = 0; i < inputs; i++) {
+				transaction.addVin(decodeInput(bytes, reader));
+			}
+
+			long outputs = reader.readCompactSize();
+			for (long n = 0; n < outputs; n++) {
+				transaction.addVout(decodeOutput(bytes, reader, n, transaction));
+			}
+			transaction.setLocktime(reader.readInt32() & 0xffffffffL);
+			if (reader.hasRemaining()) {
+				throw new IllegalArgumentException("Unexpected bytes after the transaction");
+			}
+
+			transaction.setTxid(Hex.encode(RawTransaction.reverse(AddressCodec.sha256d(bytes, offset, length))));
+			return transaction;
+		} catch (IllegalArgumentException e) {
+			throw new MultichainException("hex", "TX decode failed : " + e.getMessage());
+		}
+	}
+
+	/**
+	 * @param hex the transaction in hexadecimal, signed or not
+	 * @return the transaction
+	 * @throws MultichainException if the transaction can not be decoded
+	 */
+	public static RawTransaction parse(String hex) throws MultichainException {
+		try {
+			byte[] bytes = Hex.decode(hex);
+			ByteReader reader = new ByteReader(bytes, 0, bytes.length);
+			int version = reader.readInt32();
+
+			long inputCount = reader.readCompactSize();
+			List<RawTransaction.Input> inputs = new ArrayList<RawTransaction.Input>();
+			for (long i = 0; i < inputCount; i++) {
+				byte[] txid = reader.readBytes(32);
+				int vout = reader.readInt32();
+				byte[] script = reader.readBytes((int) reader.readCompactSize());
+				inputs.add(new RawTransaction.Input(txid, vout, script, reader.readInt32()));
+			}
+
+			long outputCount = reader.readCompactSize();
+			List<RawTransaction.Output> outputs = new ArrayList<RawTransaction.Output>();
+			for (long n = 0; n < outputCount; n++) {
+				long value = reader.readInt64();
+				outputs.add(new RawTransaction.Output(value, reader.readBytes((int) reader.readCompactSize())));
+			}
+			return new RawTransaction(version, inputs, outputs, reader.readInt32());
+		} catch (IllegalArgumentException e) {
+			throw new MultichainException("hex", "TX decode failed : " + e.getMessage());
+		}
+	}
+
+	private TransactionRAWVin decodeInput(byte[] bytes, ByteReader reader) {
+		TransactionRAWVin vin = new TransactionRAWVin();
+		int txidOffset = reader.skip(32);
+		int vout = reader.readInt32();
+		int scriptLength = (int) reader.readCompactSize();
+		int scriptOffset = reader.skip(scriptLength);
+		vin.setSequence(reader.readInt32() & 0xffffffffL);
+
+		if (vout == -1 && isZero(bytes, txidOffset, 32)) {
+			vin.setCoinbase(Hex.encode(bytes, scriptOffset, scriptLength));
+			vin.setScriptSig(null);
+			return vin;
+		}
+		vin.setTxid(reversedHex(bytes, txidOffset, 32));
+		vin.setVout(vout & 0xffffffffL);
+		ScriptSig scriptSig = new ScriptSig();
+		scriptSig.setAsm(asm(bytes, scriptOffset, scriptLength));
+		scriptSig.setHex(Hex.encode(bytes, scriptOffset, scriptLength));
+		vin.setScriptSig(scriptSig);
+		return vin;
+	}
+
+	private TransactionRAWVout decodeOutput(byte[] bytes, ByteReader reader, long n, TransactionRAW transaction) {
+		TransactionRAWVout vout = new TransactionRAWVout();
+		vout.setValue((double) reader.readInt64() / nativeMultiple);
+		vout.setN(n);
+		int length = (int) reader.readCompactSize();
+		int offset = reader.skip(length);
+		int end = offset + length;
+
+		ScriptPubKey scriptPubKey = vout.getScriptPubKey();
+		scriptPubKey.setAsm(asm(bytes, offset, length));
+		scriptPubKey.setHex(Hex.encode(bytes, offset, length));
+		List<String> addresses = new ArrayList<String>();
+		int payloads;
+		if (length >= 25 && matches(bytes, offset, 0x76, 0xa9, 0x14) && matches(bytes, offset + 23, 0x88, 0xac)) {
+			scriptPubKey.setType("pubkeyhash");
+			scriptPubKey.setReqSigs(1);
+			addresses.add(codec.encodePubKeyHash(copy(bytes, offset + 3, 20)));
+			payloads = offset + 25;
+		} else if (length >= 23 && matches(bytes, offset, 0xa9, 0x14) && matches(bytes, offset + 22, 0x87)) {
+			scriptPubKey.setType("scripthash");
+			scriptPubKey.setReqSigs(1);
+			addresses.add(codec.encodeScriptHash(copy(bytes, offset + 2, 20)));
+			payloads = offset + 23;
+		} else if (length >= 1 && (bytes[offset] & 0xFF) == OP_RETURN) {
+			scriptPubKey.setType("nulldata");
+			ByteReader script = new ByteReader(bytes, offset + 1, length - 1);
+			while (script.hasRemaining()) {
+				int[] push = script.readPush();
+				if (push != null) {
+					transaction.addData(Hex.encode(bytes, push[0], push[1]));
+				}
+			}
+			payloads = end;
+		} else {
+			scriptPubKey.setType("nonstandard");
+			payloads = end;
+		}
+		scriptPubKey.setAddresses(addresses);
+		vout.setScriptPubKey(scriptPubKey);
+
+		ByteReader script = new ByteReader(bytes, payloads, end - payloads);
+		while (script.hasRemaining()) {
+			int[] push = script.readPush();
+			if (push == null || !script.hasRemaining() || script.readByte() != OP_DROP) {
+				break;
+			}
+			decodePayload(bytes, push[0], push[1], vout, addresses.isEmpty() ? null : addresses.get(0));
+		}
+		return vout;
+	}
+
+	private void decodePayload(byte[] bytes, int offset, int length, TransactionRAWVout vout, String address) {
+		if (length < 4 || bytes[offset] != 's' || bytes[offset + 1] != 'p' || bytes[offset + 2] != 'k') {
+			return;
+		}
+		ByteReader payload = new ByteReader(bytes, offset + 4, length - 4);
+		if (bytes[offset + 3] == 'q') {
+			while (payload.hasRemaining()) {
+				int identifier = payload.skip(ASSET_IDENTIFIER_SIZE);
+				long raw = payload.readInt64();
+				BalanceAsset definition = assets.get(Hex.encode(bytes, identifier, ASSET_IDENTIFIER_SIZE));
+				BalanceAsset asset = new BalanceAsset();
+				asset.setRaw(raw);
+				asset.setType("transfer");
+				if (definition == null) {
+					asset.setIssuetxid(reversedHex(bytes, identifier, ASSET_IDENTIFIER_SIZE));
+				} else {
+					asset.setName(definition.getName());
+					asset.setIssuetxid(definition.getIssuetxid());
+					asset.setAssetref(definition.getAssetref());
+					asset.setQty((double) raw / Math.max(1, definition.getMultiple()));
+				}
+				vout.addAsset(asset);
+			}
+		} else if (bytes[offset + 3] == 'p' && length >= 20) {
+			int flags = payload.readInt32();
+			StringBuilder types = new StringBuilder();
+			for (int bit = 0; bit < PERMISSIONS.length; bit++) {
+				if ((flags & (1 << bit)) != 0 && !PERMISSIONS[bit].isEmpty()) {
+					types.append(types.length() == 0 ? "" : ",").append(PERMISSIONS[bit]);
+				}
+			}
+			Permission permission = new Permission();
+			permission.setAddress(address);
+			permission.setType(types.toString());
+			permission.setStartblock(payload.readInt32() & 0xffffffffL);
+			permission.setEndblock(payload.readInt32() & 0xffffffffL);
+			vout.addPermission(permission);
+		}
+	}
+
+	/**
+	 * Script as displayed by the node : pushes of up to 4 bytes as numbers,
+	 * longer ones in hexadecimal.
+	 */
+	private static String asm(byte[] bytes, int offset, int length) {
+		StringBuilder asm = new StringBuilder(length * 2 + 16);
+		ByteReader script = new ByteReader(bytes, offset, length);
+		try {
+			while (script.hasRemaining()) {
+				if (asm.length() > 0) {
+					asm.append(' ');
+				}
+				int start = script.position();
+				int[] push = script.readPush();
+				if (push == null) {
+					String name = OPCODES.get(bytes[start] & 0xFF);
+					asm.append(name == null ? "OP_UNKNOWN" : name);
+				} else if (push[1] <= 4) {
+					asm.append(number(bytes, push[0], push[1]));
+				} else {
+					asm.append(Hex.encode(bytes, push[0], push[1]));
+				}
+			}
+		} catch (IllegalArgumentException e) {
+			asm.append("[error]");
+		}
+		return asm.toString();
+	}
+
+	private static long number(byte[] bytes, int offset, int length) {
+		if (length == 0) {
+			return 0;
+		}
+		long value = 0;
+		for (int i = 0; i < length; i++) {
+			value |= (long) (bytes[offset + i] & 0xFF) << (8 * i);
+		}
+		long sign = 0x80L << (8 * (length - 1));
+		return (value & sign) != 0 ? -(value & ~sign) : value;
+	}
+
+	private static boolean matches(byte[] bytes, int offset, int... expected) {
+		for (int i = 0; i < expected.length; i++) {
+			if ((bytes[offset + i] & 0xFF) != expected[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isZero(byte[] bytes, int offset, int length) {
+		for (int i = 0; i < length; i++) {
+			if (bytes[offset + i] != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static byte[] copy(byte[] bytes, int offset, int length) {
+		byte[] copy = new byte[length];
+		System.arraycopy(bytes, offset, copy, 0, length);
+		return copy;
+	}
+
+	private static String reversedHex(byte[] bytes, int offset, int length) {
+		byte[] reversed = new byte[length];
+		for (int i = 0; i < length; i++) {
+			reversed[i] = bytes[offset + length - 1 - i];
+		}
+		return Hex.encode(reversed);
+	}
+
+}
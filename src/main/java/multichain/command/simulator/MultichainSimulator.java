@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.simulator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import multichain.command.MultichainRPCException;
+import multichain.command.transport.MultichainTransport;
+import multichain.command.transport.TransportResponse;
+
+/**
+ * In memory MultiChain node, to run the library without any chain : streams,
+ * assets, permissions, blocks, wallet and raw transactions are simulated with
+ * the Json outputs of the real node, and errors are reported on the error
+ * output as multichain-cli does.
+ *
+ * Latency and errors can be injected to measure throughput, caching or retries
+ * reproducibly on a single machine :
+ * <pre>
+ * MultichainSimulator simulator = new MultichainSimulator(42);
+ * simulator.setLatencyMicros(500, 2000);
+ * simulator.setErrorRate(0.01);
+ * ChainCommand.initializeChain("simulated");
+ * ChainCommand.setTransport(simulator);
+ * </pre>
+ *
+ * Commands are executed one at a time on the chain state; the injected
+ * latency is spent outside of it, so concurrent callers overlap as they would
+ * on a node.
+ *
+ * @version 1.0
+ */
+public class MultichainSimulator implements MultichainTransport {
+
+	private static final long NO_LATENCY = 0;
+
+	private final Random random;
+	private final SimulatedChain chain;
+	private final Map<String, long[]> commandLatencies = new ConcurrentHashMap<String, long[]>();
+	private final AtomicLong commandCount = new AtomicLong();
+
+	private volatile long[] latency = { NO_LATENCY, NO_LATENCY };
+	private volatile double errorRate = 0;
+	private volatile int errorCode = MultichainRPCException.RPC_IN_WARMUP;
+	private volatile String errorMessage = "Loading block index...";
+	private volatile boolean available = true;
+
+	/**
+	 * Simulator with a random seed.
+	 */
+	public MultichainSimulator() {
+		this(System.nanoTime());
+	}
+
+	/**
+	 * @param seed seed of the identifiers, latencies and injected errors
+	 */
+	public MultichainSimulator(long seed) {
+		random = new Random(seed);
+		chain = new SimulatedChain("simulator", new Random(seed));
+	}
+
+	@Override
+	public TransportResponse execute(String chainName, String command, String... parameters) throws IOException, InterruptedException {
+		commandCount.incrementAndGet();
+		if (!available) {
+			return new TransportResponse(1, "", "error: couldn't connect to server");
+		}
+
+		long[] range = commandLatencies.get(command);
+		sleep(range == null ? latency : range);
+
+		if (errorRate > 0 && random.nextDouble() < errorRate) {
+			return TransportResponse.error(errorCode, errorMessage);
+		}
+
+		List<String> args = tokenize(parameters);
+		synchronized (chain) {
+			try {
+				return TransportResponse.success(chain.execute(command, args));
+			} catch (SimulatedChain.SimulatorError e) {
+				return TransportResponse.error(e.code, e.getMessage());
+			} catch (RuntimeException e) {
+				return TransportResponse.error(MultichainRPCException.RPC_INVALID_PARAMETER, "Invalid parameters : " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Splits the parameters into arguments as multichain-cli receives them :
+	 * parameters are joined and split on white spaces, as
+	 * {@link Runtime#exec(String)} does.
+	 */
+	private static List<String> tokenize(String... parameters) {
+		StringBuilder line = new StringBuilder();
+		for (String parameter : parameters) {
+			line.append(parameter).append(' ');
+		}
+		List<String> args = new ArrayList<String>();
+		StringTokenizer tokenizer = new StringTokenizer(line.toString());
+		while (tokenizer.hasMoreTokens()) {
+			args.add(tokenizer.nextToken());
+		}
+		return args;
+	}
+
+	private void sleep(long[] range) throws InterruptedException {
+		long micros = range[0];
+		if (range[1] > range[0]) {
+			micros += (long) (random.nextDouble() * (range[1] - range[0]));
+		}
+		if (micros > 0) {
+			TimeUnit.MICROSECONDS.sleep(micros);
+		}
+	}
+
+	/**
+	 * Confirms all the pending transactions in a new block.
+	 *
+	 * @return the hash of the new block
+	 */
+	public String mineBlock() {
+		synchronized (chain) {
+			return chain.mineBlock();
+		}
+	}
+
+	/**
+	 * @return the number of transactions waiting for a block
+	 */
+	public int getMempoolSize() {
+		synchronized (chain) {
+			return chain.getMempoolSize();
+		}
+	}
+
+	/**
+	 * @return the address of the node, holding all the global permissions
+	 */
+	public String getDefaultAddress() {
+		return chain.getDefaultAddress();
+	}
+
+	/**
+	 * @return the number of commands received, failed ones included
+	 */
+	public long getCommandCount() {
+		return commandCount.get();
+	}
+
+	/**
+	 * @param minMicros minimum latency added to every command
+	 * @param maxMicros maximum latency added to every command, the latency is
+	 *            uniformly distributed between both
+	 */
+	public void setLatencyMicros(long minMicros, long maxMicros) {
+		latency = new long[] { Math.max(0, minMicros), Math.max(minMicros, maxMicros) };
+	}
+
+	/**
+	 * @param command name of the command, in lower case
+	 * @param minMicros minimum latency added to this command
+	 * @param maxMicros maximum latency added to this command
+	 */
+	public void setLatencyMicros(String command, long minMicros, long maxMicros) {
+		commandLatencies.put(command, new long[] { Math.max(0, minMicros), Math.max(minMicros, maxMicros) });
+	}
+
+	/**
+	 * @param rate probability, between 0 and 1, of failing a command with a
+	 *            transient error (node warming up)
+	 */
+	public void setErrorRate(double rate) {
+		setErrorRate(rate, MultichainRPCException.RPC_IN_WARMUP, "Loading block index...");
+	}
+
+	/**
+	 * @param rate probability, between 0 and 1, of failing a command
+	 * @param code RPC error code of the injected errors
+	 * @param message RPC error message of the injected errors
+	 */
+	public void setErrorRate(double rate, int code, String message) {
+		errorCode = code;
+		errorMessage = message;
+		errorRate = Math.min(1, Math.max(0, rate));
+	}
+
+	/**
+	 * @param available false to simulate a node which can not be reached
+	 */
+	public void setAvailable(boolean available) {
+		this.available = available;
+	}
+
+	/**
+	 * @param transactionsPerBlock number of transactions triggering a new
+	 *            block, 0 to only create blocks with {@link #mineBlock()}. By
+	 *            default every transaction is confirmed in its own block.
+	 */
+	public void setTransactionsPerBlock(int transactionsPerBlock) {
+		synchronized (chain) {
+			chain.setTransactionsPerBlock(transactionsPerBlock);
+		}
+	}
+
+	/**
+	 * @param anyoneCanTransact false to require the send and receive
+	 *            permissions for the transfers, true by default
+	 */
+	public void setAnyoneCanTransact(boolean anyoneCanTransact) {
+		synchronized (chain) {
+			chain.setAnyoneCanTransact(anyoneCanTransact);
+		}
+	}
+
+}
@@ -0,0 +1,1863 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.simulator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import multichain.command.MultichainRPCException;
+import multichain.command.raw.AddressCodec;
+import multichain.command.raw.Hex;
+
+/**
+ * In memory state of a simulated chain, and the implementation of the
+ * commands on it. Not thread safe : {@link MultichainSimulator} serializes the
+ * calls.
+ *
+ * Balances are held as unspent outputs, selected by the node for the wallet
+ * commands and given explicitly to createrawtransaction, and spending an
+ * output twice is rejected. The model is otherwise kept simple : there are no
+ * fees, no scripts and every transaction is valid as soon as it is accepted.
+ *
+ * @version 1.0
+ */
+class SimulatedChain {
+
+	static final int RPC_METHOD_NOT_FOUND = -32601;
+	static final int RPC_INSUFFICIENT_PERMISSIONS = -704;
+	static final int RPC_DUPLICATE_NAME = -705;
+	static final int RPC_ENTITY_NOT_FOUND = -708;
+
+	static final long MAX_BLOCK = 4294967295L;
+
+	private static final String NATIVE = "";
+	private static final long NATIVE_MULTIPLE = 100000000L;
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	private static final char[] BASE58 = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz".toCharArray();
+	private static final String[] GLOBAL_PERMISSIONS = { "connect", "send", "receive", "issue", "create", "mine", "activate", "admin" };
+
+	private final Gson gson = new GsonBuilder().serializeNulls().create();
+	private final JsonParser parser = new JsonParser();
+	private final Random random;
+	private final String chainName;
+
+	private final List<SimBlock> blocks = new ArrayList<SimBlock>();
+	private final List<SimTransaction> mempool = new ArrayList<SimTransaction>();
+	private final List<SimTransaction> transactionOrder = new ArrayList<SimTransaction>();
+	private final Map<String, SimTransaction> transactions = new HashMap<String, SimTransaction>();
+	private final Map<String, SimStream> streams = new LinkedHashMap<String, SimStream>();
+	private final Map<String, SimAsset> assets = new LinkedHashMap<String, SimAsset>();
+	private final Map<String, Map<String, SimOutput>> unspent = new HashMap<String, Map<String, SimOutput>>();
+	private final Set<String> locked = new LinkedHashSet<String>();
+	private final Map<String, Map<String, long[]>> permissions = new LinkedHashMap<String, Map<String, long[]>>();
+	private final Map<String, String> publicKeys = new HashMap<String, String>();
+	private final Set<String> wallet = new LinkedHashSet<String>();
+	private final Set<String> watchOnly = new LinkedHashSet<String>();
+	private final String defaultAddress;
+
+	private int transactionsPerBlock = 1;
+	private boolean anyoneCanTransact = true;
+
+	static class SimulatorError extends RuntimeException {
+		private static final long serialVersionUID = 2383006931436286471L;
+
+		final int code;
+
+		SimulatorError(int code, String message) {
+			super(message, null, false, false);
+			this.code = code;
+		}
+	}
+
+	private static class SimBlock {
+		String hash;
+		long height;
+		long time;
+		String miner;
+		List<String> txids = new ArrayList<String>();
+	}
+
+	private static class SimOutput {
+		String txid;
+		int n;
+		String address;
+		Map<String, Long> amounts = new LinkedHashMap<String, Long>();
+		Map<String, long[]> permissions = new LinkedHashMap<String, long[]>();
+		String type;
+
+		String outpoint() {
+			return txid + ":" + n;
+		}
+	}
+
+	private static class SimItem {
+		String stream;
+		String publisher;
+		String key;
+		String data;
+		SimTransaction transaction;
+	}
+
+	private static class SimTransaction {
+		String txid;
+		long time;
+		SimBlock block;
+		int blockIndex;
+		String from;
+		List<SimOutput> inputs = new ArrayList<SimOutput>();
+		List<SimOutput> outputs = new ArrayList<SimOutput>();
+		List<SimItem> items = new ArrayList<SimItem>();
+		List<String> data = new ArrayList<String>();
+		SimAsset issue;
+	}
+
+	private static class SimStream {
+		String name;
+		String createtxid;
+		String streamref;
+		boolean open;
+		boolean subscribed = true;
+		List<SimItem> items = new ArrayList<SimItem>();
+	}
+
+	private static class SimAsset {
+		String name;
+		String issuetxid;
+		String assetref;
+		long multiple;
+		boolean open;
+		String issuer;
+		long raw;
+	}
+
+	/**
+	 * Raw transaction as encoded in the hex strings returned by
+	 * createrawtransaction and createrawsendfrom.
+	 */
+	private static class SimRawTransaction {
+		String from;
+		List<String> inputs = new ArrayList<String>();
+		List<SimOutput> outputs = new ArrayList<SimOutput>();
+		List<JsonElement> data = new ArrayList<JsonElement>();
+		boolean signed;
+	}
+
+	SimulatedChain(String chainName, Random random) {
+		this.chainName = chainName;
+		this.random = random;
+		defaultAddress = newAddress();
+		wallet.add(defaultAddress);
+		for (String permission : GLOBAL_PERMISSIONS) {
+			permissionsOf(defaultAddress).put(permission, new long[] { 0, MAX_BLOCK });
+		}
+		mineBlock();
+	}
+
+	String getDefaultAddress() {
+		return defaultAddress;
+	}
+
+	void setTransactionsPerBlock(int transactionsPerBlock) {
+		this.transactionsPerBlock = Math.max(0, transactionsPerBlock);
+	}
+
+	void setAnyoneCanTransact(boolean anyoneCanTransact) {
+		this.anyoneCanTransact = anyoneCanTransact;
+	}
+
+	int getMempoolSize() {
+		return mempool.size();
+	}
+
+	/**
+	 * Confirms all the transactions of the mempool in a new block.
+	 *
+	 * @return the hash of the new block
+	 */
+	String mineBlock() {
+		SimBlock block = new SimBlock();
+		block.hash = hex(32);
+		block.height = blocks.size();
+		block.time = now();
+		block.miner = defaultAddress;
+		for (SimTransaction transaction : mempool) {
+			transaction.block = block;
+			transaction.blockIndex = block.txids.size();
+			block.txids.add(transaction.txid);
+		}
+		if (block.txids.isEmpty()) {
+			block.txids.add(hex(32));
+		}
+		mempool.clear();
+		blocks.add(block);
+		return block.hash;
+	}
+
+	/**
+	 * @param command name of the command, in lower case
+	 * @param args arguments of the command, as tokenized by the shell
+	 * @return the output of the command
+	 * @throws SimulatorError the error returned by the node
+	 */
+	String execute(String command, List<String> args) {
+		switch (command) {
+		case "getinfo":
+			return getInfo();
+		case "getblockchainparams":
+			return getBlockchainParams();
+		case "ping":
+			return "";
+		case "getblockcount":
+			return String.valueOf(blocks.size() - 1);
+		case "getbestblockhash":
+			return tip().hash;
+		case "getblockhash":
+			return blockAt(integer(args, 0, 0)).hash;
+		case "getblock":
+			return getBlock(args);
+		case "getnewaddress":
+		case "getrawchangeaddress":
+			return getNewAddress();
+		case "getaddresses":
+			return getAddresses(bool(args, 0, false));
+		case "validateaddress":
+			return validateAddress(text(arg(args, 0)));
+		case "createkeypairs":
+			return createKeyPairs((int) integer(args, 0, 1));
+		case "importaddress":
+			watchOnly.add(text(arg(args, 0)));
+			return "";
+		case "getaddressbalances":
+			return toJson(balanceArray(balanceOf(Collections.singleton(text(arg(args, 0)))), false));
+		case "getmultibalances":
+			return getMultiBalances(args);
+		case "gettotalbalances":
+		case "getassetbalances":
+			return toJson(balanceArray(balanceOf(wallet), false));
+		case "issue":
+			return issue(defaultAddress, text(arg(args, 0)), json(arg(args, 1)), decimal(args, 2), decimal(args, 3));
+		case "issuefrom":
+			return issue(text(arg(args, 0)), text(arg(args, 1)), json(arg(args, 2)), decimal(args, 3), decimal(args, 4));
+		case "issuemore":
+			return issueMore(defaultAddress, text(arg(args, 0)), text(arg(args, 1)), decimal(args, 2));
+		case "issuemorefrom":
+			return issueMore(text(arg(args, 0)), text(arg(args, 1)), text(arg(args, 2)), decimal(args, 3));
+		case "listassets":
+			return listAssets(args);
+		case "sendassetfrom":
+			return send(text(arg(args, 0)), text(arg(args, 1)), amounts(text(arg(args, 2)), decimal(args, 3)), null);
+		case "sendassettoaddress":
+			return send(null, text(arg(args, 0)), amounts(text(arg(args, 1)), decimal(args, 2)), null);
+		case "sendfrom":
+		case "sendfromaddress":
+			return send(text(arg(args, 0)), text(arg(args, 1)), amounts(json(arg(args, 2))), null);
+		case "sendtoaddress":
+			return send(null, text(arg(args, 0)), amounts(json(arg(args, 1))), null);
+		case "sendwithmetadata":
+			return send(null, text(arg(args, 0)), amounts(json(arg(args, 1))), text(arg(args, 2)));
+		case "sendwithmetadatafrom":
+			return send(text(arg(args, 0)), text(arg(args, 1)), amounts(json(arg(args, 2))), text(arg(args, 3)));
+		case "grant":
+			return grant(defaultAddress, text(arg(args, 0)), text(arg(args, 1)), args.size() > 3 ? integer(args, 3, 0) : 0,
+					args.size() > 4 ? integer(args, 4, MAX_BLOCK) : MAX_BLOCK);
+		case "grantfrom":
+			return grant(text(arg(args, 0)), text(arg(args, 1)), text(arg(args, 2)), args.size() > 4 ? integer(args, 4, 0) : 0,
+					args.size() > 5 ? integer(args, 5, MAX_BLOCK) : MAX_BLOCK);
+		case "revoke":
+			return revoke(defaultAddress, text(arg(args, 0)), text(arg(args, 1)));
+		case "revokefrom":
+			return revoke(text(arg(args, 0)), text(arg(args, 1)), text(arg(args, 2)));
+		case "listpermissions":
+			return listPermissions(args);
+		case "create":
+			return createStream(defaultAddress, text(arg(args, 1)), bool(args, 2, false));
+		case "createfrom":
+			return createStream(text(arg(args, 0)), text(arg(args, 2)), bool(args, 3, false));
+		case "liststreams":
+			return listStreams(args);
+		case "publish":
+			return publish(defaultAddress, text(arg(args, 0)), text(arg(args, 1)), text(arg(args, 2)));
+		case "publishfrom":
+			return publish(text(arg(args, 0)), text(arg(args, 1)), text(arg(args, 2)), text(arg(args, 3)));
+		case "subscribe":
+		case "unsubscribe":
+			for (String name : list(arg(args, 0))) {
+				stream(name).subscribed = command.equals("subscribe");
+			}
+			return "";
+		case "liststreamitems":
+			return listStreamItems(stream(text(arg(args, 0))).items, args, 1);
+		case "liststreamkeyitems":
+			return listStreamItems(itemsWithKey(stream(text(arg(args, 0))), text(arg(args, 1))), args, 2);
+		case "liststreampublisheritems":
+			return listStreamItems(itemsOfPublisher(stream(text(arg(args, 0))), text(arg(args, 1))), args, 2);
+		case "liststreamkeys":
+			return listStreamKeysOrPublishers(stream(text(arg(args, 0))), args, true);
+		case "liststreampublishers":
+			return listStreamKeysOrPublishers(stream(text(arg(args, 0))), args, false);
+		case "getstreamitem":
+			return getStreamItem(stream(text(arg(args, 0))), text(arg(args, 1)));
+		case "listwallettransactions":
+			return listTransactions(wallet, integer(args, 0, 10), integer(args, 1, 0));
+		case "listaddresstransactions":
+			return listTransactions(Collections.singleton(text(arg(args, 0))), integer(args, 1, 10), integer(args, 2, 0));
+		case "getwallettransaction":
+			return toJson(walletTransaction(transaction(text(arg(args, 0))), wallet));
+		case "getaddresstransaction":
+			return toJson(walletTransaction(transaction(text(arg(args, 1))), Collections.singleton(text(arg(args, 0)))));
+		case "gettransaction":
+			return getTransaction(transaction(text(arg(args, 0))));
+		case "listunspent":
+			return listUnspent(integer(args, 0, 1), integer(args, 1, 9999999), args.size() > 2 ? list(args.get(2)) : null);
+		case "lockunspent":
+			return lockUnspent(bool(args, 0, false), args.size() > 1 ? json(args.get(1)).getAsJsonArray() : null);
+		case "listlockunspent":
+			return listLockUnspent();
+		case "preparelockunspent":
+			return prepareLockUnspent(null, amounts(json(arg(args, 0))), bool(args, 1, true));
+		case "preparelockunspentfrom":
+			return prepareLockUnspent(text(arg(args, 0)), amounts(json(arg(args, 1))), bool(args, 2, true));
+		case "gettxout":
+			return getTxOut(transaction(text(arg(args, 0))), (int) integer(args, 1, 0));
+		case "getrawtransaction":
+			return getRawTransaction(transaction(text(arg(args, 0))), integer(args, 1, 0) != 0 || bool(args, 1, false));
+		case "createrawtransaction":
+			return createRawTransaction(json(arg(args, 0)), json(arg(args, 1)), args.size() > 2 ? json(args.get(2)) : null);
+		case "createrawsendfrom":
+			return createRawSendFrom(text(arg(args, 0)), json(arg(args, 1)), args.size() > 2 ? json(args.get(2)) : null);
+		case "appendrawdata":
+		case "appendrawmetadata":
+			return appendRawData(text(arg(args, 0)), json(arg(args, 1)));
+		case "appendrawchange":
+			return text(arg(args, 0));
+		case "decoderawtransaction":
+			return decodeRawTransaction(text(arg(args, 0)));
+		case "signrawtransaction":
+			return signRawTransaction(text(arg(args, 0)));
+		case "sendrawtransaction":
+			return sendRawTransaction(text(arg(args, 0)));
+		default:
+			throw new SimulatorError(RPC_METHOD_NOT_FOUND, "Method not found");
+		}
+	}
+
+	/*
+	 * Chain and blocks
+	 */
+
+	private String getInfo() {
+		JsonObject info = new JsonObject();
+		info.addProperty("version", "1.0 simulator");
+		info.addProperty("nodeversion", 10004901);
+		info.addProperty("protocolversion", 10009);
+		info.addProperty("chainname", chainName);
+		info.addProperty("description", "MultiChain " + chainName + " simulator");
+		info.addProperty("protocol", "multichain");
+		info.addProperty("blocks", blocks.size() - 1);
+		info.addProperty("balance", 0);
+		info.addProperty("errors", "");
+		return toJson(info);
+	}
+
+	private String getBlockchainParams() {
+		JsonObject params = new JsonObject();
+		params.addProperty("chain-protocol", "multichain");
+		params.addProperty("chain-description", "MultiChain " + chainName + " simulator");
+		params.addProperty("chain-name", chainName);
+		params.addProperty("target-block-time", 15);
+		params.addProperty("anyone-can-send", anyoneCanTransact);
+		params.addProperty("anyone-can-receive", anyoneCanTransact);
+		params.addProperty("address-pubkeyhash-version", "00");
+		params.addProperty("address-scripthash-version", "05");
+		params.addProperty("private-key-version", "80");
+		params.addProperty("address-checksum-value", "00000000");
+		return toJson(params);
+	}
+
+	private String getBlock(List<String> args) {
+		String hashOrHeight = text(arg(args, 0));
+		SimBlock block = null;
+		if (hashOrHeight.length() == 64) {
+			for (SimBlock candidate : blocks) {
+				if (candidate.hash.equals(hashOrHeight)) {
+					block = candidate;
+				}
+			}
+		} else {
+			block = blockAt(parseLong(hashOrHeight));
+		}
+		if (block == null) {
+			throw new SimulatorError(MultichainRPCException.RPC_INVALID_ADDRESS_OR_KEY, "Block not found");
+		}
+
+		JsonObject json = new JsonObject();
+		json.addProperty("hash", block.hash);
+		json.addProperty("miner", block.miner);
+		json.addProperty("confirmations", blocks.size() - block.height);
+		json.addProperty("size", 250 * block.txids.size());
+		json.addProperty("height", block.height);
+		json.addProperty("version", 3);
+		json.addProperty("merkleroot", block.txids.get(0));
+		json.add("tx", gson.toJsonTree(block.txids));
+		json.addProperty("time", block.time);
+		json.addProperty("nonce", block.height);
+		json.addProperty("bits", "2000ffff");
+		json.addProperty("difficulty", 0.00000006);
+		json.addProperty("chainwork", String.format("%064x", block.height + 1));
+		if (block.height > 0) {
+			json.addProperty("previousblockhash", blocks.get((int) block.height - 1).hash);
+		}
+		if (block.height < blocks.size() - 1) {
+			json.addProperty("nextblockhash", blocks.get((int) block.height + 1).hash);
+		}
+		if (args.size() > 1 && !bool(args, 1, true)) {
+			return toHex(toJson(json));
+		}
+		return toJson(json);
+	}
+
+	private SimBlock tip() {
+		return blocks.get(blocks.size() - 1);
+	}
+
+	private SimBlock blockAt(long height) {
+		if (height < 0 || height >= blocks.size()) {
+			throw new SimulatorError(MultichainRPCException.RPC_INVALID_PARAMETER, "Block height out of range");
+		}
+		return blocks.get((int) height);
+	}
+
+	/*
+	 * Addresses
+	 */
+
+	private String getNewAddress() {
+		String address = newAddress();
+		wallet.add(address);
+		return address;
+	}
+
+	private String getAddresses(boolean verbose) {
+		JsonArray addresses = new JsonArray();
+		for (String address : wallet) {
+			addresses.add(verbose ? addressInfo(address) : new JsonPrimitive(address));
+		}
+		return toJson(addresses);
+	}
+
+	private String validateAddress(String address) {
+		if (!isValidAddress(address)) {
+			JsonObject invalid = new JsonObject();
+			invalid.addProperty("isvalid", false);
+			return toJson(invalid);
+		}
+		return toJson(addressInfo(address));
+	}
+
+	private JsonObject addressInfo(String address) {
+		JsonObject info = new JsonObject();
+		info.addProperty("isvalid", true);
+		info.addProperty("address", address);
+		info.addProperty("ismine", wallet.contains(address));
+		info.addProperty("iswatchonly", watchOnly.contains(address));
+		info.addProperty("isscript", false);
+		if (publicKeys.containsKey(address)) {
+			info.addProperty("pubkey", publicKeys.get(address));
+			info.addProperty("iscompressed", true);
+		}
+		info.addProperty("account", "");
+		info.addProperty("synchronized", true);
+		return info;
+	}
+
+	private String createKeyPairs(int count) {
+		JsonArray keyPairs = new JsonArray();
+		for (int i = 0; i < count; i++) {
+			String address = newAddress();
+			JsonObject keyPair = new JsonObject();
+			keyPair.addProperty("address", address);
+			keyPair.addProperty("pubkey", publicKeys.get(address));
+			keyPair.addProperty("privkey", "V" + base58(51));
+			keyPairs.add(keyPair);
+		}
+		return toJson(keyPairs);
+	}
+
+	private String newAddress() {
+		// Base58Check with the parameters of getblockchainparams, over a random hash
+		String address = AddressCodec.BITCOIN.encodePubKeyHash(Hex.decode(hex(20)));
+		publicKeys.put(address, (random.nextBoolean() ? "02" : "03") + hex(32));
+		return address;
+	}
+
+	private boolean isValidAddress(String address) {
+		if (publicKeys.containsKey(address) || watchOnly.contains(address)) {
+			return true;
+		}
+		if (address.length() < 26 || address.length() > 40) {
+			return false;
+		}
+		for (char c : address.toCharArray()) {
+			if (new String(BASE58).indexOf(c) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void checkAddress(String address) {
+		if (address == null || !isValidAddress(address)) {
+			throw new SimulatorError(MultichainRPCException.RPC_INVALID_ADDRESS_OR_KEY, "Invalid address: " + address);
+		}
+	}
+
+	/*
+	 * Balances and assets
+	 */
+
+	private String getMultiBalances(List<String> args) {
+		Set<String> addresses = new LinkedHashSet<String>();
+		for (String address : list(arg(args, 0))) {
+			if (address.equals("*")) {
+				addresses.addAll(wallet);
+			} else {
+				addresses.add(address);
+			}
+		}
+		JsonObject multiBalances = new JsonObject();
+		for (String address : addresses) {
+			multiBalances.add(address, balanceArray(balanceOf(Collections.singleton(address)), false));
+		}
+		multiBalances.add("total", balanceArray(balanceOf(addresses), false));
+		return toJson(multiBalances);
+	}
+
+	private Map<String, Long> balanceOf(Set<String> addresses) {
+		Map<String, Long> total = new TreeMap<String, Long>();
+		for (String address : addresses) {
+			for (SimOutput output : unspentOf(address).values()) {
+				add(total, output.amounts, 1);
+			}
+		}
+		return total;
+	}
+
+	private JsonArray balanceArray(Map<String, Long> amounts, boolean withRaw) {
+		return balanceArray(amounts, withRaw, "transfer");
+	}
+
+	private JsonArray balanceArray(Map<String, Long> amounts, boolean withRaw, String type) {
+		JsonArray array = new JsonArray();
+		for (Map.Entry<String, Long> entry : amounts.entrySet()) {
+			if (entry.getValue() == 0) {
+				continue;
+			}
+			JsonObject balance = new JsonObject();
+			balance.addProperty("name", entry.getKey());
+			if (!entry.getKey().equals(NATIVE)) {
+				SimAsset asset = assets.get(entry.getKey());
+				balance.addProperty("issuetxid", asset.issuetxid);
+				balance.addProperty("assetref", asset.assetref);
+			}
+			balance.addProperty("qty", toQuantity(entry.getKey(), entry.getValue()));
+			if (withRaw) {
+				balance.addProperty("raw", entry.getValue());
+				balance.addProperty("type", type);
+			}
+			array.add(balance);
+		}
+		return array;
+	}
+
+	private String issue(String from, String to, JsonElement nameOrParams, double quantity, double units) {
+		checkAddress(to);
+		checkPermission(from, "issue");
+		String name;
+		boolean open = false;
+		if (nameOrParams.isJsonObject()) {
+			name = nameOrParams.getAsJsonObject().get("name").getAsString();
+			open = nameOrParams.getAsJsonObject().has("open") && nameOrParams.getAsJsonObject().get("open").getAsBoolean();
+		} else {
+			name = nameOrParams.getAsString();
+		}
+		if (assets.containsKey(name) || streams.containsKey(name)) {
+			throw new SimulatorError(RPC_DUPLICATE_NAME, "Asset or stream with this name already exists");
+		}
+		if (units <= 0 || units > 1) {
+			throw new SimulatorError(MultichainRPCException.RPC_INVALID_PARAMETER, "Invalid smallest unit");
+		}
+		SimAsset asset = new SimAsset();
+		asset.name = name;
+		asset.multiple = Math.round(1 / units);
+		asset.open = open;
+		asset.issuer = from;
+		asset.raw = Math.round(quantity * asset.multiple);
+
+		SimTransaction transaction = newTransaction(from);
+		asset.issuetxid = transaction.txid;
+		asset.assetref = blocks.size() + "-" + (266 + assets.size()) + "-" + Integer.parseInt(transaction.txid.substring(0, 4), 16);
+		assets.put(name, asset);
+		transaction.issue = asset;
+		transaction.from = null;
+		SimOutput output = new SimOutput();
+		output.address = to;
+		output.amounts.put(name, asset.raw);
+		output.type = "issuefirst";
+		transaction.outputs.add(output);
+		return submit(transaction);
+	}
+
+	private String issueMore(String from, String to, String name, double quantity) {
+		checkAddress(to);
+		SimAsset asset = asset(name);
+		if (!asset.open) {
+			throw new SimulatorError(RPC_INSUFFICIENT_PERMISSIONS, "Issuing more units not allowed for this asset");
+		}
+		checkPermission(from, "issue");
+		long raw = Math.round(quantity * asset.multiple);
+		asset.raw += raw;
+		SimTransaction transaction = newTransaction(null);
+		SimOutput output = new SimOutput();
+		output.address = to;
+		output.amounts.put(name, raw);
+		output.type = "issuemore";
+		transaction.outputs.add(output);
+		return submit(transaction);
+	}
+
+	private String listAssets(List<String> args) {
+		List<String> names = args.isEmpty() ? Collections.singletonList("*") : list(args.get(0));
+		JsonArray array = new JsonArray();
+		for (SimAsset asset : assets.values()) {
+			if (names.contains("*") || names.contains(asset.name) || names.contains(asset.assetref) || names.contains(asset.issuetxid)) {
+				JsonObject json = new JsonObject();
+				json.addProperty("name", asset.name);
+				json.addProperty("issuetxid", asset.issuetxid);
+				json.addProperty("assetref", asset.assetref);
+				json.addProperty("multiple", asset.multiple);
+				json.addProperty("units", 1.0 / asset.multiple);
+				json.addProperty("open", asset.open);
+				json.add("details", new JsonObject());
+				json.addProperty("issueqty", toQuantity(asset.name, asset.raw));
+				json.addProperty("issueraw", asset.raw);
+				json.addProperty("subscribed", false);
+				array.add(json);
+			}
+		}
+		if (array.size() == 0 && !names.contains("*")) {
+			throw new SimulatorError(RPC_ENTITY_NOT_FOUND, "Asset with this name, ref or issue txid not found: " + names.get(0));
+		}
+		return toJson(array);
+	}
+
+	private SimAsset asset(String name) {
+		SimAsset asset = assets.get(name);
+		if (asset == null) {
+			for (SimAsset candidate : assets.values()) {
+				if (name.equals(candidate.assetref) || name.equals(candidate.issuetxid)) {
+					return candidate;
+				}
+			}
+			throw new SimulatorError(RPC_ENTITY_NOT_FOUND, "Asset with this name, ref or issue txid not found: " + name);
+		}
+		return asset;
+	}
+
+	private Map<String, Long> amounts(String asset, double quantity) {
+		Map<String, Long> amounts = new LinkedHashMap<String, Long>();
+		amounts.put(asset(asset).name, toRaw(asset(asset).name, quantity));
+		return amounts;
+	}
+
+	/**
+	 * @param amount a native amount, or an object of asset quantities
+	 * @return the raw amounts, by asset name
+	 */
+	private Map<String, Long> amounts(JsonElement amount) {
+		Map<String, Long> amounts = new LinkedHashMap<String, Long>();
+		if (amount.isJsonObject()) {
+			for (Map.Entry<String, JsonElement> entry : amount.getAsJsonObject().entrySet()) {
+				String name = entry.getKey().equals(NATIVE) ? NATIVE : asset(entry.getKey()).name;
+				amounts.put(name, toRaw(name, entry.getValue().getAsDouble()));
+			}
+		} else {
+			amounts.put(NATIVE, toRaw(NATIVE, amount.getAsDouble()));
+		}
+		return amounts;
+	}
+
+	private String send(String from, String to, Map<String, Long> amounts, String metadata) {
+		checkAddress(to);
+		String source = from == null ? fundedWalletAddress(amounts) : from;
+		checkPermission(to, "receive");
+		SimTransaction transaction = newTransaction(source);
+		SimOutput output = new SimOutput();
+		output.address = to;
+		output.amounts.putAll(amounts);
+		transaction.outputs.add(output);
+		if (metadata != null) {
+			transaction.data.add(metadata);
+		}
+		transfer(transaction);
+		return submit(transaction);
+	}
+
+	private String fundedWalletAddress(Map<String, Long> amounts) {
+		for (String address : wallet) {
+			if (hasFunds(address, amounts)) {
+				return address;
+			}
+		}
+		throw new SimulatorError(MultichainRPCException.RPC_WALLET_INSUFFICIENT_FUNDS, "Insufficient funds");
+	}
+
+	private boolean hasFunds(String address, Map<String, Long> amounts) {
+		Map<String, Long> balance = balanceOf(Collections.singleton(address));
+		for (Map.Entry<String, Long> amount : amounts.entrySet()) {
+			Long available = balance.get(amount.getKey());
+			if (amount.getValue() > 0 && (available == null || available < amount.getValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Selects unspent outputs of the source of the transaction covering its
+	 * outputs, as the node does for the wallet commands, and sends the change
+	 * back to the source. Checks the funds and the permissions.
+	 */
+	private void transfer(SimTransaction transaction) {
+		checkAddress(transaction.from);
+		checkPermission(transaction.from, "send");
+		Map<String, Long> needed = outputTotal(transaction.outputs);
+
+		Map<String, Long> selected = new HashMap<String, Long>();
+		for (SimOutput candidate : unspentOf(transaction.from).values()) {
+			if (covers(selected, needed)) {
+				break;
+			}
+			if (locked.contains(candidate.outpoint())) {
+				continue;
+			}
+			for (String asset : candidate.amounts.keySet()) {
+				Long alreadySelected = selected.get(asset);
+				Long amountNeeded = needed.get(asset);
+				if (amountNeeded != null && (alreadySelected == null || alreadySelected < amountNeeded)) {
+					transaction.inputs.add(candidate);
+					add(selected, candidate.amounts, 1);
+					break;
+				}
+			}
+		}
+		if (!covers(selected, needed)) {
+			throw new SimulatorError(MultichainRPCException.RPC_WALLET_INSUFFICIENT_FUNDS, "Insufficient funds");
+		}
+
+		add(selected, needed, -1);
+		SimOutput change = new SimOutput();
+		change.address = transaction.from;
+		for (Map.Entry<String, Long> amount : selected.entrySet()) {
+			if (amount.getValue() > 0) {
+				change.amounts.put(amount.getKey(), amount.getValue());
+			}
+		}
+		if (!change.amounts.isEmpty()) {
+			transaction.outputs.add(change);
+		}
+	}
+
+	/**
+	 * @return the total amounts of the outputs, checking the recipients
+	 */
+	private Map<String, Long> outputTotal(List<SimOutput> outputs) {
+		Map<String, Long> total = new HashMap<String, Long>();
+		for (SimOutput output : outputs) {
+			checkAddress(output.address);
+			checkPermission(output.address, "receive");
+			for (Map.Entry<String, Long> amount : output.amounts.entrySet()) {
+				if (amount.getValue() < 0) {
+					throw new SimulatorError(MultichainRPCException.RPC_INVALID_PARAMETER, "Invalid amount");
+				}
+			}
+			add(total, output.amounts, 1);
+		}
+		return total;
+	}
+
+	private static boolean covers(Map<String, Long> available, Map<String, Long> needed) {
+		for (Map.Entry<String, Long> amount : needed.entrySet()) {
+			Long current = available.get(amount.getKey());
+			if (amount.getValue() > 0 && (current == null || current < amount.getValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void add(Map<String, Long> total, Map<String, Long> amounts, int sign) {
+		for (Map.Entry<String, Long> amount : amounts.entrySet()) {
+			Long current = total.get(amount.getKey());
+			total.put(amount.getKey(), (current == null ? 0 : current) + sign * amount.getValue());
+		}
+	}
+
+	private Map<String, SimOutput> unspentOf(String address) {
+		Map<String, SimOutput> outputs = unspent.get(address);
+		if (outputs == null) {
+			outputs = new LinkedHashMap<String, SimOutput>();
+			unspent.put(address, outputs);
+		}
+		return outputs;
+	}
+
+	private SimOutput unspentOutput(String outpoint) {
+		int colon = outpoint.lastIndexOf(':');
+		SimTransaction previous = transactions.get(outpoint.substring(0, colon));
+		int n = Integer.parseInt(outpoint.substring(colon + 1));
+		if (previous == null || n < 0 || n >= previous.outputs.size()) {
+			throw new SimulatorError(MultichainRPCException.RPC_VERIFY_ERROR, "Missing inputs");
+		}
+		SimOutput output = previous.outputs.get(n);
+		if (!unspentOf(output.address).containsKey(outpoint)) {
+			throw new SimulatorError(MultichainRPCException.RPC_VERIFY_REJECTED, "txn-mempool-conflict");
+		}
+		return output;
+	}
+
+	private String listUnspent(long minConf, long maxConf, List<String> addresses) {
+		JsonArray array = new JsonArray();
+		for (String address : addresses == null ? wallet : addresses) {
+			for (SimOutput output : unspentOf(address).values()) {
+				if (locked.contains(output.outpoint())) {
+					continue;
+				}
+				SimTransaction transaction = transactions.get(output.txid);
+				long confirmations = transaction.block == null ? 0 : blocks.size() - transaction.block.height;
+				if (confirmations < minConf || confirmations > maxConf) {
+					continue;
+				}
+				JsonObject json = new JsonObject();
+				json.addProperty("txid", output.txid);
+				json.addProperty("vout", output.n);
+				json.addProperty("address", output.address);
+				json.addProperty("account", "");
+				json.addProperty("scriptPubKey", scriptPubKey(output.address).get("hex").getAsString());
+				Long amount = output.amounts.get(NATIVE);
+				json.addProperty("amount", amount == null ? 0 : toQuantity(NATIVE, amount));
+				json.addProperty("confirmations", confirmations);
+				json.addProperty("cansend", true);
+				json.addProperty("spendable", wallet.contains(output.address));
+				Map<String, Long> outputAssets = new TreeMap<String, Long>(output.amounts);
+				outputAssets.remove(NATIVE);
+				json.add("assets", balanceArray(outputAssets, true));
+				json.add("permissions", new JsonArray());
+				array.add(json);
+			}
+		}
+		return toJson(array);
+	}
+
+	private String lockUnspent(boolean unlock, JsonArray outputs) {
+		if (outputs == null) {
+			if (!unlock) {
+				throw new SimulatorError(MultichainRPCException.RPC_INVALID_PARAMETER, "Invalid parameter, outputs needed to lock");
+			}
+			locked.clear();
+			return "true";
+		}
+		List<String> outpoints = new ArrayList<String>();
+		for (JsonElement output : outputs) {
+			JsonObject outpoint = output.getAsJsonObject();
+			String txid = outpoint.get("txid").getAsString();
+			int vout = outpoint.get("vout").getAsInt();
+			SimTransaction transaction = transactions.get(txid);
+			if (transaction == null) {
+				throw new SimulatorError(MultichainRPCException.RPC_INVALID_PARAMETER, "Invalid parameter, unknown transaction");
+			}
+			if (vout < 0 || vout >= transaction.outputs.size()) {
+				throw new SimulatorError(MultichainRPCException.RPC_INVALID_PARAMETER, "Invalid parameter, vout index out of bounds");
+			}
+			outpoints.add(txid + ":" + vout);
+		}
+		if (unlock) {
+			locked.removeAll(outpoints);
+		} else {
+			locked.addAll(outpoints);
+		}
+		return "true";
+	}
+
+	private String listLockUnspent() {
+		JsonArray array = new JsonArray();
+		for (String outpoint : locked) {
+			int colon = outpoint.lastIndexOf(':');
+			JsonObject json = new JsonObject();
+			json.addProperty("txid", outpoint.substring(0, colon));
+			json.addProperty("vout", Integer.parseInt(outpoint.substring(colon + 1)));
+			array.add(json);
+		}
+		return toJson(array);
+	}
+
+	/**
+	 * Sends the amounts from the address to itself, in an output locked for
+	 * a later raw transaction.
+	 */
+	private String prepareLockUnspent(String from, Map<String, Long> amounts, boolean lock) {
+		String source = from == null ? fundedWalletAddress(amounts) : from;
+		SimTransaction transaction = newTransaction(source);
+		SimOutput output = new SimOutput();
+		output.address = source;
+		output.amounts.putAll(amounts);
+		transaction.outputs.add(output);
+		transfer(transaction);
+		submit(transaction);
+		if (lock) {
+			locked.add(output.outpoint());
+		}
+		JsonObject json = new JsonObject();
+		json.addProperty("txid", output.txid);
+		json.addProperty("vout", output.n);
+		return toJson(json);
+	}
+
+	private long toRaw(String asset, double quantity) {
+		return Math.round(quantity * (asset.equals(NATIVE) ? NATIVE_MULTIPLE : assets.get(asset).multiple));
+	}
+
+	private double toQuantity(String asset, long raw) {
+		return (double) raw / (asset.equals(NATIVE) ? NATIVE_MULTIPLE : assets.get(asset).multiple);
+	}
+
+	/*
+	 * Permissions
+	 */
+
+	private String grant(String from, String addresses, String permissionList, long startBlock, long endBlock) {
+		checkPermission(from, "admin");
+		SimTransaction transaction = newTransaction(from);
+		for (String address : addresses.split(",")) {
+			checkAddress(address.trim());
+			for (String permission : permissionList.split(",")) {
+				checkPermissionName(permission.trim());
+				permissionsOf(address.trim()).put(permission.trim(), new long[] { startBlock, endBlock });
+			}
+			transaction.outputs.add(permissionOutput(address.trim(), permissionList, startBlock, endBlock));
+		}
+		return submit(transaction);
+	}
+
+	private String revoke(String from, String addresses, String permissionList) {
+		checkPermission(from, "admin");
+		SimTransaction transaction = newTransaction(from);
+		for (String address : addresses.split(",")) {
+			checkAddress(address.trim());
+			for (String permission : permissionList.split(",")) {
+				checkPermissionName(permission.trim());
+				permissionsOf(address.trim()).remove(permission.trim());
+			}
+			transaction.outputs.add(permissionOutput(address.trim(), permissionList, 0, 0));
+		}
+		return submit(transaction);
+	}
+
+	/**
+	 * Output carrying a grant, or a revoke with an empty window, as the
+	 * permission script of a node.
+	 */
+	private SimOutput permissionOutput(String address, String permissionList, long startBlock, long endBlock) {
+		SimOutput output = new SimOutput();
+		output.address = address;
+		for (String permission : permissionList.split(",")) {
+			output.permissions.put(permission.trim(), new long[] { startBlock, endBlock });
+		}
+		return output;
+	}
+
+	private String listPermissions(List<String> args) {
+		String filter = args.isEmpty() ? "*" : text(args.get(0));
+		List<String> types = filter.equals("*") || filter.equals("all") ? null : list(filter);
+		List<String> addresses = args.size() > 1 ? list(args.get(1)) : Collections.singletonList("*");
+
+		JsonArray array = new JsonArray();
+		for (Map.Entry<String, Map<String, long[]>> entry : permissions.entrySet()) {
+			if (!addresses.contains("*") && !addresses.contains(entry.getKey())) {
+				continue;
+			}
+			for (Map.Entry<String, long[]> permission : entry.getValue().entrySet()) {
+				if (types != null && !types.contains(permission.getKey())) {
+					continue;
+				}
+				JsonObject json = new JsonObject();
+				json.addProperty("address", entry.getKey());
+				int dot = permission.getKey().lastIndexOf('.');
+				if (dot > 0) {
+					SimStream stream = streams.get(permission.getKey().substring(0, dot));
+					JsonObject entity = new JsonObject();
+					entity.addProperty("type", "stream");
+					entity.addProperty("name", stream.name);
+					entity.addProperty("streamref", stream.streamref);
+					entity.addProperty("createtxid", stream.createtxid);
+					json.add("for", entity);
+					json.addProperty("type", permission.getKey().substring(dot + 1));
+				} else {
+					json.add("for", JsonNull.INSTANCE);
+					json.addProperty("type", permission.getKey());
+				}
+				json.addProperty("startblock", permission.getValue()[0]);
+				json.addProperty("endblock", permission.getValue()[1]);
+				array.add(json);
+			}
+		}
+		return toJson(array);
+	}
+
+	private Map<String, long[]> permissionsOf(String address) {
+		Map<String, long[]> granted = permissions.get(address);
+		if (granted == null) {
+			granted = new LinkedHashMap<String, long[]>();
+			permissions.put(address, granted);
+		}
+		return granted;
+	}
+
+	private boolean hasPermission(String address, String permission) {
+		Map<String, long[]> granted = permissions.get(address);
+		long[] window = granted == null ? null : granted.get(permission);
+		long height = blocks.size();
+		return window != null && window[0] <= height && height < window[1];
+	}
+
+	private void checkPermission(String address, String permission) {
+		if (anyoneCanTransact && (permission.equals("send") || permission.equals("receive"))) {
+			return;
+		}
+		if (!hasPermission(address, permission)) {
+			throw new SimulatorError(RPC_INSUFFICIENT_PERMISSIONS, "No " + permission + " permission for address " + address);
+		}
+	}
+
+	private void checkPermissionName(String permission) {
+		int dot = permission.lastIndexOf('.');
+		if (dot > 0) {
+			stream(permission.substring(0, dot));
+			if (permission.substring(dot + 1).matches("write|activate|admin")) {
+				return;
+			}
+		} else {
+			for (String global : GLOBAL_PERMISSIONS) {
+				if (global.equals(permission)) {
+					return;
+				}
+			}
+		}
+		throw new SimulatorError(MultichainRPCException.RPC_INVALID_PARAMETER, "Unsupported permission type: " + permission);
+	}
+
+	/*
+	 * Streams
+	 */
+
+	private String createStream(String from, String name, boolean open) {
+		checkPermission(from, "create");
+		if (assets.containsKey(name) || streams.containsKey(name)) {
+			throw new SimulatorError(RPC_DUPLICATE_NAME, "Stream or asset with this name already exists");
+		}
+		SimTransaction transaction = newTransaction(from);
+		SimStream stream = new SimStream();
+		stream.name = name;
+		stream.open = open;
+		stream.createtxid = transaction.txid;
+		stream.streamref = blocks.size() + "-" + (266 + streams.size()) + "-" + Integer.parseInt(transaction.txid.substring(0, 4), 16);
+		streams.put(name, stream);
+		for (String permission : new String[] { "write", "activate", "admin" }) {
+			permissionsOf(from).put(name + "." + permission, new long[] { 0, MAX_BLOCK });
+		}
+		return submit(transaction);
+	}
+
+	private String listStreams(List<String> args) {
+		List<String> names = args.isEmpty() ? Collections.singletonList("*") : list(args.get(0));
+		JsonArray array = new JsonArray();
+		for (SimStream stream : streams.values()) {
+			if (names.contains("*") || names.contains(stream.name) || names.contains(stream.streamref) || names.contains(stream.createtxid)) {
+				JsonObject json = new JsonObject();
+				json.addProperty("name", stream.name);
+				json.addProperty("createtxid", stream.createtxid);
+				json.addProperty("streamref", stream.streamref);
+				json.addProperty("open", stream.open);
+				json.add("details", new JsonObject());
+				json.addProperty("subscribed", stream.subscribed);
+				json.addProperty("synchronized", true);
+				json.addProperty("items", stream.items.size());
+				json.addProperty("confirmed", confirmed(stream.items));
+				json.addProperty("keys", keys(stream).size());
+				json.addProperty("publishers", publishers(stream).size());
+				array.add(json);
+			}
+		}
+		return toJson(array);
+	}
+
+	private String publish(String from, String streamName, String key, String data) {
+		SimStream stream = stream(streamName);
+		if (!stream.open) {
+			checkPermission(from, stream.name + ".write");
+		}
+		if (!data.matches("([0-9a-fA-F]{2})*")) {
+			throw new SimulatorError(MultichainRPCException.RPC_INVALID_PARAMETER, "data should be hexadecimal string");
+		}
+		SimTransaction transaction = newTransaction(from);
+		addItem(transaction, stream, from, key, data);
+		return submit(transaction);
+	}
+
+	private void addItem(SimTransaction transaction, SimStream stream, String publisher, String key, String data) {
+		SimItem item = new SimItem();
+		item.stream = stream.name;
+		item.publisher = publisher;
+		item.key = key;
+		item.data = data;
+		item.transaction = transaction;
+		transaction.items.add(item);
+		stream.items.add(item);
+	}
+
+	private String listStreamItems(List<SimItem> items, List<String> args, int first) {
+		long count = integer(args, first + 1, 10);
+		long start = integer(args, first + 2, -count);
+		JsonArray array = new JsonArray();
+		for (SimItem item : page(items, count, start)) {
+			array.add(streamItem(item));
+		}
+		return toJson(array);
+	}
+
+	private String listStreamKeysOrPublishers(SimStream stream, List<String> args, boolean byKey) {
+		List<String> filter = args.size() > 1 ? list(args.get(1)) : Collections.singletonList("*");
+		Map<String, List<SimItem>> grouped = byKey ? keys(stream) : publishers(stream);
+		JsonArray array = new JsonArray();
+		for (Map.Entry<String, List<SimItem>> entry : grouped.entrySet()) {
+			if (filter.contains("*") || filter.contains(entry.getKey())) {
+				JsonObject json = new JsonObject();
+				json.addProperty(byKey ? "key" : "publisher", entry.getKey());
+				json.addProperty("items", entry.getValue().size());
+				json.addProperty("confirmed", confirmed(entry.getValue()));
+				array.add(json);
+			}
+		}
+		return toJson(array);
+	}
+
+	private String getStreamItem(SimStream stream, String txid) {
+		for (SimItem item : stream.items) {
+			if (item.transaction.txid.equals(txid)) {
+				return toJson(streamItem(item));
+			}
+		}
+		throw new SimulatorError(RPC_ENTITY_NOT_FOUND, "Item with this txid not found");
+	}
+
+	private JsonObject streamItem(SimItem item) {
+		JsonObject json = new JsonObject();
+		JsonArray publishers = new JsonArray();
+		publishers.add(item.publisher);
+		json.add("publishers", publishers);
+		json.addProperty("key", item.key);
+		json.addProperty("data", item.data);
+		addConfirmation(json, item.transaction);
+		json.addProperty("txid", item.transaction.txid);
+		json.addProperty("vout", item.transaction.items.indexOf(item));
+		json.addProperty("valid", true);
+		json.addProperty("time", item.transaction.time);
+		json.addProperty("timereceived", item.transaction.time);
+		return json;
+	}
+
+	private SimStream stream(String name) {
+		SimStream stream = streams.get(name);
+		if (stream == null) {
+			for (SimStream candidate : streams.values()) {
+				if (name.equals(candidate.streamref) || name.equals(candidate.createtxid)) {
+					return candidate;
+				}
+			}
+			throw new SimulatorError(RPC_ENTITY_NOT_FOUND, "Stream with this name, ref or creation txid not found: " + name);
+		}
+		return stream;
+	}
+
+	private List<SimItem> itemsWithKey(SimStream stream, String key) {
+		List<SimItem> items = keys(stream).get(key);
+		return items == null ? Collections.<SimItem> emptyList() : items;
+	}
+
+	private List<SimItem> itemsOfPublisher(SimStream stream, String publisher) {
+		List<SimItem> items = publishers(stream).get(publisher);
+		return items == null ? Collections.<SimItem> emptyList() : items;
+	}
+
+	private Map<String, List<SimItem>> keys(SimStream stream) {
+		Map<String, List<SimItem>> keys = new LinkedHashMap<String, List<SimItem>>();
+		for (SimItem item : stream.items) {
+			if (!keys.containsKey(item.key)) {
+				keys.put(item.key, new ArrayList<SimItem>());
+			}
+			keys.get(item.key).add(item);
+		}
+		return keys;
+	}
+
+	private Map<String, List<SimItem>> publishers(SimStream stream) {
+		Map<String, List<SimItem>> publishers = new LinkedHashMap<String, List<SimItem>>();
+		for (SimItem item : stream.items) {
+			if (!publishers.containsKey(item.publisher)) {
+				publishers.put(item.publisher, new ArrayList<SimItem>());
+			}
+			publishers.get(item.publisher).add(item);
+		}
+		return publishers;
+	}
+
+	private static int confirmed(List<SimItem> items) {
+		int confirmed = 0;
+		for (SimItem item : items) {
+			if (item.transaction.block != null) {
+				confirmed++;
+			}
+		}
+		return confirmed;
+	}
+
+	/*
+	 * Transactions
+	 */
+
+	private String listTransactions(Set<String> addresses, long count, long skip) {
+		List<SimTransaction> involved = new ArrayList<SimTransaction>();
+		for (SimTransaction transaction : transactionOrder) {
+			if (involves(transaction, addresses)) {
+				involved.add(transaction);
+			}
+		}
+		JsonArray array = new JsonArray();
+		for (SimTransaction transaction : page(involved, count, -count - skip)) {
+			array.add(walletTransaction(transaction, addresses));
+		}
+		return toJson(array);
+	}
+
+	private boolean involves(SimTransaction transaction, Set<String> addresses) {
+		if (transaction.from != null && addresses.contains(transaction.from)) {
+			return true;
+		}
+		for (SimOutput output : transaction.outputs) {
+			if (addresses.contains(output.address)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private JsonObject walletTransaction(SimTransaction transaction, Set<String> addresses) {
+		Map<String, Long> delta = new TreeMap<String, Long>();
+		Set<String> mine = new LinkedHashSet<String>();
+		Set<String> others = new LinkedHashSet<String>();
+		if (transaction.from != null) {
+			(addresses.contains(transaction.from) ? mine : others).add(transaction.from);
+		}
+		for (SimOutput output : transaction.outputs) {
+			boolean toMine = addresses.contains(output.address);
+			(toMine ? mine : others).add(output.address);
+			boolean fromMine = transaction.from != null && addresses.contains(transaction.from);
+			if (toMine != fromMine) {
+				for (Map.Entry<String, Long> amount : output.amounts.entrySet()) {
+					Long current = delta.get(amount.getKey());
+					long signed = toMine ? amount.getValue() : -amount.getValue();
+					delta.put(amount.getKey(), (current == null ? 0 : current) + signed);
+				}
+			}
+		}
+
+		JsonObject json = new JsonObject();
+		JsonObject balance = new JsonObject();
+		Long nativeAmount = delta.remove(NATIVE);
+		balance.addProperty("amount", nativeAmount == null ? 0 : toQuantity(NATIVE, nativeAmount));
+		balance.add("assets", balanceArray(delta, false));
+		json.add("balance", balance);
+		json.add("myaddresses", gson.toJsonTree(mine));
+		json.add("addresses", gson.toJsonTree(others));
+		json.add("permissions", new JsonArray());
+		if (transaction.issue != null) {
+			JsonObject issue = new JsonObject();
+			issue.addProperty("name", transaction.issue.name);
+			issue.addProperty("issuetxid", transaction.issue.issuetxid);
+			issue.addProperty("assetref", transaction.issue.assetref);
+			issue.addProperty("multiple", transaction.issue.multiple);
+			issue.addProperty("units", 1.0 / transaction.issue.multiple);
+			issue.addProperty("open", transaction.issue.open);
+			issue.add("details", new JsonObject());
+			issue.addProperty("qty", toQuantity(transaction.issue.name, transaction.outputs.get(0).amounts.get(transaction.issue.name)));
+			issue.addProperty("raw", transaction.outputs.get(0).amounts.get(transaction.issue.name));
+			json.add("issue", issue);
+		}
+		JsonArray items = new JsonArray();
+		for (SimItem item : transaction.items) {
+			JsonObject jsonItem = new JsonObject();
+			jsonItem.addProperty("type", "stream");
+			jsonItem.addProperty("name", item.stream);
+			jsonItem.addProperty("streamref", streams.get(item.stream).streamref);
+			jsonItem.add("publishers", gson.toJsonTree(Collections.singletonList(item.publisher)));
+			jsonItem.addProperty("key", item.key);
+			jsonItem.addProperty("data", item.data);
+			items.add(jsonItem);
+		}
+		json.add("items", items);
+		json.add("data", gson.toJsonTree(transaction.data));
+		addConfirmation(json, transaction);
+		json.addProperty("txid", transaction.txid);
+		json.addProperty("valid", true);
+		json.addProperty("time", transaction.time);
+		json.addProperty("timereceived", transaction.time);
+		return json;
+	}
+
+	private String getTransaction(SimTransaction transaction) {
+		JsonObject json = new JsonObject();
+		json.addProperty("amount", 0);
+		addConfirmation(json, transaction);
+		json.addProperty("txid", transaction.txid);
+		json.addProperty("time", transaction.time);
+		json.addProperty("timereceived", transaction.time);
+		JsonArray details = new JsonArray();
+		for (int n = 0; n < transaction.outputs.size(); n++) {
+			SimOutput output = transaction.outputs.get(n);
+			JsonObject detail = new JsonObject();
+			detail.addProperty("account", "");
+			detail.addProperty("address", output.address);
+			detail.addProperty("category", wallet.contains(output.address) ? "receive" : "send");
+			Long amount = output.amounts.get(NATIVE);
+			detail.addProperty("amount", amount == null ? 0 : toQuantity(NATIVE, amount));
+			detail.addProperty("vout", n);
+			details.add(detail);
+		}
+		json.add("details", details);
+		json.addProperty("hex", toHex(toJson(rawTransactionOf(transaction))));
+		return toJson(json);
+	}
+
+	private String getTxOut(SimTransaction transaction, int n) {
+		if (n < 0 || n >= transaction.outputs.size()) {
+			return "";
+		}
+		SimOutput output = transaction.outputs.get(n);
+		if (!unspentOf(output.address).containsKey(output.outpoint())) {
+			return "";
+		}
+		JsonObject json = new JsonObject();
+		json.addProperty("bestblock", tip().hash);
+		json.addProperty("confirmations", transaction.block == null ? 0 : blocks.size() - transaction.block.height);
+		Long amount = output.amounts.get(NATIVE);
+		json.addProperty("value", amount == null ? 0 : toQuantity(NATIVE, amount));
+		json.add("scriptPubKey", scriptPubKey(output.address));
+		json.addProperty("version", 1);
+		json.addProperty("coinbase", false);
+		Map<String, Long> outputAssets = new TreeMap<String, Long>(output.amounts);
+		outputAssets.remove(NATIVE);
+		json.add("assets", balanceArray(outputAssets, true));
+		return toJson(json);
+	}
+
+	private String getRawTransaction(SimTransaction transaction, boolean verbose) {
+		SimRawTransaction raw = rawTransactionOf(transaction);
+		if (!verbose) {
+			return toHex(toJson(raw));
+		}
+		JsonObject json = decoded(raw, transaction.txid);
+		addConfirmation(json, transaction);
+		return toJson(json);
+	}
+
+	private SimRawTransaction rawTransactionOf(SimTransaction transaction) {
+		SimRawTransaction raw = new SimRawTransaction();
+		raw.from = transaction.from;
+		for (SimOutput input : transaction.inputs) {
+			raw.inputs.add(input.outpoint());
+		}
+		raw.outputs.addAll(transaction.outputs);
+		for (SimItem item : transaction.items) {
+			JsonObject data = new JsonObject();
+			data.addProperty("for", item.stream);
+			data.addProperty("key", item.key);
+			data.addProperty("data", item.data);
+			raw.data.add(data);
+		}
+		for (String data : transaction.data) {
+			raw.data.add(new JsonPrimitive(data));
+		}
+		raw.signed = true;
+		return raw;
+	}
+
+	private SimTransaction transaction(String txid) {
+		SimTransaction transaction = transactions.get(txid);
+		if (transaction == null) {
+			throw new SimulatorError(MultichainRPCException.RPC_INVALID_ADDRESS_OR_KEY, "Invalid or non-wallet transaction id");
+		}
+		return transaction;
+	}
+
+	private void addConfirmation(JsonObject json, SimTransaction transaction) {
+		if (transaction.block == null) {
+			json.addProperty("confirmations", 0);
+			return;
+		}
+		json.addProperty("confirmations", blocks.size() - transaction.block.height);
+		json.addProperty("blockhash", transaction.block.hash);
+		json.addProperty("blockindex", transaction.blockIndex);
+		json.addProperty("blocktime", transaction.block.time);
+	}
+
+	private SimTransaction newTransaction(String from) {
+		SimTransaction transaction = new SimTransaction();
+		transaction.txid = hex(32);
+		transaction.time = now();
+		transaction.from = from;
+		return transaction;
+	}
+
+	private String submit(SimTransaction transaction) {
+		for (SimOutput input : transaction.inputs) {
+			unspentOf(input.address).remove(input.outpoint());
+		}
+		for (int n = 0; n < transaction.outputs.size(); n++) {
+			SimOutput output = transaction.outputs.get(n);
+			output.txid = transaction.txid;
+			output.n = n;
+			if (!output.amounts.isEmpty()) {
+				unspentOf(output.address).put(output.outpoint(), output);
+			}
+		}
+		transactions.put(transaction.txid, transaction);
+		transactionOrder.add(transaction);
+		mempool.add(transaction);
+		if (transactionsPerBlock > 0 && mempool.size() >= transactionsPerBlock) {
+			mineBlock();
+		}
+		return transaction.txid;
+	}
+
+	/*
+	 * Raw transactions
+	 */
+
+	private String createRawTransaction(JsonElement inputs, JsonElement outputs, JsonElement data) {
+		SimRawTransaction raw = new SimRawTransaction();
+		for (JsonElement input : inputs.getAsJsonArray()) {
+			JsonObject outpoint = input.getAsJsonObject();
+			if (!outpoint.has("txid") || !outpoint.has("vout")) {
+				throw new SimulatorError(MultichainRPCException.RPC_INVALID_PARAMETER, "Invalid parameter, missing txid or vout key");
+			}
+			SimTransaction previous = transaction(outpoint.get("txid").getAsString());
+			int vout = outpoint.get("vout").getAsInt();
+			if (vout < 0 || vout >= previous.outputs.size()) {
+				throw new SimulatorError(MultichainRPCException.RPC_INVALID_PARAMETER, "Invalid parameter, vout out of range");
+			}
+			raw.from = previous.outputs.get(vout).address;
+			raw.inputs.add(previous.txid + ":" + vout);
+		}
+		addOutputs(raw, outputs);
+		addData(raw, data);
+		return toHex(toJson(raw));
+	}
+
+	private String createRawSendFrom(String from, JsonElement outputs, JsonElement data) {
+		checkAddress(from);
+		SimRawTransaction raw = new SimRawTransaction();
+		raw.from = from;
+		addOutputs(raw, outputs);
+		addData(raw, data);
+		return toHex(toJson(raw));
+	}
+
+	private String appendRawData(String hex, JsonElement data) {
+		SimRawTransaction raw = rawTransaction(hex);
+		raw.data.add(data);
+		raw.signed = false;
+		return toHex(toJson(raw));
+	}
+
+	private void addOutputs(SimRawTransaction raw, JsonElement outputs) {
+		for (Map.Entry<String, JsonElement> entry : outputs.getAsJsonObject().entrySet()) {
+			checkAddress(entry.getKey());
+			SimOutput output = new SimOutput();
+			output.address = entry.getKey();
+			output.amounts.putAll(amounts(entry.getValue()));
+			raw.outputs.add(output);
+		}
+	}
+
+	private void addData(SimRawTransaction raw, JsonElement data) {
+		if (data != null && data.isJsonArray()) {
+			for (JsonElement element : data.getAsJsonArray()) {
+				raw.data.add(element);
+			}
+		}
+	}
+
+	private String decodeRawTransaction(String hex) {
+		return toJson(decoded(rawTransaction(hex), txidOf(hex)));
+	}
+
+	private JsonObject decoded(SimRawTransaction raw, String txid) {
+		JsonObject json = new JsonObject();
+		json.addProperty("txid", txid);
+		json.addProperty("version", 1);
+		json.addProperty("locktime", 0);
+		JsonArray vin = new JsonArray();
+		for (String outpoint : raw.inputs) {
+			JsonObject input = new JsonObject();
+			input.addProperty("txid", outpoint.substring(0, outpoint.lastIndexOf(':')));
+			input.addProperty("vout", Integer.parseInt(outpoint.substring(outpoint.lastIndexOf(':') + 1)));
+			JsonObject scriptSig = new JsonObject();
+			scriptSig.addProperty("asm", "");
+			scriptSig.addProperty("hex", "");
+			input.add("scriptSig", scriptSig);
+			input.addProperty("sequence", MAX_BLOCK);
+			vin.add(input);
+		}
+		json.add("vin", vin);
+		JsonArray vout = new JsonArray();
+		for (int n = 0; n < raw.outputs.size(); n++) {
+			SimOutput output = raw.outputs.get(n);
+			JsonObject jsonOutput = new JsonObject();
+			Long amount = output.amounts.get(NATIVE);
+			jsonOutput.addProperty("value", amount == null ? 0 : toQuantity(NATIVE, amount));
+			jsonOutput.addProperty("n", n);
+			jsonOutput.add("scriptPubKey", scriptPubKey(output.address));
+			Map<String, Long> outputAssets = new TreeMap<String, Long>(output.amounts);
+			outputAssets.remove(NATIVE);
+			jsonOutput.add("assets", balanceArray(outputAssets, true, output.type == null ? "transfer" : output.type));
+			jsonOutput.add("permissions", permissionArray(output.permissions));
+			jsonOutput.add("items", new JsonArray());
+			vout.add(jsonOutput);
+		}
+		json.add("vout", vout);
+		JsonArray data = new JsonArray();
+		for (JsonElement element : raw.data) {
+			data.add(element.isJsonObject() && element.getAsJsonObject().has("data") ? element.getAsJsonObject().get("data") : element);
+		}
+		json.add("data", data);
+		return json;
+	}
+
+	private JsonArray permissionArray(Map<String, long[]> outputPermissions) {
+		JsonArray array = new JsonArray();
+		for (Map.Entry<String, long[]> permission : outputPermissions.entrySet()) {
+			JsonObject json = new JsonObject();
+			int dot = permission.getKey().lastIndexOf('.');
+			String type = dot > 0 ? permission.getKey().substring(dot + 1) : permission.getKey();
+			if (dot > 0) {
+				JsonObject entity = new JsonObject();
+				entity.addProperty("type", "stream");
+				entity.addProperty("name", permission.getKey().substring(0, dot));
+				json.add("for", entity);
+			} else {
+				json.add("for", JsonNull.INSTANCE);
+			}
+			for (String global : GLOBAL_PERMISSIONS) {
+				json.addProperty(global, global.equals(type));
+			}
+			json.addProperty("write", "write".equals(type));
+			json.addProperty("startblock", permission.getValue()[0]);
+			json.addProperty("endblock", permission.getValue()[1]);
+			array.add(json);
+		}
+		return array;
+	}
+
+	private JsonObject scriptPubKey(String address) {
+		String pubKeyHash = txidOf(address).substring(0, 40);
+		JsonObject json = new JsonObject();
+		json.addProperty("asm", "OP_DUP OP_HASH160 " + pubKeyHash + " OP_EQUALVERIFY OP_CHECKSIG");
+		json.addProperty("hex", "76a914" + pubKeyHash + "88ac");
+		json.addProperty("reqSigs", 1);
+		json.addProperty("type", "pubkeyhash");
+		json.add("addresses", gson.toJsonTree(Collections.singletonList(address)));
+		return json;
+	}
+
+	private String signRawTransaction(String hex) {
+		SimRawTransaction raw = rawTransaction(hex);
+		boolean complete = raw.from == null || wallet.contains(raw.from);
+		raw.signed = complete;
+		JsonObject json = new JsonObject();
+		json.addProperty("hex", toHex(toJson(raw)));
+		json.addProperty("complete", complete);
+		return toJson(json);
+	}
+
+	private String sendRawTransaction(String hex) {
+		SimRawTransaction raw = rawTransaction(hex);
+		if (!raw.signed) {
+			throw new SimulatorError(MultichainRPCException.RPC_VERIFY_REJECTED, "16: mandatory-script-verify-flag-failed");
+		}
+		String txid = txidOf(hex);
+		if (transactions.containsKey(txid)) {
+			throw new SimulatorError(MultichainRPCException.RPC_VERIFY_ALREADY_IN_CHAIN, "transaction already in block chain");
+		}
+		SimTransaction transaction = newTransaction(raw.from);
+		transaction.txid = txid;
+		transaction.outputs.addAll(raw.outputs);
+		List<Object[]> items = new ArrayList<Object[]>();
+		for (JsonElement data : raw.data) {
+			if (data.isJsonObject() && data.getAsJsonObject().has("for")) {
+				JsonObject item = data.getAsJsonObject();
+				SimStream stream = stream(item.get("for").getAsString());
+				if (!stream.open) {
+					checkPermission(raw.from, stream.name + ".write");
+				}
+				items.add(new Object[] { stream, item.has("key") ? item.get("key").getAsString() : "", item.get("data").getAsString() });
+			} else {
+				transaction.data.add(data.isJsonPrimitive() ? data.getAsString() : toJson(data));
+			}
+		}
+		if (!raw.inputs.isEmpty()) {
+			spendInputs(transaction, raw.inputs);
+		} else if (!transaction.outputs.isEmpty()) {
+			transfer(transaction);
+		}
+		for (Object[] item : items) {
+			addItem(transaction, (SimStream) item[0], raw.from, (String) item[1], (String) item[2]);
+		}
+		return submit(transaction);
+	}
+
+	/**
+	 * Spends the inputs given explicitly in a raw transaction : all of them
+	 * have to be unspent, and cover the outputs.
+	 */
+	private void spendInputs(SimTransaction transaction, List<String> outpoints) {
+		Map<String, Long> inputTotal = new HashMap<String, Long>();
+		for (String outpoint : outpoints) {
+			SimOutput input = unspentOutput(outpoint);
+			if (transaction.inputs.contains(input)) {
+				throw new SimulatorError(MultichainRPCException.RPC_VERIFY_REJECTED, "bad-txns-inputs-duplicate");
+			}
+			checkPermission(input.address, "send");
+			transaction.inputs.add(input);
+			add(inputTotal, input.amounts, 1);
+		}
+		Map<String, Long> outputTotal = outputTotal(transaction.outputs);
+		for (String asset : new LinkedHashSet<String>(inputTotal.keySet())) {
+			Long in = inputTotal.get(asset);
+			Long out = outputTotal.containsKey(asset) ? outputTotal.get(asset) : 0;
+			if (asset.equals(NATIVE) ? in < out : !in.equals(out)) {
+				throw new SimulatorError(MultichainRPCException.RPC_VERIFY_REJECTED, "Asset quantities in inputs and outputs do not match : " + asset);
+			}
+		}
+		for (String asset : outputTotal.keySet()) {
+			if (outputTotal.get(asset) > 0 && !inputTotal.containsKey(asset)) {
+				throw new SimulatorError(MultichainRPCException.RPC_VERIFY_REJECTED, "Asset quantities in inputs and outputs do not match : " + asset);
+			}
+		}
+	}
+
+	private SimRawTransaction rawTransaction(String hex) {
+		try {
+			return gson.fromJson(new String(fromHex(hex), StandardCharsets.UTF_8), SimRawTransaction.class);
+		} catch (JsonParseException | IllegalArgumentException e) {
+			throw new SimulatorError(MultichainRPCException.RPC_TYPE_ERROR, "TX decode failed");
+		}
+	}
+
+	/*
+	 * Arguments
+	 */
+
+	/**
+	 * @return the argument at the given index
+	 * @throws SimulatorError if the argument is missing, as the node does
+	 */
+	private static String arg(List<String> args, int index) {
+		if (index >= args.size()) {
+			throw new SimulatorError(MultichainRPCException.RPC_MISC_ERROR, "Missing parameter " + (index + 1));
+		}
+		return args.get(index);
+	}
+
+	/**
+	 * @return the argument without its Json quotes, if it is a Json string
+	 */
+	private String text(String arg) {
+		if (arg.length() >= 2 && arg.startsWith("\"") && arg.endsWith("\"")) {
+			return json(arg).getAsString();
+		}
+		return arg;
+	}
+
+	private JsonElement json(String arg) {
+		try {
+			return parser.parse(arg);
+		} catch (JsonParseException e) {
+			throw new SimulatorError(MultichainRPCException.RPC_INVALID_PARAMETER, "Invalid parameter : " + arg);
+		}
+	}
+
+	/**
+	 * @return a Json array of strings, or a comma separated list, as a list
+	 */
+	private List<String> list(String arg) {
+		List<String> values = new ArrayList<String>();
+		if (arg.startsWith("[")) {
+			for (JsonElement element : json(arg).getAsJsonArray()) {
+				values.add(element.getAsString());
+			}
+		} else {
+			for (String value : text(arg).split(",")) {
+				values.add(value.trim());
+			}
+		}
+		return values;
+	}
+
+	private long integer(List<String> args, int index, long defaultValue) {
+		if (index >= args.size()) {
+			return defaultValue;
+		}
+		String value = text(args.get(index));
+		if (value.equals("true") || value.equals("false")) {
+			return value.equals("true") ? 1 : 0;
+		}
+		return parseLong(value);
+	}
+
+	private static long parseLong(String value) {
+		try {
+			return (long) Double.parseDouble(value);
+		} catch (NumberFormatException e) {
+			throw new SimulatorError(MultichainRPCException.RPC_TYPE_ERROR, "Expected number, got " + value);
+		}
+	}
+
+	private double decimal(List<String> args, int index) {
+		try {
+			return Double.parseDouble(text(arg(args, index)));
+		} catch (NumberFormatException e) {
+			throw new SimulatorError(MultichainRPCException.RPC_TYPE_ERROR, "Expected number, got " + args.get(index));
+		}
+	}
+
+	private boolean bool(List<String> args, int index, boolean defaultValue) {
+		if (index >= args.size()) {
+			return defaultValue;
+		}
+		String value = text(args.get(index));
+		return value.equals("true") || value.equals("1");
+	}
+
+	/**
+	 * @param start index of the first element, counted from the end if negative
+	 * @return the elements of the page
+	 */
+	private static <T> List<T> page(List<T> elements, long count, long start) {
+		int size = elements.size();
+		long from = start < 0 ? size + start : start;
+		long to = from + Math.max(0, count);
+		from = Math.max(0, Math.min(size, from));
+		to = Math.max(from, Math.min(size, to));
+		return elements.subList((int) from, (int) to);
+	}
+
+	/*
+	 * Encoding
+	 */
+
+	private String toJson(Object json) {
+		return gson.toJson(json);
+	}
+
+	private String hex(int bytes) {
+		char[] hex = new char[bytes * 2];
+		for (int i = 0; i < hex.length; i++) {
+			hex[i] = HEX[random.nextInt(16)];
+		}
+		return new String(hex);
+	}
+
+	private String base58(int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = BASE58[random.nextInt(BASE58.length)];
+		}
+		return new String(chars);
+	}
+
+	private static String toHex(String text) {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		char[] hex = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			hex[2 * i] = HEX[(bytes[i] >> 4) & 0xf];
+			hex[2 * i + 1] = HEX[bytes[i] & 0xf];
+		}
+		return new String(hex);
+	}
+
+	private static byte[] fromHex(String hex) {
+		if (hex.length() % 2 != 0) {
+			throw new IllegalArgumentException("odd length");
+		}
+		byte[] bytes = new byte[hex.length() / 2];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return a stable 32 bytes identifier of the value, used as txid of the
+	 *         raw transactions
+	 */
+	private static String txidOf(String value) {
+		try {
+			byte[] digest = java.security.MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+			StringBuilder hex = new StringBuilder();
+			for (byte b : digest) {
+				hex.append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+			}
+			return hex.toString();
+		} catch (java.security.NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static long now() {
+		return System.currentTimeMillis() / 1000;
+	}
+
+}
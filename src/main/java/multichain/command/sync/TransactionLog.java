@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.sync;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import multichain.command.MultichainException;
+import multichain.object.TransactionWallet;
+
+/**
+ * Append only file of the wallet transactions of an address, one Json record
+ * per line. A transaction written again replaces the previous record at its
+ * position, a removal record drops it; the file is rewritten once the
+ * replaced records outnumber the live ones.
+ *
+ * @version 1.0
+ */
+class TransactionLog {
+
+	private static final int MIN_RECORDS_TO_COMPACT = 256;
+
+	private final Gson gson = new GsonBuilder().create();
+	private final Path file;
+	private final Map<String, TransactionWallet> transactions = new LinkedHashMap<String, TransactionWallet>();
+	private int records;
+
+	/**
+	 * Line of the log
+	 */
+	private static final class Record {
+		TransactionWallet transaction;
+		String removed;
+	}
+
+	/**
+	 * A last line cut by a crash is dropped from the file, so the next records
+	 * are not appended to it.
+	 *
+	 * @param file the file of the log, created at the first write
+	 * @throws MultichainException if the file can not be read
+	 */
+	TransactionLog(Path file) throws MultichainException {
+		this.file = file;
+		if (!Files.exists(file)) {
+			return;
+		}
+		boolean cut = false;
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isEmpty()) {
+					continue;
+				}
+				Record record;
+				try {
+					record = gson.fromJson(line, Record.class);
+				} catch (JsonParseException e) {
+					// Last line cut by a crash while writing, the next sync fetches it again
+					cut = true;
+					break;
+				}
+				apply(record);
+				records++;
+			}
+			cut |= !endsWithNewLine(file);
+		} catch (IOException e) {
+			throw new MultichainException("log", "can not read " + file + " : " + e.getMessage());
+		}
+		if (cut) {
+			compact();
+		}
+	}
+
+	/**
+	 * @return the transactions, oldest first
+	 */
+	Collection<TransactionWallet> getTransactions() {
+		return transactions.values();
+	}
+
+	/**
+	 * @param txid id of the transaction
+	 * @return the transaction, null if not in the log
+	 */
+	TransactionWallet get(String txid) {
+		return transactions.get(txid);
+	}
+
+	/**
+	 * Writes the changes of a sync : transactions replaced or added at the
+	 * end, and transactions removed.
+	 *
+	 * @param written the transactions to write
+	 * @param removed the ids of the transactions to remove
+	 * @throws MultichainException if the file can not be written
+	 */
+	void write(List<TransactionWallet> written, List<String> removed) throws MultichainException {
+		if (written.isEmpty() && removed.isEmpty()) {
+			return;
+		}
+		List<Record> lines = new ArrayList<Record>(written.size() + removed.size());
+		for (String txid : removed) {
+			Record record = new Record();
+			record.removed = txid;
+			lines.add(record);
+		}
+		for (TransactionWallet transaction : written) {
+			Record record = new Record();
+			record.transaction = transaction;
+			lines.add(record);
+		}
+
+		try {
+			if (file.getParent() != null) {
+				Files.createDirectories(file.getParent());
+			}
+			try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+					StandardOpenOption.APPEND)) {
+				for (Record record : lines) {
+					writer.write(gson.toJson(record));
+					writer.newLine();
+				}
+			}
+		} catch (IOException e) {
+			throw new MultichainException("log", "can not write " + file + " : " + e.getMessage());
+		}
+		for (Record record : lines) {
+			apply(record);
+		}
+		records += lines.size();
+
+		if (records > MIN_RECORDS_TO_COMPACT && records > 2 * transactions.size()) {
+			compact();
+		}
+	}
+
+	private void apply(Record record) {
+		if (record.removed != null) {
+			transactions.remove(record.removed);
+		} else if (record.transaction != null) {
+			transactions.put(record.transaction.getTxid(), record.transaction);
+		}
+	}
+
+	private static boolean endsWithNewLine(Path file) throws IOException {
+		try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+			long size = channel.size();
+			if (size == 0) {
+				return true;
+			}
+			ByteBuffer last = ByteBuffer.allocate(1);
+			channel.position(size - 1);
+			channel.read(last);
+			return last.get(0) == '\n';
+		}
+	}
+
+	private void compact() throws MultichainException {
+		Path compacted = file.resolveSibling(file.getFileName() + ".tmp");
+		try {
+			try (BufferedWriter writer = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+				for (TransactionWallet transaction : transactions.values()) {
+					Record record = new Record();
+					record.transaction = transaction;
+					writer.write(gson.toJson(record));
+					writer.newLine();
+				}
+			}
+			Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new MultichainException("log", "can not compact " + file + " : " + e.getMessage());
+		}
+		records = transactions.size();
+	}
+
+}
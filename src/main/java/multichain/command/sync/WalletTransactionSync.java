@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.sync;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import multichain.command.MultichainException;
+import multichain.command.WalletTransactionCommand;
+import multichain.command.raw.Base58;
+import multichain.command.tools.MultichainTestParameter;
+import multichain.object.TransactionWallet;
+
+/**
+ * Keeps a local copy of the wallet transactions of addresses, in a log file
+ * per address, and brings it up to date with the transactions listed since
+ * the previous sync :
+ *
+ * <pre>
+ * WalletTransactionSync sync = new WalletTransactionSync(Paths.get("transactions"));
+ * List&lt;TransactionWallet&gt; changes = sync.sync(address);
+ * List&lt;TransactionWallet&gt; history = sync.getTransactions(address);
+ * </pre>
+ *
+ * The node lists the transactions in the order the wallet received them, most
+ * recent last, and pages with count and skip from the most recent one. The
+ * high water mark of a log is the last of its first transactions confirmed by
+ * at least {@link #setConfirmationDepth(int)} blocks : a sync pages back to
+ * the mark, adds the new transactions, updates the confirmations of the ones
+ * after the mark and removes the ones the wallet dropped meanwhile. A log
+ * without mark, or whose mark is not listed any more, is fetched entirely.
+ *
+ * The confirmations of the transactions older than the mark are the ones of
+ * their last sync.
+ *
+ * @version 1.0
+ */
+public class WalletTransactionSync {
+
+	/**
+	 * Default number of transactions requested per page
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 100;
+
+	/**
+	 * Default number of confirmations after which a transaction is not
+	 * fetched again
+	 */
+	public static final int DEFAULT_CONFIRMATION_DEPTH = 6;
+
+	private static final String WALLET_LOG = "wallet";
+
+	private final Path directory;
+	private final Map<String, TransactionLog> logs = new HashMap<String, TransactionLog>();
+
+	private int pageSize = DEFAULT_PAGE_SIZE;
+	private int confirmationDepth = DEFAULT_CONFIRMATION_DEPTH;
+
+	/**
+	 * Page of transactions, most recent last
+	 */
+	private interface PageReader {
+		List<TransactionWallet> read(long count, long skip) throws MultichainException;
+	}
+
+	/**
+	 * @param directory directory of the log files
+	 */
+	public WalletTransactionSync(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Fetches the transactions of the address listed by
+	 * listaddresstransactions since the previous sync.
+	 *
+	 * @param address the address
+	 * @return the transactions added or updated, oldest first
+	 * @throws MultichainException
+	 */
+	public synchronized List<TransactionWallet> sync(String address) throws MultichainException {
+		return sync(addressLog(address), (count, skip) -> WalletTransactionCommand.listAddressTransactions(address, count, skip));
+	}
+
+	/**
+	 * Fetches the transactions of the whole wallet listed by
+	 * listwallettransactions since the previous sync.
+	 *
+	 * @return the transactions added or updated, oldest first
+	 * @throws MultichainException
+	 */
+	public synchronized List<TransactionWallet> syncWallet() throws MultichainException {
+		return sync(log(WALLET_LOG), (count, skip) -> WalletTransactionCommand.listWalletTransaction(count, skip));
+	}
+
+	/**
+	 * @param address the address
+	 * @return the transactions of the address in the log, oldest first
+	 * @throws MultichainException if the log can not be read
+	 */
+	public synchronized List<TransactionWallet> getTransactions(String address) throws MultichainException {
+		return new ArrayList<TransactionWallet>(addressLog(address).getTransactions());
+	}
+
+	/**
+	 * @return the transactions of the wallet in the log, oldest first
+	 * @throws MultichainException if the log can not be read
+	 */
+	public synchronized List<TransactionWallet> getWalletTransactions() throws MultichainException {
+		return new ArrayList<TransactionWallet>(log(WALLET_LOG).getTransactions());
+	}
+
+	/**
+	 * @param pageSize number of transactions requested per page
+	 */
+	public synchronized void setPageSize(int pageSize) {
+		this.pageSize = Math.max(1, pageSize);
+	}
+
+	/**
+	 * @param confirmationDepth number of confirmations after which a
+	 *            transaction is not fetched again
+	 */
+	public synchronized void setConfirmationDepth(int confirmationDepth) {
+		this.confirmationDepth = Math.max(1, confirmationDepth);
+	}
+
+	private List<TransactionWallet> sync(TransactionLog log, PageReader reader) throws MultichainException {
+		String mark = null;
+		for (TransactionWallet transaction : log.getTransactions()) {
+			if (transaction.getConfirmations() < confirmationDepth) {
+				break;
+			}
+			mark = transaction.getTxid();
+		}
+
+		// Transactions more recent than the mark, most recent first
+		Map<String, TransactionWallet> recent = new LinkedHashMap<String, TransactionWallet>();
+		boolean markFound = false;
+		for (long skip = 0; !markFound; skip += pageSize) {
+			List<TransactionWallet> page = reader.read(pageSize, skip);
+			for (int i = page.size() - 1; i >= 0 && !markFound; i--) {
+				TransactionWallet transaction = page.get(i);
+				if (transaction.getTxid().equals(mark)) {
+					markFound = true;
+				} else if (!recent.containsKey(transaction.getTxid())) {
+					recent.put(transaction.getTxid(), transaction);
+				}
+			}
+			if (page.size() < pageSize) {
+				break;
+			}
+		}
+
+		List<String> removed = new ArrayList<String>();
+		boolean afterMark = mark == null || !markFound;
+		for (TransactionWallet logged : log.getTransactions()) {
+			if (afterMark && !recent.containsKey(logged.getTxid())) {
+				removed.add(logged.getTxid());
+			}
+			if (logged.getTxid().equals(mark)) {
+				afterMark = true;
+			}
+		}
+
+		List<TransactionWallet> fetched = new ArrayList<TransactionWallet>(recent.values());
+		Collections.reverse(fetched);
+		List<TransactionWallet> written = new ArrayList<TransactionWallet>();
+		List<TransactionWallet> added = new ArrayList<TransactionWallet>();
+		for (TransactionWallet transaction : fetched) {
+			TransactionWallet logged = log.get(transaction.getTxid());
+			if (logged == null) {
+				added.add(transaction);
+			} else if (changed(logged, transaction)) {
+				written.add(transaction);
+			}
+		}
+		written.addAll(added);
+
+		log.write(written, removed);
+		return written;
+	}
+
+	private static boolean changed(TransactionWallet logged, TransactionWallet fetched) {
+		return logged.getConfirmations() != fetched.getConfirmations() || !Objects.equals(logged.getBlockhash(), fetched.getBlockhash())
+				|| logged.getBlockindex() != fetched.getBlockindex();
+	}
+
+	/**
+	 * The address names its log file : anything but Base58 could lead out of
+	 * the directory, or to the log of the wallet.
+	 */
+	private TransactionLog addressLog(String address) throws MultichainException {
+		MultichainTestParameter.isNotNullOrEmpty("address", address);
+		if (!Base58.isBase58(address)) {
+			throw new MultichainException("address", "invalid address " + address);
+		}
+		return log(address);
+	}
+
+	private TransactionLog log(String name) throws MultichainException {
+		TransactionLog log = logs.get(name);
+		if (log == null) {
+			log = new TransactionLog(directory.resolve(name + ".log"));
+			logs.put(name, log);
+		}
+		return log;
+	}
+
+}
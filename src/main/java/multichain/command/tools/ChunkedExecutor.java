@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import multichain.command.MultichainException;
+
+/**
+ * Splits a list into chunks of bounded size and runs a call per chunk,
+ * concurrently, for the commands taking a list of items in one argument
+ * (addresses of grant or getmultibalances for instance).
+ *
+ * Each call of {@link #submit(List, int, int, ChunkCall)} runs its chunks in
+ * its own pool of daemon threads, shut down once the last chunk is done.
+ *
+ * @version 1.0
+ */
+public class ChunkedExecutor {
+
+	private static final AtomicInteger POOLS = new AtomicInteger();
+
+	/**
+	 * Call of a command on a chunk of items.
+	 *
+	 * @param <T> type of the items
+	 * @param <R> type of the result
+	 */
+	public interface ChunkCall<T, R> {
+		R call(List<T> chunk) throws MultichainException;
+	}
+
+	/**
+	 * @param items the items
+	 * @param chunkSize maximum number of items per chunk
+	 * @return the chunks, in the order of the items
+	 * @throws MultichainException if the chunk size is not positive
+	 */
+	public static <T> List<List<T>> chunks(List<T> items, int chunkSize) throws MultichainException {
+		MultichainTestParameter.valueIsPositive("chunkSize", chunkSize);
+		List<List<T>> chunks = new ArrayList<List<T>>((items.size() + chunkSize - 1) / chunkSize);
+		for (int from = 0; from < items.size(); from += chunkSize) {
+			chunks.add(new ArrayList<T>(items.subList(from, Math.min(items.size(), from + chunkSize))));
+		}
+		return chunks;
+	}
+
+	/**
+	 * Runs the call on every chunk of the items, at most parallelism chunks at
+	 * a time.
+	 *
+	 * @param items the items
+	 * @param chunkSize maximum number of items per chunk
+	 * @param parallelism maximum number of chunks running at a time
+	 * @param call the call of a chunk
+	 * @return the result of every chunk, in the order of the chunks,
+	 *         completed exceptionally with the error of the chunk if it
+	 *         failed
+	 * @throws MultichainException if the chunk size or the parallelism is not
+	 *             positive
+	 */
+	public static <T, R> List<CompletableFuture<R>> submit(List<T> items, int chunkSize, int parallelism, ChunkCall<T, R> call)
+			throws MultichainException {
+		MultichainTestParameter.valueIsPositive("parallelism", parallelism);
+		List<List<T>> chunks = chunks(items, chunkSize);
+		List<CompletableFuture<R>> results = new ArrayList<CompletableFuture<R>>(chunks.size());
+		if (chunks.isEmpty()) {
+			return results;
+		}
+
+		int pool = POOLS.incrementAndGet();
+		AtomicInteger threads = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, chunks.size()), runnable -> {
+			Thread thread = new Thread(runnable, "chunked-executor-" + pool + "-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			for (List<T> chunk : chunks) {
+				CompletableFuture<R> result = new CompletableFuture<R>();
+				executor.execute(() -> {
+					try {
+						result.complete(call.call(chunk));
+					} catch (MultichainException | RuntimeException e) {
+						result.completeExceptionally(e);
+					}
+				});
+				results.add(result);
+			}
+		} finally {
+			executor.shutdown();
+		}
+		return results;
+	}
+
+}
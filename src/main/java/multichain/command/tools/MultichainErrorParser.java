@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.tools;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import multichain.command.MultichainInsufficientFundsException;
+import multichain.command.MultichainInvalidParameterException;
+import multichain.command.MultichainRPCException;
+import multichain.command.MultichainRejectedException;
+import multichain.command.MultichainTransientException;
+
+/**
+ * Decodes the error output of multichain-cli into a typed
+ * {@link MultichainRPCException}.
+ *
+ * multichain-cli reports errors on the error stream as :
+ * <pre>
+ * error code: -28
+ * error message:
+ * Loading block index...
+ * </pre>
+ * or, for older versions :
+ * <pre>
+ * error: {"code":-28,"message":"Loading block index..."}
+ * </pre>
+ * or, when the node can not be reached at all :
+ * <pre>
+ * error: couldn't connect to server
+ * </pre>
+ *
+ * @version 1.0
+ */
+public class MultichainErrorParser {
+
+	private static final Pattern CODE_MESSAGE = Pattern.compile("error code:\\s*(-?\\d+)\\s*(?:error message:\\s*)?(.*)", Pattern.DOTALL);
+	private static final Pattern JSON_ERROR = Pattern.compile("\"code\"\\s*:\\s*(-?\\d+)\\s*,\\s*\"message\"\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)*)\"", Pattern.DOTALL);
+	private static final Pattern PLAIN_ERROR = Pattern.compile("error:\\s*(.*)", Pattern.DOTALL);
+
+	/**
+	 * Messages the node (or the client) returns while it can not serve any
+	 * command for the moment, whatever the error code.
+	 */
+	private static final String[] TRANSIENT_MESSAGES = {
+			"work queue depth exceeded",
+			"couldn't connect to server",
+			"http error 503",
+			"loading block index",
+			"loading wallet",
+			"rewinding blocks",
+			"verifying blocks",
+			"verifying wallet",
+			"activating best chain",
+			"rescanning",
+			"timeout on transient error" };
+
+	/**
+	 * @param command the command which failed
+	 * @param errorOutput the error output of multichain-cli
+	 * @return the typed exception for this error
+	 */
+	public static MultichainRPCException parse(String command, String errorOutput) {
+		String output = errorOutput == null ? "" : errorOutput.trim();
+		int code = MultichainRPCException.NO_CODE;
+		String message = output;
+
+		Matcher matcher = CODE_MESSAGE.matcher(output);
+		if (matcher.find()) {
+			code = Integer.parseInt(matcher.group(1));
+			message = matcher.group(2).trim();
+		} else if ((matcher = JSON_ERROR.matcher(output)).find()) {
+			code = Integer.parseInt(matcher.group(1));
+			message = matcher.group(2).replace("\\\"", "\"").trim();
+		} else if ((matcher = PLAIN_ERROR.matcher(output)).find()) {
+			message = matcher.group(1).trim();
+		}
+
+		return create(command, code, message);
+	}
+
+	/**
+	 * @param command the command which failed
+	 * @param code the RPC error code
+	 * @param message the RPC error message
+	 * @return the typed exception for this error
+	 */
+	public static MultichainRPCException create(String command, int code, String message) {
+		if (isTransient(code, message)) {
+			return new MultichainTransientException(command, code, message);
+		}
+		switch (code) {
+		case MultichainRPCException.RPC_WALLET_INSUFFICIENT_FUNDS:
+			return new MultichainInsufficientFundsException(command, code, message);
+		case MultichainRPCException.RPC_WALLET_ERROR:
+			if (message.toLowerCase().contains("insufficient")) {
+				return new MultichainInsufficientFundsException(command, code, message);
+			}
+			return new MultichainRPCException(command, code, message);
+		case MultichainRPCException.RPC_TYPE_ERROR:
+		case MultichainRPCException.RPC_INVALID_ADDRESS_OR_KEY:
+		case MultichainRPCException.RPC_INVALID_PARAMETER:
+			return new MultichainInvalidParameterException(command, code, message);
+		case MultichainRPCException.RPC_VERIFY_ERROR:
+		case MultichainRPCException.RPC_VERIFY_REJECTED:
+		case MultichainRPCException.RPC_VERIFY_ALREADY_IN_CHAIN:
+			return new MultichainRejectedException(command, code, message);
+		default:
+			return new MultichainRPCException(command, code, message);
+		}
+	}
+
+	private static boolean isTransient(int code, String message) {
+		if (code == MultichainRPCException.RPC_IN_WARMUP || code == MultichainRPCException.RPC_CLIENT_NOT_CONNECTED
+				|| code == MultichainRPCException.RPC_CLIENT_IN_INITIAL_DOWNLOAD) {
+			return true;
+		}
+		String lowerMessage = message.toLowerCase();
+		for (String transientMessage : TRANSIENT_MESSAGES) {
+			if (lowerMessage.contains(transientMessage)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -8,6 +8,8 @@
 package multichain.command.tools;
 
 import multichain.command.MultichainException;
+import multichain.command.MultichainParameterException;
+import multichain.object.Quantity;
 
 /**
  * @author Ub - H. MARTEAU
@@ -15,29 +17,54 @@ import multichain.command.MultichainException;
  */
 public class MultichainTestParameter {
 
+	private static volatile boolean lightweightExceptions = false;
+
+	/**
+	 * Validation failures throw a {@link MultichainParameterException}. By
+	 * default it is logged and records its stack trace like any
+	 * MultichainException ; in lightweight mode it does neither, which keeps
+	 * validation failures cheap on high-throughput paths.
+	 *
+	 * @param lightweight true to throw lightweight exceptions
+	 */
+	public static void setLightweightExceptions(boolean lightweight) {
+		lightweightExceptions = lightweight;
+	}
+
+	/**
+	 * @return true if validation failures throw lightweight exceptions
+	 */
+	public static boolean isLightweightExceptions() {
+		return lightweightExceptions;
+	}
+
+	private static MultichainParameterException invalid(String name, String reason) {
+		return new MultichainParameterException(name, reason, lightweightExceptions);
+	}
+
 	public static void isNotNullOrEmpty(String name, String string) throws MultichainException{
 		if (string != null) {
 			if (string.isEmpty()) {
-				throw new MultichainException(name, "is null or empty.");
+				throw invalid(name, "is null or empty.");
 			}
 		} else {
-			throw new MultichainException(name, "is null or empty.");
+			throw invalid(name, "is null or empty.");
 		}
 	}
 
 	public static void isNotNull(String name, Object object) throws MultichainException{
 		if (object == null) {
-			throw new MultichainException(name, "is null or empty.");
+			throw invalid(name, "is null or empty.");
 		}
 	}
 
 	public static void isNotNullOrEmpty(String name, Object[] array) throws MultichainException{
 		if(array != null){
 			if(array.length<=0){
-				throw new MultichainException(name, "size is 0.");
+				throw invalid(name, "size is 0.");
 			}
 		}else{
-			throw new MultichainException(name, "is null.");
+			throw invalid(name, "is null.");
 		}
 	}
 
@@ -51,10 +78,10 @@ public class MultichainTestParameter {
 	public static void arrayNotContainNullOrEmptyValues(String name,Object[] array) throws MultichainException{
 		for (Object object : array) {
 			if(object==null){
-				throw new MultichainException(name, "array contain null value.");
+				throw invalid(name, "array contain null value.");
 			}else if(object.getClass()==String.class){
 				if(((String)object).isEmpty()){
-					throw new MultichainException(name, "array contain empty string.");				}
+					throw invalid(name, "array contain empty string.");				}
 			}
 		}
 	}
@@ -62,9 +89,9 @@ public class MultichainTestParameter {
 	public static void floatArrayContainNullOrNegativeValue(String name, float[]array) throws MultichainException{
 		for (float f : array) {
 			if(f<0){
-				throw new MultichainException(name, "array contain negative value.");
+				throw invalid(name, "array contain negative value.");
 			}else if(f ==0){
-				throw new MultichainException(name, "array contain null values.");
+				throw invalid(name, "array contain null values.");
 			}
 		}
 	}
@@ -72,40 +99,55 @@ public class MultichainTestParameter {
 	public static void intArrayContainNullOrNegativeValue(String name, int[]array) throws MultichainException{
 		for (int i : array) {
 			if(i<0){
-				throw new MultichainException(name, "array contain negative value.");
+				throw invalid(name, "array contain negative value.");
 			}else if(i ==0){
-				throw new MultichainException(name, "array contain null values.");
+				throw invalid(name, "array contain null values.");
 			}
 		}
 	}
 
 	public static void valueIsNotNegative(String name, int value) throws MultichainException{
 		if(value < 0){
-			throw new MultichainException(name	, "is negative.");
+			throw invalid(name, "is negative.");
+		}
+	}
+
+	public static void valueIsNotNegative(String name, long value) throws MultichainException{
+		if(value < 0){
+			throw invalid(name, "is negative.");
 		}
 	}
 
 	public static void valueIsPositive(String name, int value) throws MultichainException{
 		if(value < 0){
-			throw new MultichainException(name	, "is negative.");
+			throw invalid(name, "is negative.");
 		}else if (value ==0){
-			throw new MultichainException(name, "is null.");
+			throw invalid(name, "is null.");
 		}
 	}
 
 	public static void valueIsPositive(String name, float value) throws MultichainException{
 		if(value < 0){
-			throw new MultichainException(name	, "is negative.");
+			throw invalid(name, "is negative.");
 		}else if (value ==0){
-			throw new MultichainException(name, "is null.");
+			throw invalid(name, "is null.");
 		}
 	}
 
 	public static void valueIsPositive(String name, double value) throws MultichainException{
 		if(value < 0){
-			throw new MultichainException(name	, "is negative.");
+			throw invalid(name, "is negative.");
 		}else if (value ==0){
-			throw new MultichainException(name, "is null.");
+			throw invalid(name, "is null.");
+		}
+	}
+
+	public static void valueIsPositive(String name, Quantity value) throws MultichainException{
+		isNotNull(name, value);
+		if(value.signum() < 0){
+			throw invalid(name, "is negative.");
+		}else if (value.signum() == 0){
+			throw invalid(name, "is null.");
 		}
 	}
 
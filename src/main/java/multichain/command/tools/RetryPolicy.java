@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.tools;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import multichain.command.MultichainException;
+import multichain.command.MultichainRPCException;
+
+/**
+ * Retry policy applied to the commands failing with a transient error (see
+ * {@link MultichainRPCException#isTransient()}) or with one of the additional
+ * retryable codes.
+ *
+ * The delay before attempt n+1 grows exponentially from the initial delay up to
+ * the maximum delay, and is jittered to avoid retrying all the callers at the
+ * same time : with a jitter of 0.5, the delay is randomly chosen between 50%
+ * and 100% of the exponential delay.
+ *
+ * @version 1.0
+ */
+public class RetryPolicy {
+
+	/**
+	 * No retry : every command is executed only once.
+	 */
+	public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0);
+
+	private final int maxAttempts;
+	private final long initialDelayMillis;
+	private final long maxDelayMillis;
+	private double multiplier = 2.0;
+	private double jitter = 0.5;
+	private final Set<Integer> retryableCodes = new HashSet<Integer>();
+
+	/**
+	 * @param maxAttempts maximum number of executions of a command, first one included
+	 * @param initialDelayMillis delay before the first retry
+	 * @param maxDelayMillis maximum delay between two attempts
+	 */
+	public RetryPolicy(int maxAttempts, long initialDelayMillis, long maxDelayMillis) {
+		this.maxAttempts = Math.max(1, maxAttempts);
+		this.initialDelayMillis = Math.max(0, initialDelayMillis);
+		this.maxDelayMillis = Math.max(this.initialDelayMillis, maxDelayMillis);
+	}
+
+	/**
+	 * @param exception the exception thrown by the attempt
+	 * @param attempt number of the attempt which failed, starting at 1
+	 * @return true if the command has to be executed again
+	 */
+	public boolean shouldRetry(MultichainException exception, int attempt) {
+		if (attempt >= maxAttempts || !(exception instanceof MultichainRPCException)) {
+			return false;
+		}
+		MultichainRPCException rpcException = (MultichainRPCException) exception;
+		synchronized (retryableCodes) {
+			return rpcException.isTransient() || retryableCodes.contains(rpcException.getCode());
+		}
+	}
+
+	/**
+	 * @param attempt number of the attempt which failed, starting at 1
+	 * @return the jittered delay to wait before the next attempt
+	 */
+	public long delayMillis(int attempt) {
+		double exponential = initialDelayMillis * Math.pow(multiplier, attempt - 1);
+		double delay = Math.min(exponential, maxDelayMillis);
+		double jittered = delay * (1 - jitter * ThreadLocalRandom.current().nextDouble());
+		return Math.round(jittered);
+	}
+
+	/**
+	 * @param codes RPC error codes to retry, in addition to the transient errors
+	 */
+	public void addRetryableCodes(int... codes) {
+		synchronized (retryableCodes) {
+			for (int code : codes) {
+				retryableCodes.add(code);
+			}
+		}
+	}
+
+	/**
+	 * @return the maxAttempts
+	 */
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * @return the initialDelayMillis
+	 */
+	public long getInitialDelayMillis() {
+		return initialDelayMillis;
+	}
+
+	/**
+	 * @return the maxDelayMillis
+	 */
+	public long getMaxDelayMillis() {
+		return maxDelayMillis;
+	}
+
+	/**
+	 * @return the multiplier
+	 */
+	public double getMultiplier() {
+		return multiplier;
+	}
+
+	/**
+	 * @param multiplier the multiplier applied to the delay after each attempt, at least 1
+	 */
+	public void setMultiplier(double multiplier) {
+		this.multiplier = Math.max(1.0, multiplier);
+	}
+
+	/**
+	 * @return the jitter
+	 */
+	public double getJitter() {
+		return jitter;
+	}
+
+	/**
+	 * @param jitter the part of the delay which is random, between 0 (none) and 1 (full jitter)
+	 */
+	public void setJitter(double jitter) {
+		this.jitter = Math.min(1.0, Math.max(0.0, jitter));
+	}
+
+}
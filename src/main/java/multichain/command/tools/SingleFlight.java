@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.tools;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import multichain.command.MultichainException;
+
+/**
+ * Deduplicates concurrent identical calls : while a call for a given key is in
+ * flight, every other caller asking for the same key waits for it and receives
+ * the same result (or the same exception) instead of starting a new call.
+ *
+ * The result is the same instance for all these callers : calls returning an
+ * object which can be modified go through
+ * {@link #execute(String, Call, Function)}, giving each caller its own copy.
+ *
+ * Nothing is cached : once the call completes, the next caller triggers a new
+ * one.
+ *
+ * @version 1.0
+ */
+public class SingleFlight {
+
+	/**
+	 * A call that can be shared between concurrent callers.
+	 *
+	 * @param <T> type of the result
+	 */
+	public interface Call<T> {
+		T call() throws MultichainException;
+	}
+
+	private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<String, CompletableFuture<Object>>();
+
+	/**
+	 * Builds the key identifying a call from the command and its arguments.
+	 *
+	 * @param command name of the command
+	 * @param args arguments of the command
+	 * @return the key of the call
+	 */
+	public static String key(String command, Object... args) {
+		StringBuilder key = new StringBuilder(command);
+		for (Object arg : args) {
+			key.append('\u0000').append(arg);
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Executes the call, or joins the identical call already in flight.
+	 *
+	 * @param key the key identifying the call, see {@link #key(String, Object...)}
+	 * @param call the call to execute if none is in flight for the key
+	 * @return the result of the call, shared by all concurrent callers
+	 * @throws MultichainException
+	 */
+	public <T> T execute(String key, Call<T> call) throws MultichainException {
+		return execute(key, call, Function.identity());
+	}
+
+	/**
+	 * Executes the call, or joins the identical call already in flight, then
+	 * builds the result of the caller from the shared one.
+	 *
+	 * @param key the key identifying the call, see {@link #key(String, Object...)}
+	 * @param call the call to execute if none is in flight for the key,
+	 *            returning an immutable value, for instance the output of a
+	 *            command
+	 * @param result builds the result of each caller from the value shared by
+	 *            all concurrent callers, for instance by parsing the output
+	 * @return the result of the caller
+	 * @throws MultichainException
+	 */
+	@SuppressWarnings("unchecked")
+	public <S, T> T execute(String key, Call<S> call, Function<? super S, T> result) throws MultichainException {
+		CompletableFuture<Object> created = new CompletableFuture<Object>();
+		CompletableFuture<Object> existing = inFlight.putIfAbsent(key, created);
+		if (existing != null) {
+			return result.apply((S) await(existing));
+		}
+
+		S shared;
+		try {
+			shared = call.call();
+		} catch (MultichainException | RuntimeException | Error e) {
+			inFlight.remove(key, created);
+			created.completeExceptionally(e);
+			throw e;
+		}
+		inFlight.remove(key, created);
+		created.complete(shared);
+
+		return result.apply(shared);
+	}
+
+	/**
+	 * @return the number of calls actually in flight
+	 */
+	public int inFlightCount() {
+		return inFlight.size();
+	}
+
+	private static Object await(CompletableFuture<Object> future) throws MultichainException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MultichainException("single flight", "interrupted while waiting for the call in flight");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof MultichainException) {
+				throw (MultichainException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw (Error) cause;
+		}
+	}
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.transfer;
+
+import multichain.object.Quantity;
+
+/**
+ * Transfer of a quantity of an asset from an address to another, in a
+ * {@link TransferPlan}.
+ *
+ * @version 1.0
+ */
+public class Transfer {
+
+	private final String from;
+	private final String to;
+	private final String asset;
+	private final Quantity quantity;
+
+	/**
+	 * @param from the sending address
+	 * @param to the receiving address
+	 * @param asset name, assetref or issue txid of the asset
+	 * @param quantity the quantity sent
+	 */
+	public Transfer(String from, String to, String asset, Quantity quantity) {
+		this.from = from;
+		this.to = to;
+		this.asset = asset;
+		this.quantity = quantity;
+	}
+
+	/**
+	 * @return the from
+	 */
+	public String getFrom() {
+		return from;
+	}
+
+	/**
+	 * @return the to
+	 */
+	public String getTo() {
+		return to;
+	}
+
+	/**
+	 * @return the asset
+	 */
+	public String getAsset() {
+		return asset;
+	}
+
+	/**
+	 * @return the quantity
+	 */
+	public Quantity getQuantity() {
+		return quantity;
+	}
+
+	@Override
+	public String toString() {
+		return from + " -> " + to + " : " + quantity + " " + asset;
+	}
+
+}
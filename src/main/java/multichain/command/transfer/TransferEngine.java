@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.transfer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import multichain.command.MultichainException;
+import multichain.command.RAWTransactionCommand;
+import multichain.command.tools.MultichainTestParameter;
+import multichain.object.SignRawTransactionOut;
+import multichain.object.formatters.RAWTransactionFormatter;
+
+/**
+ * Runs the transfers of a {@link TransferPlan} in multi output transactions,
+ * instead of one call of sendassetfrom per transfer :
+ *
+ * <pre>
+ * TransferEngine engine = new TransferEngine();
+ * engine.setParallelism(8);
+ * TransferReport report = engine.execute(plan);
+ * for (TransferResult failure : report.getFailures()) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * The transfers of an asset between two addresses are first netted, in both
+ * directions, into at most one transfer. The remaining transfers are grouped
+ * by sending address into transactions of at most
+ * {@link #setMaxOutputs(int)} receiving addresses, created with
+ * createrawsendfrom, signed by the wallet and sent.
+ *
+ * The transactions of an address are sent one after the other, in the order
+ * of the plan; once one of them fails, the next ones of the address are
+ * skipped. The addresses are run in parallel, at most
+ * {@link #setParallelism(int)} at a time.
+ *
+ * @version 1.0
+ */
+public class TransferEngine {
+
+	/**
+	 * Default number of receiving addresses per transaction
+	 */
+	public static final int DEFAULT_MAX_OUTPUTS = 100;
+
+	/**
+	 * Default number of sending addresses run at a time
+	 */
+	public static final int DEFAULT_PARALLELISM = 4;
+
+	private static final AtomicInteger ENGINES = new AtomicInteger();
+
+	private volatile int maxOutputs = DEFAULT_MAX_OUTPUTS;
+	private volatile int parallelism = DEFAULT_PARALLELISM;
+
+	/**
+	 * Transaction of a sending address, and the net transfers it settles.
+	 */
+	private static final class Batch {
+		final Map<String, Object> outputs = new LinkedHashMap<String, Object>();
+		final List<TransferPlan.Net> nets = new ArrayList<TransferPlan.Net>();
+	}
+
+	/**
+	 * Runs the transfers of the plan, and waits for all of them.
+	 *
+	 * @param plan the transfers
+	 * @return the outcome of every transfer of the plan
+	 * @throws MultichainException if the plan can not be netted
+	 */
+	public TransferReport execute(TransferPlan plan) throws MultichainException {
+		MultichainTestParameter.isNotNull("plan", plan);
+		long start = System.nanoTime();
+		List<Transfer> transfers = plan.getTransfers();
+		TransferResult[] results = new TransferResult[transfers.size()];
+
+		Map<String, List<Batch>> batches = new LinkedHashMap<String, List<Batch>>();
+		for (TransferPlan.Net net : plan.netted()) {
+			Transfer transfer = net.transfer();
+			if (transfer == null) {
+				complete(results, transfers, net, TransferResult.Status.NETTED, null, null);
+				continue;
+			}
+			List<Batch> source = batches.computeIfAbsent(transfer.getFrom(), from -> new ArrayList<Batch>());
+			Batch batch = source.isEmpty() ? null : source.get(source.size() - 1);
+			if (batch == null || (batch.outputs.size() >= maxOutputs && !batch.outputs.containsKey(transfer.getTo()))) {
+				batch = new Batch();
+				source.add(batch);
+			}
+			@SuppressWarnings("unchecked")
+			Map<String, Object> assets = (Map<String, Object>) batch.outputs.computeIfAbsent(transfer.getTo(),
+					to -> new LinkedHashMap<String, Object>());
+			assets.put(transfer.getAsset(), transfer.getQuantity());
+			batch.nets.add(net);
+		}
+
+		int transactions = 0;
+		for (List<Batch> source : batches.values()) {
+			transactions += source.size();
+		}
+		if (!batches.isEmpty()) {
+			run(batches, transfers, results);
+		}
+		List<TransferResult> report = new ArrayList<TransferResult>(results.length);
+		for (TransferResult result : results) {
+			report.add(result);
+		}
+		return new TransferReport(report, transactions, System.nanoTime() - start);
+	}
+
+	/**
+	 * @param maxOutputs number of receiving addresses per transaction
+	 */
+	public void setMaxOutputs(int maxOutputs) {
+		this.maxOutputs = Math.max(1, maxOutputs);
+	}
+
+	/**
+	 * @param parallelism number of sending addresses run at a time
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = Math.max(1, parallelism);
+	}
+
+	private void run(Map<String, List<Batch>> batches, List<Transfer> transfers, TransferResult[] results) {
+		int engine = ENGINES.incrementAndGet();
+		AtomicInteger threads = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, batches.size()), runnable -> {
+			Thread thread = new Thread(runnable, "transfer-engine-" + engine + "-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<CompletableFuture<Void>> sources = new ArrayList<CompletableFuture<Void>>(batches.size());
+			for (Map.Entry<String, List<Batch>> source : batches.entrySet()) {
+				sources.add(CompletableFuture.runAsync(() -> send(source.getKey(), source.getValue(), transfers, results), executor));
+			}
+			CompletableFuture.allOf(sources.toArray(new CompletableFuture<?>[sources.size()])).join();
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private void send(String from, List<Batch> source, List<Transfer> transfers, TransferResult[] results) {
+		Exception failure = null;
+		for (Batch batch : source) {
+			if (failure != null) {
+				for (TransferPlan.Net net : batch.nets) {
+					complete(results, transfers, net, TransferResult.Status.SKIPPED, null, failure);
+				}
+				continue;
+			}
+			try {
+				String txid = send(from, batch.outputs);
+				for (TransferPlan.Net net : batch.nets) {
+					complete(results, transfers, net, TransferResult.Status.SENT, txid, null);
+				}
+			} catch (MultichainException | RuntimeException e) {
+				failure = e;
+				for (TransferPlan.Net net : batch.nets) {
+					complete(results, transfers, net, TransferResult.Status.FAILED, null, e);
+				}
+			}
+		}
+	}
+
+	private static String send(String from, Map<String, Object> outputs) throws MultichainException {
+		String hex = RAWTransactionCommand.createRawSendFrom(from, outputs, null);
+		SignRawTransactionOut signed = RAWTransactionFormatter.formatSignTransactionOut(RAWTransactionCommand.signRawTransaction(hex));
+		if (!signed.isComplete()) {
+			throw new MultichainException("signrawtransaction", "transaction of " + from + " not completely signed by the wallet");
+		}
+		return RAWTransactionCommand.sendRawTransaction(signed.getHex());
+	}
+
+	private static void complete(TransferResult[] results, List<Transfer> transfers, TransferPlan.Net net, TransferResult.Status status,
+			String txid, Exception error) {
+		for (int origin : net.origins) {
+			results[origin] = new TransferResult(transfers.get(origin), status, txid, error);
+		}
+	}
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.transfer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import multichain.command.MultichainException;
+import multichain.command.tools.MultichainTestParameter;
+import multichain.object.Quantity;
+
+/**
+ * Transfers to run by a {@link TransferEngine}, in the order they are added :
+ *
+ * <pre>
+ * TransferPlan plan = new TransferPlan();
+ * plan.add(address1, address2, "asset1", Quantity.parse("10", 100));
+ * plan.add(address2, address1, "asset1", Quantity.parse("4", 100));
+ * plan.net();   // address1 -> address2 : 6 asset1
+ * </pre>
+ *
+ * @version 1.0
+ */
+public class TransferPlan {
+
+	private final List<Transfer> transfers = new ArrayList<Transfer>();
+
+	/**
+	 * Net transfer of an asset between two addresses, and the transfers of the
+	 * plan it settles.
+	 */
+	static final class Net {
+		final String first;
+		final String second;
+		final String asset;
+		final long multiple;
+		final List<Integer> origins = new ArrayList<Integer>();
+		long raw;
+
+		Net(String first, String second, String asset, long multiple) {
+			this.first = first;
+			this.second = second;
+			this.asset = asset;
+			this.multiple = multiple;
+		}
+
+		/**
+		 * @return the transfer in the direction of the net quantity, null if
+		 *         the transfers cancel out
+		 */
+		Transfer transfer() {
+			if (raw == 0) {
+				return null;
+			}
+			return raw > 0 ? new Transfer(first, second, asset, Quantity.ofRaw(raw, multiple))
+					: new Transfer(second, first, asset, Quantity.ofRaw(-raw, multiple));
+		}
+	}
+
+	/**
+	 * Adds a transfer to the plan.
+	 *
+	 * @param from the sending address
+	 * @param to the receiving address
+	 * @param asset name, assetref or issue txid of the asset
+	 * @param quantity the quantity sent
+	 * @return the plan
+	 * @throws MultichainException
+	 */
+	public TransferPlan add(String from, String to, String asset, Quantity quantity) throws MultichainException {
+		MultichainTestParameter.isNotNullOrEmpty("from", from);
+		MultichainTestParameter.isNotNullOrEmpty("to", to);
+		MultichainTestParameter.isNotNullOrEmpty("asset", asset);
+		MultichainTestParameter.valueIsPositive("quantity", quantity);
+		if (from.equals(to)) {
+			throw new MultichainException("to", "transfer from " + from + " to itself");
+		}
+		transfers.add(new Transfer(from, to, asset, quantity));
+		return this;
+	}
+
+	/**
+	 * @return the transfers, in the order they were added
+	 */
+	public List<Transfer> getTransfers() {
+		return Collections.unmodifiableList(transfers);
+	}
+
+	/**
+	 * @return the number of transfers
+	 */
+	public int size() {
+		return transfers.size();
+	}
+
+	/**
+	 * Sums the transfers of an asset between two addresses, in both
+	 * directions, into at most one transfer.
+	 *
+	 * @return the net transfers, in the order of the first transfer between
+	 *         their addresses
+	 * @throws MultichainException if the quantities of an asset have different
+	 *             multiples, or their sum overflows
+	 */
+	public List<Transfer> net() throws MultichainException {
+		List<Transfer> net = new ArrayList<Transfer>();
+		for (Net entry : netted()) {
+			Transfer transfer = entry.transfer();
+			if (transfer != null) {
+				net.add(transfer);
+			}
+		}
+		return net;
+	}
+
+	List<Net> netted() throws MultichainException {
+		Map<String, Net> nets = new LinkedHashMap<String, Net>();
+		for (int i = 0; i < transfers.size(); i++) {
+			Transfer transfer = transfers.get(i);
+			boolean forward = transfer.getFrom().compareTo(transfer.getTo()) < 0;
+			String first = forward ? transfer.getFrom() : transfer.getTo();
+			String second = forward ? transfer.getTo() : transfer.getFrom();
+			String key = transfer.getAsset() + '\n' + first + '\n' + second;
+
+			Net entry = nets.get(key);
+			if (entry == null) {
+				entry = new Net(first, second, transfer.getAsset(), transfer.getQuantity().getMultiple());
+				nets.put(key, entry);
+			} else if (entry.multiple != transfer.getQuantity().getMultiple()) {
+				throw new MultichainException("quantity", "quantities of " + transfer.getAsset() + " with multiples " + entry.multiple
+						+ " and " + transfer.getQuantity().getMultiple());
+			}
+			try {
+				long raw = transfer.getQuantity().getRaw();
+				entry.raw = Math.addExact(entry.raw, forward ? raw : -raw);
+			} catch (ArithmeticException e) {
+				throw new MultichainException("quantity", "total of " + transfer.getAsset() + " from " + first + " to " + second + " overflows");
+			}
+			entry.origins.add(i);
+		}
+		return new ArrayList<Net>(nets.values());
+	}
+
+}
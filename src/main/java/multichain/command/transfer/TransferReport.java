@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.transfer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Result of a {@link TransferEngine} run : the outcome of every transfer of
+ * the plan, in its order, and the achieved throughput.
+ *
+ * @version 1.0
+ */
+public class TransferReport {
+
+	private final List<TransferResult> results;
+	private final int transactions;
+	private final long elapsedNanos;
+
+	TransferReport(List<TransferResult> results, int transactions, long elapsedNanos) {
+		this.results = Collections.unmodifiableList(results);
+		this.transactions = transactions;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return the outcome of every transfer, in the order of the plan
+	 */
+	public List<TransferResult> getResults() {
+		return results;
+	}
+
+	/**
+	 * @return the transfers failed or skipped
+	 */
+	public List<TransferResult> getFailures() {
+		List<TransferResult> failures = new ArrayList<TransferResult>();
+		for (TransferResult result : results) {
+			if (!result.isSettled()) {
+				failures.add(result);
+			}
+		}
+		return failures;
+	}
+
+	/**
+	 * @param status the status
+	 * @return the number of transfers with this status
+	 */
+	public int getCount(TransferResult.Status status) {
+		int count = 0;
+		for (TransferResult result : results) {
+			if (result.getStatus() == status) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return the number of transactions sent, or attempted
+	 */
+	public int getTransactionCount() {
+		return transactions;
+	}
+
+	/**
+	 * @return the duration of the run, in seconds
+	 */
+	public double getElapsedSeconds() {
+		return elapsedNanos / 1e9;
+	}
+
+	/**
+	 * @return the transfers sent or netted per second
+	 */
+	public double getThroughput() {
+		return elapsedNanos == 0 ? 0 : (getCount(TransferResult.Status.SENT) + getCount(TransferResult.Status.NETTED)) / getElapsedSeconds();
+	}
+
+	@Override
+	public String toString() {
+		return results.size() + " transfers in " + transactions + " transactions, " + getCount(TransferResult.Status.SENT) + " sent, "
+				+ getCount(TransferResult.Status.NETTED) + " netted, " + getCount(TransferResult.Status.FAILED) + " failed, "
+				+ getCount(TransferResult.Status.SKIPPED) + " skipped, " + String.format(Locale.ROOT, "%.1f", getThroughput())
+				+ " transfers/s";
+	}
+
+}
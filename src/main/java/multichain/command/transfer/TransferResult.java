@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.transfer;
+
+/**
+ * Outcome of a transfer of a {@link TransferPlan}.
+ *
+ * @version 1.0
+ */
+public class TransferResult {
+
+	/**
+	 * Outcomes of a transfer.
+	 */
+	public enum Status {
+		/** sent in the transaction {@link TransferResult#getTxid()} */
+		SENT,
+		/** cancelled out by the transfers in the opposite direction */
+		NETTED,
+		/** its transaction failed, see {@link TransferResult#getError()} */
+		FAILED,
+		/** not sent, as an earlier transaction of its address failed */
+		SKIPPED
+	}
+
+	private final Transfer transfer;
+	private final Status status;
+	private final String txid;
+	private final Exception error;
+
+	TransferResult(Transfer transfer, Status status, String txid, Exception error) {
+		this.transfer = transfer;
+		this.status = status;
+		this.txid = txid;
+		this.error = error;
+	}
+
+	/**
+	 * @return the transfer of the plan
+	 */
+	public Transfer getTransfer() {
+		return transfer;
+	}
+
+	/**
+	 * @return the status
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return the id of the transaction settling the transfer, null if none
+	 */
+	public String getTxid() {
+		return txid;
+	}
+
+	/**
+	 * @return the error of the transaction, null if it did not fail
+	 */
+	public Exception getError() {
+		return error;
+	}
+
+	/**
+	 * @return true if the transfer is sent or netted
+	 */
+	public boolean isSettled() {
+		return status == Status.SENT || status == Status.NETTED;
+	}
+
+	@Override
+	public String toString() {
+		return transfer + " " + status + (txid != null ? " " + txid : "") + (error != null ? " " + error.getMessage() : "");
+	}
+
+}
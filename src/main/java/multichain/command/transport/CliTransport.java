@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.transport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.StringJoiner;
+
+/**
+ * Executes the commands with the multichain-cli binary, which has to be in the
+ * path of the process.
+ *
+ * @version 1.0
+ */
+public class CliTransport implements MultichainTransport {
+
+	@Override
+	public TransportResponse execute(String chain, String command, String... parameters) throws IOException, InterruptedException {
+		Runtime rt = Runtime.getRuntime();
+		Process pr;
+
+		if (parameters.length > 0) {
+			String params = "";
+			for (String parameter : parameters) {
+				params = params.concat(parameter + " ");
+			}
+			pr = rt.exec("multichain-cli " + chain + " " + command + " " + params);
+		} else {
+			pr = rt.exec("multichain-cli " + chain + " " + command);
+		}
+		//Get the output from both error stream and output stream
+		StreamGobbler errorGobbler = new StreamGobbler(pr.getErrorStream());
+		StreamGobbler outputGobbler = new StreamGobbler(pr.getInputStream());
+
+		errorGobbler.start();
+		outputGobbler.start();
+
+		int exitValue = pr.waitFor();
+
+		errorGobbler.join();
+		outputGobbler.join();
+
+		pr.getOutputStream().close();
+		return new TransportResponse(exitValue, outputGobbler.output.toString(), errorGobbler.output.toString());
+	}
+
+	/**
+	 * A stream gobbler class to run in different thread to read the output of the command line execution
+	 */
+	static class StreamGobbler extends Thread {
+		private InputStream is;
+		private StringJoiner output = new StringJoiner("\n");
+
+		StreamGobbler(InputStream is) {
+			this.is = is;
+		}
+
+		public void run() {
+			try(BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
+				String line;
+				while ( (line = br.readLine()) != null)
+					output.add(line);
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.transport;
+
+import java.io.IOException;
+
+/**
+ * Carries a command to a MultiChain node and brings back its raw output.
+ *
+ * The parameters are the ones multichain-cli receives on its command line :
+ * Json values are already encoded, and a parameter may hold several
+ * arguments separated by spaces.
+ *
+ * Implementations are used concurrently by all the commands and must be
+ * thread safe.
+ *
+ * @version 1.0
+ */
+public interface MultichainTransport {
+
+	/**
+	 * @param chain name of the chain
+	 * @param command name of the command, in lower case
+	 * @param parameters parameters of the command
+	 * @return the exit code and outputs of the command
+	 * @throws IOException if the node can not be reached
+	 * @throws InterruptedException
+	 */
+	TransportResponse execute(String chain, String command, String... parameters) throws IOException, InterruptedException;
+
+}
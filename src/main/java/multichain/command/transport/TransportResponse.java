@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.command.transport;
+
+/**
+ * Raw result of a command, as returned by multichain-cli : the exit code, the
+ * standard output (the result) and the error output (the error, if any).
+ *
+ * @version 1.0
+ */
+public class TransportResponse {
+
+	private final int exitCode;
+	private final String output;
+	private final String error;
+
+	/**
+	 * @param exitCode 0 if the command succeeded
+	 * @param output the standard output
+	 * @param error the error output
+	 */
+	public TransportResponse(int exitCode, String output, String error) {
+		this.exitCode = exitCode;
+		this.output = output == null ? "" : output;
+		this.error = error == null ? "" : error;
+	}
+
+	/**
+	 * @param output the result of the command
+	 * @return a successful response
+	 */
+	public static TransportResponse success(String output) {
+		return new TransportResponse(0, output, "");
+	}
+
+	/**
+	 * @param code the RPC error code
+	 * @param message the RPC error message
+	 * @return a failed response, with the error formatted as multichain-cli does
+	 */
+	public static TransportResponse error(int code, String message) {
+		return new TransportResponse(1, "", "error code: " + code + "\nerror message:\n" + message);
+	}
+
+	/**
+	 * @return the exitCode
+	 */
+	public int getExitCode() {
+		return exitCode;
+	}
+
+	/**
+	 * @return the output
+	 */
+	public String getOutput() {
+		return output;
+	}
+
+	/**
+	 * @return the error
+	 */
+	public String getError() {
+		return error;
+	}
+
+}
@@ -18,6 +18,11 @@ import multichain.command.tools.MultichainTestParameter;
  * @version 1.0
  */
 public class AddressBalanceAsset {
+	/**
+	 * Name of the asset standing for the native currency of the chain
+	 */
+	public static final String NATIVE_CURRENCY = "";
+
 	String address;
 	List<BalanceAssetBase> assets;
 
@@ -28,7 +33,11 @@ public class AddressBalanceAsset {
 	public void isFilled() throws MultichainException {
 		MultichainTestParameter.isNotNullOrEmpty("address", address);
 		for (BalanceAssetBase asset : assets) {
-			asset.isFilled();
+			if (NATIVE_CURRENCY.equals(asset.getName())) {
+				MultichainTestParameter.valueIsPositive("qty", asset.getQty());
+			} else {
+				asset.isFilled();
+			}
 		}
 	}
 
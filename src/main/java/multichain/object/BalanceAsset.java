@@ -22,6 +22,8 @@ public class BalanceAsset extends BalanceAssetBase {
 	Object details;
 	String type;
 	long raw;
+	double issueqty;
+	long issueraw;
 	String issuetxid;
 	List<String> addresses = new ArrayList<String>();
 	boolean issue;
@@ -129,16 +131,28 @@ public class BalanceAsset extends BalanceAssetBase {
 		this.raw = raw;
 	}
 	/**
-	 * @return the raw
+	 * @return the quantity issued, as listed by listassets
+	 */
+	public double getIssueqty() {
+		return issueqty;
+	}
+	/**
+	 * @param issueqty the issueqty to set
+	 */
+	public void setIssueqty(double issueqty) {
+		this.issueqty = issueqty;
+	}
+	/**
+	 * @return the raw quantity issued, as listed by listassets
 	 */
 	public long getIssueraw() {
-		return raw;
+		return issueraw;
 	}
 	/**
-	 * @param raw the raw to set
+	 * @param issueraw the issueraw to set
 	 */
-	public void setIssueraw(long raw) {
-		this.raw = raw;
+	public void setIssueraw(long issueraw) {
+		this.issueraw = issueraw;
 	}
 	/**
 	 * @return the issuetxid
@@ -7,6 +7,8 @@
  */
 package multichain.object;
 
+import com.google.gson.annotations.SerializedName;
+
 /**
  * @author Ub - H. MARTEAU
  * @version 1.0
@@ -17,6 +19,8 @@ public class Permission {
 	String type;
     long startblock;
     long endblock;
+	@SerializedName("for")
+	PermissionEntity entity;
 	/**
 	 * @return the type
 	 */
@@ -65,5 +69,18 @@ public class Permission {
 	public void setAddress(String address) {
 		this.address = address;
 	}
+	/**
+	 * @return the stream or asset of the permission, null for a global
+	 *         permission
+	 */
+	public PermissionEntity getEntity() {
+		return entity;
+	}
+	/**
+	 * @param entity the entity to set
+	 */
+	public void setEntity(PermissionEntity entity) {
+		this.entity = entity;
+	}
 
 }
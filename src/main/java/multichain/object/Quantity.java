@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.object;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Exact quantity of an asset : a number of raw units, the quantity times the
+ * multiple of the asset (100 for an asset issued with units of 0.01).
+ *
+ * <pre>
+ * Quantity quantity = Quantity.parse("12.35", 100);   // raw 1235
+ * IssueCommand.sendAssetFrom(from, to, "asset1", quantity.plus(fee));
+ * </pre>
+ *
+ * Unlike float and double amounts, quantities are neither rounded when added
+ * nor when sent : the parameter of the command is the decimal value written
+ * from the raw units. The static methods work on raw units directly, in long
+ * arithmetic failing on overflow, for the paths that do not allocate a
+ * Quantity per amount.
+ *
+ * @version 1.0
+ */
+public final class Quantity extends Number implements Comparable<Quantity> {
+
+	/**
+	 * Raw units per unit in which every quantity of the chains is exact :
+	 * MultiChain has no unit finer than 0.00000001, for the native currency as
+	 * for the assets.
+	 */
+	public static final long FINEST_MULTIPLE = 100000000L;
+
+	private static final long serialVersionUID = 1L;
+
+	private final long raw;
+	private final long multiple;
+
+	private Quantity(long raw, long multiple) {
+		this.raw = raw;
+		this.multiple = multiple;
+	}
+
+	/**
+	 * @param raw number of raw units
+	 * @param multiple raw units per unit of the asset
+	 * @return the quantity
+	 * @throws IllegalArgumentException if the multiple is not positive
+	 */
+	public static Quantity ofRaw(long raw, long multiple) {
+		checkMultiple(multiple);
+		return new Quantity(raw, multiple);
+	}
+
+	/**
+	 * @param decimal decimal quantity, for instance "12.35"
+	 * @param multiple raw units per unit of the asset
+	 * @return the quantity
+	 * @throws NumberFormatException if the decimal is not a number
+	 * @throws ArithmeticException if the decimal is finer than the units of
+	 *             the asset, or out of range
+	 */
+	public static Quantity parse(CharSequence decimal, long multiple) {
+		return new Quantity(parseRaw(decimal, multiple), multiple);
+	}
+
+	/**
+	 * @param quantity the quantity, for instance the result of a command
+	 * @param multiple raw units per unit of the asset
+	 * @return the quantity rounded to the nearest raw unit
+	 */
+	public static Quantity round(double quantity, long multiple) {
+		checkMultiple(multiple);
+		return new Quantity(Math.round(quantity * multiple), multiple);
+	}
+
+	/**
+	 * @return the number of raw units
+	 */
+	public long getRaw() {
+		return raw;
+	}
+
+	/**
+	 * @return the raw units per unit of the asset
+	 */
+	public long getMultiple() {
+		return multiple;
+	}
+
+	/**
+	 * @param other quantity of the same asset
+	 * @return the sum
+	 * @throws ArithmeticException on overflow
+	 */
+	public Quantity plus(Quantity other) {
+		checkSameMultiple(other);
+		return new Quantity(Math.addExact(raw, other.raw), multiple);
+	}
+
+	/**
+	 * @param other quantity of the same asset
+	 * @return the difference
+	 * @throws ArithmeticException on overflow
+	 */
+	public Quantity minus(Quantity other) {
+		checkSameMultiple(other);
+		return new Quantity(Math.subtractExact(raw, other.raw), multiple);
+	}
+
+	/**
+	 * @param factor the factor
+	 * @return the quantity multiplied by the factor
+	 * @throws ArithmeticException on overflow
+	 */
+	public Quantity times(long factor) {
+		return new Quantity(Math.multiplyExact(raw, factor), multiple);
+	}
+
+	/**
+	 * @return -1, 0 or 1 as the quantity is negative, zero or positive
+	 */
+	public int signum() {
+		return Long.signum(raw);
+	}
+
+	/**
+	 * @return the exact decimal value
+	 */
+	public BigDecimal toBigDecimal() {
+		return new BigDecimal(toDecimal(raw, multiple));
+	}
+
+	@Override
+	public int intValue() {
+		return (int) (raw / multiple);
+	}
+
+	@Override
+	public long longValue() {
+		return raw / multiple;
+	}
+
+	@Override
+	public float floatValue() {
+		return (float) doubleValue();
+	}
+
+	@Override
+	public double doubleValue() {
+		return (double) raw / multiple;
+	}
+
+	/**
+	 * Compares quantities of the same asset.
+	 *
+	 * @throws IllegalArgumentException if the multiples differ
+	 */
+	@Override
+	public int compareTo(Quantity other) {
+		checkSameMultiple(other);
+		return Long.compare(raw, other.raw);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof Quantity)) {
+			return false;
+		}
+		Quantity quantity = (Quantity) other;
+		return raw == quantity.raw && multiple == quantity.multiple;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(raw) * 31 + Long.hashCode(multiple);
+	}
+
+	/**
+	 * @return the decimal value, as given to the commands
+	 */
+	@Override
+	public String toString() {
+		return toDecimal(raw, multiple);
+	}
+
+	/**
+	 * @param quantity the quantity, for instance the result of a command
+	 * @param multiple raw units per unit of the asset
+	 * @return the number of raw units, rounded to the nearest one
+	 * @throws ArithmeticException if the quantity is out of range
+	 */
+	public static long toRaw(double quantity, long multiple) {
+		checkMultiple(multiple);
+		double raw = Math.rint(quantity * multiple);
+		if (Double.isNaN(raw) || raw >= 0x1p63 || raw < -0x1p63) {
+			throw new ArithmeticException("quantity " + quantity + " out of range");
+		}
+		return (long) raw;
+	}
+
+	/**
+	 * @param raw number of raw units
+	 * @param multiple raw units per unit of the asset
+	 * @return the nearest double of the quantity
+	 */
+	public static double toDouble(long raw, long multiple) {
+		checkMultiple(multiple);
+		return (double) raw / multiple;
+	}
+
+	/**
+	 * @param raw raw units of the first quantity
+	 * @param multiple multiple of the first quantity
+	 * @param otherRaw raw units of the second quantity
+	 * @param otherMultiple multiple of the second quantity
+	 * @return the raw units of the sum
+	 * @throws IllegalArgumentException if the multiples differ
+	 * @throws ArithmeticException on overflow
+	 */
+	public static long addExact(long raw, long multiple, long otherRaw, long otherMultiple) {
+		checkSameMultiple(multiple, otherMultiple);
+		return Math.addExact(raw, otherRaw);
+	}
+
+	/**
+	 * @param raw raw units of the first quantity
+	 * @param multiple multiple of the first quantity
+	 * @param otherRaw raw units of the second quantity
+	 * @param otherMultiple multiple of the second quantity
+	 * @return the raw units of the difference
+	 * @throws IllegalArgumentException if the multiples differ
+	 * @throws ArithmeticException on overflow
+	 */
+	public static long subtractExact(long raw, long multiple, long otherRaw, long otherMultiple) {
+		checkSameMultiple(multiple, otherMultiple);
+		return Math.subtractExact(raw, otherRaw);
+	}
+
+	/**
+	 * Parses a decimal quantity into raw units, without rounding.
+	 *
+	 * @param decimal decimal quantity, for instance "12.35"
+	 * @param multiple raw units per unit of the asset
+	 * @return the number of raw units
+	 * @throws NumberFormatException if the decimal is not a number
+	 * @throws ArithmeticException if the decimal is finer than the units of
+	 *             the asset, or out of range
+	 */
+	public static long parseRaw(CharSequence decimal, long multiple) {
+		checkMultiple(multiple);
+		int scale = decimalScale(multiple);
+		if (scale < 0) {
+			return new BigDecimal(decimal.toString()).multiply(BigDecimal.valueOf(multiple)).longValueExact();
+		}
+
+		int length = decimal.length();
+		int index = 0;
+		boolean negative = false;
+		if (length > 0 && (decimal.charAt(0) == '-' || decimal.charAt(0) == '+')) {
+			negative = decimal.charAt(0) == '-';
+			index++;
+		}
+		long units = 0;
+		long fraction = 0;
+		int fractionDigits = 0;
+		boolean digits = false;
+		boolean point = false;
+		for (; index < length; index++) {
+			char c = decimal.charAt(index);
+			if (c == '.' && !point) {
+				point = true;
+			} else if (c >= '0' && c <= '9') {
+				digits = true;
+				if (!point) {
+					units = Math.addExact(Math.multiplyExact(units, 10), c - '0');
+				} else if (fractionDigits < scale) {
+					fraction = fraction * 10 + (c - '0');
+					fractionDigits++;
+				} else if (c != '0') {
+					throw new ArithmeticException("quantity " + decimal + " is finer than 1/" + multiple);
+				}
+			} else {
+				// Exponents and other notations
+				return new BigDecimal(decimal.toString()).multiply(BigDecimal.valueOf(multiple)).longValueExact();
+			}
+		}
+		if (!digits) {
+			throw new NumberFormatException("not a quantity : " + decimal);
+		}
+		for (; fractionDigits < scale; fractionDigits++) {
+			fraction *= 10;
+		}
+		long raw = Math.addExact(Math.multiplyExact(units, multiple), fraction);
+		return negative ? -raw : raw;
+	}
+
+	/**
+	 * @param raw number of raw units
+	 * @param multiple raw units per unit of the asset
+	 * @return the decimal value, without exponent nor trailing zeros
+	 */
+	public static String toDecimal(long raw, long multiple) {
+		return appendDecimal(new StringBuilder(24), raw, multiple).toString();
+	}
+
+	/**
+	 * Writes the decimal value of raw units, without exponent nor trailing
+	 * zeros.
+	 *
+	 * @param builder the builder to write to
+	 * @param raw number of raw units
+	 * @param multiple raw units per unit of the asset
+	 * @return the builder
+	 */
+	public static StringBuilder appendDecimal(StringBuilder builder, long raw, long multiple) {
+		checkMultiple(multiple);
+		int scale = decimalScale(multiple);
+		if (scale < 0) {
+			return builder.append(BigDecimal.valueOf(raw).divide(BigDecimal.valueOf(multiple), MathContext.DECIMAL128).stripTrailingZeros()
+					.toPlainString());
+		}
+
+		// The units keep their own sign, Long.MIN_VALUE having no positive
+		long units = raw / multiple;
+		long fraction = Math.abs(raw % multiple);
+		if (raw < 0 && units == 0) {
+			builder.append('-');
+		}
+		builder.append(units);
+		if (fraction != 0) {
+			int length = builder.length();
+			builder.append('.');
+			for (long digit = multiple / 10; digit > 0; digit /= 10) {
+				builder.append((char) ('0' + fraction / digit % 10));
+			}
+			int end = builder.length();
+			while (builder.charAt(end - 1) == '0') {
+				end--;
+			}
+			builder.setLength(end == length + 1 ? length : end);
+		}
+		return builder;
+	}
+
+	/**
+	 * @return the number of decimals of the multiple, -1 if it is not a power
+	 *         of 10
+	 */
+	private static int decimalScale(long multiple) {
+		int scale = 0;
+		for (long value = multiple; value > 1; value /= 10) {
+			if (value % 10 != 0) {
+				return -1;
+			}
+			scale++;
+		}
+		return scale;
+	}
+
+	private static void checkMultiple(long multiple) {
+		if (multiple <= 0) {
+			throw new IllegalArgumentException("multiple " + multiple + " is not positive");
+		}
+	}
+
+	private void checkSameMultiple(Quantity other) {
+		checkSameMultiple(multiple, other.multiple);
+	}
+
+	private static void checkSameMultiple(long multiple, long otherMultiple) {
+		checkMultiple(multiple);
+		if (otherMultiple != multiple) {
+			throw new IllegalArgumentException("quantities of multiples " + multiple + " and " + otherMultiple);
+		}
+	}
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.object;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unspent transaction output of the wallet, as returned by listunspent.
+ *
+ * @version 1.0
+ */
+public class Unspent {
+
+	String txid;
+	int vout;
+	String address;
+	String account;
+	String scriptPubKey;
+	double amount;
+	long confirmations;
+	boolean cansend;
+	boolean spendable;
+	List<BalanceAsset> assets;
+
+	public Unspent() {
+		super();
+		assets = new ArrayList<BalanceAsset>();
+	}
+
+	/**
+	 * @return the key identifying the output, txid:vout
+	 */
+	public String getOutpoint() {
+		return txid + ":" + vout;
+	}
+
+	/**
+	 * @return the txid
+	 */
+	public String getTxid() {
+		return txid;
+	}
+
+	/**
+	 * @param txid the txid to set
+	 */
+	public void setTxid(String txid) {
+		this.txid = txid;
+	}
+
+	/**
+	 * @return the vout
+	 */
+	public int getVout() {
+		return vout;
+	}
+
+	/**
+	 * @param vout the vout to set
+	 */
+	public void setVout(int vout) {
+		this.vout = vout;
+	}
+
+	/**
+	 * @return the address
+	 */
+	public String getAddress() {
+		return address;
+	}
+
+	/**
+	 * @param address the address to set
+	 */
+	public void setAddress(String address) {
+		this.address = address;
+	}
+
+	/**
+	 * @return the account
+	 */
+	public String getAccount() {
+		return account;
+	}
+
+	/**
+	 * @param account the account to set
+	 */
+	public void setAccount(String account) {
+		this.account = account;
+	}
+
+	/**
+	 * @return the scriptPubKey
+	 */
+	public String getScriptPubKey() {
+		return scriptPubKey;
+	}
+
+	/**
+	 * @param scriptPubKey the scriptPubKey to set
+	 */
+	public void setScriptPubKey(String scriptPubKey) {
+		this.scriptPubKey = scriptPubKey;
+	}
+
+	/**
+	 * @return the amount
+	 */
+	public double getAmount() {
+		return amount;
+	}
+
+	/**
+	 * @param amount the amount to set
+	 */
+	public void setAmount(double amount) {
+		this.amount = amount;
+	}
+
+	/**
+	 * @return the confirmations
+	 */
+	public long getConfirmations() {
+		return confirmations;
+	}
+
+	/**
+	 * @param confirmations the confirmations to set
+	 */
+	public void setConfirmations(long confirmations) {
+		this.confirmations = confirmations;
+	}
+
+	/**
+	 * @return the cansend
+	 */
+	public boolean isCansend() {
+		return cansend;
+	}
+
+	/**
+	 * @param cansend the cansend to set
+	 */
+	public void setCansend(boolean cansend) {
+		this.cansend = cansend;
+	}
+
+	/**
+	 * @return the spendable
+	 */
+	public boolean isSpendable() {
+		return spendable;
+	}
+
+	/**
+	 * @param spendable the spendable to set
+	 */
+	public void setSpendable(boolean spendable) {
+		this.spendable = spendable;
+	}
+
+	/**
+	 * @return the assets
+	 */
+	public List<BalanceAsset> getAssets() {
+		return assets;
+	}
+
+	/**
+	 * @param assets the assets to set
+	 */
+	public void setAssets(List<BalanceAsset> assets) {
+		this.assets = assets;
+	}
+
+}
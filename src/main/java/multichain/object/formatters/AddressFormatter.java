@@ -13,7 +13,6 @@ import java.util.List;
 import multichain.object.Address;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import multichain.object.KeyPair;
 
@@ -23,7 +22,7 @@ import multichain.object.KeyPair;
  */
 public class AddressFormatter {
 	public final static Address formatAddress(String stringAddress) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 		final Address address = gson.fromJson(stringAddress, Address.class);
 
 		return address;
@@ -31,7 +30,7 @@ public class AddressFormatter {
 
 
 	public final static List<String> formatAddressesStringList(String stringAddresses) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 
 		Type listType = new TypeToken<List<String>>(){}.getType();
 		final List<String> addresses = gson.fromJson(stringAddresses, listType);
@@ -40,7 +39,7 @@ public class AddressFormatter {
 	}
 
 	public final static List<Address> formatAddressesList(String stringAddresses) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 
 		Type listType = new TypeToken<List<Address>>(){}.getType();
 		final List<Address> addresses = gson.fromJson(stringAddresses, listType);
@@ -49,9 +48,15 @@ public class AddressFormatter {
 	}
 
 	public final static KeyPair formatKeyPair(String keyPair) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
         Type listType = new TypeToken<List<KeyPair>>(){}.getType();
         List<KeyPair> generatedKeyPairsInArray = gson.fromJson(keyPair, listType);
 		return generatedKeyPairsInArray.get(0);
 	}
+
+	public final static List<KeyPair> formatKeyPairs(String keyPairs) {
+		final Gson gson = FormatterCodec.gson();
+		Type listType = new TypeToken<List<KeyPair>>(){}.getType();
+		return gson.fromJson(keyPairs, listType);
+	}
 }
\ No newline at end of file
@@ -16,7 +16,6 @@ import multichain.object.BalanceAsset;
 import multichain.object.MultiBalance;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 
 /**
@@ -25,7 +24,7 @@ import com.google.gson.reflect.TypeToken;
  */
 public class BalanceFormatter {
 	public final static List<BalanceAsset> formatBalanceAssets(String stringBalanceAsset) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 
 		Type listType = new TypeToken<List<BalanceAsset>>(){}.getType();
 		final List<BalanceAsset> balanceAsset = gson.fromJson(stringBalanceAsset, listType);
@@ -34,14 +33,14 @@ public class BalanceFormatter {
 	}
 
 	public final static BalanceAsset formatBalanceAsset(String stringBalanceAsset) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 		final BalanceAsset balanceAsset = gson.fromJson(stringBalanceAsset, BalanceAsset.class);
 
 		return balanceAsset;
 	}
 
 	public final static List<MultiBalance> formatMultiBalances(String stringMultiBalance) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 
 		Type listType = new TypeToken<HashMap<String,List<BalanceAsset>>>(){}.getType();
 		final HashMap<String,List<BalanceAsset>> multiBalanceHash = gson.fromJson(stringMultiBalance, listType);
@@ -10,7 +10,6 @@ package multichain.object.formatters;
 import multichain.object.Block;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
 /**
  * @author Ub - H. MARTEAU
@@ -18,7 +17,7 @@ import com.google.gson.GsonBuilder;
  */
 public class BlockFormatter {
 	public final static long formatBlockCount(String stringBlockCount) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 
 		final Long blockCount = gson.fromJson(stringBlockCount, Long.class);
 
@@ -26,7 +25,7 @@ public class BlockFormatter {
 	}
 
 	public final static Block formatBlock(String stringBlock) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 
 		final Block block = gson.fromJson(stringBlock, Block.class);
 
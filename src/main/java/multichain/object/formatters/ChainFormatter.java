@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.object.formatters;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * @version 1.0
+ */
+public class ChainFormatter {
+	public final static Map<String, Object> formatBlockchainParams(String stringParams) {
+		final Gson gson = FormatterCodec.gson();
+
+		Type mapType = new TypeToken<Map<String, Object>>(){}.getType();
+		final Map<String, Object> params = gson.fromJson(stringParams, mapType);
+
+		return params;
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.object.formatters;
+
+import java.io.IOException;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Json codec shared by the formatters, with an optional deduplication of the
+ * identifiers of the parsed objects :
+ *
+ * <pre>
+ * FormatterCodec.enableDeduplication(new StringInterner(1 &lt;&lt; 20));
+ * List&lt;TransactionWallet&gt; transactions = WalletTransactionFormatter.formatListTransactionWallet(json);
+ * </pre>
+ *
+ * Once enabled, the strings read of at most {@link #getMaxInternedLength()}
+ * characters, map keys included, go through the {@link StringInterner} : the
+ * addresses, txids, blockhashes, asset names and references repeated across
+ * the objects share one instance, while the data of the items, longer, is
+ * kept as read. Worth it for the objects kept in memory, replicas and caches;
+ * the parsing itself is slightly slower.
+ *
+ * @version 1.0
+ */
+public final class FormatterCodec {
+
+	/**
+	 * Default maximum length of the interned strings, the one of a txid
+	 */
+	public static final int DEFAULT_MAX_INTERNED_LENGTH = 64;
+
+	private static final Gson PLAIN = new GsonBuilder().create();
+
+	private static volatile Gson gson = PLAIN;
+	private static volatile StringInterner interner;
+	private static volatile int maxInternedLength = DEFAULT_MAX_INTERNED_LENGTH;
+
+	private FormatterCodec() {
+	}
+
+	/**
+	 * @return the Gson of the formatters
+	 */
+	static Gson gson() {
+		return gson;
+	}
+
+	/**
+	 * Deduplicates the strings of at most
+	 * {@link #DEFAULT_MAX_INTERNED_LENGTH} characters in the objects parsed
+	 * from now on.
+	 *
+	 * @param interner the table of the strings, shared by all the formatters
+	 */
+	public static void enableDeduplication(StringInterner interner) {
+		enableDeduplication(interner, DEFAULT_MAX_INTERNED_LENGTH);
+	}
+
+	/**
+	 * Deduplicates the strings of at most maxInternedLength characters in the
+	 * objects parsed from now on.
+	 *
+	 * @param interner the table of the strings, shared by all the formatters
+	 * @param maxInternedLength maximum length of the interned strings
+	 */
+	public static synchronized void enableDeduplication(StringInterner interner, int maxInternedLength) {
+		if (interner == null) {
+			disableDeduplication();
+			return;
+		}
+		FormatterCodec.interner = interner;
+		FormatterCodec.maxInternedLength = maxInternedLength;
+		gson = new GsonBuilder().registerTypeAdapter(String.class, new InterningAdapter(interner, maxInternedLength)).create();
+	}
+
+	/**
+	 * Parses the strings as read, the default.
+	 */
+	public static synchronized void disableDeduplication() {
+		interner = null;
+		gson = PLAIN;
+	}
+
+	/**
+	 * @return the table of the strings, null if the deduplication is disabled
+	 */
+	public static StringInterner getInterner() {
+		return interner;
+	}
+
+	/**
+	 * @return the maximum length of the interned strings
+	 */
+	public static int getMaxInternedLength() {
+		return maxInternedLength;
+	}
+
+	/**
+	 * Reads the strings as Gson does, numbers and booleans included, then
+	 * interns the short ones.
+	 */
+	private static final class InterningAdapter extends TypeAdapter<String> {
+		private final StringInterner interner;
+		private final int maxLength;
+
+		InterningAdapter(StringInterner interner, int maxLength) {
+			this.interner = interner;
+			this.maxLength = maxLength;
+		}
+
+		@Override
+		public void write(JsonWriter out, String value) throws IOException {
+			out.value(value);
+		}
+
+		@Override
+		public String read(JsonReader in) throws IOException {
+			JsonToken token = in.peek();
+			if (token == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			String value = token == JsonToken.BOOLEAN ? Boolean.toString(in.nextBoolean()) : in.nextString();
+			return value.length() <= maxLength ? interner.intern(value) : value;
+		}
+	}
+
+}
@@ -13,7 +13,6 @@ import java.util.List;
 import multichain.object.Permission;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 
 /**
@@ -22,7 +21,7 @@ import com.google.gson.reflect.TypeToken;
  */
 public class GrantFormatter {
 	public final static Permission formatPermission(String stringPermission) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 
 		final Permission permission = gson.fromJson(stringPermission, Permission.class);
 
@@ -30,7 +29,7 @@ public class GrantFormatter {
 	}
 
 	public final static List<Permission> formatPermissionList(String stringPermission) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 
 		Type listType = new TypeToken<List<Permission>>(){}.getType();
 		final List<Permission> permissionList = gson.fromJson(stringPermission, listType);
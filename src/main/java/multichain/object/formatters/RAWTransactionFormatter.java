@@ -11,7 +11,6 @@ import multichain.object.SignRawTransactionOut;
 import multichain.object.TransactionRAW;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
 /**
  * @author Ub - H. MARTEAU
@@ -19,7 +18,7 @@ import com.google.gson.GsonBuilder;
  */
 public class RAWTransactionFormatter {
 	public final static TransactionRAW formatTransactionRAW(String stringTransactionRAW) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 
 		final TransactionRAW transactionRAW = gson.fromJson(stringTransactionRAW, TransactionRAW.class);
 
@@ -27,7 +26,7 @@ public class RAWTransactionFormatter {
 	}
 
 	public final static SignRawTransactionOut formatSignTransactionOut(String hexString) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 		return gson.fromJson(hexString, SignRawTransactionOut.class);
 	}
 }
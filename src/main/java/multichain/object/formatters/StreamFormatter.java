@@ -1,7 +1,6 @@
 package multichain.object.formatters;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import multichain.object.Stream;
 import multichain.object.StreamItem;
@@ -23,7 +22,7 @@ public class StreamFormatter {
      * @return {Stream} Object with populated fields
      */
     public final static Stream formatStream(String stringStream) {
-        final Gson gson = new GsonBuilder().create();
+        final Gson gson = FormatterCodec.gson();
         final Stream stream = gson.fromJson(stringStream, Stream.class);
         return stream;
     }
@@ -34,7 +33,7 @@ public class StreamFormatter {
      * @return {List<Stream>} List of Stream Objects with populated fields for each
      */
     public final static List<Stream> formatStreamList(String stringStreamList) {
-        final Gson gson = new GsonBuilder().create();
+        final Gson gson = FormatterCodec.gson();
         Type typeList = new TypeToken<List<Stream>>(){}.getType();
         final List<Stream> streamList = gson.fromJson(stringStreamList, typeList);
         return streamList;
@@ -46,7 +45,7 @@ public class StreamFormatter {
      * @return {StreamItem} Object with populated fields
      */
     public final static StreamItem formatStreamItem(String stringStreamItem) {
-        final Gson gson = new GsonBuilder().create();
+        final Gson gson = FormatterCodec.gson();
         final StreamItem streamItem = gson.fromJson(stringStreamItem, StreamItem.class);
         return streamItem;
     }
@@ -58,7 +57,7 @@ public class StreamFormatter {
      * @return {List<StreamItem>} List of StreamItem Objects with populated fields for each
      */
     public final static List<StreamItem> formatStreamItemList(String stringStreamItemList) {
-        final Gson gson = new GsonBuilder().create();
+        final Gson gson = FormatterCodec.gson();
         Type typeList = new TypeToken<List<StreamItem>>(){}.getType();
         final List<StreamItem> streamItemList = gson.fromJson(stringStreamItemList, typeList);
         return streamItemList;
@@ -70,7 +69,7 @@ public class StreamFormatter {
      * @return {StreamKeyPublisherInfo} Object with populated fields
      */
     public final static StreamKeyPublisherInfo formatStreamKeyPublisherInfo(String stringStreamKeyPublisherInfo) {
-        final Gson gson = new GsonBuilder().create();
+        final Gson gson = FormatterCodec.gson();
         final StreamKeyPublisherInfo streamKeyPublisherInfo = gson.fromJson(stringStreamKeyPublisherInfo, StreamKeyPublisherInfo.class);
         return streamKeyPublisherInfo;
     }
@@ -81,7 +80,7 @@ public class StreamFormatter {
      * @return {List<StreamKeyPublisherInfo>} List of this object
      */
     public final static List<StreamKeyPublisherInfo> formatStreamKeyPublisherInfoList(String stringStreamKeyPublisherInfoList) {
-        final Gson gson = new GsonBuilder().create();
+        final Gson gson = FormatterCodec.gson();
         Type typeList = new TypeToken<List<StreamKeyPublisherInfo>>(){}.getType();
         final List<StreamKeyPublisherInfo> streamKeyPublisherInfoList = gson.fromJson(stringStreamKeyPublisherInfoList, typeList);
         return streamKeyPublisherInfoList;
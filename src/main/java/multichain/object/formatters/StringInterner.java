@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.object.formatters;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded table of canonical strings : {@link #intern(String)} returns the
+ * instance already in the table for an equal string, so the addresses, txids
+ * and asset names repeated in parsed objects share one instance.
+ *
+ * The table is a fixed array of slots indexed by the hash of the strings, one
+ * string per slot. A string whose slot holds another string replaces it, the
+ * last one interned winning whatever how often each was seen : the table
+ * never grows beyond its capacity, and two frequent strings sharing a slot
+ * keep evicting each other. It needs no lock; concurrent threads may at
+ * worst keep two equal instances.
+ *
+ * @version 1.0
+ */
+public class StringInterner {
+
+	/**
+	 * Default number of slots
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	private final AtomicReferenceArray<String> slots;
+	private final int mask;
+
+	/**
+	 * Table of {@link #DEFAULT_CAPACITY} slots.
+	 */
+	public StringInterner() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity number of slots, rounded up to a power of 2
+	 */
+	public StringInterner(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+		slots = new AtomicReferenceArray<String>(size);
+		mask = size - 1;
+	}
+
+	/**
+	 * @param value the string
+	 * @return the instance of the table equal to the string, the string
+	 *         itself if none
+	 */
+	public String intern(String value) {
+		if (value == null) {
+			return null;
+		}
+		int hash = value.hashCode();
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		String current = slots.get(slot);
+		if (current != null && current.equals(value)) {
+			return current;
+		}
+		slots.lazySet(slot, value);
+		return value;
+	}
+
+	/**
+	 * @return the number of slots
+	 */
+	public int getCapacity() {
+		return slots.length();
+	}
+
+	/**
+	 * Empties the table.
+	 */
+	public void clear() {
+		for (int i = 0; i < slots.length(); i++) {
+			slots.set(i, null);
+		}
+	}
+
+}
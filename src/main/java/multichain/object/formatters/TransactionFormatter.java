@@ -10,7 +10,6 @@ package multichain.object.formatters;
 import multichain.object.Transaction;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
 /**
  * @author Ub - H. MARTEAU
@@ -20,7 +19,7 @@ public class TransactionFormatter {
 
 
 	public final static Transaction formatTransaction(String stringTransaction) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 
 		final Transaction transaction = gson.fromJson(stringTransaction, Transaction.class);
 
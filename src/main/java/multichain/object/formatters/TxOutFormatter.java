@@ -10,7 +10,6 @@ package multichain.object.formatters;
 import multichain.object.TxOut;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
 /**
  * @author Ub - H. MARTEAU
@@ -18,7 +17,7 @@ import com.google.gson.GsonBuilder;
  */
 public class TxOutFormatter {
 	public final static TxOut formatTxOut(String stringTxOut) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 
 		final TxOut txOut = gson.fromJson(stringTxOut, TxOut.class);
 
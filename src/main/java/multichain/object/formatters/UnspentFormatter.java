@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package multichain.object.formatters;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import multichain.object.Unspent;
+import multichain.object.queryobjects.TxIdVout;
+
+/**
+ * @version 1.0
+ */
+public class UnspentFormatter {
+	public final static List<Unspent> formatUnspentList(String stringUnspentList) {
+		final Gson gson = FormatterCodec.gson();
+
+		Type listType = new TypeToken<List<Unspent>>(){}.getType();
+		final List<Unspent> unspentList = gson.fromJson(stringUnspentList, listType);
+
+		return unspentList;
+	}
+
+	public final static List<TxIdVout> formatTxIdVoutList(String stringTxIdVoutList) {
+		final Gson gson = FormatterCodec.gson();
+
+		Type listType = new TypeToken<List<TxIdVout>>(){}.getType();
+		final List<TxIdVout> txIdVoutList = gson.fromJson(stringTxIdVoutList, listType);
+
+		return txIdVoutList;
+	}
+
+	public final static TxIdVout formatTxIdVout(String stringTxIdVout) {
+		final Gson gson = FormatterCodec.gson();
+
+		final TxIdVout txIdVout = gson.fromJson(stringTxIdVout, TxIdVout.class);
+
+		return txIdVout;
+	}
+
+}
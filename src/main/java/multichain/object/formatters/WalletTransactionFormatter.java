@@ -14,7 +14,6 @@ import multichain.object.TransactionWallet;
 import multichain.object.TransactionWalletDetailed;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 
 /**
@@ -23,7 +22,7 @@ import com.google.gson.reflect.TypeToken;
  */
 public class WalletTransactionFormatter {
 	public final static List<TransactionWallet> formatListTransactionWallet(String stringListWalletTransaction) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 
 		Type listType = new TypeToken<List<TransactionWallet>>(){}.getType();
 		final List<TransactionWallet> transactionWalletList = gson.fromJson(stringListWalletTransaction, listType);
@@ -32,7 +31,7 @@ public class WalletTransactionFormatter {
 	}
 
 	public final static TransactionWallet formatTransactionWallet(String stringWalletTransaction) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 
 		final TransactionWallet transactionWallet = gson.fromJson(stringWalletTransaction, TransactionWallet.class);
 
@@ -40,7 +39,7 @@ public class WalletTransactionFormatter {
 	}
 
 	public final static TransactionWalletDetailed formatTransactionWalletDetailed(String stringTransactionWalletDetailed) {
-		final Gson gson = new GsonBuilder().create();
+		final Gson gson = FormatterCodec.gson();
 
 		final TransactionWalletDetailed transactionWalletDetailed = gson.fromJson(stringTransactionWalletDetailed, TransactionWalletDetailed.class);
 
@@ -7,6 +7,8 @@
  */
 package multichain.object.queryobjects;
 
+import com.google.gson.annotations.SerializedName;
+
 import multichain.command.MultichainException;
 import multichain.command.tools.MultichainTestParameter;
 
@@ -15,9 +17,24 @@ import multichain.command.tools.MultichainTestParameter;
  * @version 1.0
  */
 public class TxIdVout {
+	@SerializedName("txid")
 	String txId;
+	@SerializedName("vout")
 	int vOut;
 
+	public TxIdVout() {
+		super();
+	}
+
+	/**
+	 * @param txId id of the transaction holding the output
+	 * @param vOut index of the output in the transaction
+	 */
+	public TxIdVout(String txId, int vOut) {
+		this.txId = txId;
+		this.vOut = vOut;
+	}
+
 	public void isFilled() throws MultichainException {
 		MultichainTestParameter.isNotNullOrEmpty("txId", txId);
 		MultichainTestParameter.valueIsNotNegative("vOut", vOut);
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package cache;
+
+import multichain.command.ChainCommand;
+import multichain.command.IssueCommand;
+import multichain.command.MultichainException;
+import multichain.command.cache.AssetRegistry;
+import multichain.command.events.BlockTransactionFetcher;
+import multichain.command.events.BlockWatcher;
+import multichain.command.simulator.MultichainSimulator;
+import multichain.command.transport.TransportResponse;
+import multichain.object.BalanceAsset;
+
+/**
+ * @version 1.0
+ */
+public class AssetRegistryTest {
+
+	private static void testLookups(MultichainSimulator simulator, AssetRegistry registry, String issueTxid) throws MultichainException {
+		BalanceAsset asset = registry.getAsset("asset1");
+		if (asset.getMultiple() != 100) { System.err.println("testLookups - multiple <> 100"); };
+		if (asset.getIssueraw() != 1000000) { System.err.println("testLookups - issueraw <> 1000000"); };
+		if (registry.getAsset(asset.getAssetref()) != asset) { System.err.println("testLookups - asset not found by assetref"); };
+		if (registry.getAsset(issueTxid) != asset) { System.err.println("testLookups - asset not found by issue txid"); };
+
+		long commands = simulator.getCommandCount();
+		if (registry.toRaw("asset1", 12.5) != 1250) { System.err.println("testLookups - raw of 12.5 <> 1250"); };
+		if (registry.toQuantity("asset1", 1250) != 12.5) { System.err.println("testLookups - quantity of 1250 <> 12.5"); };
+		if (simulator.getCommandCount() != commands) { System.err.println("testLookups - asset read from the node"); };
+
+		IssueCommand.issue(simulator.getDefaultAddress(), "asset2", 10, 0.001f);
+		commands = simulator.getCommandCount();
+		if (registry.getMultiple("asset2") != 1000) { System.err.println("testLookups - multiple of asset2 <> 1000"); };
+		if (simulator.getCommandCount() != commands + 1) { System.err.println("testLookups - new asset not read alone"); };
+
+		try {
+			registry.getAsset("unknown");
+			System.err.println("testLookups - unknown asset found");
+		} catch (MultichainException e) {
+			// expected
+		}
+	}
+
+	private static void testBlocks(MultichainSimulator simulator, AssetRegistry registry) throws Exception {
+		BlockTransactionFetcher fetcher = new BlockTransactionFetcher();
+		fetcher.addListener(registry);
+		BlockWatcher watcher = new BlockWatcher(1000);
+		watcher.addListener(fetcher);
+		watcher.poll();
+
+		simulator.execute("simulator", "issue", "\"" + simulator.getDefaultAddress() + "\"", "{\"name\":\"asset3\",\"open\":true}", "100", "0.01");
+		watcher.poll();
+		long commands = simulator.getCommandCount();
+		BalanceAsset asset = registry.getAsset("asset3");
+		if (simulator.getCommandCount() != commands) { System.err.println("testBlocks - issued asset not read at the block"); };
+		if (asset.getIssueqty() != 100) { System.err.println("testBlocks - issueqty <> 100"); };
+
+		IssueCommand.issueMore(simulator.getDefaultAddress(), "asset3", 50);
+		watcher.poll();
+		if (registry.getAsset("asset3").getIssueqty() != 150) { System.err.println("testBlocks - issueqty after issuemore <> 150"); };
+
+		fetcher.setMaxBlockLookups(0);
+		IssueCommand.issue(simulator.getDefaultAddress(), "asset4", 10, 0.1f);
+		watcher.poll();
+		if (registry.getAssets().size() != 4) { System.err.println("testBlocks - assets after reload <> 4"); };
+		if (registry.getMultiple("asset4") != 10) { System.err.println("testBlocks - multiple of asset4 <> 10"); };
+	}
+
+	private static void testUnnamedAsset() throws MultichainException {
+		String assets = "["
+				+ "{\"name\" : \"named\", \"issuetxid\" : \"aa01\", \"assetref\" : \"10-266-1\", \"multiple\" : 100},"
+				+ "{\"name\" : null, \"issuetxid\" : \"bb02\", \"assetref\" : \"11-266-2\", \"multiple\" : 1000}"
+				+ "]";
+		ChainCommand.setTransport((chain, command, parameters) -> TransportResponse.success(assets));
+
+		AssetRegistry registry = new AssetRegistry();
+		registry.load();
+		if (registry.size() != 2) { System.err.println("testUnnamedAsset - assets <> 2"); };
+		if (registry.getMultiple("11-266-2") != 1000) { System.err.println("testUnnamedAsset - unnamed asset not found by assetref"); };
+		if (registry.getMultiple("bb02") != 1000) { System.err.println("testUnnamedAsset - unnamed asset not found by issue txid"); };
+		if (registry.getMultiple("named") != 100) { System.err.println("testUnnamedAsset - named asset not found"); };
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		System.out.println("--- Start of AssetRegistryTest ---");
+
+		MultichainSimulator simulator = new MultichainSimulator(42);
+		ChainCommand.initializeChain("simulator");
+		ChainCommand.setTransport(simulator);
+		String issueTxid = IssueCommand.issue(simulator.getDefaultAddress(), "asset1", 10000, 0.01f);
+
+		AssetRegistry registry = new AssetRegistry();
+		testLookups(simulator, registry, issueTxid);
+		testBlocks(simulator, registry);
+		testUnnamedAsset();
+
+		ChainCommand.setTransport(null);
+
+		System.out.println("--- End of AssetRegistryTest ---");
+	}
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package cache;
+
+import java.util.Collections;
+import java.util.List;
+
+import multichain.command.AddressCommand;
+import multichain.command.ChainCommand;
+import multichain.command.IssueCommand;
+import multichain.command.MultichainException;
+import multichain.command.MultichainRPCException;
+import multichain.command.cache.BalanceCache;
+import multichain.command.events.BlockTransactionFetcher;
+import multichain.command.events.BlockWatcher;
+import multichain.command.simulator.MultichainSimulator;
+import multichain.command.transport.TransportResponse;
+import multichain.object.BalanceAsset;
+import multichain.object.Block;
+import multichain.object.TransactionRAW;
+import multichain.object.formatters.RAWTransactionFormatter;
+
+/**
+ * @version 1.0
+ */
+public class BalanceCacheTest {
+
+	/**
+	 * Address of the compressed public key of the private key 1
+	 */
+	private static final String SIGNER = "1BgGZ9tcN4rm9KBzDn7KprQz87SZ26SAMH";
+	private static final String SIGNER_PUBKEY = "0279be667ef9dcbbac55a06295ce870b07029bfcdb2dce28d959f2815b16f81798";
+
+	private static double qty(List<BalanceAsset> balances) {
+		double qty = 0;
+		for (BalanceAsset asset : balances) {
+			qty += asset.getQty();
+		}
+		return qty;
+	}
+
+	private static List<TransactionRAW> transactions(String scriptSig) {
+		return Collections.singletonList(RAWTransactionFormatter.formatTransactionRAW("{"
+				+ "\"txid\" : \"00ff\","
+				+ "\"vin\" : [{\"txid\" : \"00ee\", \"vout\" : 0, \"scriptSig\" : {\"asm\" : \"\", \"hex\" : \"" + scriptSig + "\"}, \"sequence\" : 4294967295}],"
+				+ "\"vout\" : []}"));
+	}
+
+	private static void testSends(MultichainSimulator simulator, BalanceCache cache) throws MultichainException {
+		String sender = AddressCommand.getNewAddress().getAddress();
+		String receiver = AddressCommand.getNewAddress().getAddress();
+		IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), sender, "asset1", 10f);
+
+		if (qty(cache.getAddressBalances(sender)) != 10) { System.err.println("testSends - balance <> 10"); };
+		long commands = simulator.getCommandCount();
+		cache.getAddressBalances(sender);
+		cache.getTotalBalances();
+		cache.getTotalBalances();
+		if (simulator.getCommandCount() != commands + 1) { System.err.println("testSends - balances read twice from the node"); };
+		if (cache.getAgeMillis(sender) < 0) { System.err.println("testSends - balances not cached"); };
+
+		IssueCommand.sendAssetFrom(sender, receiver, "asset1", 4f);
+		if (cache.getAgeMillis(sender) != -1) { System.err.println("testSends - balances kept after a send"); };
+		if (qty(cache.getAddressBalances(sender)) != 6) { System.err.println("testSends - balance <> 6"); };
+		if (cache.getMultiBalances(new String[] { sender, receiver }).isEmpty()) { System.err.println("testSends - no multi balances"); };
+
+		try {
+			cache.getAddressBalances(sender).clear();
+			System.err.println("testSends - cached balances modified");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		try {
+			cache.getMultiBalances(new String[] { sender, receiver }).get(0).getAssets().clear();
+			System.err.println("testSends - cached multi balances modified");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	private static void testBlocks(MultichainSimulator simulator, BalanceCache cache) throws MultichainException {
+		String receiver = AddressCommand.getNewAddress().getAddress();
+		String other = AddressCommand.getNewAddress().getAddress();
+		BlockTransactionFetcher fetcher = new BlockTransactionFetcher();
+		fetcher.addListener(cache);
+		BlockWatcher watcher = new BlockWatcher(1000);
+		watcher.addListener(fetcher);
+		watcher.poll();
+
+		cache.getAddressBalances(receiver);
+		cache.getAddressBalances(other);
+		ChainCommand.setTransport(simulator);
+		IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), receiver, "asset1", 5f);
+		ChainCommand.setTransport(cache.trackSends(simulator));
+		if (qty(cache.getAddressBalances(receiver)) != 0) { System.err.println("testBlocks - balance read before the block"); };
+
+		if (watcher.poll() != 1) { System.err.println("testBlocks - blocks <> 1"); };
+		if (cache.getAgeMillis(receiver) != -1) { System.err.println("testBlocks - balances kept after a block"); };
+		if (cache.getAgeMillis(other) < 0) { System.err.println("testBlocks - balances of an untouched address invalidated"); };
+		if (qty(cache.getAddressBalances(receiver)) != 5) { System.err.println("testBlocks - balance <> 5"); };
+	}
+
+	private static void testInputAddresses(MultichainSimulator simulator, BalanceCache cache) throws MultichainException {
+		String address = AddressCommand.getNewAddress().getAddress();
+		Block block = new Block();
+		block.setHeight(1000);
+		block.setTx(Collections.singletonList("00ff"));
+		StringBuilder signature = new StringBuilder("47");
+		for (int i = 0; i < 71; i++) {
+			signature.append("30");
+		}
+
+		cache.getAddressBalances(address);
+		cache.getAddressBalances(SIGNER);
+		long commands = simulator.getCommandCount();
+		cache.onBlock(block, transactions(signature + "21" + SIGNER_PUBKEY));
+		if (cache.getAgeMillis(SIGNER) != -1) { System.err.println("testInputAddresses - balances of the signer kept"); };
+		if (cache.getAgeMillis(address) < 0) { System.err.println("testInputAddresses - balances of an untouched address invalidated"); };
+		// getblockchainparams once, no wallet lookup
+		if (simulator.getCommandCount() != commands + 1) { System.err.println("testInputAddresses - commands <> 1"); };
+
+		cache.onBlock(block, null);
+		if (cache.size() != 0) { System.err.println("testInputAddresses - balances kept after a block not read"); };
+	}
+
+	private static void testNodeErrors(MultichainSimulator simulator, BalanceCache cache) throws MultichainException {
+		String address = AddressCommand.getNewAddress().getAddress();
+		Block block = new Block();
+		block.setHeight(1000);
+		block.setTx(Collections.singletonList("00ff"));
+
+		cache.getAddressBalances(address);
+
+		ChainCommand.setTransport((chain, command, parameters) -> TransportResponse.error(MultichainRPCException.RPC_INVALID_ADDRESS_OR_KEY, "Invalid or non-wallet transaction id"));
+		cache.onBlock(block, transactions(""));
+		if (cache.getAgeMillis(address) < 0) { System.err.println("testNodeErrors - balances invalidated by a transaction out of the wallet"); };
+
+		ChainCommand.setTransport((chain, command, parameters) -> TransportResponse.error(MultichainRPCException.RPC_IN_WARMUP, "Loading block index..."));
+		cache.onBlock(block, transactions(""));
+		if (cache.getAgeMillis(address) != -1) { System.err.println("testNodeErrors - balances kept after a node error"); };
+		ChainCommand.setTransport(cache.trackSends(simulator));
+	}
+
+	private static void testMaxAge(MultichainSimulator simulator, BalanceCache cache) throws Exception {
+		cache.setMaxAgeMillis(50);
+		cache.getTotalBalances();
+		long commands = simulator.getCommandCount();
+		Thread.sleep(100);
+		cache.getTotalBalances();
+		if (simulator.getCommandCount() != commands + 1) { System.err.println("testMaxAge - old balances served"); };
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		System.out.println("--- Start of BalanceCacheTest ---");
+
+		MultichainSimulator simulator = new MultichainSimulator(42);
+		BalanceCache cache = new BalanceCache();
+		ChainCommand.initializeChain("simulator");
+		ChainCommand.setTransport(cache.trackSends(simulator));
+		IssueCommand.issue(simulator.getDefaultAddress(), "asset1", 10000, 0.01f);
+
+		testSends(simulator, cache);
+		testBlocks(simulator, cache);
+		testInputAddresses(simulator, cache);
+		testNodeErrors(simulator, cache);
+		testMaxAge(simulator, cache);
+
+		ChainCommand.setTransport(null);
+
+		System.out.println("--- End of BalanceCacheTest ---");
+	}
+
+}
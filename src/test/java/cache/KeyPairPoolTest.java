@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package cache;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import multichain.command.AddressCommand;
+import multichain.command.ChainCommand;
+import multichain.command.MultichainException;
+import multichain.command.cache.AddressPool;
+import multichain.command.cache.KeyPairPool;
+import multichain.command.cache.RefillingPool;
+import multichain.command.simulator.MultichainSimulator;
+import multichain.object.Address;
+import multichain.object.KeyPair;
+
+/**
+ * @version 1.0
+ */
+public class KeyPairPoolTest {
+
+	private static boolean waitForSize(RefillingPool<?> pool, int size) throws InterruptedException {
+		for (int i = 0; i < 500 && pool.getSize() != size; i++) {
+			Thread.sleep(10);
+		}
+		return pool.getSize() == size;
+	}
+
+	private static void testKeyPairs(MultichainSimulator simulator) throws Exception {
+		if (AddressCommand.createKeyPairs(3).size() != 3) { System.err.println("testKeyPairs - createKeyPairs(3) <> 3 key pairs"); };
+
+		KeyPairPool pool = new KeyPairPool(10, 250);
+		long commands = simulator.getCommandCount();
+		pool.fill();
+		if (pool.getSize() != 250) { System.err.println("testKeyPairs - size after fill <> 250"); };
+		if (simulator.getCommandCount() != commands + 3) { System.err.println("testKeyPairs - fill not batched by 100"); };
+
+		Set<String> addresses = new HashSet<String>();
+		commands = simulator.getCommandCount();
+		for (int i = 0; i < 239; i++) {
+			KeyPair keyPair = pool.take();
+			if (keyPair.getPrivkey() == null) { System.err.println("testKeyPairs - key pair without private key"); break; };
+			addresses.add(keyPair.getAddress());
+		}
+		if (simulator.getCommandCount() != commands) { System.err.println("testKeyPairs - key pairs taken from the node"); };
+		if (pool.getSize() != 11) { System.err.println("testKeyPairs - size <> 11"); };
+
+		addresses.add(pool.take().getAddress());
+		if (!waitForSize(pool, 250)) { System.err.println("testKeyPairs - pool not refilled to 250"); };
+		if (pool.getLastError() != null) { System.err.println("testKeyPairs - refill error " + pool.getLastError()); };
+		for (int i = 0; i < 250; i++) {
+			addresses.add(pool.take().getAddress());
+		}
+		if (addresses.size() != 490) { System.err.println("testKeyPairs - distinct addresses " + addresses.size() + " <> 490"); };
+		if (pool.getMisses() != 0) { System.err.println("testKeyPairs - misses <> 0"); };
+		pool.close();
+
+		try {
+			new KeyPairPool(10, 10);
+			System.err.println("testKeyPairs - equal watermarks accepted");
+		} catch (MultichainException e) {
+			// expected
+		}
+	}
+
+	private static void testAddresses(MultichainSimulator simulator) throws Exception {
+		AddressPool pool = new AddressPool(2, 5);
+		Address address = pool.take();
+		if (pool.getMisses() != 1) { System.err.println("testAddresses - empty pool take not counted as a miss"); };
+		if (!address.isIsmine()) { System.err.println("testAddresses - address not in the wallet"); };
+		if (!waitForSize(pool, 5)) { System.err.println("testAddresses - pool not refilled to 5"); };
+		if (!pool.take().isIsmine()) { System.err.println("testAddresses - pooled address not in the wallet"); };
+		pool.close();
+
+		try {
+			pool.take();
+			System.err.println("testAddresses - closed pool taken from");
+		} catch (MultichainException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		System.out.println("--- Start of KeyPairPoolTest ---");
+
+		MultichainSimulator simulator = new MultichainSimulator(42);
+		ChainCommand.initializeChain("simulator");
+		ChainCommand.setTransport(simulator);
+
+		testKeyPairs(simulator);
+		testAddresses(simulator);
+
+		ChainCommand.setTransport(null);
+
+		System.out.println("--- End of KeyPairPoolTest ---");
+	}
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import multichain.command.AddressCommand;
+import multichain.command.ChainCommand;
+import multichain.command.IssueCommand;
+import multichain.command.MultichainException;
+import multichain.command.RAWTransactionCommand;
+import multichain.command.WalletTransactionCommand;
+import multichain.command.cache.OutputLease;
+import multichain.command.cache.OutputLockManager;
+import multichain.command.simulator.MultichainSimulator;
+import multichain.object.AddressBalanceAsset;
+import multichain.object.BalanceAssetBase;
+import multichain.object.queryobjects.TxIdVout;
+import multichain.object.formatters.RAWTransactionFormatter;
+
+/**
+ * @version 1.0
+ */
+public class OutputLockManagerTest {
+
+	private static AddressBalanceAsset output(String address, double qty) {
+		AddressBalanceAsset output = new AddressBalanceAsset();
+		output.setAddress(address);
+		BalanceAssetBase asset = new BalanceAssetBase();
+		asset.setName("asset1");
+		asset.setQty(qty);
+		output.addAsset(asset);
+		return output;
+	}
+
+	private static String send(OutputLease lease, String from, String to, double qty) throws MultichainException {
+		double total = 0;
+		for (int i = 0; i < lease.getInputs().size(); i++) {
+			total += lease.getInputs().get(i).getAssets().get(0).getQty();
+		}
+		List<AddressBalanceAsset> outputs = new ArrayList<AddressBalanceAsset>();
+		outputs.add(output(to, qty));
+		if (total > qty) {
+			outputs.add(output(from, total - qty));
+		}
+		String hex = RAWTransactionCommand.createRawTransaction(lease.getTxIdVouts(), outputs);
+		return RAWTransactionCommand.sendRawTransaction(RAWTransactionFormatter.formatSignTransactionOut(RAWTransactionCommand.signRawTransaction(hex)).getHex());
+	}
+
+	private static void testCommands(MultichainSimulator simulator) throws MultichainException {
+		String address = AddressCommand.getNewAddress().getAddress();
+		IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), address, "asset1", 10f);
+		TxIdVout output = new TxIdVout(WalletTransactionCommand.listUnspent(address).get(0).getTxid(), WalletTransactionCommand.listUnspent(address).get(0).getVout());
+
+		if (!WalletTransactionCommand.lockUnspent(false, Collections.singletonList(output))) { System.err.println("testCommands - lockunspent failed"); };
+		if (WalletTransactionCommand.listLockUnspent().size() != 1) { System.err.println("testCommands - locked outputs <> 1"); };
+		if (!WalletTransactionCommand.listUnspent(address).isEmpty()) { System.err.println("testCommands - locked output listed as unspent"); };
+		WalletTransactionCommand.unlockAllUnspent();
+		if (!WalletTransactionCommand.listLockUnspent().isEmpty()) { System.err.println("testCommands - outputs still locked"); };
+
+		BalanceAssetBase asset = new BalanceAssetBase();
+		asset.setName("asset1");
+		asset.setQty(4);
+		TxIdVout prepared = WalletTransactionCommand.prepareLockUnspentFrom(address, Collections.singletonList(asset), true);
+		List<TxIdVout> locked = WalletTransactionCommand.listLockUnspent();
+		if (locked.size() != 1 || !prepared.getTxId().equals(locked.get(0).getTxId())) { System.err.println("testCommands - prepared output not locked"); };
+		WalletTransactionCommand.unlockAllUnspent();
+	}
+
+	private static void testConcurrentLeases(MultichainSimulator simulator) throws Exception {
+		String sender = AddressCommand.getNewAddress().getAddress();
+		String receiver = AddressCommand.getNewAddress().getAddress();
+		for (int i = 0; i < 8; i++) {
+			IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), sender, "asset1", 100f);
+		}
+
+		OutputLockManager manager = new OutputLockManager();
+		Map<String, Double> amounts = Collections.singletonMap("asset1", 60.0);
+		simulator.setLatencyMicros("sendrawtransaction", 2000, 5000);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<String>> sends = new ArrayList<Future<String>>();
+		for (int i = 0; i < 8; i++) {
+			sends.add(executor.submit(() -> manager.withLease(sender, amounts, lease -> send(lease, sender, receiver, 60))));
+		}
+		for (Future<String> send : sends) {
+			try {
+				send.get();
+			} catch (Exception e) {
+				System.err.println("testConcurrentLeases - send failed : " + e.getCause());
+			}
+		}
+		executor.shutdown();
+		simulator.setLatencyMicros("sendrawtransaction", 0, 0);
+
+		if (manager.getLeasedCount() != 0) { System.err.println("testConcurrentLeases - outputs still leased"); };
+		if (!WalletTransactionCommand.listLockUnspent().isEmpty()) { System.err.println("testConcurrentLeases - outputs still locked on the node"); };
+		if (WalletTransactionCommand.listUnspent(0, 9999999, sender).size() != 8) { System.err.println("testConcurrentLeases - change outputs <> 8"); };
+	}
+
+	private static void testExpiryAndFailure(MultichainSimulator simulator) throws Exception {
+		String sender = AddressCommand.getNewAddress().getAddress();
+		IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), sender, "asset1", 30f);
+		IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), sender, "asset1", 20f);
+
+		OutputLockManager manager = new OutputLockManager();
+		OutputLease lease = manager.lease(sender, Collections.singletonMap("asset1", 10.0), 500);
+		if (lease.getInputs().get(0).getAssets().get(0).getQty() != 30) { System.err.println("testExpiryAndFailure - largest output not leased"); };
+		try {
+			manager.lease(lease.getTxIdVouts());
+			System.err.println("testExpiryAndFailure - output leased twice");
+		} catch (MultichainException e) {
+			// expected
+		}
+		if (manager.lease(sender, Collections.singletonMap("asset1", 10.0)).getInputs().get(0).getAssets().get(0).getQty() != 20) { System.err.println("testExpiryAndFailure - leased output selected"); };
+		if (WalletTransactionCommand.listLockUnspent().size() != 2) { System.err.println("testExpiryAndFailure - locked outputs <> 2"); };
+
+		Thread.sleep(600);
+		if (manager.releaseExpired() != 1) { System.err.println("testExpiryAndFailure - expired leases <> 1"); };
+		if (!lease.isReleased() || WalletTransactionCommand.listLockUnspent().size() != 1) { System.err.println("testExpiryAndFailure - expired lease not unlocked"); };
+		try {
+			lease.renew(1000);
+			System.err.println("testExpiryAndFailure - released lease renewed");
+		} catch (MultichainException e) {
+			// expected
+		}
+
+		try {
+			manager.withLease(sender, Collections.singletonMap("asset1", 10.0), leased -> {
+				throw new MultichainException("test", "failed transaction");
+			});
+		} catch (MultichainException e) {
+			// expected
+		}
+		if (manager.getLeasedCount() != 1 || WalletTransactionCommand.listLockUnspent().size() != 1) { System.err.println("testExpiryAndFailure - failed lease not unlocked"); };
+		WalletTransactionCommand.unlockAllUnspent();
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		System.out.println("--- Start of OutputLockManagerTest ---");
+
+		MultichainSimulator simulator = new MultichainSimulator(42);
+		ChainCommand.initializeChain("simulator");
+		ChainCommand.setTransport(simulator);
+		IssueCommand.issue(simulator.getDefaultAddress(), "asset1", 10000, 0.01f);
+
+		testCommands(simulator);
+		testConcurrentLeases(simulator);
+		testExpiryAndFailure(simulator);
+
+		ChainCommand.setTransport(null);
+
+		System.out.println("--- End of OutputLockManagerTest ---");
+	}
+
+}
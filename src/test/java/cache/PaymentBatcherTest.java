@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import multichain.command.AddressCommand;
+import multichain.command.ChainCommand;
+import multichain.command.IssueCommand;
+import multichain.command.MultichainException;
+import multichain.command.cache.PaymentBatcher;
+import multichain.command.cache.UnspentCache;
+import multichain.command.simulator.MultichainSimulator;
+import multichain.object.AddressBalanceAsset;
+import multichain.object.BalanceAsset;
+import multichain.object.BalanceAssetBase;
+
+/**
+ * @version 1.0
+ */
+public class PaymentBatcherTest {
+
+	private static List<BalanceAssetBase> assets(String name, double qty) {
+		BalanceAssetBase asset = new BalanceAssetBase();
+		asset.setName(name);
+		asset.setQty(qty);
+		return Collections.singletonList(asset);
+	}
+
+	private static double balance(String address, String name) throws MultichainException {
+		double qty = 0;
+		for (BalanceAsset asset : AddressCommand.getAddressBalances(address)) {
+			if (name.equals(asset.getName())) {
+				qty += asset.getQty();
+			}
+		}
+		return qty;
+	}
+
+	private static void testCountThreshold(MultichainSimulator simulator) throws Exception {
+		String sender = AddressCommand.getNewAddress().getAddress();
+		IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), sender, "asset1", 1000f);
+		List<String> receivers = new ArrayList<String>();
+		for (int i = 0; i < 10; i++) {
+			receivers.add(AddressCommand.getNewAddress().getAddress());
+		}
+
+		PaymentBatcher batcher = new PaymentBatcher(new UnspentCache(), sender);
+		batcher.setMaxPayments(5);
+		batcher.setMaxDelayMillis(60000);
+		List<CompletableFuture<String>> payments = new ArrayList<CompletableFuture<String>>();
+		for (String receiver : receivers) {
+			payments.add(batcher.pay(receiver, assets("asset1", 10)));
+		}
+
+		Set<String> txids = new HashSet<String>();
+		for (CompletableFuture<String> payment : payments) {
+			txids.add(payment.get(10, TimeUnit.SECONDS));
+		}
+		if (txids.size() != 2) { System.err.println("testCountThreshold - transactions <> 2 : " + txids.size()); };
+		if (balance(receivers.get(7), "asset1") != 10) { System.err.println("testCountThreshold - receiver balance <> 10"); };
+		if (balance(sender, "asset1") != 900) { System.err.println("testCountThreshold - sender balance <> 900"); };
+		batcher.close();
+	}
+
+	private static void testValueAndDelayThresholds(MultichainSimulator simulator) throws Exception {
+		String sender = AddressCommand.getNewAddress().getAddress();
+		IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), sender, "asset1", 1000f);
+		String receiver = AddressCommand.getNewAddress().getAddress();
+
+		PaymentBatcher batcher = new PaymentBatcher(new UnspentCache(), sender);
+		batcher.setMaxValue("asset1", 50);
+		batcher.setMaxDelayMillis(100);
+		CompletableFuture<String> first = batcher.pay(receiver, assets("asset1", 20));
+		CompletableFuture<String> second = batcher.pay(receiver, assets("asset1", 30));
+		if (batcher.getPendingCount() != 0) { System.err.println("testValueAndDelayThresholds - value threshold not reached"); };
+		if (!first.get(10, TimeUnit.SECONDS).equals(second.get(10, TimeUnit.SECONDS))) { System.err.println("testValueAndDelayThresholds - payments in different transactions"); };
+
+		CompletableFuture<String> delayed = batcher.pay(receiver, assets("asset1", 5));
+		if (delayed.isDone() || batcher.getPendingCount() != 1) { System.err.println("testValueAndDelayThresholds - payment sent before its delay"); };
+		delayed.get(10, TimeUnit.SECONDS);
+		if (balance(receiver, "asset1") != 55) { System.err.println("testValueAndDelayThresholds - receiver balance <> 55"); };
+		batcher.close();
+	}
+
+	private static void testFailedBatch(MultichainSimulator simulator) throws Exception {
+		String sender = AddressCommand.getNewAddress().getAddress();
+		IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), sender, "asset1", 10f);
+
+		PaymentBatcher batcher = new PaymentBatcher(new UnspentCache(), sender);
+		CompletableFuture<String> first = batcher.pay(simulator.getDefaultAddress(), assets("asset1", 8));
+		CompletableFuture<String> second = batcher.pay(simulator.getDefaultAddress(), assets(AddressBalanceAsset.NATIVE_CURRENCY, 1));
+		batcher.close();
+		try {
+			first.get(10, TimeUnit.SECONDS);
+			System.err.println("testFailedBatch - batch sent without the funds");
+		} catch (ExecutionException e) {
+			// expected
+		}
+		try {
+			second.get(10, TimeUnit.SECONDS);
+			System.err.println("testFailedBatch - payment of the batch not failed");
+		} catch (ExecutionException e) {
+			// expected
+		}
+
+		try {
+			batcher.pay(simulator.getDefaultAddress(), assets("asset1", 1));
+			System.err.println("testFailedBatch - payment accepted after close");
+		} catch (MultichainException e) {
+			// expected
+		}
+	}
+
+	private static void testInvalidAddress(MultichainSimulator simulator) throws Exception {
+		String sender = AddressCommand.getNewAddress().getAddress();
+		IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), sender, "asset1", 100f);
+		String receiver = AddressCommand.getNewAddress().getAddress();
+
+		PaymentBatcher batcher = new PaymentBatcher(new UnspentCache(), sender);
+		batcher.setMaxDelayMillis(60000);
+		CompletableFuture<String> valid = batcher.pay(receiver, assets("asset1", 10));
+		try {
+			batcher.pay(receiver.substring(1), assets("asset1", 10));
+			System.err.println("testInvalidAddress - invalid address accepted");
+		} catch (MultichainException e) {
+			// expected
+		}
+		if (batcher.getPendingCount() != 1) { System.err.println("testInvalidAddress - pending <> 1"); };
+		batcher.close();
+		valid.get(10, TimeUnit.SECONDS);
+		if (balance(receiver, "asset1") != 10) { System.err.println("testInvalidAddress - receiver balance <> 10"); };
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		System.out.println("--- Start of PaymentBatcherTest ---");
+
+		MultichainSimulator simulator = new MultichainSimulator(42);
+		ChainCommand.initializeChain("simulator");
+		ChainCommand.setTransport(simulator);
+		IssueCommand.issue(simulator.getDefaultAddress(), "asset1", 10000, 0.01f);
+
+		testCountThreshold(simulator);
+		testValueAndDelayThresholds(simulator);
+		testFailedBatch(simulator);
+		testInvalidAddress(simulator);
+
+		ChainCommand.setTransport(null);
+
+		System.out.println("--- End of PaymentBatcherTest ---");
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package cache;
+
+import multichain.command.AddressCommand;
+import multichain.command.ChainCommand;
+import multichain.command.GrantCommand;
+import multichain.command.IssueCommand;
+import multichain.command.MultichainException;
+import multichain.command.cache.AssetRegistry;
+import multichain.command.cache.PermissionIndex;
+import multichain.command.events.BlockTransactionFetcher;
+import multichain.command.events.BlockWatcher;
+import multichain.command.simulator.MultichainSimulator;
+
+/**
+ * @version 1.0
+ */
+public class PermissionIndexTest {
+
+	private static void testLoad(MultichainSimulator simulator, PermissionIndex index) throws MultichainException {
+		String address = AddressCommand.getNewAddress().getAddress();
+
+		if (!index.hasPermission(simulator.getDefaultAddress(), "admin")) { System.err.println("testLoad - default address not admin"); };
+		if (index.hasPermission(address, "send")) { System.err.println("testLoad - new address can send"); };
+		if (!index.hasPermissions(simulator.getDefaultAddress(), GrantCommand.SEND | GrantCommand.ISSUE, index.getHeight())) { System.err.println("testLoad - default address can not send and issue"); };
+		if (!index.hasPermissions(simulator.getDefaultAddress(), GrantCommand.CREATE, index.getHeight())) { System.err.println("testLoad - default address can not create"); };
+		if (index.hasPermissions(address, GrantCommand.CREATE, index.getHeight())) { System.err.println("testLoad - new address can create"); };
+		if (index.getHeight() < 0) { System.err.println("testLoad - height not loaded"); };
+
+		long commands = simulator.getCommandCount();
+		for (int i = 0; i < 100; i++) {
+			index.hasPermission(simulator.getDefaultAddress(), "send");
+		}
+		if (simulator.getCommandCount() != commands) { System.err.println("testLoad - permissions read from the node"); };
+	}
+
+	private static void testBlocks(MultichainSimulator simulator, PermissionIndex index) throws Exception {
+		String granted = AddressCommand.getNewAddress().getAddress();
+		String windowed = AddressCommand.getNewAddress().getAddress();
+		AssetRegistry registry = new AssetRegistry();
+		registry.load();
+		BlockTransactionFetcher fetcher = new BlockTransactionFetcher();
+		fetcher.addListener(index);
+		fetcher.addListener(registry);
+		BlockWatcher watcher = new BlockWatcher(1000);
+		watcher.addListener(fetcher);
+		watcher.poll();
+
+		GrantCommand.grant(granted, "send,receive");
+		if (index.hasPermission(granted, "send")) { System.err.println("testBlocks - grant seen before the block"); };
+		long commands = simulator.getCommandCount();
+		if (watcher.poll() != 1) { System.err.println("testBlocks - blocks <> 1"); };
+		if (!index.hasPermission(granted, "send") || !index.hasPermission(granted, "receive")) { System.err.println("testBlocks - grant not seen after the block"); };
+		// 4 commands of the watcher, then getrawtransaction once for both
+		// listeners and listpermissions
+		if (simulator.getCommandCount() - commands != 6) { System.err.println("testBlocks - commands of the block <> 6"); };
+
+		long start = index.getHeight() + 5;
+		simulator.execute("simulator", "grant", "\"" + windowed + "\"", "\"issue\"", "0", String.valueOf(start), String.valueOf(start + 5));
+		watcher.poll();
+		if (index.hasPermission(windowed, "issue", start - 1)) { System.err.println("testBlocks - issue before the window"); };
+		if (!index.hasPermission(windowed, "issue", start)) { System.err.println("testBlocks - issue not at the start of the window"); };
+		if (index.hasPermission(windowed, "issue", start + 5)) { System.err.println("testBlocks - issue at the end of the window"); };
+
+		GrantCommand.revoke(granted, GrantCommand.SEND);
+		watcher.poll();
+		if (index.hasPermission(granted, "send")) { System.err.println("testBlocks - revoke not seen after the block"); };
+		if (!index.hasPermission(granted, "receive")) { System.err.println("testBlocks - receive revoked"); };
+	}
+
+	private static void testLargeBlocks(MultichainSimulator simulator, PermissionIndex index) throws Exception {
+		String granted = AddressCommand.getNewAddress().getAddress();
+		BlockTransactionFetcher fetcher = new BlockTransactionFetcher();
+		fetcher.addListener(index);
+		BlockWatcher watcher = new BlockWatcher(1000);
+		watcher.addListener(fetcher);
+		watcher.poll();
+
+		fetcher.setMaxBlockLookups(0);
+		GrantCommand.grant(granted, GrantCommand.CONNECT);
+		watcher.poll();
+		if (index.size() != 0) { System.err.println("testLargeBlocks - index kept after a large block"); };
+		if (!index.hasPermission(granted, "connect")) { System.err.println("testLargeBlocks - grant not seen after reload"); };
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		System.out.println("--- Start of PermissionIndexTest ---");
+
+		MultichainSimulator simulator = new MultichainSimulator(42);
+		ChainCommand.initializeChain("simulator");
+		ChainCommand.setTransport(simulator);
+		IssueCommand.issue(simulator.getDefaultAddress(), "asset1", 10000, 0.01f);
+
+		PermissionIndex index = new PermissionIndex();
+		testLoad(simulator, index);
+		testBlocks(simulator, index);
+		testLargeBlocks(simulator, index);
+
+		ChainCommand.setTransport(null);
+
+		System.out.println("--- End of PermissionIndexTest ---");
+	}
+
+}
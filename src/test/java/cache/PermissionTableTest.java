@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import multichain.command.AddressCommand;
+import multichain.command.ChainCommand;
+import multichain.command.GrantCommand;
+import multichain.command.IssueCommand;
+import multichain.command.MultichainException;
+import multichain.command.StreamCommand;
+import multichain.command.cache.PermissionTable;
+import multichain.command.simulator.MultichainSimulator;
+import multichain.object.Permission;
+import multichain.object.PermissionEntity;
+
+/**
+ * @version 1.0
+ */
+public class PermissionTableTest {
+
+	private static Permission permission(String address, String type, String stream, long startblock, long endblock) {
+		Permission permission = new Permission();
+		permission.setAddress(address);
+		permission.setType(type);
+		permission.setStartblock(startblock);
+		permission.setEndblock(endblock);
+		if (stream != null) {
+			PermissionEntity entity = new PermissionEntity();
+			entity.setType("stream");
+			entity.setName(stream);
+			permission.setEntity(entity);
+		}
+		return permission;
+	}
+
+	private static void testFlags() {
+		PermissionTable table = new PermissionTable(16);
+		table.grant("address0", GrantCommand.SEND | GrantCommand.RECEIVE);
+		table.grant("address1", GrantCommand.CREATE);
+
+		if (!table.has("address0", GrantCommand.SEND | GrantCommand.RECEIVE)) { System.err.println("testFlags - address0 can not send and receive"); };
+		if (table.has("address0", GrantCommand.SEND | GrantCommand.ADMIN)) { System.err.println("testFlags - address0 admin"); };
+		if (table.has("address0", GrantCommand.CREATE)) { System.err.println("testFlags - address0 can create"); };
+		if (!table.has("address1", "create")) { System.err.println("testFlags - address1 can not create"); };
+		if (table.has("unknown", GrantCommand.SEND)) { System.err.println("testFlags - unknown address can send"); };
+		if (table.getPermissions("address0") != (GrantCommand.SEND | GrantCommand.RECEIVE)) { System.err.println("testFlags - permissions of address0 <> send,receive"); };
+
+		table.revoke("address0", GrantCommand.SEND);
+		if (table.has("address0", "send") || !table.has("address0", "receive")) { System.err.println("testFlags - revoke of send"); };
+	}
+
+	private static void testBulk() {
+		List<Permission> permissions = new ArrayList<Permission>();
+		for (int i = 0; i < 100000; i++) {
+			permissions.add(permission("address" + i, i % 2 == 0 ? "send" : "receive", null, 0, 4294967295L));
+			if (i % 10 == 0) {
+				permissions.add(permission("address" + i, "write", "stream1", 0, 4294967295L));
+				permissions.add(permission("address" + i, "admin", "stream1", 0, 4294967295L));
+			}
+		}
+		permissions.add(permission("later", "send", null, 1000, 4294967295L));
+
+		PermissionTable table = new PermissionTable(16);
+		table.addAll(permissions, 10);
+
+		if (table.size() != 100000) { System.err.println("testBulk - size <> 100000"); };
+		if (table.count("send") != 50000) { System.err.println("testBulk - senders <> 50000"); };
+		if (table.count("admin") != 0) { System.err.println("testBulk - stream admin kept as global admin"); };
+		if (!table.has("address99998", "send") || table.has("address99999", "send")) { System.err.println("testBulk - send of address99998 and address99999"); };
+		if (!table.canWrite("address99990", "stream1") || table.canWrite("address99991", "stream1")) { System.err.println("testBulk - write of stream1"); };
+		if (table.canWrite("address99990", "stream2")) { System.err.println("testBulk - write of stream2"); };
+		if (table.idOf("later") != -1) { System.err.println("testBulk - permission out of its window added"); };
+		if (!"address42".equals(table.addressOf(table.idOf("address42")))) { System.err.println("testBulk - id of address42"); };
+
+		table.revokeWrite("address99990", "stream1");
+		if (table.canWrite("address99990", "stream1")) { System.err.println("testBulk - write of stream1 revoked"); };
+	}
+
+	private static void testLoad(MultichainSimulator simulator) throws MultichainException {
+		String granted = AddressCommand.getNewAddress().getAddress();
+		GrantCommand.grant(granted, GrantCommand.SEND | GrantCommand.RECEIVE);
+		StreamCommand.createStream("stream1", false);
+
+		PermissionTable table = new PermissionTable();
+		table.load();
+		if (!table.has(granted, GrantCommand.SEND | GrantCommand.RECEIVE)) { System.err.println("testLoad - grant of send and receive not loaded"); };
+		if (!table.has(simulator.getDefaultAddress(), GrantCommand.ADMIN)) { System.err.println("testLoad - default address not admin"); };
+		if (!table.canWrite(simulator.getDefaultAddress(), "stream1")) { System.err.println("testLoad - default address can not write stream1"); };
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		System.out.println("--- Start of PermissionTableTest ---");
+
+		testFlags();
+		testBulk();
+
+		MultichainSimulator simulator = new MultichainSimulator(42);
+		ChainCommand.initializeChain("simulator");
+		ChainCommand.setTransport(simulator);
+		IssueCommand.issue(simulator.getDefaultAddress(), "asset1", 10000, 0.01f);
+
+		testLoad(simulator);
+
+		ChainCommand.setTransport(null);
+
+		System.out.println("--- End of PermissionTableTest ---");
+	}
+
+}
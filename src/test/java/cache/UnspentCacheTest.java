@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import multichain.command.AddressCommand;
+import multichain.command.ChainCommand;
+import multichain.command.IssueCommand;
+import multichain.command.MultichainException;
+import multichain.command.MultichainInsufficientFundsException;
+import multichain.command.WalletTransactionCommand;
+import multichain.command.cache.UnspentCache;
+import multichain.command.cache.UnspentSelection;
+import multichain.command.events.BlockWatcher;
+import multichain.command.simulator.MultichainSimulator;
+import multichain.object.BalanceAsset;
+import multichain.object.Block;
+
+/**
+ * @version 1.0
+ */
+public class UnspentCacheTest {
+
+	private static double balance(String address) throws MultichainException {
+		double qty = 0;
+		for (BalanceAsset asset : AddressCommand.getAddressBalances(address)) {
+			qty += asset.getQty();
+		}
+		return qty;
+	}
+
+	private static void testConcurrentSends(MultichainSimulator simulator) throws Exception {
+		String sender = AddressCommand.getNewAddress().getAddress();
+		String receiver = AddressCommand.getNewAddress().getAddress();
+		for (int i = 0; i < 8; i++) {
+			IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), sender, "asset1", 100f);
+		}
+		if (WalletTransactionCommand.listUnspent(sender).size() != 8) { System.err.println("testConcurrentSends - unspent outputs <> 8"); };
+
+		UnspentCache cache = new UnspentCache();
+		simulator.setLatencyMicros("sendrawtransaction", 2000, 5000);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<String>> sends = new ArrayList<Future<String>>();
+		for (int i = 0; i < 8; i++) {
+			sends.add(executor.submit(() -> cache.send(sender, receiver, Collections.singletonMap("asset1", 60.0))));
+		}
+		for (Future<String> send : sends) {
+			try {
+				send.get();
+			} catch (Exception e) {
+				System.err.println("testConcurrentSends - send failed : " + e.getCause());
+			}
+		}
+		executor.shutdown();
+		simulator.setLatencyMicros("sendrawtransaction", 0, 0);
+
+		if (balance(receiver) != 480) { System.err.println("testConcurrentSends - receiver balance <> 480 : " + balance(receiver)); };
+		if (balance(sender) != 320) { System.err.println("testConcurrentSends - sender balance <> 320 : " + balance(sender)); };
+		if (cache.getAvailableCount(sender) != 8) { System.err.println("testConcurrentSends - change outputs <> 8"); };
+		if (cache.getReservedCount(sender) != 0) { System.err.println("testConcurrentSends - reserved outputs left"); };
+
+		cache.send(sender, receiver, Collections.singletonMap("asset1", 60.0));
+		if (balance(sender) != 260) { System.err.println("testConcurrentSends - sender balance <> 260"); };
+		if (cache.getAvailableCount(sender) != 7) { System.err.println("testConcurrentSends - outputs after merge <> 7"); };
+	}
+
+	private static void testSelection(MultichainSimulator simulator) throws MultichainException {
+		String sender = AddressCommand.getNewAddress().getAddress();
+		IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), sender, "asset1", 30f);
+		IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), sender, "asset1", 20f);
+
+		UnspentCache cache = new UnspentCache();
+		UnspentSelection first = cache.select(sender, Collections.singletonMap("asset1", 10.0));
+		UnspentSelection second = cache.select(sender, Collections.singletonMap("asset1", 10.0));
+		if (first.getInputs().get(0).getOutpoint().equals(second.getInputs().get(0).getOutpoint())) { System.err.println("testSelection - same input selected twice"); };
+		if (first.getChange().get("asset1") != 20) { System.err.println("testSelection - change <> 20"); };
+
+		try {
+			cache.select(sender, Collections.singletonMap("asset1", 10.0));
+			System.err.println("testSelection - no insufficient funds error");
+		} catch (MultichainInsufficientFundsException e) {
+			// expected
+		}
+
+		cache.release(first);
+		cache.release(second);
+		if (cache.getAvailableCount(sender) != 2 || cache.getReservedCount(sender) != 0) { System.err.println("testSelection - outputs not released"); };
+		if (cache.select(sender, Collections.singletonMap("asset1", 45.0)).getInputs().size() != 2) { System.err.println("testSelection - inputs <> 2"); };
+	}
+
+	private static void testSpentOutside(MultichainSimulator simulator) throws MultichainException {
+		String sender = AddressCommand.getNewAddress().getAddress();
+		IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), sender, "asset1", 50f);
+
+		UnspentCache cache = new UnspentCache();
+		cache.release(cache.select(sender, Collections.singletonMap("asset1", 1.0)));
+		IssueCommand.sendAssetFrom(sender, simulator.getDefaultAddress(), "asset1", 50f);
+		IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), sender, "asset1", 20f);
+
+		cache.send(sender, simulator.getDefaultAddress(), Collections.singletonMap("asset1", 10.0));
+		if (balance(sender) != 10) { System.err.println("testSpentOutside - sender balance <> 10"); };
+	}
+
+	private static void testBlockWatcher(MultichainSimulator simulator) throws MultichainException {
+		BlockWatcher watcher = new BlockWatcher(1000);
+		List<Block> blocks = new ArrayList<Block>();
+		watcher.addListener(blocks::add);
+
+		if (watcher.poll() != 0) { System.err.println("testBlockWatcher - existing blocks delivered"); };
+		String first = simulator.mineBlock();
+		String second = simulator.mineBlock();
+		if (watcher.poll() != 2) { System.err.println("testBlockWatcher - new blocks <> 2"); };
+		if (blocks.size() != 2 || !first.equals(blocks.get(0).getHash()) || !second.equals(blocks.get(1).getHash())) { System.err.println("testBlockWatcher - wrong blocks"); };
+		if (watcher.poll() != 0) { System.err.println("testBlockWatcher - blocks delivered twice"); };
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		System.out.println("--- Start of UnspentCacheTest ---");
+
+		MultichainSimulator simulator = new MultichainSimulator(42);
+		ChainCommand.initializeChain("simulator");
+		ChainCommand.setTransport(simulator);
+		IssueCommand.issue(simulator.getDefaultAddress(), "asset1", 10000, 0.01f);
+
+		testConcurrentSends(simulator);
+		testSelection(simulator);
+		testSpentOutside(simulator);
+		testBlockWatcher(simulator);
+
+		ChainCommand.setTransport(null);
+
+		System.out.println("--- End of UnspentCacheTest ---");
+	}
+
+}
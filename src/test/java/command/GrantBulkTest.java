@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package command;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import multichain.command.AddressCommand;
+import multichain.command.ChainCommand;
+import multichain.command.GrantCommand;
+import multichain.command.IssueCommand;
+import multichain.command.MultichainException;
+import multichain.command.cache.PermissionTable;
+import multichain.command.simulator.MultichainSimulator;
+
+/**
+ * @version 1.0
+ */
+public class GrantBulkTest {
+
+	private static List<String> newAddresses(int count) throws MultichainException {
+		List<String> addresses = new ArrayList<String>(count);
+		for (int i = 0; i < count; i++) {
+			addresses.add(AddressCommand.getNewAddress().getAddress());
+		}
+		return addresses;
+	}
+
+	private static void testGrantBulk(MultichainSimulator simulator) throws Exception {
+		List<String> addresses = newAddresses(1200);
+		addresses.add(addresses.get(0));
+
+		long commands = simulator.getCommandCount();
+		Map<String, CompletableFuture<String>> txids = GrantCommand.grantBulk(addresses, GrantCommand.SEND | GrantCommand.RECEIVE, 500, 2);
+		Set<String> distinct = new HashSet<String>();
+		for (CompletableFuture<String> txid : txids.values()) {
+			distinct.add(txid.get());
+		}
+		if (txids.size() != 1200) { System.err.println("testGrantBulk - results <> 1200"); };
+		if (distinct.size() != 3) { System.err.println("testGrantBulk - transactions <> 3"); };
+		if (simulator.getCommandCount() != commands + 3) { System.err.println("testGrantBulk - commands <> 3"); };
+
+		PermissionTable table = new PermissionTable();
+		table.load();
+		for (String address : addresses) {
+			if (!table.has(address, GrantCommand.SEND | GrantCommand.RECEIVE)) { System.err.println("testGrantBulk - " + address + " not granted"); break; };
+		}
+
+		txids = GrantCommand.revokeBulk(addresses, GrantCommand.SEND);
+		for (CompletableFuture<String> txid : txids.values()) {
+			txid.get();
+		}
+		table.load();
+		if (table.count("send") != 1) { System.err.println("testGrantBulk - senders after revoke <> 1"); };
+		if (table.count("receive") != 1201) { System.err.println("testGrantBulk - receivers after revoke <> 1201"); };
+	}
+
+	private static void testChunkFailure() throws Exception {
+		List<String> addresses = newAddresses(10);
+		addresses.add(5, "invalid-address");
+
+		Map<String, CompletableFuture<String>> txids = GrantCommand.grantBulk(addresses, GrantCommand.CONNECT, 5, 3);
+		if (txids.get(addresses.get(0)).isCompletedExceptionally() || txids.get(addresses.get(0)).get() == null) { System.err.println("testChunkFailure - first chunk failed"); };
+		try {
+			txids.get(addresses.get(6)).get();
+			System.err.println("testChunkFailure - chunk of the invalid address sent");
+		} catch (ExecutionException e) {
+			if (!(e.getCause() instanceof MultichainException)) { System.err.println("testChunkFailure - cause not a MultichainException"); };
+		}
+		if (txids.get(addresses.get(10)).get() == null) { System.err.println("testChunkFailure - last chunk failed"); };
+
+		try {
+			GrantCommand.grantBulk(addresses, GrantCommand.CONNECT, 0, 1);
+			System.err.println("testChunkFailure - chunk size 0 accepted");
+		} catch (MultichainException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		System.out.println("--- Start of GrantBulkTest ---");
+
+		MultichainSimulator simulator = new MultichainSimulator(42);
+		ChainCommand.initializeChain("simulator");
+		ChainCommand.setTransport(simulator);
+		IssueCommand.issue(simulator.getDefaultAddress(), "asset1", 10000, 0.01f);
+
+		testGrantBulk(simulator);
+		testChunkFailure();
+
+		ChainCommand.setTransport(null);
+
+		System.out.println("--- End of GrantBulkTest ---");
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package command;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import multichain.command.AddressCommand;
+import multichain.command.ChainCommand;
+import multichain.command.IssueCommand;
+import multichain.command.MultichainException;
+import multichain.command.simulator.MultichainSimulator;
+import multichain.object.MultiBalance;
+import multichain.object.Quantity;
+
+/**
+ * @version 1.0
+ */
+public class MultiBalancesChunkTest {
+
+	private static void testChunks(MultichainSimulator simulator) throws MultichainException {
+		List<String> addresses = new ArrayList<String>();
+		for (int i = 0; i < 1200; i++) {
+			String address = AddressCommand.getNewAddress().getAddress();
+			if (i % 100 == 0) {
+				IssueCommand.sendAssetToAddress(address, "asset1", Quantity.ofRaw(i + 1, 100));
+			}
+			addresses.add(address);
+		}
+		addresses.add(addresses.get(0));
+
+		AtomicInteger chunks = new AtomicInteger();
+		AtomicInteger chunkBalances = new AtomicInteger();
+		long commands = simulator.getCommandCount();
+		List<MultiBalance> balances = AddressCommand.getMultiBalances(addresses, 500, 3, chunk -> {
+			chunks.incrementAndGet();
+			chunkBalances.addAndGet(chunk.size());
+		});
+
+		if (simulator.getCommandCount() != commands + 3) { System.err.println("testChunks - commands <> 3"); };
+		if (chunks.get() != 3) { System.err.println("testChunks - chunks given to the callback <> 3"); };
+		if (chunkBalances.get() != 1203) { System.err.println("testChunks - balances given to the callback <> 1203"); };
+		if (balances.size() != 1201) { System.err.println("testChunks - balances <> 1201"); return; };
+		if (!balances.get(0).getLabel().equals(addresses.get(0)) || !balances.get(1199).getLabel().equals(addresses.get(1199))) { System.err.println("testChunks - balances not in the order of the addresses"); };
+		if (balances.get(100).getFirstAsset().getQty() != 1.01) { System.err.println("testChunks - balance of address 100 <> 1.01"); };
+
+		MultiBalance total = balances.get(1200);
+		if (!"total".equals(total.getLabel())) { System.err.println("testChunks - last balance not the total"); };
+		if (total.getFirstAsset().getQty() != 66.12) { System.err.println("testChunks - total " + total.getFirstAsset().getQty() + " <> 66.12"); };
+
+		if (AddressCommand.getMultiBalances(addresses.subList(0, 10)).size() != 11) { System.err.println("testChunks - default chunks"); };
+
+		try {
+			AddressCommand.getMultiBalances(addresses, 0, 1, null);
+			System.err.println("testChunks - chunk size 0 accepted");
+		} catch (MultichainException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		System.out.println("--- Start of MultiBalancesChunkTest ---");
+
+		MultichainSimulator simulator = new MultichainSimulator(42);
+		ChainCommand.initializeChain("simulator");
+		ChainCommand.setTransport(simulator);
+		IssueCommand.issue(simulator.getDefaultAddress(), "asset1", 10000, 0.01f);
+
+		testChunks(simulator);
+
+		ChainCommand.setTransport(null);
+
+		System.out.println("--- End of MultiBalancesChunkTest ---");
+	}
+
+}
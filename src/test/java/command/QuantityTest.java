@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package command;
+
+import java.util.List;
+
+import multichain.command.AddressCommand;
+import multichain.command.ChainCommand;
+import multichain.command.IssueCommand;
+import multichain.command.MultichainException;
+import multichain.command.cache.AssetRegistry;
+import multichain.command.simulator.MultichainSimulator;
+import multichain.object.BalanceAsset;
+import multichain.object.Quantity;
+
+/**
+ * @version 1.0
+ */
+public class QuantityTest {
+
+	private static void testDecimals() {
+		if (Quantity.parseRaw("12.35", 100) != 1235) { System.err.println("testDecimals - raw of 12.35 <> 1235"); };
+		if (Quantity.parseRaw("-0.5", 100) != -50) { System.err.println("testDecimals - raw of -0.5 <> -50"); };
+		if (Quantity.parseRaw("7", 1) != 7) { System.err.println("testDecimals - raw of 7 <> 7"); };
+		if (Quantity.parseRaw("1.50", 10) != 15) { System.err.println("testDecimals - trailing zero refused"); };
+		if (Quantity.parseRaw("1e2", 100) != 10000) { System.err.println("testDecimals - raw of 1e2 <> 10000"); };
+		if (Quantity.parseRaw("1.5", 2) != 3) { System.err.println("testDecimals - raw of 1.5 with multiple 2 <> 3"); };
+
+		if (!"12.35".equals(Quantity.toDecimal(1235, 100))) { System.err.println("testDecimals - 1235/100 <> 12.35"); };
+		if (!"12.3".equals(Quantity.toDecimal(1230, 100))) { System.err.println("testDecimals - trailing zero written"); };
+		if (!"12".equals(Quantity.toDecimal(1200, 100))) { System.err.println("testDecimals - 1200/100 <> 12"); };
+		if (!"-0.05".equals(Quantity.toDecimal(-5, 100))) { System.err.println("testDecimals - -5/100 <> -0.05"); };
+		if (!"0.00000001".equals(Quantity.toDecimal(1, 100000000))) { System.err.println("testDecimals - exponent written"); };
+		if (!"0.5".equals(Quantity.toDecimal(1, 2))) { System.err.println("testDecimals - 1/2 <> 0.5"); };
+		if (!"92233720368547758.07".equals(Quantity.toDecimal(Long.MAX_VALUE, 100))) { System.err.println("testDecimals - max raw not exact"); };
+		if (!"-9223372036854775808".equals(Quantity.toDecimal(Long.MIN_VALUE, 1))) { System.err.println("testDecimals - min raw <> -9223372036854775808"); };
+		if (!"-92233720368547758.08".equals(Quantity.toDecimal(Long.MIN_VALUE, 100))) { System.err.println("testDecimals - min raw not exact"); };
+
+		try {
+			Quantity.parseRaw("0.001", 100);
+			System.err.println("testDecimals - excess precision accepted");
+		} catch (ArithmeticException e) {
+			// expected
+		}
+		try {
+			Quantity.parseRaw("abc", 100);
+			System.err.println("testDecimals - not a number accepted");
+		} catch (NumberFormatException e) {
+			// expected
+		}
+	}
+
+	private static void testArithmetic() {
+		Quantity tenth = Quantity.parse("0.1", 100);
+		Quantity sum = Quantity.ofRaw(0, 100);
+		for (int i = 0; i < 10; i++) {
+			sum = sum.plus(tenth);
+		}
+		if (!sum.equals(Quantity.parse("1", 100))) { System.err.println("testArithmetic - ten tenths <> 1"); };
+		if (sum.minus(tenth).times(2).getRaw() != 180) { System.err.println("testArithmetic - (1 - 0.1) * 2 <> 1.8"); };
+		if (tenth.compareTo(sum) >= 0) { System.err.println("testArithmetic - 0.1 >= 1"); };
+
+		try {
+			Quantity.ofRaw(Long.MAX_VALUE, 100).plus(tenth);
+			System.err.println("testArithmetic - overflow not detected");
+		} catch (ArithmeticException e) {
+			// expected
+		}
+		try {
+			tenth.plus(Quantity.ofRaw(1, 10));
+			System.err.println("testArithmetic - quantities of different multiples added");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private static void testRaw() {
+		if (Quantity.toRaw(0.1, Quantity.FINEST_MULTIPLE) != 10000000) { System.err.println("testRaw - raw of 0.1 <> 10000000"); };
+		if (Quantity.toDouble(10000000, Quantity.FINEST_MULTIPLE) != 0.1) { System.err.println("testRaw - 10000000 <> 0.1"); };
+		if (Quantity.addExact(1235, 100, 15, 100) != 1250) { System.err.println("testRaw - 1235 + 15 <> 1250"); };
+		if (Quantity.subtractExact(1235, 100, 1250, 100) != -15) { System.err.println("testRaw - 1235 - 1250 <> -15"); };
+
+		try {
+			Quantity.addExact(Long.MAX_VALUE, 100, 1, 100);
+			System.err.println("testRaw - overflow not detected");
+		} catch (ArithmeticException e) {
+			// expected
+		}
+		try {
+			Quantity.subtractExact(Long.MIN_VALUE, 100, 1, 100);
+			System.err.println("testRaw - underflow not detected");
+		} catch (ArithmeticException e) {
+			// expected
+		}
+		try {
+			Quantity.addExact(1, 100, 1, 10);
+			System.err.println("testRaw - raw units of different multiples added");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			Quantity.toRaw(1e12, Quantity.FINEST_MULTIPLE);
+			System.err.println("testRaw - quantity out of range converted");
+		} catch (ArithmeticException e) {
+			// expected
+		}
+	}
+
+	private static void testSend(MultichainSimulator simulator) throws MultichainException {
+		AssetRegistry registry = new AssetRegistry();
+		String address = AddressCommand.getNewAddress().getAddress();
+		Quantity quantity = registry.quantity("asset1", "1234567.89");
+		IssueCommand.sendAssetToAddress(address, "asset1", quantity);
+		IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), address, "asset1", registry.quantity("asset1", "0.11"));
+
+		List<BalanceAsset> balances = AddressCommand.getAddressBalances(address);
+		long raw = balances.isEmpty() ? 0 : registry.toRaw("asset1", balances.get(0).getQty());
+		if (raw != 123456800) { System.err.println("testSend - balance " + raw + " <> 123456800"); };
+
+		try {
+			IssueCommand.sendAssetToAddress(address, "asset1", Quantity.ofRaw(0, 100));
+			System.err.println("testSend - null quantity sent");
+		} catch (MultichainException e) {
+			// expected
+		}
+		try {
+			registry.quantity("asset1", "0.001");
+			System.err.println("testSend - quantity finer than the asset accepted");
+		} catch (MultichainException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		System.out.println("--- Start of QuantityTest ---");
+
+		testDecimals();
+		testArithmetic();
+		testRaw();
+
+		MultichainSimulator simulator = new MultichainSimulator(42);
+		ChainCommand.initializeChain("simulator");
+		ChainCommand.setTransport(simulator);
+		IssueCommand.issue(simulator.getDefaultAddress(), "asset1", 10000000, 0.01f);
+
+		testSend(simulator);
+
+		ChainCommand.setTransport(null);
+
+		System.out.println("--- End of QuantityTest ---");
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package formatters;
+
+import java.util.List;
+
+import multichain.object.StreamItem;
+import multichain.object.formatters.AddressFormatter;
+import multichain.object.formatters.FormatterCodec;
+import multichain.object.formatters.StreamFormatter;
+import multichain.object.formatters.StringInterner;
+
+/**
+ * @version 1.0
+ */
+public class FormatterCodecTest {
+
+	private static final String BLOCKHASH = "00a1b2c3d4e5f60718293a4b5c6d7e8f00a1b2c3d4e5f60718293a4b5c6d7e8f";
+	private static final String PUBLISHER = "1BgGZ9tcN4rm9KBzDn7KprQz87SZ26SAMH";
+
+	private static String item(int index, String data) {
+		return "{"
+				+ "\"publishers\" : [\"" + PUBLISHER + "\"],"
+				+ "\"key\" : \"key1\","
+				+ "\"data\" : \"" + data + "\","
+				+ "\"confirmations\" : 3,"
+				+ "\"blockhash\" : \"" + BLOCKHASH + "\","
+				+ "\"blockindex\" : " + index + ","
+				+ "\"valid\" : true,"
+				+ "\"txid\" : \"" + (index % 10) + BLOCKHASH.substring(1) + "\"}";
+	}
+
+	private static String items() {
+		StringBuilder data = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			data.append("0a");
+		}
+		return "[" + item(1, data.toString()) + "," + item(2, data.toString()) + "]";
+	}
+
+	private static void testInterner() {
+		StringInterner interner = new StringInterner(1000);
+		if (interner.getCapacity() != 1024) { System.err.println("testInterner - capacity <> 1024"); };
+
+		String first = new String(PUBLISHER);
+		String second = new String(PUBLISHER);
+		if (interner.intern(first) != first) { System.err.println("testInterner - first instance not kept"); };
+		if (interner.intern(second) != first) { System.err.println("testInterner - equal instance not deduplicated"); };
+		if (interner.intern(null) != null) { System.err.println("testInterner - null interned"); };
+
+		interner.clear();
+		if (interner.intern(second) != second) { System.err.println("testInterner - instance kept after clear"); };
+
+		StringInterner single = new StringInterner(1);
+		for (int i = 0; i < 100; i++) {
+			single.intern("value" + i);
+		}
+		if (single.getCapacity() != 2) { System.err.println("testInterner - table grown"); };
+	}
+
+	private static void testDeduplication() {
+		List<StreamItem> plain = StreamFormatter.formatStreamItemList(items());
+		if (plain.get(0).getBlockhash() == plain.get(1).getBlockhash()) { System.err.println("testDeduplication - blockhash deduplicated by default"); };
+
+		StringInterner interner = new StringInterner();
+		FormatterCodec.enableDeduplication(interner);
+		try {
+			if (FormatterCodec.getInterner() != interner) { System.err.println("testDeduplication - interner not set"); };
+
+			List<StreamItem> items = StreamFormatter.formatStreamItemList(items());
+			StreamItem first = items.get(0);
+			StreamItem second = items.get(1);
+			if (!BLOCKHASH.equals(first.getBlockhash())) { System.err.println("testDeduplication - blockhash <> " + BLOCKHASH); };
+			if (first.getBlockhash() != second.getBlockhash()) { System.err.println("testDeduplication - blockhash not deduplicated"); };
+			if (first.getPublishers().get(0) != second.getPublishers().get(0)) { System.err.println("testDeduplication - publisher not deduplicated"); };
+			if (first.getKey() != second.getKey()) { System.err.println("testDeduplication - key not deduplicated"); };
+			if (first.getData() == second.getData()) { System.err.println("testDeduplication - long data deduplicated"); };
+			if (!first.getData().equals(second.getData())) { System.err.println("testDeduplication - data <> data"); };
+			if (first.getBlockindex() != 1 || !first.getValid() || first.getConfirmations() != 3) { System.err.println("testDeduplication - other fields"); };
+
+			List<String> addresses = AddressFormatter.formatAddressesStringList("[\"" + PUBLISHER + "\"]");
+			if (addresses.get(0) != first.getPublishers().get(0)) { System.err.println("testDeduplication - address not shared between formatters"); };
+			if (AddressFormatter.formatAddressesStringList("[null]").get(0) != null) { System.err.println("testDeduplication - null <> null"); };
+		} finally {
+			FormatterCodec.disableDeduplication();
+		}
+
+		if (FormatterCodec.getInterner() != null) { System.err.println("testDeduplication - interner kept after disable"); };
+		List<StreamItem> again = StreamFormatter.formatStreamItemList(items());
+		if (again.get(0).getBlockhash() == again.get(1).getBlockhash()) { System.err.println("testDeduplication - blockhash deduplicated after disable"); };
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		System.out.println("--- Start of FormatterCodecTest ---");
+
+		testInterner();
+		testDeduplication();
+
+		System.out.println("--- End of FormatterCodecTest ---");
+	}
+
+}
@@ -73,6 +73,32 @@ public class GrantFormatterTest {
 
 	}
 
+	private static void testformatPermissionFor() {
+		String jsonPermissions = "["
+				+ "{"
+				+ "\"address\" : \"aBcDeFgH123IjKlMnOp456\","
+				+ "\"for\" : null,"
+				+ "\"type\" : \"admin\","
+				+ "\"startblock\" : 0,"
+				+ "\"endblock\" : 4294967295"
+				+ "},"
+				+ "{"
+				+ "\"address\" : \"aBcDeFgH123IjKlMnOp456\","
+				+ "\"for\" : {\"type\" : \"stream\", \"name\" : \"stream1\", \"streamref\" : \"53-266-4\"},"
+				+ "\"type\" : \"admin\","
+				+ "\"startblock\" : 0,"
+				+ "\"endblock\" : 4294967295"
+				+ "}"
+				+ "]";
+		List<Permission> permissionList = GrantFormatter.formatPermissionList(jsonPermissions);
+
+		if (permissionList.get(0).getEntity() != null) { System.err.println("testformatPermissionFor - entity[0] <> null"); };
+		if (permissionList.get(1).getEntity() == null) { System.err.println("testformatPermissionFor - entity[1] is null"); return; };
+		if (!"stream".equals(permissionList.get(1).getEntity().getType())) { System.err.println("testformatPermissionFor - entity type[1] <> stream"); };
+		if (!"stream1".equals(permissionList.get(1).getEntity().getName())) { System.err.println("testformatPermissionFor - entity name[1] <> stream1"); };
+
+	}
+
 	/**
 	 * @param args
 	 */
@@ -81,6 +107,7 @@ public class GrantFormatterTest {
 
 		testformatPermission();
 		testformatPermissions();
+		testformatPermissionFor();
 
 		System.out.println("--- End of GrantFormatterTest ---");
 	}
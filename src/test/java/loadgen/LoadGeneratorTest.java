@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package loadgen;
+
+import multichain.command.ChainCommand;
+import multichain.command.MultichainException;
+import multichain.command.loadgen.LoadGenerator;
+import multichain.command.loadgen.LoadProfile;
+import multichain.command.loadgen.LoadReport;
+import multichain.command.loadgen.LoadReport.Operation;
+import multichain.command.simulator.MultichainSimulator;
+
+/**
+ * @version 1.0
+ */
+public class LoadGeneratorTest {
+
+	private static void testRunOnSimulator() throws MultichainException, InterruptedException {
+		MultichainSimulator simulator = new MultichainSimulator(42);
+		simulator.setLatencyMicros(100, 500);
+		ChainCommand.initializeChain("simulator");
+		ChainCommand.setTransport(simulator);
+
+		LoadProfile profile = new LoadProfile();
+		profile.setFromAddress(simulator.getDefaultAddress());
+		profile.setTargetRate(500);
+		profile.setDurationSeconds(1);
+		profile.setWarmupSeconds(0);
+		profile.setWriteRatio(0.5);
+
+		LoadGenerator generator = new LoadGenerator(profile);
+		generator.prepare();
+		LoadReport report = generator.run();
+
+		long total = 0;
+		for (Operation operation : Operation.values()) {
+			total += report.getCount(operation);
+			if (report.getErrors(operation) != 0) { System.err.println("testRunOnSimulator - errors for " + operation); };
+		}
+		if (total != 500) { System.err.println("testRunOnSimulator - operations <> 500 : " + total); };
+		if (report.getCount(Operation.PUBLISH) == 0) { System.err.println("testRunOnSimulator - no publish"); };
+		if (report.getResponseTime(Operation.PUBLISH, 50) < 100000) { System.err.println("testRunOnSimulator - p50 below injected latency"); };
+		if (report.toCsv().split("\n").length != 4) { System.err.println("testRunOnSimulator - csv lines <> 4"); };
+
+		ChainCommand.setTransport(null);
+	}
+
+	private static void expectInvalid(LoadProfile profile, String property) {
+		try {
+			new LoadGenerator(profile);
+			System.err.println("testProfileChecks - invalid " + property + " accepted");
+		} catch (IllegalArgumentException e) {
+			if (!e.getMessage().startsWith(property + "=")) { System.err.println("testProfileChecks - message <> " + property + " : " + e.getMessage()); };
+		}
+	}
+
+	private static void testProfileChecks() throws Exception {
+		LoadProfile profile = new LoadProfile();
+		profile.setPayloadMinBytes(200);
+		profile.setPayloadMaxBytes(100);
+		profile.setPayloadDistribution(LoadProfile.PayloadDistribution.UNIFORM);
+		expectInvalid(profile, "payloadMaxBytes");
+		profile.setPayloadMinBytes(-1);
+		expectInvalid(profile, "payloadMinBytes");
+		profile.setPayloadMinBytes(100);
+		new LoadGenerator(profile);
+
+		profile.setTargetRate(0);
+		expectInvalid(profile, "targetRate");
+		profile.setTargetRate(100);
+		profile.setConcurrency(0);
+		expectInvalid(profile, "concurrency");
+		profile.setConcurrency(1);
+		profile.setDurationSeconds(0);
+		expectInvalid(profile, "durationSeconds");
+		profile.setDurationSeconds(1);
+		profile.setWarmupSeconds(-1);
+		expectInvalid(profile, "warmupSeconds");
+
+		try {
+			LoadGenerator.main(new String[] { "--simulator", "--rate=0" });
+			System.err.println("testProfileChecks - --rate=0 accepted");
+		} catch (IllegalArgumentException e) {
+			if (!e.getMessage().startsWith("Invalid option --rate=0")) { System.err.println("testProfileChecks - message <> --rate=0 : " + e.getMessage()); };
+		} finally {
+			ChainCommand.setTransport(null);
+		}
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		System.out.println("--- Start of LoadGeneratorTest ---");
+
+		testRunOnSimulator();
+		testProfileChecks();
+
+		System.out.println("--- End of LoadGeneratorTest ---");
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package metrics;
+
+import multichain.command.metrics.CommandMetrics;
+import multichain.command.metrics.CommandMetricsRegistry;
+import multichain.command.metrics.LatencyHistogram;
+
+/**
+ * @version 1.0
+ */
+public class LatencyHistogramTest {
+
+	private static void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long value = 1; value <= 100000; value++) {
+			histogram.record(value * 1000);
+		}
+
+		if (histogram.getCount() != 100000) { System.err.println("testPercentiles - count <> 100000"); };
+		if (histogram.getMax() != 100000000L) { System.err.println("testPercentiles - max <> 100000000"); };
+		checkPrecision("p50", histogram.getValueAtPercentile(50), 50000000L);
+		checkPrecision("p99", histogram.getValueAtPercentile(99), 99000000L);
+		checkPrecision("p100", histogram.getValueAtPercentile(100), 100000000L);
+		checkPrecision("mean", histogram.getMean(), 50000500L);
+	}
+
+	private static void checkPrecision(String name, double value, long expected) {
+		if (Math.abs(value - expected) > expected * 0.016) { System.err.println("testPercentiles - " + name + " " + String.format("%.0f", value) + " <> " + expected); };
+	}
+
+	private static void testSmallValues() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(3);
+		histogram.record(-5);
+
+		if (histogram.getValueAtPercentile(100) != 3) { System.err.println("testSmallValues - p100 <> 3"); };
+		if (histogram.getValueAtPercentile(50) != 0) { System.err.println("testSmallValues - p50 <> 0"); };
+		histogram.reset();
+		if (histogram.getCount() != 0) { System.err.println("testSmallValues - count after reset <> 0"); };
+	}
+
+	private static void testRegistry() {
+		CommandMetricsRegistry registry = new CommandMetricsRegistry();
+		registry.recordCall("LISTSTREAMKEYITEMS");
+		registry.recordTransport("LISTSTREAMKEYITEMS", 2000000, 50, 4000);
+		registry.recordParse("LISTSTREAMKEYITEMS", 9000000);
+		registry.recordError("LISTSTREAMKEYITEMS");
+
+		CommandMetrics metrics = registry.get("LISTSTREAMKEYITEMS");
+		if (metrics.getCalls() != 1) { System.err.println("testRegistry - calls <> 1"); };
+		if (metrics.getErrors() != 1) { System.err.println("testRegistry - errors <> 1"); };
+		if (metrics.getBytesIn() != 4000) { System.err.println("testRegistry - bytesIn <> 4000"); };
+		if (metrics.getParseP99Micros() < metrics.getTransportP99Micros()) { System.err.println("testRegistry - parse p99 < transport p99"); };
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		System.out.println("--- Start of LatencyHistogramTest ---");
+
+		testPercentiles();
+		testSmallValues();
+		testRegistry();
+
+		System.out.println("--- End of LatencyHistogramTest ---");
+	}
+
+}
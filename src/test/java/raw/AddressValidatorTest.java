@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package raw;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import multichain.command.AddressCommand;
+import multichain.command.ChainCommand;
+import multichain.command.MultichainException;
+import multichain.command.raw.AddressCodec;
+import multichain.command.raw.AddressValidator;
+import multichain.command.raw.Hex;
+import multichain.command.simulator.MultichainSimulator;
+
+/**
+ * @version 1.0
+ */
+public class AddressValidatorTest {
+
+	private static final String ADDRESS = "1BgGZ9tcN4rm9KBzDn7KprQz87SZ26SAMH";
+	private static final String SCRIPT_ADDRESS = "3J98t1WpEZ73CNmQviecrnyiWrnqRhWNLy";
+
+	private static void testCodec() throws MultichainException {
+		if (!AddressCodec.BITCOIN.isValid(ADDRESS)) { System.err.println("testCodec - " + ADDRESS + " not valid"); };
+		if (!AddressCodec.BITCOIN.isScriptHash(SCRIPT_ADDRESS)) { System.err.println("testCodec - " + SCRIPT_ADDRESS + " not a script hash"); };
+		if (AddressCodec.BITCOIN.isValid("1BgGZ9tcN4rm9KBzDn7KprQz87SZ26SAMJ")) { System.err.println("testCodec - wrong checksum valid"); };
+		if (AddressCodec.BITCOIN.isValid("1BgGZ9tcN4rm9KBzDn7KprQz87SZ26SAM0")) { System.err.println("testCodec - not Base58 valid"); };
+		if (AddressCodec.BITCOIN.isValid("")) { System.err.println("testCodec - empty address valid"); };
+		if (AddressCodec.BITCOIN.isValid(null)) { System.err.println("testCodec - null address valid"); };
+
+		if (!ADDRESS.equals(AddressCodec.BITCOIN.addressOf(AddressCodec.BITCOIN.outputScript(ADDRESS)))) { System.err.println("testCodec - address of the pay to public key hash script"); };
+		if (!SCRIPT_ADDRESS.equals(AddressCodec.BITCOIN.addressOf(AddressCodec.BITCOIN.outputScript(SCRIPT_ADDRESS)))) { System.err.println("testCodec - address of the pay to script hash script"); };
+		if (AddressCodec.BITCOIN.addressOf(Hex.decode("6a0401020304")) != null) { System.err.println("testCodec - address of a data script"); };
+
+		AddressCodec chain = new AddressCodec("00e8c48f", "0528e93c", "8082c9d1", "b6e8c9d7");
+		String address = chain.encodePubKeyHash(new byte[20]);
+		if (!chain.isValid(address)) { System.err.println("testCodec - address of a 4 bytes version chain not valid"); };
+		if (AddressCodec.BITCOIN.isValid(address)) { System.err.println("testCodec - address of another chain valid"); };
+		if (chain.isValid(ADDRESS)) { System.err.println("testCodec - Bitcoin address valid on another chain"); };
+	}
+
+	private static void testBatch() throws MultichainException {
+		AddressValidator validator = new AddressValidator(AddressCodec.BITCOIN);
+		List<String> addresses = new ArrayList<String>();
+		byte[] hash = new byte[20];
+		for (int i = 0; i < 5000; i++) {
+			hash[0] = (byte) i;
+			hash[1] = (byte) (i >> 8);
+			addresses.add(AddressCodec.BITCOIN.encodePubKeyHash(hash));
+		}
+		addresses.set(17, "not-an-address");
+		addresses.set(4321, addresses.get(4321).substring(1));
+
+		boolean[] valid = validator.isValid(addresses);
+		if (valid.length != 5000) { System.err.println("testBatch - results <> 5000"); };
+		if (valid[17] || valid[4321] || !valid[0] || !valid[4999]) { System.err.println("testBatch - wrong results"); };
+		if (!validator.invalid(addresses).equals(Arrays.asList(addresses.get(17), addresses.get(4321)))) { System.err.println("testBatch - invalid addresses"); };
+	}
+
+	private static void testChain(MultichainSimulator simulator) throws MultichainException {
+		AddressValidator validator = new AddressValidator();
+		String mine = AddressCommand.getNewAddress().getAddress();
+
+		long commands = simulator.getCommandCount();
+		if (!validator.isValid(mine)) { System.err.println("testChain - wallet address not valid"); };
+		if (validator.isValid(mine + "1")) { System.err.println("testChain - longer address valid"); };
+		if (!validator.validate(SCRIPT_ADDRESS).isIsscript()) { System.err.println("testChain - script address not isscript"); };
+		if (simulator.getCommandCount() != commands + 1) { System.err.println("testChain - parameters not read once"); };
+
+		commands = simulator.getCommandCount();
+		if (!validator.isMine(mine)) { System.err.println("testChain - wallet address not mine"); };
+		if (validator.isMine(ADDRESS)) { System.err.println("testChain - other address mine"); };
+		if (validator.isMine("not-an-address")) { System.err.println("testChain - invalid address mine"); };
+		if (simulator.getCommandCount() != commands + 2) { System.err.println("testChain - validateaddress called for an invalid address"); };
+		if (validator.validateWithWallet("not-an-address").isIsvalid()) { System.err.println("testChain - invalid address valid"); };
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		System.out.println("--- Start of AddressValidatorTest ---");
+
+		testCodec();
+		testBatch();
+
+		MultichainSimulator simulator = new MultichainSimulator(42);
+		ChainCommand.initializeChain("simulator");
+		ChainCommand.setTransport(simulator);
+
+		testChain(simulator);
+
+		ChainCommand.setTransport(null);
+
+		System.out.println("--- End of AddressValidatorTest ---");
+	}
+
+}
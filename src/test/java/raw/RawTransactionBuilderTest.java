@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package raw;
+
+import multichain.command.MultichainException;
+import multichain.command.raw.AddressCodec;
+import multichain.command.raw.Base58;
+import multichain.command.raw.Hex;
+import multichain.command.raw.RawTransaction;
+import multichain.command.raw.RawTransactionBuilder;
+import multichain.object.AddressBalanceAsset;
+import multichain.object.BalanceAssetBase;
+import multichain.object.TransactionRAW;
+import multichain.object.formatters.RAWTransactionFormatter;
+import multichain.object.queryobjects.TxIdVout;
+
+/**
+ * @version 1.0
+ */
+public class RawTransactionBuilderTest {
+
+	static final String ADDRESS = "1A1zP1eP5QGefi2DMPTfTL5SLmv7DivfNa";
+	static final String PUBKEYHASH = "62e907b15cbf27d5425399ebf6f0fb50ebb88f18";
+	static final String INPUT_TXID = "3697978f311078f917faf1bbd836fb2709b1a8830dcf24b23f5e8311705aa707";
+	static final String ISSUE_TXID = "69773ce91da4af37d358d660db9a9edde8885704c73e7d818be426612ec4da3c";
+
+	/**
+	 * Transaction sending 3 Asset3 and 0.5 native currency to ADDRESS, with
+	 * metadata f00d, in the shape of decoderawtransaction. Written by hand
+	 * from the MultiChain serialization, not from the output of
+	 * {@link RawTransactionBuilder} : the spkq script holds the short txid of
+	 * Asset3, bytes 16 to 31 of ISSUE_TXID in serialized order
+	 * (dd9e9adb60d658d337afa41de93c7769, the first 16 displayed bytes
+	 * reversed), followed by the raw quantity in little endian.
+	 */
+	static final String DECODED = "{"
+			+ "\"txid\" : \"\","
+			+ "\"version\" : 1,"
+			+ "\"locktime\" : 0,"
+			+ "\"vin\" : [{"
+			+ "\"txid\" : \"" + INPUT_TXID + "\","
+			+ "\"vout\" : 1,"
+			+ "\"scriptSig\" : {\"asm\" : \"\", \"hex\" : \"\"},"
+			+ "\"sequence\" : 4294967295"
+			+ "}],"
+			+ "\"vout\" : [{"
+			+ "\"value\" : 0.50000000,"
+			+ "\"n\" : 0,"
+			+ "\"scriptPubKey\" : {"
+			+ "\"asm\" : \"OP_DUP OP_HASH160 " + PUBKEYHASH + " OP_EQUALVERIFY OP_CHECKSIG 73706b71dd9e9adb60d658d337afa41de93c77690300000000000000 OP_DROP\","
+			+ "\"hex\" : \"76a914" + PUBKEYHASH + "88ac1c73706b71dd9e9adb60d658d337afa41de93c7769030000000000000075\","
+			+ "\"reqSigs\" : 1,"
+			+ "\"type\" : \"pubkeyhash\","
+			+ "\"addresses\" : [\"" + ADDRESS + "\"]"
+			+ "},"
+			+ "\"assets\" : [{\"name\" : \"Asset3\", \"issuetxid\" : \"" + ISSUE_TXID + "\", \"assetref\" : \"5872-267-30569\", \"qty\" : 3.00000000, \"raw\" : 3, \"type\" : \"transfer\"}],"
+			+ "\"permissions\" : [],"
+			+ "\"items\" : []"
+			+ "},{"
+			+ "\"value\" : 0.00000000,"
+			+ "\"n\" : 1,"
+			+ "\"scriptPubKey\" : {\"asm\" : \"OP_RETURN f00d\", \"hex\" : \"6a02f00d\", \"type\" : \"nulldata\"},"
+			+ "\"assets\" : [],"
+			+ "\"permissions\" : [],"
+			+ "\"items\" : []"
+			+ "}],"
+			+ "\"data\" : [\"f00d\"]"
+			+ "}";
+
+	private static void testBase58() {
+		if (!"1111111111111111111114oLvT2".equals(AddressCodec.BITCOIN.encodePubKeyHash(new byte[20]))) { System.err.println("testBase58 - zero address"); };
+		if (!ADDRESS.equals(AddressCodec.BITCOIN.encodePubKeyHash(Hex.decode(PUBKEYHASH)))) { System.err.println("testBase58 - address <> " + ADDRESS); };
+		if (!PUBKEYHASH.equals(Hex.encode(Base58.decode(ADDRESS), 1, 20))) { System.err.println("testBase58 - decoded hash <> " + PUBKEYHASH); };
+		if (!AddressCodec.BITCOIN.isValid(ADDRESS)) { System.err.println("testBase58 - address not valid"); };
+		if (AddressCodec.BITCOIN.isValid("1A1zP1eP5QGefi2DMPTfTL5SLmv7DivfNb")) { System.err.println("testBase58 - wrong checksum valid"); };
+	}
+
+	private static void testMultichainAddress() throws MultichainException {
+		AddressCodec codec = new AddressCodec("00afea21", "0571a3e6", "8075fa23", "953abc69");
+		String address = codec.encodePubKeyHash(Hex.decode(PUBKEYHASH));
+
+		byte[] extended = Base58.decode(address);
+		if (extended.length != 28) { System.err.println("testMultichainAddress - length <> 28"); };
+		if (extended[0] != 0x00 || extended[6] != (byte) 0xaf || extended[12] != (byte) 0xea || extended[18] != 0x21) { System.err.println("testMultichainAddress - version bytes not spread"); };
+		if (!codec.isValid(address)) { System.err.println("testMultichainAddress - address not valid"); };
+		if (codec.isValid(ADDRESS)) { System.err.println("testMultichainAddress - bitcoin address valid"); };
+		if (!Hex.encode(codec.outputScript(address)).equals("76a914" + PUBKEYHASH + "88ac")) { System.err.println("testMultichainAddress - script"); };
+		if (!codec.isValid(codec.encodeScriptHash(Hex.decode(PUBKEYHASH)))) { System.err.println("testMultichainAddress - script address not valid"); };
+	}
+
+	private static void testBuild() throws MultichainException {
+		AddressBalanceAsset output = new AddressBalanceAsset();
+		output.setAddress(ADDRESS);
+		output.addAsset(quantity("Asset3", 3));
+		output.addAsset(quantity(AddressBalanceAsset.NATIVE_CURRENCY, 0.5));
+
+		RawTransaction transaction = new RawTransactionBuilder(AddressCodec.BITCOIN)
+				.defineAsset("Asset3", ISSUE_TXID, 1)
+				.addInput(new TxIdVout(INPUT_TXID, 1))
+				.addOutput(output)
+				.addMetaData("f00d")
+				.build();
+
+		TransactionRAW decoded = RAWTransactionFormatter.formatTransactionRAW(DECODED);
+		String expected = "01000000"
+				+ "01" + Hex.encode(Hex.decodeReversed(INPUT_TXID)) + "01000000" + "00" + "ffffffff"
+				+ "02"
+				+ "80f0fa0200000000" + "37" + decoded.getVout().get(0).getScriptPubKey().getHex()
+				+ "0000000000000000" + "04" + decoded.getVout().get(1).getScriptPubKey().getHex()
+				+ "00000000";
+		if (!expected.equals(transaction.toHex())) { System.err.println("testBuild - hex <> " + expected + " : " + transaction.toHex()); };
+		if (!decoded.getVin().get(0).getTxid().equals(transaction.getInputs().get(0).getTxid())) { System.err.println("testBuild - vin txid"); };
+		if (Math.round(decoded.getVout().get(0).getValue() * 100000000L) != transaction.getOutputs().get(0).getValue()) { System.err.println("testBuild - vout value"); };
+	}
+
+	private static void testMergedOutputs() throws MultichainException {
+		AddressBalanceAsset first = new AddressBalanceAsset();
+		first.setAddress(ADDRESS);
+		first.addAsset(quantity("Asset3", 1));
+		AddressBalanceAsset second = new AddressBalanceAsset();
+		second.setAddress(ADDRESS);
+		second.addAsset(quantity("Asset3", 2));
+
+		RawTransaction transaction = new RawTransactionBuilder(AddressCodec.BITCOIN)
+				.defineAsset("Asset3", ISSUE_TXID, 1)
+				.addInput(new TxIdVout(INPUT_TXID, 1))
+				.addOutput(first)
+				.addOutput(second)
+				.build();
+		if (transaction.getOutputs().size() != 1) { System.err.println("testMergedOutputs - outputs <> 1"); };
+		if (!Hex.encode(transaction.getOutputs().get(0).getScript()).endsWith("030000000000000075")) { System.err.println("testMergedOutputs - quantity <> 3"); };
+
+		try {
+			new RawTransactionBuilder(AddressCodec.BITCOIN).addInput(new TxIdVout(INPUT_TXID, 1)).addOutput(first).build();
+			System.err.println("testMergedOutputs - undefined asset accepted");
+		} catch (MultichainException e) {
+			// expected
+		}
+	}
+
+	private static BalanceAssetBase quantity(String name, double qty) {
+		BalanceAssetBase asset = new BalanceAssetBase();
+		asset.setName(name);
+		asset.setQty(qty);
+		return asset;
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws MultichainException {
+		System.out.println("--- Start of RawTransactionBuilderTest ---");
+
+		testBase58();
+		testMultichainAddress();
+		testBuild();
+		testMergedOutputs();
+
+		System.out.println("--- End of RawTransactionBuilderTest ---");
+	}
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package raw;
+
+import java.util.Collections;
+
+import multichain.command.MultichainException;
+import multichain.command.raw.AddressCodec;
+import multichain.command.raw.Hex;
+import multichain.command.raw.RawTransaction;
+import multichain.command.raw.RawTransactionBuilder;
+import multichain.command.raw.RawTransactionDecoder;
+import multichain.object.AddressBalanceAsset;
+import multichain.object.BalanceAsset;
+import multichain.object.BalanceAssetBase;
+import multichain.object.TransactionRAW;
+import multichain.object.TransactionRAWVout;
+import multichain.object.formatters.RAWTransactionFormatter;
+import multichain.object.queryobjects.TxIdVout;
+
+/**
+ * @version 1.0
+ */
+public class RawTransactionDecoderTest {
+
+	private static RawTransactionDecoder decoder() {
+		BalanceAsset asset = new BalanceAsset();
+		asset.setName("Asset3");
+		asset.setIssuetxid(RawTransactionBuilderTest.ISSUE_TXID);
+		asset.setAssetref("5872-267-30569");
+		asset.setMultiple(1);
+		return new RawTransactionDecoder(AddressCodec.BITCOIN).defineAssets(Collections.singletonList(asset));
+	}
+
+	private static void testDecode() throws MultichainException {
+		AddressBalanceAsset output = new AddressBalanceAsset();
+		output.setAddress(RawTransactionBuilderTest.ADDRESS);
+		output.addAsset(quantity("Asset3", 3));
+		output.addAsset(quantity(AddressBalanceAsset.NATIVE_CURRENCY, 0.5));
+		RawTransaction built = new RawTransactionBuilder(AddressCodec.BITCOIN)
+				.defineAsset("Asset3", RawTransactionBuilderTest.ISSUE_TXID, 1)
+				.addInput(new TxIdVout(RawTransactionBuilderTest.INPUT_TXID, 1))
+				.addOutput(output)
+				.addMetaData("f00d")
+				.build();
+
+		TransactionRAW expected = RAWTransactionFormatter.formatTransactionRAW(RawTransactionBuilderTest.DECODED);
+		TransactionRAW decoded = decoder().decode(built.toHex());
+
+		if (!built.getTxid().equals(decoded.getTxid())) { System.err.println("testDecode - txid <> " + built.getTxid()); };
+		if (decoded.getVersion() != expected.getVersion() || decoded.getLocktime() != expected.getLocktime()) { System.err.println("testDecode - version or locktime"); };
+		if (!expected.getVin().get(0).getTxid().equals(decoded.getVin().get(0).getTxid())) { System.err.println("testDecode - vin txid"); };
+		if (decoded.getVin().get(0).getVout() != 1) { System.err.println("testDecode - vin vout <> 1"); };
+		if (decoded.getVin().get(0).getSequence() != expected.getVin().get(0).getSequence()) { System.err.println("testDecode - vin sequence"); };
+		if (decoded.getVout().size() != 2) { System.err.println("testDecode - vout size <> 2"); };
+
+		for (int n = 0; n < 2; n++) {
+			TransactionRAWVout expectedVout = expected.getVout().get(n);
+			TransactionRAWVout decodedVout = decoded.getVout().get(n);
+			if (decodedVout.getN() != n) { System.err.println("testDecode - vout[" + n + "].n"); };
+			if (decodedVout.getValue() != expectedVout.getValue()) { System.err.println("testDecode - vout[" + n + "].value <> " + expectedVout.getValue()); };
+			if (!expectedVout.getScriptPubKey().getHex().equals(decodedVout.getScriptPubKey().getHex())) { System.err.println("testDecode - vout[" + n + "].scriptPubKey.hex"); };
+			if (!expectedVout.getScriptPubKey().getType().equals(decodedVout.getScriptPubKey().getType())) { System.err.println("testDecode - vout[" + n + "].scriptPubKey.type"); };
+			if (!expectedVout.getScriptPubKey().getAddresses().equals(decodedVout.getScriptPubKey().getAddresses())) { System.err.println("testDecode - vout[" + n + "].scriptPubKey.addresses"); };
+			if (expectedVout.getAssets().size() != decodedVout.getAssets().size()) { System.err.println("testDecode - vout[" + n + "].assets size"); };
+		}
+		if (!expected.getVout().get(0).getScriptPubKey().getAsm().equals(decoded.getVout().get(0).getScriptPubKey().getAsm())) { System.err.println("testDecode - vout[0].scriptPubKey.asm : " + decoded.getVout().get(0).getScriptPubKey().getAsm()); };
+
+		BalanceAsset expectedAsset = expected.getVout().get(0).getAssets().get(0);
+		BalanceAsset decodedAsset = decoded.getVout().get(0).getAssets().get(0);
+		if (!expectedAsset.getName().equals(decodedAsset.getName())) { System.err.println("testDecode - asset name <> Asset3"); };
+		if (!expectedAsset.getIssuetxid().equals(decodedAsset.getIssuetxid())) { System.err.println("testDecode - asset issuetxid"); };
+		if (!expectedAsset.getAssetref().equals(decodedAsset.getAssetref())) { System.err.println("testDecode - asset assetref"); };
+		if (expectedAsset.getRaw() != decodedAsset.getRaw() || expectedAsset.getQty() != decodedAsset.getQty()) { System.err.println("testDecode - asset quantity <> 3"); };
+		if (!expected.getData().equals(decoded.getData())) { System.err.println("testDecode - data <> [f00d]"); };
+
+		TransactionRAW unknown = new RawTransactionDecoder(AddressCodec.BITCOIN).decode(built.toHex());
+		BalanceAsset unknownAsset = unknown.getVout().get(0).getAssets().get(0);
+		if (unknownAsset.getRaw() != 3 || !RawTransactionBuilderTest.ISSUE_TXID.startsWith(unknownAsset.getIssuetxid())) { System.err.println("testDecode - unknown asset"); };
+	}
+
+	private static void testPermissionsAndCoinbase() throws MultichainException {
+		String script = "76a914" + RawTransactionBuilderTest.PUBKEYHASH + "88ac"
+				+ "14" + "73706b70" + "07000000" + "00000000" + "ffffffff" + "00000000" + "75";
+		String hex = "01000000" + "01" + "0000000000000000000000000000000000000000000000000000000000000000" + "ffffffff" + "03" + "510101" + "ffffffff"
+				+ "01" + "0000000000000000" + Hex.encode(new byte[] { (byte) (script.length() / 2) }) + script
+				+ "00000000";
+
+		TransactionRAW decoded = new RawTransactionDecoder(AddressCodec.BITCOIN).decode(hex);
+		if (!"510101".equals(decoded.getVin().get(0).getCoinbase())) { System.err.println("testPermissionsAndCoinbase - coinbase <> 510101"); };
+		if (decoded.getVout().get(0).getPermissions().size() != 1) { System.err.println("testPermissionsAndCoinbase - permissions size <> 1"); };
+		if (!"connect,send,receive".equals(decoded.getVout().get(0).getPermissions().get(0).getType())) { System.err.println("testPermissionsAndCoinbase - permission type"); };
+		if (decoded.getVout().get(0).getPermissions().get(0).getEndblock() != 4294967295L) { System.err.println("testPermissionsAndCoinbase - endblock"); };
+		if (!RawTransactionBuilderTest.ADDRESS.equals(decoded.getVout().get(0).getPermissions().get(0).getAddress())) { System.err.println("testPermissionsAndCoinbase - permission address"); };
+	}
+
+	private static void testParse() throws MultichainException {
+		String hex = new RawTransactionBuilder(AddressCodec.BITCOIN)
+				.addInput(new TxIdVout(RawTransactionBuilderTest.INPUT_TXID, 2))
+				.addMetaData("f00d")
+				.build().toHex();
+		if (!hex.equals(RawTransactionDecoder.parse(hex).toHex())) { System.err.println("testParse - parse and serialize differ"); };
+
+		try {
+			decoder().decode(hex.substring(0, hex.length() - 2));
+			System.err.println("testParse - truncated transaction decoded");
+		} catch (MultichainException e) {
+			// expected
+		}
+	}
+
+	private static BalanceAssetBase quantity(String name, double qty) {
+		BalanceAssetBase asset = new BalanceAssetBase();
+		asset.setName(name);
+		asset.setQty(qty);
+		return asset;
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws MultichainException {
+		System.out.println("--- Start of RawTransactionDecoderTest ---");
+
+		testDecode();
+		testPermissionsAndCoinbase();
+		testParse();
+
+		System.out.println("--- End of RawTransactionDecoderTest ---");
+	}
+
+}
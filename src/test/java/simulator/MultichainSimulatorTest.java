@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package simulator;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import multichain.command.AddressCommand;
+import multichain.command.BlockCommand;
+import multichain.command.ChainCommand;
+import multichain.command.IssueCommand;
+import multichain.command.MultichainException;
+import multichain.command.MultichainInsufficientFundsException;
+import multichain.command.MultichainTransientException;
+import multichain.command.RAWTransactionCommand;
+import multichain.command.StreamCommand;
+import multichain.command.WalletTransactionCommand;
+import multichain.command.simulator.MultichainSimulator;
+import multichain.object.BalanceAsset;
+import multichain.object.StreamItem;
+import multichain.object.TransactionWallet;
+
+/**
+ * @version 1.0
+ */
+public class MultichainSimulatorTest {
+
+	private static void testStreams() throws MultichainException {
+		StreamCommand.createStream("stream1", false);
+		StreamCommand.publishStream("stream1", "key1", "cafe");
+		StreamCommand.publishStream("stream1", "key2", "babe");
+		StreamCommand.publishStream("stream1", "key1", "f00d");
+
+		List<StreamItem> items = StreamCommand.listStreamItems("stream1");
+		if (items.size() != 3) { System.err.println("testStreams - items size <> 3 : " + items.size()); };
+		List<StreamItem> keyItems = StreamCommand.listStreamKeyItems("stream1", "key1");
+		if (keyItems.size() != 2) { System.err.println("testStreams - key items size <> 2 : " + keyItems.size()); };
+		if (!"f00d".equals(keyItems.get(1).getData())) { System.err.println("testStreams - last data <> f00d"); };
+		if (StreamCommand.listStreams("stream1").get(0).getItems() != 3) { System.err.println("testStreams - stream items <> 3"); };
+	}
+
+	private static void testAssets(MultichainSimulator simulator) throws MultichainException {
+		String address = simulator.getDefaultAddress();
+		String other = AddressCommand.getNewAddress().getAddress();
+		IssueCommand.issue(address, "asset1", 1000, 0.01f);
+		String txid = IssueCommand.sendAssetFrom(address, other, "asset1", 12.5f);
+
+		List<BalanceAsset> balances = AddressCommand.getAddressBalances(other);
+		if (balances.size() != 1 || balances.get(0).getQty() != 12.5) { System.err.println("testAssets - balance of other <> 12.5"); };
+
+		try {
+			IssueCommand.sendAssetFrom(other, address, "asset1", 100f);
+			System.err.println("testAssets - no insufficient funds error");
+		} catch (MultichainInsufficientFundsException e) {
+			// expected
+		}
+
+		TransactionWallet transaction = WalletTransactionCommand.getAddressTransaction(other, txid);
+		if (transaction.getBalance().getAssets().get(0).getQty() != 12.5) { System.err.println("testAssets - transaction balance <> 12.5"); };
+	}
+
+	private static void testRawTransactions(MultichainSimulator simulator) throws MultichainException {
+		String other = AddressCommand.getNewAddress().getAddress();
+		Map<String, Object> asset = new HashMap<String, Object>();
+		Map<String, Object> quantities = new HashMap<String, Object>();
+		quantities.put("asset1", 1.5);
+		asset.put(other, quantities);
+		String hex = RAWTransactionCommand.createRawSendFrom(simulator.getDefaultAddress(), asset, null);
+		String signed = RAWTransactionCommand.signRawTransaction(hex);
+		if (signed.isEmpty()) { System.err.println("testRawTransactions - not signed"); };
+
+		long height = BlockCommand.getBlockCount();
+		String txid = RAWTransactionCommand.sendRawTransaction(RAWTransactionCommand.signRawTransactionWithPrivKey(hex, "[]").getHex());
+		if (BlockCommand.getBlockCount() != height + 1) { System.err.println("testRawTransactions - no new block"); };
+		if (!BlockCommand.getBlock(height + 1).getTx().contains(txid)) { System.err.println("testRawTransactions - txid not in block"); };
+		if (AddressCommand.getAddressBalances(other).get(0).getQty() != 1.5) { System.err.println("testRawTransactions - balance <> 1.5"); };
+	}
+
+	private static void testInjectedErrors(MultichainSimulator simulator) throws MultichainException {
+		simulator.setErrorRate(1);
+		try {
+			BlockCommand.getBlockCount();
+			System.err.println("testInjectedErrors - no error");
+		} catch (MultichainTransientException e) {
+			// expected
+		}
+		simulator.setErrorRate(0);
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws MultichainException {
+		System.out.println("--- Start of MultichainSimulatorTest ---");
+
+		MultichainSimulator simulator = new MultichainSimulator(42);
+		ChainCommand.initializeChain("simulator");
+		ChainCommand.setTransport(simulator);
+
+		testStreams();
+		testAssets(simulator);
+		testRawTransactions(simulator);
+		testInjectedErrors(simulator);
+
+		ChainCommand.setTransport(null);
+
+		System.out.println("--- End of MultichainSimulatorTest ---");
+	}
+
+}
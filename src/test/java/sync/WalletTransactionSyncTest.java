@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package sync;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import multichain.command.AddressCommand;
+import multichain.command.ChainCommand;
+import multichain.command.IssueCommand;
+import multichain.command.MultichainException;
+import multichain.command.WalletTransactionCommand;
+import multichain.command.simulator.MultichainSimulator;
+import multichain.command.sync.WalletTransactionSync;
+import multichain.object.TransactionWallet;
+
+/**
+ * @version 1.0
+ */
+public class WalletTransactionSyncTest {
+
+	private static List<String> txids(List<TransactionWallet> transactions) {
+		List<String> txids = new ArrayList<String>();
+		for (TransactionWallet transaction : transactions) {
+			txids.add(transaction.getTxid());
+		}
+		return txids;
+	}
+
+	private static void testSync(MultichainSimulator simulator, Path directory) throws MultichainException {
+		String address = AddressCommand.getNewAddress().getAddress();
+		for (int i = 0; i < 5; i++) {
+			IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), address, "asset1", 1f);
+		}
+
+		WalletTransactionSync sync = new WalletTransactionSync(directory);
+		sync.setPageSize(2);
+		sync.setConfirmationDepth(3);
+		List<TransactionWallet> first = sync.sync(address);
+		List<String> expected = txids(WalletTransactionCommand.listAddressTransactions(address, 100));
+		if (!expected.equals(txids(first))) { System.err.println("testSync - first sync <> listaddresstransactions"); };
+
+		long commands = simulator.getCommandCount();
+		if (!sync.sync(address).isEmpty()) { System.err.println("testSync - changes without new transaction"); };
+		if (simulator.getCommandCount() - commands != 2) { System.err.println("testSync - pages fetched <> 2 : " + (simulator.getCommandCount() - commands)); };
+
+		String txid = IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), address, "asset1", 1f);
+		List<TransactionWallet> changes = sync.sync(address);
+		if (changes.size() != 3 || !txid.equals(changes.get(2).getTxid())) { System.err.println("testSync - changes <> 2 updated and 1 new : " + changes.size()); };
+		if (!expected.get(4).equals(changes.get(1).getTxid()) || changes.get(1).getConfirmations() != 2) { System.err.println("testSync - confirmations not updated"); };
+
+		expected.add(txid);
+		if (!expected.equals(txids(sync.getTransactions(address)))) { System.err.println("testSync - log <> listaddresstransactions"); };
+		if (!expected.equals(txids(new WalletTransactionSync(directory).getTransactions(address)))) { System.err.println("testSync - log not persisted"); };
+	}
+
+	private static void testCutLine(MultichainSimulator simulator, Path directory) throws Exception {
+		String address = AddressCommand.getNewAddress().getAddress();
+		IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), address, "asset1", 1f);
+		new WalletTransactionSync(directory).sync(address);
+		Path log = directory.resolve(address + ".log");
+		Files.write(log, "{\"transaction\":{\"txid\":\"ab".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+		WalletTransactionSync sync = new WalletTransactionSync(directory);
+		if (sync.getTransactions(address).size() != 1) { System.err.println("testCutLine - transactions before the cut line <> 1"); };
+		String txid = IssueCommand.sendAssetFrom(simulator.getDefaultAddress(), address, "asset1", 1f);
+		sync.sync(address);
+
+		List<String> txids = txids(new WalletTransactionSync(directory).getTransactions(address));
+		if (txids.size() != 2 || !txid.equals(txids.get(1))) { System.err.println("testCutLine - record after the cut line lost : " + txids); };
+	}
+
+	private static void testSyncWallet(Path directory) throws MultichainException {
+		WalletTransactionSync sync = new WalletTransactionSync(directory);
+		List<TransactionWallet> transactions = sync.syncWallet();
+		if (transactions.isEmpty()) { System.err.println("testSyncWallet - no transaction"); };
+		if (!sync.syncWallet().isEmpty()) { System.err.println("testSyncWallet - changes without new transaction"); };
+		if (sync.getWalletTransactions().size() != transactions.size()) { System.err.println("testSyncWallet - log size"); };
+
+		try {
+			WalletTransactionCommand.listWalletTransaction(10, 0);
+		} catch (MultichainException e) {
+			System.err.println("testSyncWallet - skip of 0 rejected");
+		}
+	}
+
+	private static void testInvalidAddress(Path directory) {
+		WalletTransactionSync sync = new WalletTransactionSync(directory);
+		for (String address : new String[] { "../outside", "sub/address", "wallet" }) {
+			try {
+				sync.sync(address);
+				System.err.println("testInvalidAddress - " + address + " accepted");
+			} catch (MultichainException e) {
+				// expected
+			}
+			try {
+				sync.getTransactions(address);
+				System.err.println("testInvalidAddress - log of " + address + " read");
+			} catch (MultichainException e) {
+				// expected
+			}
+		}
+		if (Files.exists(directory.resolveSibling("outside.log"))) { System.err.println("testInvalidAddress - log written out of the directory"); };
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		System.out.println("--- Start of WalletTransactionSyncTest ---");
+
+		MultichainSimulator simulator = new MultichainSimulator(42);
+		ChainCommand.initializeChain("simulator");
+		ChainCommand.setTransport(simulator);
+		IssueCommand.issue(simulator.getDefaultAddress(), "asset1", 10000, 0.01f);
+
+		Path directory = Files.createTempDirectory("wallet-sync");
+		try {
+			testSync(simulator, directory);
+			testCutLine(simulator, directory);
+			testSyncWallet(directory);
+			testInvalidAddress(directory);
+		} finally {
+			try (Stream<Path> files = Files.walk(directory)) {
+				files.sorted(Comparator.reverseOrder()).forEach(file -> {
+					try {
+						Files.delete(file);
+					} catch (IOException e) {
+						// left in the temporary directory
+					}
+				});
+			}
+		}
+
+		ChainCommand.setTransport(null);
+
+		System.out.println("--- End of WalletTransactionSyncTest ---");
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package tools;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import multichain.command.BlockCommand;
+import multichain.command.ChainCommand;
+import multichain.command.MultichainException;
+import multichain.command.MultichainInsufficientFundsException;
+import multichain.command.MultichainInvalidParameterException;
+import multichain.command.MultichainRPCException;
+import multichain.command.MultichainTransientException;
+import multichain.command.tools.MultichainErrorParser;
+import multichain.command.tools.RetryPolicy;
+import multichain.command.transport.TransportResponse;
+
+/**
+ * @version 1.0
+ */
+public class MultichainErrorParserTest {
+
+	private static void testParseCodeMessage() {
+		MultichainRPCException e = MultichainErrorParser.parse("getinfo", "error code: -28\nerror message:\nLoading block index...");
+
+		if (!(e instanceof MultichainTransientException)) { System.err.println("testParseCodeMessage - not transient"); };
+		if (e.getCode() != -28) { System.err.println("testParseCodeMessage - code <> -28"); };
+		if (!"Loading block index...".equals(e.getRpcMessage())) { System.err.println("testParseCodeMessage - message <> Loading block index..."); };
+		if (!"getinfo".equals(e.getCommand())) { System.err.println("testParseCodeMessage - command <> getinfo"); };
+	}
+
+	private static void testParseJson() {
+		MultichainRPCException e = MultichainErrorParser.parse("sendassetfrom", "error: {\"code\":-6,\"message\":\"Insufficient funds\"}");
+
+		if (!(e instanceof MultichainInsufficientFundsException)) { System.err.println("testParseJson - not insufficient funds"); };
+		if (e.isTransient()) { System.err.println("testParseJson - transient"); };
+		if (e.getCode() != -6) { System.err.println("testParseJson - code <> -6"); };
+	}
+
+	private static void testParsePlain() {
+		MultichainRPCException e = MultichainErrorParser.parse("getinfo", "error: couldn't connect to server");
+
+		if (!e.isTransient()) { System.err.println("testParsePlain - not transient"); };
+		if (e.getCode() != MultichainRPCException.NO_CODE) { System.err.println("testParsePlain - code <> NO_CODE"); };
+	}
+
+	private static void testParseInvalidParameter() {
+		MultichainRPCException e = MultichainErrorParser.parse("validateaddress", "error code: -5\nerror message:\nInvalid address");
+
+		if (!(e instanceof MultichainInvalidParameterException)) { System.err.println("testParseInvalidParameter - not invalid parameter"); };
+	}
+
+	private static void testRetryPolicy() {
+		RetryPolicy policy = new RetryPolicy(3, 100, 1000);
+		MultichainRPCException transientError = MultichainErrorParser.create("getinfo", -28, "Loading block index...");
+		MultichainRPCException permanentError = MultichainErrorParser.create("sendassetfrom", -6, "Insufficient funds");
+
+		if (!policy.shouldRetry(transientError, 1)) { System.err.println("testRetryPolicy - transient not retried"); };
+		if (policy.shouldRetry(transientError, 3)) { System.err.println("testRetryPolicy - retried after max attempts"); };
+		if (policy.shouldRetry(permanentError, 1)) { System.err.println("testRetryPolicy - permanent retried"); };
+		policy.addRetryableCodes(-6);
+		if (!policy.shouldRetry(permanentError, 1)) { System.err.println("testRetryPolicy - retryable code not retried"); };
+
+		for (int attempt = 1; attempt < 10; attempt++) {
+			long delay = policy.delayMillis(attempt);
+			long max = Math.min(1000, 100L << (attempt - 1));
+			if (delay < max / 2 || delay > max) { System.err.println("testRetryPolicy - delay " + delay + " out of [" + max / 2 + "," + max + "]"); };
+		}
+	}
+
+	private static void testTransportFailure() throws MultichainException {
+		AtomicInteger calls = new AtomicInteger();
+		ChainCommand.initializeChain("test");
+		ChainCommand.setTransport((chain, command, parameters) -> {
+			if (calls.incrementAndGet() == 1) {
+				throw new IOException("connection reset");
+			}
+			return TransportResponse.success("12");
+		});
+		try {
+			ChainCommand.setRetryPolicy(new RetryPolicy(2, 1, 1));
+			if (BlockCommand.getBlockCount() != 12) { System.err.println("testTransportFailure - block count <> 12"); };
+			if (calls.get() != 2) { System.err.println("testTransportFailure - calls <> 2"); };
+
+			calls.set(0);
+			ChainCommand.setRetryPolicy(RetryPolicy.NONE);
+			try {
+				BlockCommand.getBlockCount();
+				System.err.println("testTransportFailure - transport failure ignored");
+			} catch (MultichainTransientException e) {
+				if (!(e.getCause() instanceof IOException)) { System.err.println("testTransportFailure - cause <> IOException"); };
+			} catch (MultichainException e) {
+				System.err.println("testTransportFailure - not transient : " + e.getClass().getName());
+			}
+
+			ChainCommand.setTransport((chain, command, parameters) -> {
+				throw new InterruptedException();
+			});
+			try {
+				BlockCommand.getBlockCount();
+				System.err.println("testTransportFailure - interruption ignored");
+			} catch (MultichainException e) {
+				if (!Thread.interrupted()) { System.err.println("testTransportFailure - interrupt flag lost"); };
+			}
+		} finally {
+			ChainCommand.setRetryPolicy(RetryPolicy.NONE);
+			ChainCommand.setTransport(null);
+		}
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws MultichainException {
+		System.out.println("--- Start of MultichainErrorParserTest ---");
+
+		testParseCodeMessage();
+		testParseJson();
+		testParsePlain();
+		testParseInvalidParameter();
+		testRetryPolicy();
+		testTransportFailure();
+
+		System.out.println("--- End of MultichainErrorParserTest ---");
+	}
+
+}
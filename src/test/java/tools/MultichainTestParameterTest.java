@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import multichain.command.MultichainException;
+import multichain.command.MultichainParameterException;
+import multichain.command.tools.MultichainTestParameter;
+
+/**
+ * @version 1.0
+ */
+public class MultichainTestParameterTest {
+
+	private static final List<String> LOGGED = new ArrayList<String>();
+
+	private static MultichainParameterException validate() {
+		try {
+			MultichainTestParameter.isNotNullOrEmpty("address", "");
+		} catch (MultichainParameterException e) {
+			return e;
+		} catch (MultichainException e) {
+			System.err.println("validate - not a MultichainParameterException : " + e.getClass().getName());
+		}
+		return null;
+	}
+
+	private static void testDefaultMode() {
+		if (MultichainTestParameter.isLightweightExceptions()) { System.err.println("testDefaultMode - lightweight by default"); };
+
+		LOGGED.clear();
+		MultichainParameterException exception = validate();
+		if (exception == null) { System.err.println("testDefaultMode - no exception"); return; };
+		if (exception.getStackTrace().length == 0) { System.err.println("testDefaultMode - no stack trace"); };
+		if (LOGGED.size() != 1) { System.err.println("testDefaultMode - logged <> 1 : " + LOGGED.size()); };
+		if (!"address : is null or empty.".equals(exception.getMessage())) { System.err.println("testDefaultMode - message <> address : is null or empty."); };
+	}
+
+	private static void testLightweightMode() {
+		MultichainTestParameter.setLightweightExceptions(true);
+		try {
+			if (!MultichainTestParameter.isLightweightExceptions()) { System.err.println("testLightweightMode - mode not set"); };
+
+			LOGGED.clear();
+			MultichainParameterException exception = validate();
+			if (exception == null) { System.err.println("testLightweightMode - no exception"); return; };
+			if (exception.getStackTrace().length != 0) { System.err.println("testLightweightMode - stack trace recorded"); };
+			if (!LOGGED.isEmpty()) { System.err.println("testLightweightMode - exception logged"); };
+			if (!"address : is null or empty.".equals(exception.getMessage())) { System.err.println("testLightweightMode - message <> address : is null or empty."); };
+			if (!"address".equals(exception.getObject())) { System.err.println("testLightweightMode - object <> address"); };
+			if (!"is null or empty.".equals(exception.getReason())) { System.err.println("testLightweightMode - reason <> is null or empty."); };
+		} finally {
+			MultichainTestParameter.setLightweightExceptions(false);
+		}
+
+		LOGGED.clear();
+		MultichainParameterException exception = validate();
+		if (exception == null || exception.getStackTrace().length == 0 || LOGGED.size() != 1) { System.err.println("testLightweightMode - default mode not restored"); };
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		System.out.println("--- Start of MultichainTestParameterTest ---");
+
+		Logger.getLogger(MultichainException.class.getName()).addHandler(new Handler() {
+			@Override
+			public void publish(LogRecord record) {
+				LOGGED.add(record.getMessage());
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+		});
+
+		testDefaultMode();
+		testLightweightMode();
+
+		System.out.println("--- End of MultichainTestParameterTest ---");
+	}
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package tools;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import multichain.command.MultichainException;
+import multichain.command.tools.SingleFlight;
+
+/**
+ * @version 1.0
+ */
+public class SingleFlightTest {
+
+	private static void testConcurrentCallsAreShared() throws InterruptedException {
+		final SingleFlight singleFlight = new SingleFlight();
+		final AtomicInteger calls = new AtomicInteger();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<Object> results = new ArrayList<Object>();
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < 8; i++) {
+			Thread thread = new Thread(() -> {
+				try {
+					Object result = singleFlight.execute(SingleFlight.key("GETBLOCKCOUNT"), () -> {
+						calls.incrementAndGet();
+						started.countDown();
+						while (release.getCount() > 0) {
+							LockSupport.parkNanos(1000000);
+						}
+						return new Object();
+					});
+					synchronized (results) {
+						results.add(result);
+					}
+				} catch (MultichainException e) {
+					e.printStackTrace();
+				}
+			});
+			threads.add(thread);
+			thread.start();
+			if (i == 0) {
+				started.await();
+			}
+		}
+		while (singleFlight.inFlightCount() == 1 && threadsWaiting(threads) < 7) {
+			Thread.sleep(10);
+		}
+		release.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		if (calls.get() != 1) { System.err.println("testConcurrentCallsAreShared - calls <> 1 : " + calls.get()); };
+		if (results.size() != 8) { System.err.println("testConcurrentCallsAreShared - results size <> 8"); };
+		for (Object result : results) {
+			if (result != results.get(0)) { System.err.println("testConcurrentCallsAreShared - result not shared"); };
+		}
+		if (singleFlight.inFlightCount() != 0) { System.err.println("testConcurrentCallsAreShared - inFlightCount <> 0"); };
+	}
+
+	private static void testResultsPerCaller() throws InterruptedException {
+		final SingleFlight singleFlight = new SingleFlight();
+		final AtomicInteger calls = new AtomicInteger();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<List<String>> results = new ArrayList<List<String>>();
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < 4; i++) {
+			Thread thread = new Thread(() -> {
+				try {
+					List<String> result = singleFlight.execute(SingleFlight.key("LISTASSETS"), () -> {
+						calls.incrementAndGet();
+						started.countDown();
+						while (release.getCount() > 0) {
+							LockSupport.parkNanos(1000000);
+						}
+						return "asset1";
+					}, output -> new ArrayList<String>(Collections.singletonList(output)));
+					synchronized (results) {
+						results.add(result);
+					}
+				} catch (MultichainException e) {
+					e.printStackTrace();
+				}
+			});
+			threads.add(thread);
+			thread.start();
+			if (i == 0) {
+				started.await();
+			}
+		}
+		while (threadsWaiting(threads) < 3) {
+			Thread.sleep(10);
+		}
+		release.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		if (calls.get() != 1) { System.err.println("testResultsPerCaller - calls <> 1 : " + calls.get()); };
+		if (results.size() != 4) { System.err.println("testResultsPerCaller - results size <> 4"); return; };
+		for (int i = 1; i < results.size(); i++) {
+			if (results.get(i) == results.get(0)) { System.err.println("testResultsPerCaller - result shared"); };
+			if (!results.get(i).equals(results.get(0))) { System.err.println("testResultsPerCaller - results differ"); };
+		}
+	}
+
+	private static int threadsWaiting(List<Thread> threads) {
+		int waiting = 0;
+		for (Thread thread : threads.subList(1, threads.size())) {
+			if (thread.getState() == Thread.State.WAITING) {
+				waiting++;
+			}
+		}
+		return waiting;
+	}
+
+	private static void testExceptionIsShared() {
+		SingleFlight singleFlight = new SingleFlight();
+		try {
+			singleFlight.execute(SingleFlight.key("LISTASSETS", "asset", true), () -> {
+				throw new MultichainException("asset", "not found");
+			});
+			System.err.println("testExceptionIsShared - no exception thrown");
+		} catch (MultichainException e) {
+			// expected
+		}
+		if (singleFlight.inFlightCount() != 0) { System.err.println("testExceptionIsShared - inFlightCount <> 0"); };
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		System.out.println("--- Start of SingleFlightTest ---");
+
+		testConcurrentCallsAreShared();
+		testExceptionIsShared();
+		testResultsPerCaller();
+
+		System.out.println("--- End of SingleFlightTest ---");
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2017 Worldline, Inc.
+ *
+ * MultiChainJavaAPI code distributed under the GPLv3 license, see COPYING file.
+ * https://github.com/SimplyUb/MultiChainJavaAPI/blob/master/LICENSE
+ *
+ */
+package transfer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import multichain.command.AddressCommand;
+import multichain.command.ChainCommand;
+import multichain.command.IssueCommand;
+import multichain.command.MultichainException;
+import multichain.command.simulator.MultichainSimulator;
+import multichain.command.transfer.Transfer;
+import multichain.command.transfer.TransferEngine;
+import multichain.command.transfer.TransferPlan;
+import multichain.command.transfer.TransferReport;
+import multichain.command.transfer.TransferResult;
+import multichain.object.BalanceAsset;
+import multichain.object.Quantity;
+
+/**
+ * @version 1.0
+ */
+public class TransferEngineTest {
+
+	private static Quantity quantity(String decimal) {
+		return Quantity.parse(decimal, 100);
+	}
+
+	private static String fundedAddress(String decimal) throws MultichainException {
+		String address = AddressCommand.getNewAddress().getAddress();
+		IssueCommand.sendAssetToAddress(address, "asset1", quantity(decimal));
+		return address;
+	}
+
+	private static double balance(String address) throws MultichainException {
+		List<BalanceAsset> balances = AddressCommand.getAddressBalances(address);
+		return balances.isEmpty() ? 0 : balances.get(0).getQty();
+	}
+
+	private static void testNet() throws MultichainException {
+		TransferPlan plan = new TransferPlan();
+		plan.add("a", "b", "asset1", quantity("10"));
+		plan.add("b", "a", "asset1", quantity("4.5"));
+		plan.add("c", "d", "asset1", quantity("1"));
+		plan.add("d", "c", "asset1", quantity("1"));
+		plan.add("b", "a", "asset2", quantity("2"));
+		plan.add("a", "b", "asset1", quantity("0.01"));
+
+		List<Transfer> net = plan.net();
+		if (net.size() != 2) { System.err.println("testNet - net transfers <> 2"); return; };
+		if (!net.get(0).getFrom().equals("a") || !net.get(0).getQuantity().equals(quantity("5.51"))) { System.err.println("testNet - a -> b <> 5.51"); };
+		if (!net.get(1).getFrom().equals("b") || !net.get(1).getAsset().equals("asset2")) { System.err.println("testNet - b -> a of asset2 missing"); };
+
+		try {
+			plan.add("a", "b", "asset1", Quantity.parse("1", 10)).net();
+			System.err.println("testNet - quantities of different multiples netted");
+		} catch (MultichainException e) {
+			// expected
+		}
+		try {
+			plan.add("a", "a", "asset1", quantity("1"));
+			System.err.println("testNet - transfer to itself accepted");
+		} catch (MultichainException e) {
+			// expected
+		}
+	}
+
+	private static void testExecute(MultichainSimulator simulator) throws MultichainException {
+		String address1 = fundedAddress("1000");
+		String address2 = fundedAddress("1000");
+		String address3 = fundedAddress("100");
+		String address4 = fundedAddress("100");
+		List<String> receivers = new ArrayList<String>();
+		for (int i = 0; i < 250; i++) {
+			receivers.add(AddressCommand.getNewAddress().getAddress());
+		}
+
+		TransferPlan plan = new TransferPlan();
+		plan.add(address1, address2, "asset1", quantity("10"));
+		plan.add(address2, address1, "asset1", quantity("4"));
+		plan.add(address3, address4, "asset1", quantity("5"));
+		plan.add(address4, address3, "asset1", quantity("5"));
+		for (String receiver : receivers) {
+			plan.add(address1, receiver, "asset1", quantity("0.01"));
+			plan.add(address2, receiver, "asset1", quantity("0.02"));
+		}
+
+		TransferEngine engine = new TransferEngine();
+		engine.setMaxOutputs(100);
+		long commands = simulator.getCommandCount();
+		TransferReport report = engine.execute(plan);
+
+		if (!report.getFailures().isEmpty()) { System.err.println("testExecute - failures " + report.getFailures()); };
+		if (report.getCount(TransferResult.Status.NETTED) != 2) { System.err.println("testExecute - netted <> 2"); };
+		if (report.getCount(TransferResult.Status.SENT) != 502) { System.err.println("testExecute - sent <> 502"); };
+		if (report.getTransactionCount() != 6) { System.err.println("testExecute - transactions " + report.getTransactionCount() + " <> 6"); };
+		if (simulator.getCommandCount() != commands + 18) { System.err.println("testExecute - commands <> 3 per transaction"); };
+		if (report.getResults().get(0).getTxid() == null || !report.getResults().get(0).getTxid().equals(report.getResults().get(1).getTxid())) {
+			System.err.println("testExecute - opposite transfers not settled by the same transaction");
+		};
+
+		if (balance(address1) != 1000 - 6 - 2.5) { System.err.println("testExecute - balance of address1 " + balance(address1)); };
+		if (balance(address2) != 1000 + 6 - 5) { System.err.println("testExecute - balance of address2 " + balance(address2)); };
+		if (balance(address3) != 100) { System.err.println("testExecute - balance of address3 " + balance(address3)); };
+		if (balance(receivers.get(249)) != 0.03) { System.err.println("testExecute - balance of the last receiver " + balance(receivers.get(249))); };
+	}
+
+	private static void testFailure() throws MultichainException {
+		String address1 = fundedAddress("10");
+		String address2 = fundedAddress("10");
+		String receiver = AddressCommand.getNewAddress().getAddress();
+
+		TransferPlan plan = new TransferPlan();
+		plan.add(address1, receiver, "asset1", quantity("1"));
+		plan.add(address1, address2, "asset1", quantity("100"));
+		plan.add(address1, AddressCommand.getNewAddress().getAddress(), "asset1", quantity("1"));
+		plan.add(address2, receiver, "asset1", quantity("2"));
+
+		TransferEngine engine = new TransferEngine();
+		engine.setMaxOutputs(1);
+		TransferReport report = engine.execute(plan);
+
+		List<TransferResult> results = report.getResults();
+		if (results.get(0).getStatus() != TransferResult.Status.SENT) { System.err.println("testFailure - first transfer not sent"); };
+		if (results.get(1).getStatus() != TransferResult.Status.FAILED || results.get(1).getError() == null) { System.err.println("testFailure - transfer over the balance not failed"); };
+		if (results.get(2).getStatus() != TransferResult.Status.SKIPPED) { System.err.println("testFailure - transfer after the failure not skipped"); };
+		if (results.get(3).getStatus() != TransferResult.Status.SENT) { System.err.println("testFailure - transfer of another address not sent"); };
+		if (report.getFailures().size() != 2) { System.err.println("testFailure - failures <> 2"); };
+		if (balance(receiver) != 3) { System.err.println("testFailure - balance of the receiver <> 3"); };
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		System.out.println("--- Start of TransferEngineTest ---");
+
+		testNet();
+
+		MultichainSimulator simulator = new MultichainSimulator(42);
+		ChainCommand.initializeChain("simulator");
+		ChainCommand.setTransport(simulator);
+		IssueCommand.issue(simulator.getDefaultAddress(), "asset1", 10000, 0.01f);
+
+		testExecute(simulator);
+		testFailure();
+
+		ChainCommand.setTransport(null);
+
+		System.out.println("--- End of TransferEngineTest ---");
+	}
+
+}